@@ -0,0 +1,416 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.audit;
+
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * {@link AuditEventRepository} that stores events in a relational database using JDBC.
+ * Events are added to a bounded buffer and written by a background thread using batch
+ * inserts so that callers do not pay for a database round trip. When the buffer is full
+ * the event is written on the calling thread instead. Pending events are written before
+ * any query is executed so that {@code find} methods always see previously added events.
+ * <p>
+ * Each batch is written in its own transaction. If a batch cannot be written its events
+ * are retried one at a time. Events that still
+ * cannot be written, for example because the database is unavailable, are logged and
+ * discarded.
+ * <p>
+ * Event data is stored as a JSON object. Values that cannot be converted to JSON are
+ * stored as their {@code toString()} representation.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+public class JdbcAuditEventRepository
+		implements AuditEventRepository, InitializingBean, DisposableBean {
+
+	/**
+	 * The default name of the database table used to store audit events.
+	 */
+	public static final String DEFAULT_TABLE_NAME = "AUDIT_EVENT";
+
+	private static final int DEFAULT_CAPACITY = 10000;
+
+	private static final int DEFAULT_BATCH_SIZE = 100;
+
+	private static final long POLL_INTERVAL = 100;
+
+	private static final long DEFAULT_FLUSH_TIMEOUT = 10000;
+
+	private static final Log logger = LogFactory.getLog(JdbcAuditEventRepository.class);
+
+	private static final TypeReference<Map<String, Object>> DATA_TYPE = new TypeReference<Map<String, Object>>() {
+	};
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final Object monitor = new Object();
+
+	private final AtomicLong enqueued = new AtomicLong();
+
+	private long written;
+
+	private String tableName = DEFAULT_TABLE_NAME;
+
+	private int batchSize = DEFAULT_BATCH_SIZE;
+
+	private long flushTimeout = DEFAULT_FLUSH_TIMEOUT;
+
+	private BlockingQueue<AuditEvent> queue = new ArrayBlockingQueue<AuditEvent>(
+			DEFAULT_CAPACITY);
+
+	private volatile Thread writer;
+
+	private volatile boolean running;
+
+	public JdbcAuditEventRepository(DataSource dataSource) {
+		Assert.notNull(dataSource, "DataSource must not be null");
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.transactionTemplate = new TransactionTemplate(
+				new DataSourceTransactionManager(dataSource));
+		this.transactionTemplate.setPropagationBehavior(
+				TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
+
+	/**
+	 * Set the name of the database table used to store audit events.
+	 * @param tableName the table name
+	 */
+	public void setTableName(String tableName) {
+		Assert.hasText(tableName, "TableName must not be empty");
+		this.tableName = tableName.trim();
+	}
+
+	/**
+	 * Set the maximum number of events that may be buffered before they are written on
+	 * the calling thread. Must be called before the repository is started.
+	 * @param capacity the capacity
+	 */
+	public void setCapacity(int capacity) {
+		Assert.isTrue(capacity > 0, "Capacity must be positive");
+		Assert.state(this.writer == null, "Capacity cannot be changed once started");
+		this.queue = new ArrayBlockingQueue<AuditEvent>(capacity);
+	}
+
+	/**
+	 * Set the maximum number of events written in a single batch.
+	 * @param batchSize the batch size
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "BatchSize must be positive");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Set the maximum time in milliseconds that a query waits for previously added
+	 * events to be written.
+	 * @param flushTimeout the flush timeout in milliseconds
+	 */
+	public void setFlushTimeout(long flushTimeout) {
+		this.flushTimeout = flushTimeout;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		start();
+	}
+
+	/**
+	 * Start the background thread that writes buffered events.
+	 */
+	public void start() {
+		synchronized (this.monitor) {
+			if (this.writer == null) {
+				this.running = true;
+				Thread thread = new Thread(new Runnable() {
+
+					@Override
+					public void run() {
+						writeBufferedEvents();
+					}
+
+				}, "audit-event-writer");
+				thread.setDaemon(true);
+				this.writer = thread;
+				thread.start();
+			}
+		}
+	}
+
+	@Override
+	public void destroy() throws InterruptedException {
+		Thread thread = this.writer;
+		if (thread != null) {
+			this.running = false;
+			thread.join(this.flushTimeout);
+			if (thread.isAlive()) {
+				logger.warn("Audit event writer did not stop within "
+						+ this.flushTimeout + "ms");
+				thread.interrupt();
+			}
+			this.writer = null;
+		}
+		drain();
+	}
+
+	@Override
+	public void add(AuditEvent event) {
+		Assert.notNull(event, "AuditEvent must not be null");
+		this.enqueued.incrementAndGet();
+		if (!this.queue.offer(event)) {
+			write(Collections.singletonList(event));
+		}
+	}
+
+	/**
+	 * Write all events that have been added but not yet written, waiting for the
+	 * background thread if it is running.
+	 */
+	public void flush() {
+		long target = this.enqueued.get();
+		if (this.writer == null) {
+			drain();
+		}
+		long deadline = System.currentTimeMillis() + this.flushTimeout;
+		synchronized (this.monitor) {
+			long remaining = this.flushTimeout;
+			while (this.written < target && remaining > 0) {
+				try {
+					this.monitor.wait(remaining);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				remaining = deadline - System.currentTimeMillis();
+			}
+		}
+	}
+
+	@Override
+	public List<AuditEvent> find(Date after) {
+		return find(null, after, null);
+	}
+
+	@Override
+	public List<AuditEvent> find(String principal, Date after) {
+		return find(principal, after, null);
+	}
+
+	@Override
+	public List<AuditEvent> find(String principal, Date after, String type) {
+		flush();
+		StringBuilder sql = new StringBuilder("SELECT EVENT_TIMESTAMP, PRINCIPAL, "
+				+ "EVENT_TYPE, EVENT_DATA FROM " + this.tableName);
+		List<Object> args = new ArrayList<Object>();
+		addCondition(sql, args, "PRINCIPAL = ?", principal);
+		addCondition(sql, args, "EVENT_TIMESTAMP >= ?",
+				(after == null ? null : new Timestamp(after.getTime())));
+		addCondition(sql, args, "EVENT_TYPE = ?", type);
+		sql.append(" ORDER BY EVENT_TIMESTAMP");
+		return this.jdbcTemplate.query(sql.toString(), args.toArray(),
+				new AuditEventRowMapper());
+	}
+
+	private void addCondition(StringBuilder sql, List<Object> args, String condition,
+			Object value) {
+		if (value != null) {
+			sql.append(args.isEmpty() ? " WHERE " : " AND ").append(condition);
+			args.add(value);
+		}
+	}
+
+	private void writeBufferedEvents() {
+		List<AuditEvent> batch = new ArrayList<AuditEvent>(this.batchSize);
+		while (this.running) {
+			try {
+				AuditEvent event = this.queue.poll(POLL_INTERVAL,
+						TimeUnit.MILLISECONDS);
+				if (event != null) {
+					batch.add(event);
+					this.queue.drainTo(batch, this.batchSize - 1);
+					write(batch);
+				}
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			catch (RuntimeException ex) {
+				logger.error("Unexpected failure writing audit events", ex);
+			}
+			finally {
+				batch.clear();
+			}
+		}
+	}
+
+	private void drain() {
+		List<AuditEvent> batch = new ArrayList<AuditEvent>(this.batchSize);
+		while (this.queue.drainTo(batch, this.batchSize) > 0) {
+			write(batch);
+			batch.clear();
+		}
+	}
+
+	private void write(List<AuditEvent> events) {
+		try {
+			if (!insert(events) && events.size() > 1) {
+				for (AuditEvent event : events) {
+					insert(Collections.singletonList(event));
+				}
+			}
+		}
+		finally {
+			synchronized (this.monitor) {
+				this.written += events.size();
+				this.monitor.notifyAll();
+			}
+		}
+	}
+
+	private boolean insert(final List<AuditEvent> events) {
+		try {
+			this.transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+				@Override
+				protected void doInTransactionWithoutResult(TransactionStatus status) {
+					batchInsert(events);
+				}
+
+			});
+			return true;
+		}
+		catch (RuntimeException ex) {
+			logger.error("Unable to write " + events.size() + " audit event(s)", ex);
+			return false;
+		}
+	}
+
+	private void batchInsert(final List<AuditEvent> events) {
+		this.jdbcTemplate.batchUpdate(
+				"INSERT INTO " + this.tableName + " (EVENT_TIMESTAMP, PRINCIPAL, "
+						+ "EVENT_TYPE, EVENT_DATA) VALUES (?, ?, ?, ?)",
+				new BatchPreparedStatementSetter() {
+
+					@Override
+					public void setValues(PreparedStatement ps, int i)
+							throws SQLException {
+						AuditEvent event = events.get(i);
+						ps.setTimestamp(1, new Timestamp(event.getTimestamp().getTime()));
+						ps.setString(2, event.getPrincipal());
+						ps.setString(3, event.getType());
+						ps.setString(4, toJson(event.getData()));
+					}
+
+					@Override
+					public int getBatchSize() {
+						return events.size();
+					}
+
+				});
+	}
+
+	private String toJson(Map<String, Object> data) {
+		ObjectNode node = this.objectMapper.createObjectNode();
+		for (Map.Entry<String, Object> entry : data.entrySet()) {
+			node.set(entry.getKey(), toJson(entry.getValue()));
+		}
+		try {
+			return this.objectMapper.writeValueAsString(node);
+		}
+		catch (JsonProcessingException ex) {
+			throw new IllegalStateException("Unable to write audit event data", ex);
+		}
+	}
+
+	private JsonNode toJson(Object value) {
+		try {
+			return this.objectMapper.valueToTree(value);
+		}
+		catch (IllegalArgumentException ex) {
+			return this.objectMapper.getNodeFactory().textNode(String.valueOf(value));
+		}
+	}
+
+	private Map<String, Object> fromJson(String json) {
+		if (json == null) {
+			return Collections.emptyMap();
+		}
+		try {
+			return this.objectMapper.readValue(json, DATA_TYPE);
+		}
+		catch (IOException ex) {
+			logger.debug("Unable to read audit event data", ex);
+			return Collections.emptyMap();
+		}
+	}
+
+	/**
+	 * {@link RowMapper} for {@link AuditEvent AuditEvents}.
+	 */
+	private class AuditEventRowMapper implements RowMapper<AuditEvent> {
+
+		@Override
+		public AuditEvent mapRow(ResultSet rs, int rowNum) throws SQLException {
+			return new AuditEvent(new Date(rs.getTimestamp(1).getTime()),
+					rs.getString(2), rs.getString(3), fromJson(rs.getString(4)));
+		}
+
+	}
+
+}
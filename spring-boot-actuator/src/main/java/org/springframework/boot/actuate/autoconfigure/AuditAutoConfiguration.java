@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,21 +16,33 @@
 
 package org.springframework.boot.actuate.autoconfigure;
 
+import javax.sql.DataSource;
+
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.actuate.audit.AuditEvent;
 import org.springframework.boot.actuate.audit.AuditEventRepository;
 import org.springframework.boot.actuate.audit.InMemoryAuditEventRepository;
+import org.springframework.boot.actuate.audit.JdbcAuditEventRepository;
 import org.springframework.boot.actuate.audit.listener.AbstractAuditListener;
 import org.springframework.boot.actuate.audit.listener.AuditListener;
 import org.springframework.boot.actuate.security.AbstractAuthenticationAuditListener;
 import org.springframework.boot.actuate.security.AbstractAuthorizationAuditListener;
 import org.springframework.boot.actuate.security.AuthenticationAuditListener;
 import org.springframework.boot.actuate.security.AuthorizationAuditListener;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 /**
  * {@link EnableAutoConfiguration Auto-configuration} for {@link AuditEvent}s.
@@ -39,6 +51,7 @@ import org.springframework.context.annotation.Configuration;
  * @author Vedran Pavic
  */
 @Configuration
+@AutoConfigureAfter(DataSourceAutoConfiguration.class)
 public class AuditAutoConfiguration {
 
 	private final AuditEventRepository auditEventRepository;
@@ -68,6 +81,38 @@ public class AuditAutoConfiguration {
 		return new AuthorizationAuditListener();
 	}
 
+	@Configuration
+	@ConditionalOnClass(JdbcTemplate.class)
+	@ConditionalOnBean(DataSource.class)
+	@ConditionalOnMissingBean(AuditEventRepository.class)
+	@ConditionalOnProperty(prefix = "management.audit.jdbc", name = "enabled")
+	@EnableConfigurationProperties(AuditProperties.class)
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	protected static class JdbcAuditEventRepositoryConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		public JdbcAuditEventDatabaseInitializer jdbcAuditEventDatabaseInitializer(
+				DataSource dataSource, ResourceLoader resourceLoader,
+				AuditProperties properties) {
+			return new JdbcAuditEventDatabaseInitializer(dataSource, resourceLoader,
+					properties);
+		}
+
+		@Bean
+		public JdbcAuditEventRepository auditEventRepository(DataSource dataSource,
+				AuditProperties properties) {
+			AuditProperties.Jdbc jdbc = properties.getJdbc();
+			JdbcAuditEventRepository repository = new JdbcAuditEventRepository(
+					dataSource);
+			repository.setTableName(jdbc.getTableName());
+			repository.setCapacity(jdbc.getBufferCapacity());
+			repository.setBatchSize(jdbc.getBatchSize());
+			return repository;
+		}
+
+	}
+
 	@ConditionalOnMissingBean(AuditEventRepository.class)
 	protected static class AuditEventRepositoryConfiguration {
 
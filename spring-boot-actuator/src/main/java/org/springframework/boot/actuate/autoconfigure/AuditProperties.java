@@ -0,0 +1,136 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.autoconfigure;
+
+import org.springframework.boot.actuate.audit.JdbcAuditEventRepository;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for auditing.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+@ConfigurationProperties(prefix = "management.audit")
+public class AuditProperties {
+
+	private final Jdbc jdbc = new Jdbc();
+
+	public Jdbc getJdbc() {
+		return this.jdbc;
+	}
+
+	/**
+	 * JDBC audit event repository properties.
+	 */
+	public static class Jdbc {
+
+		private static final String DEFAULT_SCHEMA_LOCATION = "classpath:org/springframework/"
+				+ "boot/actuate/audit/schema-@@platform@@.sql";
+
+		/**
+		 * Store audit events in the application's DataSource.
+		 */
+		private boolean enabled;
+
+		/**
+		 * Path to the SQL file to use to initialize the database schema.
+		 */
+		private String schema = DEFAULT_SCHEMA_LOCATION;
+
+		/**
+		 * Name of database table used to store audit events.
+		 */
+		private String tableName = JdbcAuditEventRepository.DEFAULT_TABLE_NAME;
+
+		/**
+		 * Maximum number of buffered events. Events are written on the calling thread
+		 * when the buffer is full.
+		 */
+		private int bufferCapacity = 10000;
+
+		/**
+		 * Maximum number of events written in a single batch.
+		 */
+		private int batchSize = 100;
+
+		private final Initializer initializer = new Initializer();
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public String getSchema() {
+			return this.schema;
+		}
+
+		public void setSchema(String schema) {
+			this.schema = schema;
+		}
+
+		public String getTableName() {
+			return this.tableName;
+		}
+
+		public void setTableName(String tableName) {
+			this.tableName = tableName;
+		}
+
+		public int getBufferCapacity() {
+			return this.bufferCapacity;
+		}
+
+		public void setBufferCapacity(int bufferCapacity) {
+			this.bufferCapacity = bufferCapacity;
+		}
+
+		public int getBatchSize() {
+			return this.batchSize;
+		}
+
+		public void setBatchSize(int batchSize) {
+			this.batchSize = batchSize;
+		}
+
+		public Initializer getInitializer() {
+			return this.initializer;
+		}
+
+		public class Initializer {
+
+			/**
+			 * Create the required audit event table on startup if necessary.
+			 */
+			private boolean enabled = true;
+
+			public boolean isEnabled() {
+				return this.enabled;
+			}
+
+			public void setEnabled(boolean enabled) {
+				this.enabled = enabled;
+			}
+
+		}
+
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,6 +24,7 @@ import java.util.Map;
 
 import liquibase.integration.spring.SpringLiquibase;
 import org.flywaydb.core.Flyway;
+import reactor.core.publisher.Mono;
 
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.actuate.endpoint.AutoConfigurationReportEndpoint;
@@ -42,10 +43,16 @@ import org.springframework.boot.actuate.endpoint.MetricsEndpoint;
 import org.springframework.boot.actuate.endpoint.PublicMetrics;
 import org.springframework.boot.actuate.endpoint.RequestMappingEndpoint;
 import org.springframework.boot.actuate.endpoint.ShutdownEndpoint;
+import org.springframework.boot.actuate.endpoint.StartupEndpoint;
 import org.springframework.boot.actuate.endpoint.TraceEndpoint;
+import org.springframework.boot.actuate.health.CompositeReactiveHealthIndicator;
+import org.springframework.boot.actuate.health.CompositeReactiveHealthIndicatorFactory;
 import org.springframework.boot.actuate.health.HealthAggregator;
 import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.boot.actuate.health.OrderedHealthAggregator;
+import org.springframework.boot.actuate.health.ReactiveHealthIndicator;
+import org.springframework.boot.actuate.health.ReactiveHealthIndicatorAdapter;
+import org.springframework.boot.actuate.health.ReactiveHealthIndicatorProperties;
 import org.springframework.boot.actuate.info.InfoContributor;
 import org.springframework.boot.actuate.trace.InMemoryTraceRepository;
 import org.springframework.boot.actuate.trace.TraceRepository;
@@ -59,6 +66,7 @@ import org.springframework.boot.autoconfigure.condition.SearchStrategy;
 import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
 import org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.startup.StartupTimeline;
 import org.springframework.boot.logging.LoggingSystem;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -173,6 +181,13 @@ public class EndpointAutoConfiguration {
 		return new AutoConfigurationReportEndpoint();
 	}
 
+	@Bean
+	@ConditionalOnBean(StartupTimeline.class)
+	@ConditionalOnMissingBean
+	public StartupEndpoint startupEndpoint(StartupTimeline startupTimeline) {
+		return new StartupEndpoint(startupTimeline);
+	}
+
 	@Bean
 	@ConditionalOnMissingBean
 	public ShutdownEndpoint shutdownEndpoint() {
@@ -185,6 +200,35 @@ public class EndpointAutoConfiguration {
 		return new ConfigurationPropertiesReportEndpoint();
 	}
 
+	/**
+	 * Health endpoint configuration used when reactive health indicators are available.
+	 * All indicators are checked concurrently through a
+	 * {@link CompositeReactiveHealthIndicator}.
+	 */
+	@Configuration
+	@ConditionalOnClass(Mono.class)
+	@ConditionalOnBean(ReactiveHealthIndicator.class)
+	@EnableConfigurationProperties(ReactiveHealthIndicatorProperties.class)
+	static class ReactiveHealthEndpointConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		public HealthEndpoint healthEndpoint(
+				ObjectProvider<HealthAggregator> healthAggregator,
+				Map<String, ReactiveHealthIndicator> reactiveHealthIndicators,
+				ObjectProvider<Map<String, HealthIndicator>> healthIndicators,
+				ReactiveHealthIndicatorProperties properties) {
+			HealthAggregator aggregator = healthAggregator.getIfAvailable();
+			CompositeReactiveHealthIndicator healthIndicator = new CompositeReactiveHealthIndicatorFactory()
+					.createReactiveHealthIndicator(
+							aggregator == null ? new OrderedHealthAggregator() : aggregator,
+							reactiveHealthIndicators, healthIndicators.getIfAvailable());
+			healthIndicator.setTimeout(properties.getTimeout());
+			return new HealthEndpoint(new ReactiveHealthIndicatorAdapter(healthIndicator));
+		}
+
+	}
+
 	@Configuration
 	@ConditionalOnBean(Flyway.class)
 	@ConditionalOnClass(Flyway.class)
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -78,6 +78,10 @@ public class EndpointMBeanExportAutoConfiguration {
 		mbeanExporter.setServer(server);
 		mbeanExporter.setEnsureUniqueRuntimeObjectNames(this.properties.isUniqueNames());
 		mbeanExporter.setObjectNameStaticProperties(this.properties.getStaticNames());
+		mbeanExporter.setCacheTimeToLive(this.properties.getCache().getTimeToLive());
+		mbeanExporter.setEndpointCacheTimeToLive(
+				this.properties.getCache().getEndpointTimeToLive());
+		mbeanExporter.setTypedEndpoints(this.properties.isTyped());
 		return mbeanExporter;
 	}
 
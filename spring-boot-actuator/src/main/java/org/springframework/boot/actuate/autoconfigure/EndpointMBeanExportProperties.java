@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.boot.actuate.autoconfigure;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Properties;
 
 import org.springframework.beans.factory.annotation.Value;
@@ -52,6 +54,14 @@ public class EndpointMBeanExportProperties {
 	 */
 	private Properties staticNames = new Properties();
 
+	/**
+	 * Expose the metrics and health endpoints as MXBeans with typed attributes rather
+	 * than as JSON-like data.
+	 */
+	private boolean typed = false;
+
+	private final Cache cache = new Cache();
+
 	public boolean isEnabled() {
 		return this.enabled;
 	}
@@ -84,4 +94,51 @@ public class EndpointMBeanExportProperties {
 		this.staticNames = StringUtils.splitArrayElementsIntoProperties(staticNames, "=");
 	}
 
+	public boolean isTyped() {
+		return this.typed;
+	}
+
+	public void setTyped(boolean typed) {
+		this.typed = typed;
+	}
+
+	public Cache getCache() {
+		return this.cache;
+	}
+
+	/**
+	 * Caching of the data read from endpoints over JMX.
+	 */
+	public static class Cache {
+
+		/**
+		 * Time in milliseconds for which the data read from an endpoint is cached. Zero
+		 * or less disables caching.
+		 */
+		private long timeToLive = 0;
+
+		/**
+		 * Time in milliseconds for which the data read from specific endpoints is
+		 * cached, keyed by endpoint id. Overrides the default time to live.
+		 */
+		private Map<String, Long> endpointTimeToLive = new LinkedHashMap<String, Long>();
+
+		public long getTimeToLive() {
+			return this.timeToLive;
+		}
+
+		public void setTimeToLive(long timeToLive) {
+			this.timeToLive = timeToLive;
+		}
+
+		public Map<String, Long> getEndpointTimeToLive() {
+			return this.endpointTimeToLive;
+		}
+
+		public void setEndpointTimeToLive(Map<String, Long> endpointTimeToLive) {
+			this.endpointTimeToLive = endpointTimeToLive;
+		}
+
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -29,6 +29,7 @@ import org.springframework.boot.actuate.endpoint.HealthEndpoint;
 import org.springframework.boot.actuate.endpoint.LoggersEndpoint;
 import org.springframework.boot.actuate.endpoint.MetricsEndpoint;
 import org.springframework.boot.actuate.endpoint.ShutdownEndpoint;
+import org.springframework.boot.actuate.endpoint.TraceEndpoint;
 import org.springframework.boot.actuate.endpoint.mvc.AuditEventsMvcEndpoint;
 import org.springframework.boot.actuate.endpoint.mvc.EndpointHandlerMapping;
 import org.springframework.boot.actuate.endpoint.mvc.EndpointHandlerMappingCustomizer;
@@ -41,7 +42,9 @@ import org.springframework.boot.actuate.endpoint.mvc.MetricsMvcEndpoint;
 import org.springframework.boot.actuate.endpoint.mvc.MvcEndpoint;
 import org.springframework.boot.actuate.endpoint.mvc.MvcEndpointSecurityInterceptor;
 import org.springframework.boot.actuate.endpoint.mvc.MvcEndpoints;
+import org.springframework.boot.actuate.endpoint.mvc.PrometheusMvcEndpoint;
 import org.springframework.boot.actuate.endpoint.mvc.ShutdownMvcEndpoint;
+import org.springframework.boot.actuate.endpoint.mvc.TraceMvcEndpoint;
 import org.springframework.boot.autoconfigure.condition.ConditionMessage;
 import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
@@ -183,6 +186,20 @@ public class EndpointWebMvcManagementContextConfiguration {
 		return new MetricsMvcEndpoint(delegate);
 	}
 
+	@Bean
+	@ConditionalOnBean(TraceEndpoint.class)
+	@ConditionalOnEnabledEndpoint("trace")
+	public TraceMvcEndpoint traceMvcEndpoint(TraceEndpoint delegate) {
+		return new TraceMvcEndpoint(delegate);
+	}
+
+	@Bean
+	@ConditionalOnBean(MetricsEndpoint.class)
+	@ConditionalOnEnabledEndpoint("prometheus")
+	public PrometheusMvcEndpoint prometheusMvcEndpoint(MetricsEndpoint delegate) {
+		return new PrometheusMvcEndpoint(delegate);
+	}
+
 	@Bean
 	@ConditionalOnEnabledEndpoint("logfile")
 	@Conditional(LogFileCondition.class)
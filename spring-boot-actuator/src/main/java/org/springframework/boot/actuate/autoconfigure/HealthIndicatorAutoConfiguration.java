@@ -26,6 +26,7 @@ import javax.sql.DataSource;
 import com.couchbase.client.java.Bucket;
 import com.datastax.driver.core.Cluster;
 import org.apache.solr.client.solrj.SolrClient;
+import reactor.core.publisher.Flux;
 
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.InitializingBean;
@@ -42,9 +43,12 @@ import org.springframework.boot.actuate.health.JmsHealthIndicator;
 import org.springframework.boot.actuate.health.LdapHealthIndicator;
 import org.springframework.boot.actuate.health.MailHealthIndicator;
 import org.springframework.boot.actuate.health.MongoHealthIndicator;
+import org.springframework.boot.actuate.health.MongoReactiveHealthIndicator;
 import org.springframework.boot.actuate.health.OrderedHealthAggregator;
 import org.springframework.boot.actuate.health.RabbitHealthIndicator;
+import org.springframework.boot.actuate.health.ReactiveHealthIndicator;
 import org.springframework.boot.actuate.health.RedisHealthIndicator;
+import org.springframework.boot.actuate.health.RedisReactiveHealthIndicator;
 import org.springframework.boot.actuate.health.SolrHealthIndicator;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
@@ -59,6 +63,7 @@ import org.springframework.boot.autoconfigure.data.couchbase.CouchbaseDataAutoCo
 import org.springframework.boot.autoconfigure.data.elasticsearch.ElasticsearchAutoConfiguration;
 import org.springframework.boot.autoconfigure.data.ldap.LdapDataAutoConfiguration;
 import org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.ReactiveMongoDataAutoConfiguration;
 import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
 import org.springframework.boot.autoconfigure.elasticsearch.jest.JestAutoConfiguration;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
@@ -73,9 +78,13 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.data.cassandra.core.CassandraOperations;
 import org.springframework.data.couchbase.core.CouchbaseOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
@@ -101,8 +110,8 @@ import org.springframework.mail.javamail.JavaMailSenderImpl;
 		JestAutoConfiguration.class, JmsAutoConfiguration.class,
 		LdapDataAutoConfiguration.class, MailSenderAutoConfiguration.class,
 		MongoAutoConfiguration.class, MongoDataAutoConfiguration.class,
-		RabbitAutoConfiguration.class, RedisAutoConfiguration.class,
-		SolrAutoConfiguration.class })
+		ReactiveMongoDataAutoConfiguration.class, RabbitAutoConfiguration.class,
+		RedisAutoConfiguration.class, SolrAutoConfiguration.class })
 @EnableConfigurationProperties({ HealthIndicatorProperties.class })
 @Import({
 		ElasticsearchHealthIndicatorConfiguration.ElasticsearchClientHealthIndicatorConfiguration.class,
@@ -257,6 +266,29 @@ public class HealthIndicatorAutoConfiguration {
 
 	}
 
+	@Configuration
+	@ConditionalOnClass({ ReactiveMongoTemplate.class, Flux.class })
+	@ConditionalOnBean(ReactiveMongoTemplate.class)
+	@ConditionalOnEnabledHealthIndicator("mongo")
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public static class MongoReactiveHealthIndicatorConfiguration extends
+			CompositeReactiveHealthIndicatorConfiguration<MongoReactiveHealthIndicator, ReactiveMongoTemplate> {
+
+		private final Map<String, ReactiveMongoTemplate> reactiveMongoTemplates;
+
+		public MongoReactiveHealthIndicatorConfiguration(
+				Map<String, ReactiveMongoTemplate> reactiveMongoTemplates) {
+			this.reactiveMongoTemplates = reactiveMongoTemplates;
+		}
+
+		@Bean
+		@ConditionalOnMissingBean(name = "mongoHealthIndicator")
+		public ReactiveHealthIndicator mongoHealthIndicator() {
+			return createHealthIndicator(this.reactiveMongoTemplates);
+		}
+
+	}
+
 	@Configuration
 	@ConditionalOnBean(MongoTemplate.class)
 	@ConditionalOnEnabledHealthIndicator("mongo")
@@ -278,6 +310,29 @@ public class HealthIndicatorAutoConfiguration {
 
 	}
 
+	@Configuration
+	@ConditionalOnClass({ ReactiveRedisConnectionFactory.class, Flux.class })
+	@ConditionalOnBean(ReactiveRedisConnectionFactory.class)
+	@ConditionalOnEnabledHealthIndicator("redis")
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public static class RedisReactiveHealthIndicatorConfiguration extends
+			CompositeReactiveHealthIndicatorConfiguration<RedisReactiveHealthIndicator, ReactiveRedisConnectionFactory> {
+
+		private final Map<String, ReactiveRedisConnectionFactory> redisConnectionFactories;
+
+		public RedisReactiveHealthIndicatorConfiguration(
+				Map<String, ReactiveRedisConnectionFactory> redisConnectionFactories) {
+			this.redisConnectionFactories = redisConnectionFactories;
+		}
+
+		@Bean
+		@ConditionalOnMissingBean(name = "redisHealthIndicator")
+		public ReactiveHealthIndicator redisHealthIndicator() {
+			return createHealthIndicator(this.redisConnectionFactories);
+		}
+
+	}
+
 	@Configuration
 	@ConditionalOnBean(RedisConnectionFactory.class)
 	@ConditionalOnEnabledHealthIndicator("redis")
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.autoconfigure;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.actuate.audit.JdbcAuditEventRepository;
+import org.springframework.boot.autoconfigure.AbstractDatabaseInitializer;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.Assert;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Initializer for the schema used by {@link JdbcAuditEventRepository}. The default table
+ * name in the schema script is replaced by the configured table name.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+public class JdbcAuditEventDatabaseInitializer extends AbstractDatabaseInitializer {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private final AuditProperties.Jdbc properties;
+
+	public JdbcAuditEventDatabaseInitializer(DataSource dataSource,
+			ResourceLoader resourceLoader, AuditProperties properties) {
+		super(dataSource, resourceLoader);
+		Assert.notNull(properties, "AuditProperties must not be null");
+		this.properties = properties.getJdbc();
+	}
+
+	@Override
+	protected boolean isEnabled() {
+		return this.properties.getInitializer().isEnabled();
+	}
+
+	@Override
+	protected String getSchemaLocation() {
+		return this.properties.getSchema();
+	}
+
+	@Override
+	protected Resource getSchema(Resource schema) {
+		String tableName = this.properties.getTableName().trim();
+		if (JdbcAuditEventRepository.DEFAULT_TABLE_NAME.equals(tableName)) {
+			return schema;
+		}
+		try {
+			String script = StreamUtils.copyToString(schema.getInputStream(), UTF_8);
+			script = script.replace(JdbcAuditEventRepository.DEFAULT_TABLE_NAME,
+					tableName);
+			return new ByteArrayResource(script.getBytes(UTF_8),
+					schema.getDescription());
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unable to read schema " + schema, ex);
+		}
+	}
+
+}
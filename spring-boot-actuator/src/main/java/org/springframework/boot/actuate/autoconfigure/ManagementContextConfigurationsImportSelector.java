@@ -22,11 +22,11 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.boot.SpringFactoriesRegistry;
 import org.springframework.context.annotation.DeferredImportSelector;
 import org.springframework.core.OrderComparator;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
-import org.springframework.core.io.support.SpringFactoriesLoader;
 import org.springframework.core.type.AnnotationMetadata;
 import org.springframework.core.type.classreading.MetadataReader;
 import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
@@ -83,7 +83,7 @@ class ManagementContextConfigurationsImportSelector
 	}
 
 	protected List<String> loadFactoryNames() {
-		return SpringFactoriesLoader
+		return SpringFactoriesRegistry
 				.loadFactoryNames(ManagementContextConfiguration.class, this.classLoader);
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,10 +21,12 @@ import java.util.List;
 import javax.servlet.Servlet;
 import javax.sql.DataSource;
 
+import ch.qos.logback.classic.LoggerContext;
 import org.apache.catalina.startup.Tomcat;
 
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.actuate.cache.CacheStatisticsProvider;
+import org.springframework.boot.actuate.endpoint.AsyncLoggingPublicMetrics;
 import org.springframework.boot.actuate.endpoint.CachePublicMetrics;
 import org.springframework.boot.actuate.endpoint.DataSourcePublicMetrics;
 import org.springframework.boot.actuate.endpoint.MetricReaderPublicMetrics;
@@ -33,6 +35,7 @@ import org.springframework.boot.actuate.endpoint.RichGaugeReaderPublicMetrics;
 import org.springframework.boot.actuate.endpoint.SystemPublicMetrics;
 import org.springframework.boot.actuate.endpoint.TomcatPublicMetrics;
 import org.springframework.boot.actuate.metrics.integration.SpringIntegrationMetricReader;
+import org.springframework.boot.actuate.metrics.jdbc.DataSourceInstrumentationBeanPostProcessor;
 import org.springframework.boot.actuate.metrics.reader.CompositeMetricReader;
 import org.springframework.boot.actuate.metrics.reader.MetricReader;
 import org.springframework.boot.actuate.metrics.rich.RichGaugeReader;
@@ -43,11 +46,15 @@ import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.autoconfigure.condition.SearchStrategy;
 import org.springframework.boot.autoconfigure.integration.IntegrationAutoConfiguration;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
 import org.springframework.boot.autoconfigure.jdbc.metadata.DataSourcePoolMetadataProvider;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.logging.logback.BatchingAsyncAppender;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -111,6 +118,19 @@ public class PublicMetricsAutoConfiguration {
 
 	}
 
+	@Configuration
+	@ConditionalOnClass(DataSource.class)
+	@ConditionalOnBean(DataSource.class)
+	@ConditionalOnProperty(name = "endpoints.metrics.datasource.instrumentation.enabled")
+	static class DataSourceInstrumentationConfiguration {
+
+		@Bean
+		public static DataSourceInstrumentationBeanPostProcessor dataSourceInstrumentationBeanPostProcessor() {
+			return new DataSourceInstrumentationBeanPostProcessor();
+		}
+
+	}
+
 	@Configuration
 	@ConditionalOnClass({ Servlet.class, Tomcat.class })
 	@ConditionalOnWebApplication
@@ -124,14 +144,28 @@ public class PublicMetricsAutoConfiguration {
 
 	}
 
+	@Configuration
+	@ConditionalOnClass({ LoggerContext.class, BatchingAsyncAppender.class })
+	static class AsyncLoggingMetricsConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		public AsyncLoggingPublicMetrics asyncLoggingPublicMetrics() {
+			return new AsyncLoggingPublicMetrics();
+		}
+
+	}
+
 	@Configuration
 	@ConditionalOnClass(CacheManager.class)
 	@ConditionalOnBean(CacheManager.class)
+	@EnableConfigurationProperties
 	static class CacheStatisticsConfiguration {
 
 		@Bean
 		@ConditionalOnMissingBean
 		@ConditionalOnBean(CacheStatisticsProvider.class)
+		@ConfigurationProperties(prefix = "management.metrics.cache")
 		public CachePublicMetrics cachePublicMetrics() {
 			return new CachePublicMetrics();
 		}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2015 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,10 +16,16 @@
 
 package org.springframework.boot.actuate.autoconfigure;
 
+import java.io.File;
+
 import org.springframework.boot.actuate.trace.InMemoryTraceRepository;
+import org.springframework.boot.actuate.trace.MappedFileTraceRepository;
+import org.springframework.boot.actuate.trace.TraceProperties;
 import org.springframework.boot.actuate.trace.TraceRepository;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -37,4 +43,24 @@ public class TraceRepositoryAutoConfiguration {
 		return new InMemoryTraceRepository();
 	}
 
+	@Configuration
+	@ConditionalOnMissingBean(TraceRepository.class)
+	@ConditionalOnProperty(prefix = "management.trace.journal", name = "directory")
+	@EnableConfigurationProperties(TraceProperties.class)
+	static class MappedFileTraceRepositoryConfiguration {
+
+		@Bean
+		public MappedFileTraceRepository traceRepository(TraceProperties properties) {
+			TraceProperties.Journal journal = properties.getJournal();
+			MappedFileTraceRepository repository = new MappedFileTraceRepository(
+					new File(journal.getDirectory()));
+			repository.setSegmentSize(journal.getSegmentSize());
+			repository.setRolloverInterval(journal.getRolloverIntervalMillis());
+			repository.setMaxSegments(journal.getMaxSegments());
+			repository.setCapacity(journal.getCapacity());
+			return repository;
+		}
+
+	}
+
 }
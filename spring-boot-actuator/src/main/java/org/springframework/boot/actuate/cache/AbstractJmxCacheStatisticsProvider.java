@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,9 +17,13 @@
 package org.springframework.boot.actuate.cache;
 
 import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import javax.management.Attribute;
 import javax.management.AttributeNotFoundException;
 import javax.management.InstanceNotFoundException;
 import javax.management.MBeanException;
@@ -36,7 +40,10 @@ import org.springframework.cache.CacheManager;
 
 /**
  * Base {@link CacheStatisticsProvider} implementation that uses JMX to retrieve the cache
- * statistics.
+ * statistics. The {@link ObjectName} of each cache is resolved once and reused until
+ * the MBean is no longer available. Subclasses should prefer
+ * {@link #getAttributes(ObjectName, String...)} to read all the attributes they need in
+ * a single invocation of the {@link MBeanServer}.
  *
  * @param <C> The cache type
  * @author Stephane Nicoll
@@ -118,11 +125,52 @@ public abstract class AbstractJmxCacheStatisticsProvider<C extends Cache>
 			throw new IllegalStateException(ex);
 		}
 		catch (InstanceNotFoundException ex) {
-			logger.warn("Cache statistics are no longer available", ex);
+			handleInstanceNotFound(objectName, ex);
 			return null;
 		}
 	}
 
+	/**
+	 * Read the specified attributes of the MBean identified by the given
+	 * {@link ObjectName} using a single invocation of the {@link MBeanServer}. Attributes
+	 * that could not be read are not included in the result.
+	 * @param objectName the object name of the cache statistics MBean
+	 * @param attributeNames the names of the attributes to read
+	 * @return the attribute values keyed by name, empty if the MBean is no longer
+	 * available
+	 * @since 2.0.0
+	 */
+	protected Map<String, Object> getAttributes(ObjectName objectName,
+			String... attributeNames) {
+		try {
+			Map<String, Object> attributes = new HashMap<String, Object>();
+			for (Attribute attribute : getMBeanServer()
+					.getAttributes(objectName, attributeNames).asList()) {
+				attributes.put(attribute.getName(), attribute.getValue());
+			}
+			return attributes;
+		}
+		catch (ReflectionException ex) {
+			throw new IllegalStateException(ex);
+		}
+		catch (InstanceNotFoundException ex) {
+			handleInstanceNotFound(objectName, ex);
+			return Collections.emptyMap();
+		}
+	}
+
+	private void handleInstanceNotFound(ObjectName objectName,
+			InstanceNotFoundException ex) {
+		logger.warn("Cache statistics are no longer available", ex);
+		// Resolve the object name again in case the cache has been recreated
+		Iterator<ObjectNameWrapper> iterator = this.caches.values().iterator();
+		while (iterator.hasNext()) {
+			if (objectName.equals(iterator.next().objectName)) {
+				iterator.remove();
+			}
+		}
+	}
+
 	private static class ObjectNameWrapper {
 
 		private final ObjectName objectName;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2015 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.boot.actuate.cache;
 
+import java.util.Map;
 import java.util.Set;
 
 import javax.management.MalformedObjectNameException;
@@ -49,9 +50,10 @@ public class JCacheCacheStatisticsProvider
 	@Override
 	protected CacheStatistics getCacheStatistics(ObjectName objectName) {
 		DefaultCacheStatistics statistics = new DefaultCacheStatistics();
-		Float hitPercentage = getAttribute(objectName, "CacheHitPercentage", Float.class);
-		Float missPercentage = getAttribute(objectName, "CacheMissPercentage",
-				Float.class);
+		Map<String, Object> attributes = getAttributes(objectName, "CacheHitPercentage",
+				"CacheMissPercentage");
+		Float hitPercentage = (Float) attributes.get("CacheHitPercentage");
+		Float missPercentage = (Float) attributes.get("CacheMissPercentage");
 		if ((hitPercentage != null && missPercentage != null)
 				&& (hitPercentage > 0 || missPercentage > 0)) {
 			statistics.setHitRatio(hitPercentage / (double) 100);
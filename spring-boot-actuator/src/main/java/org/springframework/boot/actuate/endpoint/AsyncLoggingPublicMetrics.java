@@ -0,0 +1,82 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.logging.logback.BatchingAsyncAppender;
+
+/**
+ * A {@link PublicMetrics} implementation that provides statistics for the
+ * {@link BatchingAsyncAppender} used when Logback output is written asynchronously.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+public class AsyncLoggingPublicMetrics implements PublicMetrics {
+
+	@Override
+	public Collection<Metric<?>> metrics() {
+		Collection<BatchingAsyncAppender> appenders = getAppenders();
+		if (appenders.isEmpty()) {
+			return Collections.emptySet();
+		}
+		long queued = 0;
+		long discarded = 0;
+		for (BatchingAsyncAppender appender : appenders) {
+			queued += appender.getQueuedCount();
+			discarded += appender.getDiscardedCount();
+		}
+		List<Metric<?>> metrics = new ArrayList<Metric<?>>(2);
+		metrics.add(new Metric<Long>("logging.async.queued", queued));
+		metrics.add(new Metric<Long>("logging.async.discarded", discarded));
+		return metrics;
+	}
+
+	private Collection<BatchingAsyncAppender> getAppenders() {
+		ILoggerFactory factory = LoggerFactory.getILoggerFactory();
+		if (!(factory instanceof LoggerContext)) {
+			return Collections.emptySet();
+		}
+		Map<BatchingAsyncAppender, Boolean> appenders = new IdentityHashMap<BatchingAsyncAppender, Boolean>();
+		for (Logger logger : ((LoggerContext) factory).getLoggerList()) {
+			Iterator<Appender<ILoggingEvent>> iterator = logger.iteratorForAppenders();
+			while (iterator.hasNext()) {
+				Appender<ILoggingEvent> appender = iterator.next();
+				if (appender instanceof BatchingAsyncAppender) {
+					appenders.put((BatchingAsyncAppender) appender, Boolean.TRUE);
+				}
+			}
+		}
+		return appenders.keySet();
+	}
+
+}
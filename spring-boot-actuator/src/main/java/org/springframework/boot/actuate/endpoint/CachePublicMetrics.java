@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2015 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,28 +16,50 @@
 
 package org.springframework.boot.actuate.endpoint;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.actuate.cache.CacheStatistics;
 import org.springframework.boot.actuate.cache.CacheStatisticsProvider;
+import org.springframework.boot.actuate.endpoint.MetricValues.MetricCollector;
 import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.reader.MetricValueSource;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.core.ResolvableType;
+import org.springframework.util.Assert;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 
 /**
  * A {@link PublicMetrics} implementation that provides cache statistics.
+ * <p>
+ * Gathering the statistics of every cache can be expensive so they can be held in a
+ * snapshot for a {@link #setTimeToLive(long) time to live}. Once the snapshot has
+ * expired it continues to be used while a fresh one is gathered in the background. A
+ * snapshot that is older than twice the time to live is never used, the statistics are
+ * gathered again before returning instead.
  *
  * @author Stephane Nicoll
  * @since 1.3.0
  */
-public class CachePublicMetrics implements PublicMetrics {
+public class CachePublicMetrics
+		implements PublicMetrics, MetricValueSource, DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(CachePublicMetrics.class);
 
 	@Autowired
 	private Map<String, CacheManager> cacheManagers;
@@ -45,14 +67,144 @@ public class CachePublicMetrics implements PublicMetrics {
 	@Autowired
 	private Collection<CacheStatisticsProvider<?>> statisticsProviders;
 
+	private final Object monitor = new Object();
+
+	private final AtomicBoolean refreshing = new AtomicBoolean();
+
+	private long timeToLive;
+
+	private Executor executor;
+
+	private ExecutorService defaultExecutor;
+
+	private volatile Snapshot snapshot;
+
+	/**
+	 * Time to live of the snapshot of cache statistics. Statistics are gathered on every
+	 * call if the value is zero or negative.
+	 * @return time to live in milliseconds (default 0)
+	 * @since 2.0.0
+	 */
+	public long getTimeToLive() {
+		return this.timeToLive;
+	}
+
+	/**
+	 * Set the time to live of the snapshot of cache statistics.
+	 * @param timeToLive time to live in milliseconds
+	 * @since 2.0.0
+	 */
+	public void setTimeToLive(long timeToLive) {
+		this.timeToLive = timeToLive;
+	}
+
+	/**
+	 * Set the {@link Executor} used to refresh an expired snapshot of cache statistics.
+	 * By default, a single thread is created when first needed and shut down when this
+	 * instance is destroyed.
+	 * @param executor the executor
+	 * @since 2.0.0
+	 */
+	public void setExecutor(Executor executor) {
+		Assert.notNull(executor, "Executor must not be null");
+		this.executor = executor;
+	}
+
+	@Override
+	public void destroy() {
+		synchronized (this.monitor) {
+			if (this.defaultExecutor != null) {
+				this.defaultExecutor.shutdownNow();
+				this.defaultExecutor = null;
+			}
+		}
+	}
+
 	@Override
 	public Collection<Metric<?>> metrics() {
 		Collection<Metric<?>> metrics = new HashSet<Metric<?>>();
+		forEachValue(new MetricCollector(metrics));
+		return metrics;
+	}
+
+	@Override
+	public void forEachValue(Callback callback) {
+		if (this.timeToLive > 0) {
+			MetricValues.forEachValue(getSnapshot().metrics, callback);
+		}
+		else {
+			collect(callback);
+		}
+	}
+
+	private Snapshot getSnapshot() {
+		Snapshot current = this.snapshot;
+		if (current == null || current.isExpired(this.timeToLive * 2)) {
+			synchronized (this.monitor) {
+				current = this.snapshot;
+				if (current == null || current.isExpired(this.timeToLive * 2)) {
+					current = refresh();
+				}
+			}
+		}
+		else if (current.isExpired(this.timeToLive)
+				&& this.refreshing.compareAndSet(false, true)) {
+			refreshInBackground();
+		}
+		return current;
+	}
+
+	private void refreshInBackground() {
+		try {
+			getExecutor().execute(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						refresh();
+					}
+					catch (Exception ex) {
+						logger.warn("Unable to refresh cache statistics", ex);
+					}
+					finally {
+						CachePublicMetrics.this.refreshing.set(false);
+					}
+				}
+
+			});
+		}
+		catch (RuntimeException ex) {
+			this.refreshing.set(false);
+			logger.warn("Unable to schedule refresh of cache statistics", ex);
+		}
+	}
+
+	private Executor getExecutor() {
+		if (this.executor != null) {
+			return this.executor;
+		}
+		synchronized (this.monitor) {
+			if (this.defaultExecutor == null) {
+				this.defaultExecutor = Executors
+						.newSingleThreadExecutor(new RefreshThreadFactory());
+			}
+			return this.defaultExecutor;
+		}
+	}
+
+	private Snapshot refresh() {
+		List<Metric<?>> metrics = new ArrayList<Metric<?>>();
+		collect(new MetricCollector(metrics));
+		Snapshot refreshed = new Snapshot(metrics);
+		this.snapshot = refreshed;
+		return refreshed;
+	}
+
+	private void collect(Callback callback) {
 		for (Map.Entry<String, List<CacheManagerBean>> entry : getCacheManagerBeans()
 				.entrySet()) {
-			addMetrics(metrics, entry.getKey(), entry.getValue());
+			addMetrics(callback, entry.getKey(), entry.getValue());
 		}
-		return metrics;
 	}
 
 	private MultiValueMap<String, CacheManagerBean> getCacheManagerBeans() {
@@ -66,7 +218,7 @@ public class CachePublicMetrics implements PublicMetrics {
 		return cacheManagerNamesByCacheName;
 	}
 
-	private void addMetrics(Collection<Metric<?>> metrics, String cacheName,
+	private void addMetrics(Callback callback, String cacheName,
 			List<CacheManagerBean> cacheManagerBeans) {
 		for (CacheManagerBean cacheManagerBean : cacheManagerBeans) {
 			CacheManager cacheManager = cacheManagerBean.getCacheManager();
@@ -78,7 +230,7 @@ public class CachePublicMetrics implements PublicMetrics {
 					prefix = cacheManagerBean.getBeanName() + "_" + prefix;
 				}
 				prefix = "cache." + prefix + (prefix.endsWith(".") ? "" : ".");
-				metrics.addAll(statistics.toMetrics(prefix));
+				MetricValues.forEachValue(statistics.toMetrics(prefix), callback);
 			}
 		}
 	}
@@ -102,6 +254,39 @@ public class CachePublicMetrics implements PublicMetrics {
 		return null;
 	}
 
+	/**
+	 * Cache statistics gathered at a point in time.
+	 */
+	private static class Snapshot {
+
+		private final List<Metric<?>> metrics;
+
+		private final long timestamp = System.currentTimeMillis();
+
+		Snapshot(List<Metric<?>> metrics) {
+			this.metrics = metrics;
+		}
+
+		boolean isExpired(long timeToLive) {
+			return System.currentTimeMillis() - this.timestamp >= timeToLive;
+		}
+
+	}
+
+	/**
+	 * {@link ThreadFactory} used to create the thread that refreshes snapshots.
+	 */
+	private static class RefreshThreadFactory implements ThreadFactory {
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "cache-metrics");
+			thread.setDaemon(true);
+			return thread;
+		}
+
+	}
+
 	private static class CacheManagerBean {
 
 		private final String beanName;
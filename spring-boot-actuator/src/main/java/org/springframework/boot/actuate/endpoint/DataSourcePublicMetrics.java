@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,9 +25,12 @@ import java.util.Set;
 import javax.annotation.PostConstruct;
 import javax.sql.DataSource;
 
+import org.springframework.aop.framework.Advised;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.jdbc.ConnectionPoolStatistics;
+import org.springframework.boot.actuate.metrics.jdbc.InstrumentedDataSource;
 import org.springframework.boot.autoconfigure.jdbc.metadata.DataSourcePoolMetadata;
 import org.springframework.boot.autoconfigure.jdbc.metadata.DataSourcePoolMetadataProvider;
 import org.springframework.boot.autoconfigure.jdbc.metadata.DataSourcePoolMetadataProviders;
@@ -36,6 +39,8 @@ import org.springframework.context.annotation.Primary;
 
 /**
  * A {@link PublicMetrics} implementation that provides data source usage statistics.
+ * The {@link ConnectionPoolStatistics} of any {@link InstrumentedDataSource} are also
+ * provided.
  *
  * @author Stephane Nicoll
  * @since 1.2.0
@@ -52,6 +57,8 @@ public class DataSourcePublicMetrics implements PublicMetrics {
 
 	private final Map<String, DataSourcePoolMetadata> metadataByPrefix = new HashMap<String, DataSourcePoolMetadata>();
 
+	private final Map<String, ConnectionPoolStatistics> statisticsByPrefix = new HashMap<String, ConnectionPoolStatistics>();
+
 	@PostConstruct
 	public void initialize() {
 		DataSource primaryDataSource = getPrimaryDataSource();
@@ -63,13 +70,32 @@ public class DataSourcePublicMetrics implements PublicMetrics {
 			DataSource bean = entry.getValue();
 			String prefix = createPrefix(beanName, bean, bean.equals(primaryDataSource));
 			DataSourcePoolMetadata poolMetadata = provider
-					.getDataSourcePoolMetadata(bean);
+					.getDataSourcePoolMetadata(getTargetDataSource(bean));
 			if (poolMetadata != null) {
 				this.metadataByPrefix.put(prefix, poolMetadata);
 			}
+			if (bean instanceof InstrumentedDataSource) {
+				this.statisticsByPrefix.put(prefix,
+						((InstrumentedDataSource) bean).getConnectionPoolStatistics());
+			}
 		}
 	}
 
+	private DataSource getTargetDataSource(DataSource dataSource) {
+		if (dataSource instanceof Advised) {
+			try {
+				Object target = ((Advised) dataSource).getTargetSource().getTarget();
+				if (target instanceof DataSource) {
+					return getTargetDataSource((DataSource) target);
+				}
+			}
+			catch (Exception ex) {
+				// Continue with the proxy
+			}
+		}
+		return dataSource;
+	}
+
 	@Override
 	public Collection<Metric<?>> metrics() {
 		Set<Metric<?>> metrics = new LinkedHashSet<Metric<?>>();
@@ -81,6 +107,12 @@ public class DataSourcePublicMetrics implements PublicMetrics {
 			addMetric(metrics, prefix + "active", metadata.getActive());
 			addMetric(metrics, prefix + "usage", metadata.getUsage());
 		}
+		for (Map.Entry<String, ConnectionPoolStatistics> entry : this.statisticsByPrefix
+				.entrySet()) {
+			String prefix = entry.getKey();
+			prefix = (prefix.endsWith(".") ? prefix : prefix + ".");
+			metrics.addAll(entry.getValue().toMetrics(prefix));
+		}
 		return metrics;
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,6 +22,7 @@ import org.springframework.boot.actuate.health.CompositeHealthIndicator;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthAggregator;
 import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.HealthIndicatorNameFactory;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.util.Assert;
 
@@ -54,12 +55,27 @@ public class HealthEndpoint extends AbstractEndpoint<Health> {
 		Assert.notNull(healthIndicators, "HealthIndicators must not be null");
 		CompositeHealthIndicator healthIndicator = new CompositeHealthIndicator(
 				healthAggregator);
+		HealthIndicatorNameFactory nameFactory = new HealthIndicatorNameFactory();
 		for (Map.Entry<String, HealthIndicator> entry : healthIndicators.entrySet()) {
-			healthIndicator.addHealthIndicator(getKey(entry.getKey()), entry.getValue());
+			healthIndicator.addHealthIndicator(
+					nameFactory.createHealthIndicatorName(entry.getKey()),
+					entry.getValue());
 		}
 		this.healthIndicator = healthIndicator;
 	}
 
+	/**
+	 * Create a new {@link HealthEndpoint} instance that exposes the health provided by
+	 * the given indicator, typically a composite of all the application's indicators.
+	 * @param healthIndicator the health indicator
+	 * @since 2.0.0
+	 */
+	public HealthEndpoint(HealthIndicator healthIndicator) {
+		super("health", false);
+		Assert.notNull(healthIndicator, "HealthIndicator must not be null");
+		this.healthIndicator = healthIndicator;
+	}
+
 	/**
 	 * Time to live for cached result. This is particularly useful to cache the result of
 	 * this endpoint to prevent a DOS attack if it is accessed anonymously.
@@ -81,17 +97,4 @@ public class HealthEndpoint extends AbstractEndpoint<Health> {
 		return this.healthIndicator.health();
 	}
 
-	/**
-	 * Turns the bean name into a key that can be used in the map of health information.
-	 * @param name the bean name
-	 * @return the key
-	 */
-	private String getKey(String name) {
-		int index = name.toLowerCase().indexOf("healthindicator");
-		if (index > 0) {
-			return name.substring(0, index);
-		}
-		return name;
-	}
-
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2014 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,17 +22,19 @@ import java.util.List;
 
 import org.springframework.boot.actuate.metrics.Metric;
 import org.springframework.boot.actuate.metrics.reader.MetricReader;
+import org.springframework.boot.actuate.metrics.reader.MetricValueSource;
 import org.springframework.util.Assert;
 
 /**
- * {@link PublicMetrics} exposed from a {@link MetricReader}.
+ * {@link PublicMetrics} exposed from a {@link MetricReader}. If the reader is a
+ * {@link MetricValueSource} its values are passed on directly.
  *
  * @author Dave Syer
  * @author Christian Dupuis
  * @author Stephane Nicoll
  * @author Phillip Webb
  */
-public class MetricReaderPublicMetrics implements PublicMetrics {
+public class MetricReaderPublicMetrics implements PublicMetrics, MetricValueSource {
 
 	private final MetricReader metricReader;
 
@@ -50,4 +52,14 @@ public class MetricReaderPublicMetrics implements PublicMetrics {
 		return result;
 	}
 
+	@Override
+	public void forEachValue(Callback callback) {
+		if (this.metricReader instanceof MetricValueSource) {
+			((MetricValueSource) this.metricReader).forEachValue(callback);
+		}
+		else {
+			MetricValues.forEachValue(this.metricReader.findAll(), callback);
+		}
+	}
+
 }
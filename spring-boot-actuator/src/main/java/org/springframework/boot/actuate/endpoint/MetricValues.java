@@ -0,0 +1,95 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint;
+
+import java.util.Collection;
+
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.reader.MetricValueSource;
+import org.springframework.boot.actuate.metrics.reader.MetricValueSource.Callback;
+
+/**
+ * Utilities for passing the values of {@link PublicMetrics} to a {@link Callback}.
+ *
+ * @author Jerry Lei
+ */
+final class MetricValues {
+
+	private MetricValues() {
+	}
+
+	/**
+	 * Pass the values of the given public metrics to the callback, without creating
+	 * {@link Metric} instances if the public metrics are a {@link MetricValueSource}.
+	 * @param publicMetrics the public metrics
+	 * @param callback the callback
+	 */
+	static void forEachValue(PublicMetrics publicMetrics, Callback callback) {
+		if (publicMetrics instanceof MetricValueSource) {
+			((MetricValueSource) publicMetrics).forEachValue(callback);
+		}
+		else {
+			forEachValue(publicMetrics.metrics(), callback);
+		}
+	}
+
+	/**
+	 * Pass the values of the given metrics to the callback.
+	 * @param metrics the metrics
+	 * @param callback the callback
+	 */
+	static void forEachValue(Iterable<Metric<?>> metrics, Callback callback) {
+		for (Metric<?> metric : metrics) {
+			value(callback, metric.getName(), metric.getValue());
+		}
+	}
+
+	private static void value(Callback callback, String name, Number value) {
+		if (value instanceof Long || value instanceof Integer || value instanceof Short
+				|| value instanceof Byte) {
+			callback.value(name, value.longValue());
+		}
+		else {
+			callback.value(name, value.doubleValue());
+		}
+	}
+
+	/**
+	 * {@link Callback} that adds the values it receives to a collection of
+	 * {@link Metric} instances.
+	 */
+	static class MetricCollector implements Callback {
+
+		private final Collection<Metric<?>> metrics;
+
+		MetricCollector(Collection<Metric<?>> metrics) {
+			this.metrics = metrics;
+		}
+
+		@Override
+		public void value(String name, long value) {
+			this.metrics.add(new Metric<Long>(name, value));
+		}
+
+		@Override
+		public void value(String name, double value) {
+			this.metrics.add(new Metric<Double>(name, value));
+		}
+
+	}
+
+}
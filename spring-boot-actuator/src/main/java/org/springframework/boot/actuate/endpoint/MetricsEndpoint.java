@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2015 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,17 +24,21 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.reader.MetricValueSource;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.util.Assert;
 
 /**
- * {@link Endpoint} to expose a collection of {@link PublicMetrics}.
+ * {@link Endpoint} to expose a collection of {@link PublicMetrics}. The values of the
+ * metrics can also be {@link #forEachValue(Callback) streamed} without collecting them
+ * first.
  *
  * @author Dave Syer
  */
 @ConfigurationProperties(prefix = "endpoints.metrics")
-public class MetricsEndpoint extends AbstractEndpoint<Map<String, Object>> {
+public class MetricsEndpoint extends AbstractEndpoint<Map<String, Object>>
+		implements MetricValueSource {
 
 	private final List<PublicMetrics> publicMetrics;
 
@@ -84,4 +88,17 @@ public class MetricsEndpoint extends AbstractEndpoint<Map<String, Object>> {
 		return result;
 	}
 
+	@Override
+	public void forEachValue(Callback callback) {
+		List<PublicMetrics> metrics = new ArrayList<PublicMetrics>(this.publicMetrics);
+		for (PublicMetrics publicMetric : metrics) {
+			try {
+				MetricValues.forEachValue(publicMetric, callback);
+			}
+			catch (Exception ex) {
+				// Could not evaluate metrics
+			}
+		}
+	}
+
 }
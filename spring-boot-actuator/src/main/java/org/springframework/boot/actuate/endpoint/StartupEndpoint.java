@@ -0,0 +1,78 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.StartupEndpoint.Timeline;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.startup.StartupTimeline;
+import org.springframework.boot.context.startup.StartupTimeline.RecordedStep;
+import org.springframework.util.Assert;
+
+/**
+ * {@link Endpoint} to expose the {@link StartupTimeline} recorded while the application
+ * started.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+@ConfigurationProperties(prefix = "endpoints.startup")
+public class StartupEndpoint extends AbstractEndpoint<Timeline> {
+
+	private final StartupTimeline timeline;
+
+	/**
+	 * Create a new {@link StartupEndpoint} instance.
+	 * @param timeline the startup timeline
+	 */
+	public StartupEndpoint(StartupTimeline timeline) {
+		super("startup");
+		Assert.notNull(timeline, "Timeline must not be null");
+		this.timeline = timeline;
+	}
+
+	@Override
+	public Timeline invoke() {
+		return new Timeline(this.timeline.getSteps(), this.timeline.getDroppedSteps());
+	}
+
+	/**
+	 * Adapts {@link StartupTimeline} to a JSON friendly structure.
+	 */
+	public static final class Timeline {
+
+		private final List<RecordedStep> steps;
+
+		private final int droppedSteps;
+
+		private Timeline(List<RecordedStep> steps, int droppedSteps) {
+			this.steps = steps;
+			this.droppedSteps = droppedSteps;
+		}
+
+		public List<RecordedStep> getSteps() {
+			return this.steps;
+		}
+
+		public int getDroppedSteps() {
+			return this.droppedSteps;
+		}
+
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2015 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,7 +25,9 @@ import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
 
+import org.springframework.boot.actuate.endpoint.MetricValues.MetricCollector;
 import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.reader.MetricValueSource;
 import org.springframework.core.Ordered;
 import org.springframework.util.StringUtils;
 
@@ -38,7 +40,7 @@ import org.springframework.util.StringUtils;
  * @author Johannes Edmeier
  * @since 1.2.0
  */
-public class SystemPublicMetrics implements PublicMetrics, Ordered {
+public class SystemPublicMetrics implements PublicMetrics, MetricValueSource, Ordered {
 
 	private long timestamp;
 
@@ -59,19 +61,33 @@ public class SystemPublicMetrics implements PublicMetrics, Ordered {
 		return result;
 	}
 
+	@Override
+	public void forEachValue(Callback callback) {
+		if (getClass() != SystemPublicMetrics.class) {
+			// Subclasses may have customized the metrics that are added
+			MetricValues.forEachValue(metrics(), callback);
+			return;
+		}
+		addBasicMetrics(callback);
+		addManagementMetrics(callback);
+	}
+
 	/**
 	 * Add basic system metrics.
 	 * @param result the result
 	 */
 	protected void addBasicMetrics(Collection<Metric<?>> result) {
+		addBasicMetrics(new MetricCollector(result));
+	}
+
+	private void addBasicMetrics(Callback callback) {
 		// NOTE: ManagementFactory must not be used here since it fails on GAE
 		Runtime runtime = Runtime.getRuntime();
-		result.add(newMemoryMetric("mem",
-				runtime.totalMemory() + getTotalNonHeapMemoryIfPossible()));
-		result.add(newMemoryMetric("mem.free", runtime.freeMemory()));
-		result.add(new Metric<Integer>("processors", runtime.availableProcessors()));
-		result.add(new Metric<Long>("instance.uptime",
-				System.currentTimeMillis() - this.timestamp));
+		addMemoryMetric(callback, "mem",
+				runtime.totalMemory() + getTotalNonHeapMemoryIfPossible());
+		addMemoryMetric(callback, "mem.free", runtime.freeMemory());
+		callback.value("processors", runtime.availableProcessors());
+		callback.value("instance.uptime", System.currentTimeMillis() - this.timestamp);
 	}
 
 	private long getTotalNonHeapMemoryIfPossible() {
@@ -106,17 +122,38 @@ public class SystemPublicMetrics implements PublicMetrics, Ordered {
 		}
 	}
 
+	private void addManagementMetrics(Callback callback) {
+		try {
+			// Add JVM up time in ms
+			callback.value("uptime", ManagementFactory.getRuntimeMXBean().getUptime());
+			callback.value("systemload.average",
+					ManagementFactory.getOperatingSystemMXBean().getSystemLoadAverage());
+			addHeapMetrics(callback);
+			addNonHeapMetrics(callback);
+			addThreadMetrics(callback);
+			addClassLoadingMetrics(callback);
+			addGarbageCollectionMetrics(callback);
+		}
+		catch (NoClassDefFoundError ex) {
+			// Expected on Google App Engine
+		}
+	}
+
 	/**
 	 * Add JVM heap metrics.
 	 * @param result the result
 	 */
 	protected void addHeapMetrics(Collection<Metric<?>> result) {
+		addHeapMetrics(new MetricCollector(result));
+	}
+
+	private void addHeapMetrics(Callback callback) {
 		MemoryUsage memoryUsage = ManagementFactory.getMemoryMXBean()
 				.getHeapMemoryUsage();
-		result.add(newMemoryMetric("heap.committed", memoryUsage.getCommitted()));
-		result.add(newMemoryMetric("heap.init", memoryUsage.getInit()));
-		result.add(newMemoryMetric("heap.used", memoryUsage.getUsed()));
-		result.add(newMemoryMetric("heap", memoryUsage.getMax()));
+		addMemoryMetric(callback, "heap.committed", memoryUsage.getCommitted());
+		addMemoryMetric(callback, "heap.init", memoryUsage.getInit());
+		addMemoryMetric(callback, "heap.used", memoryUsage.getUsed());
+		addMemoryMetric(callback, "heap", memoryUsage.getMax());
 	}
 
 	/**
@@ -124,16 +161,20 @@ public class SystemPublicMetrics implements PublicMetrics, Ordered {
 	 * @param result the result
 	 */
 	private void addNonHeapMetrics(Collection<Metric<?>> result) {
+		addNonHeapMetrics(new MetricCollector(result));
+	}
+
+	private void addNonHeapMetrics(Callback callback) {
 		MemoryUsage memoryUsage = ManagementFactory.getMemoryMXBean()
 				.getNonHeapMemoryUsage();
-		result.add(newMemoryMetric("nonheap.committed", memoryUsage.getCommitted()));
-		result.add(newMemoryMetric("nonheap.init", memoryUsage.getInit()));
-		result.add(newMemoryMetric("nonheap.used", memoryUsage.getUsed()));
-		result.add(newMemoryMetric("nonheap", memoryUsage.getMax()));
+		addMemoryMetric(callback, "nonheap.committed", memoryUsage.getCommitted());
+		addMemoryMetric(callback, "nonheap.init", memoryUsage.getInit());
+		addMemoryMetric(callback, "nonheap.used", memoryUsage.getUsed());
+		addMemoryMetric(callback, "nonheap", memoryUsage.getMax());
 	}
 
-	private Metric<Long> newMemoryMetric(String name, long bytes) {
-		return new Metric<Long>(name, bytes / 1024);
+	private void addMemoryMetric(Callback callback, String name, long bytes) {
+		callback.value(name, bytes / 1024);
 	}
 
 	/**
@@ -141,14 +182,16 @@ public class SystemPublicMetrics implements PublicMetrics, Ordered {
 	 * @param result the result
 	 */
 	protected void addThreadMetrics(Collection<Metric<?>> result) {
+		addThreadMetrics(new MetricCollector(result));
+	}
+
+	private void addThreadMetrics(Callback callback) {
 		ThreadMXBean threadMxBean = ManagementFactory.getThreadMXBean();
-		result.add(new Metric<Long>("threads.peak",
-				(long) threadMxBean.getPeakThreadCount()));
-		result.add(new Metric<Long>("threads.daemon",
-				(long) threadMxBean.getDaemonThreadCount()));
-		result.add(new Metric<Long>("threads.totalStarted",
-				threadMxBean.getTotalStartedThreadCount()));
-		result.add(new Metric<Long>("threads", (long) threadMxBean.getThreadCount()));
+		callback.value("threads.peak", (long) threadMxBean.getPeakThreadCount());
+		callback.value("threads.daemon", (long) threadMxBean.getDaemonThreadCount());
+		callback.value("threads.totalStarted",
+				threadMxBean.getTotalStartedThreadCount());
+		callback.value("threads", (long) threadMxBean.getThreadCount());
 	}
 
 	/**
@@ -156,13 +199,14 @@ public class SystemPublicMetrics implements PublicMetrics, Ordered {
 	 * @param result the result
 	 */
 	protected void addClassLoadingMetrics(Collection<Metric<?>> result) {
+		addClassLoadingMetrics(new MetricCollector(result));
+	}
+
+	private void addClassLoadingMetrics(Callback callback) {
 		ClassLoadingMXBean classLoadingMxBean = ManagementFactory.getClassLoadingMXBean();
-		result.add(new Metric<Long>("classes",
-				(long) classLoadingMxBean.getLoadedClassCount()));
-		result.add(new Metric<Long>("classes.loaded",
-				classLoadingMxBean.getTotalLoadedClassCount()));
-		result.add(new Metric<Long>("classes.unloaded",
-				classLoadingMxBean.getUnloadedClassCount()));
+		callback.value("classes", (long) classLoadingMxBean.getLoadedClassCount());
+		callback.value("classes.loaded", classLoadingMxBean.getTotalLoadedClassCount());
+		callback.value("classes.unloaded", classLoadingMxBean.getUnloadedClassCount());
 	}
 
 	/**
@@ -170,14 +214,18 @@ public class SystemPublicMetrics implements PublicMetrics, Ordered {
 	 * @param result the result
 	 */
 	protected void addGarbageCollectionMetrics(Collection<Metric<?>> result) {
+		addGarbageCollectionMetrics(new MetricCollector(result));
+	}
+
+	private void addGarbageCollectionMetrics(Callback callback) {
 		List<GarbageCollectorMXBean> garbageCollectorMxBeans = ManagementFactory
 				.getGarbageCollectorMXBeans();
 		for (GarbageCollectorMXBean garbageCollectorMXBean : garbageCollectorMxBeans) {
 			String name = beautifyGcName(garbageCollectorMXBean.getName());
-			result.add(new Metric<Long>("gc." + name + ".count",
-					garbageCollectorMXBean.getCollectionCount()));
-			result.add(new Metric<Long>("gc." + name + ".time",
-					garbageCollectorMXBean.getCollectionTime()));
+			callback.value("gc." + name + ".count",
+					garbageCollectorMXBean.getCollectionCount());
+			callback.value("gc." + name + ".time",
+					garbageCollectorMXBean.getCollectionTime());
 		}
 	}
 
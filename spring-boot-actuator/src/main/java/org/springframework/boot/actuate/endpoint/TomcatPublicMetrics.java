@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2014 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,7 +27,9 @@ import org.apache.catalina.Manager;
 import org.apache.catalina.session.ManagerBase;
 
 import org.springframework.beans.BeansException;
+import org.springframework.boot.actuate.endpoint.MetricValues.MetricCollector;
 import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.reader.MetricValueSource;
 import org.springframework.boot.context.embedded.EmbeddedWebApplicationContext;
 import org.springframework.boot.context.embedded.EmbeddedWebServer;
 import org.springframework.boot.context.embedded.tomcat.TomcatEmbeddedServletContainer;
@@ -41,22 +43,37 @@ import org.springframework.context.ApplicationContextAware;
  * @author Phillip Webb
  * @since 1.2.0
  */
-public class TomcatPublicMetrics implements PublicMetrics, ApplicationContextAware {
+public class TomcatPublicMetrics
+		implements PublicMetrics, MetricValueSource, ApplicationContextAware {
 
 	private ApplicationContext applicationContext;
 
 	@Override
 	public Collection<Metric<?>> metrics() {
-		if (this.applicationContext instanceof EmbeddedWebApplicationContext) {
-			Manager manager = getManager(
-					(EmbeddedWebApplicationContext) this.applicationContext);
-			if (manager != null) {
-				return metrics(manager);
-			}
+		Manager manager = getManager();
+		if (manager != null) {
+			List<Metric<?>> metrics = new ArrayList<Metric<?>>(2);
+			addMetrics(new MetricCollector(metrics), manager);
+			return metrics;
 		}
 		return Collections.emptySet();
 	}
 
+	@Override
+	public void forEachValue(Callback callback) {
+		Manager manager = getManager();
+		if (manager != null) {
+			addMetrics(callback, manager);
+		}
+	}
+
+	private Manager getManager() {
+		if (this.applicationContext instanceof EmbeddedWebApplicationContext) {
+			return getManager((EmbeddedWebApplicationContext) this.applicationContext);
+		}
+		return null;
+	}
+
 	private Manager getManager(EmbeddedWebApplicationContext applicationContext) {
 		EmbeddedWebServer embeddedWebServer = applicationContext
 				.getEmbeddedWebServer();
@@ -76,18 +93,12 @@ public class TomcatPublicMetrics implements PublicMetrics, ApplicationContextAwa
 		return null;
 	}
 
-	private Collection<Metric<?>> metrics(Manager manager) {
-		List<Metric<?>> metrics = new ArrayList<Metric<?>>(2);
+	private void addMetrics(Callback callback, Manager manager) {
 		if (manager instanceof ManagerBase) {
-			addMetric(metrics, "httpsessions.max",
+			callback.value("httpsessions.max",
 					((ManagerBase) manager).getMaxActiveSessions());
 		}
-		addMetric(metrics, "httpsessions.active", manager.getActiveSessions());
-		return metrics;
-	}
-
-	private void addMetric(List<Metric<?>> metrics, String name, Integer value) {
-		metrics.add(new Metric<Integer>(name, value));
+		callback.value("httpsessions.active", manager.getActiveSessions());
 	}
 
 	@Override
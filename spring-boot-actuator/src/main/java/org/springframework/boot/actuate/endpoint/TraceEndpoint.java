@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,8 +16,13 @@
 
 package org.springframework.boot.actuate.endpoint;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
 import java.util.List;
 
+import org.springframework.boot.actuate.trace.SearchableTraceRepository;
 import org.springframework.boot.actuate.trace.Trace;
 import org.springframework.boot.actuate.trace.TraceRepository;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -31,6 +36,11 @@ import org.springframework.util.Assert;
 @ConfigurationProperties(prefix = "endpoints.trace")
 public class TraceEndpoint extends AbstractEndpoint<List<Trace>> {
 
+	/**
+	 * The maximum number of traces returned by {@link #find(Date, Date, int)}.
+	 */
+	public static final int MAXIMUM_LIMIT = 1000;
+
 	private final TraceRepository repository;
 
 	/**
@@ -48,4 +58,41 @@ public class TraceEndpoint extends AbstractEndpoint<List<Trace>> {
 		return this.repository.findAll();
 	}
 
+	/**
+	 * Find the most recent traces recorded in the given time range, ordered oldest
+	 * first. Repositories that are not {@link SearchableTraceRepository searchable} are
+	 * searched using the traces returned by {@link TraceRepository#findAll()}.
+	 * @param from the start of the range (inclusive) or {@code null}
+	 * @param to the end of the range (inclusive) or {@code null}
+	 * @param limit the maximum number of most recent traces to return, capped at
+	 * {@value #MAXIMUM_LIMIT}
+	 * @return the traces
+	 * @since 2.0.0
+	 */
+	public List<Trace> find(Date from, Date to, int limit) {
+		Assert.isTrue(limit >= 0, "Limit must not be negative");
+		int max = Math.min(limit, MAXIMUM_LIMIT);
+		if (this.repository instanceof SearchableTraceRepository) {
+			return ((SearchableTraceRepository) this.repository).find(from, to, max);
+		}
+		List<Trace> traces = new ArrayList<Trace>();
+		for (Trace trace : this.repository.findAll()) {
+			Date timestamp = trace.getTimestamp();
+			if ((from == null || !timestamp.before(from))
+					&& (to == null || !timestamp.after(to))) {
+				traces.add(trace);
+			}
+		}
+		Collections.sort(traces, new Comparator<Trace>() {
+
+			@Override
+			public int compare(Trace o1, Trace o2) {
+				return o1.getTimestamp().compareTo(o2.getTimestamp());
+			}
+
+		});
+		return (traces.size() > max ? traces.subList(traces.size() - max, traces.size())
+				: traces);
+	}
+
 }
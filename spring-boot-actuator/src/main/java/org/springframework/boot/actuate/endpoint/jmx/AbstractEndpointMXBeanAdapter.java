@@ -0,0 +1,87 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint.jmx;
+
+import org.springframework.boot.actuate.endpoint.Endpoint;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Base class for {@link JmxEndpoint JmxEndpoints} that expose an {@link Endpoint} as an
+ * MXBean. The projection of the endpoint's result is cached for a configurable time.
+ *
+ * @param <E> the type of the endpoint
+ * @param <T> the type of the projection
+ * @author Jerry Lei
+ */
+abstract class AbstractEndpointMXBeanAdapter<E extends Endpoint<?>, T>
+		implements JmxEndpoint {
+
+	private final E endpoint;
+
+	private final EndpointResultCache<T> cache = new EndpointResultCache<T>();
+
+	private final EndpointResultCache.Loader<T> loader = new EndpointResultCache.Loader<T>() {
+
+		@Override
+		public T load() {
+			return project(AbstractEndpointMXBeanAdapter.this.endpoint);
+		}
+
+	};
+
+	AbstractEndpointMXBeanAdapter(E endpoint) {
+		Assert.notNull(endpoint, "Endpoint must not be null");
+		this.endpoint = endpoint;
+	}
+
+	void setCacheTimeToLive(long timeToLive) {
+		this.cache.setTimeToLive(timeToLive);
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return this.endpoint.isEnabled();
+	}
+
+	@Override
+	public String getIdentity() {
+		return ObjectUtils.getIdentityHexString(this.endpoint);
+	}
+
+	@Override
+	@SuppressWarnings("rawtypes")
+	public Class<? extends Endpoint> getEndpointType() {
+		return this.endpoint.getClass();
+	}
+
+	/**
+	 * Return the current, possibly cached, projection of the endpoint's result.
+	 * @return the projection
+	 */
+	protected final T getProjection() {
+		return this.cache.get(this.loader);
+	}
+
+	/**
+	 * Invoke the endpoint and project its result.
+	 * @param endpoint the endpoint
+	 * @return the projection
+	 */
+	protected abstract T project(E endpoint);
+
+}
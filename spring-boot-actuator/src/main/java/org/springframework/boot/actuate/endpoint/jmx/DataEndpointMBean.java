@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,13 +23,16 @@ import org.springframework.jmx.export.annotation.ManagedAttribute;
 
 /**
  * Simple wrapper around {@link Endpoint} implementations that provide actuator data of
- * some sort.
+ * some sort. The converted data may be cached for a configurable time so that frequent
+ * reads by JMX clients do not invoke the endpoint each time.
  *
  * @author Christian Dupuis
  * @author Andy Wilkinson
  */
 public class DataEndpointMBean extends EndpointMBean {
 
+	private final EndpointResultCache<Object> cache = new EndpointResultCache<Object>();
+
 	/**
 	 * Create a new {@link DataEndpointMBean} instance.
 	 * @param beanName the bean name
@@ -41,9 +44,26 @@ public class DataEndpointMBean extends EndpointMBean {
 		super(beanName, endpoint, objectMapper);
 	}
 
+	/**
+	 * Set the time in milliseconds for which the data is cached. A value of zero or less
+	 * (the default) disables caching.
+	 * @param timeToLive the time to live in milliseconds
+	 * @since 2.0.0
+	 */
+	public void setCacheTimeToLive(long timeToLive) {
+		this.cache.setTimeToLive(timeToLive);
+	}
+
 	@ManagedAttribute(description = "Invoke the underlying endpoint")
 	public Object getData() {
-		return convert(getEndpoint().invoke());
+		return this.cache.get(new EndpointResultCache.Loader<Object>() {
+
+			@Override
+			public Object load() {
+				return convert(getEndpoint().invoke());
+			}
+
+		});
 	}
 
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.boot.actuate.endpoint.jmx;
 
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
@@ -35,7 +36,9 @@ import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.ListableBeanFactory;
 import org.springframework.boot.actuate.endpoint.Endpoint;
+import org.springframework.boot.actuate.endpoint.HealthEndpoint;
 import org.springframework.boot.actuate.endpoint.LoggersEndpoint;
+import org.springframework.boot.actuate.endpoint.MetricsEndpoint;
 import org.springframework.boot.actuate.endpoint.ShutdownEndpoint;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
@@ -58,6 +61,12 @@ import org.springframework.util.ObjectUtils;
  * {@link SmartLifecycle} bean that registers all known {@link Endpoint}s with an
  * {@link MBeanServer} using the {@link MBeanExporter} located from the application
  * context.
+ * <p>
+ * The data read from adapted endpoints can be cached for a configurable time, either
+ * for all endpoints or per endpoint id. When {@link #setTypedEndpoints(boolean) typed
+ * endpoints} are enabled, the {@link MetricsEndpoint} and {@link HealthEndpoint} are
+ * exposed as a {@link MetricsEndpointMXBean} and {@link HealthEndpointMXBean}
+ * respectively rather than as JSON-like data.
  *
  * @author Christian Dupuis
  * @author Andy Wilkinson
@@ -103,6 +112,12 @@ public class EndpointMBeanExporter extends MBeanExporter
 
 	private final ObjectMapper objectMapper;
 
+	private long cacheTimeToLive = 0;
+
+	private Map<String, Long> endpointCacheTimeToLive = new LinkedHashMap<String, Long>();
+
+	private boolean typedEndpoints = false;
+
 	/**
 	 * Create a new {@link EndpointMBeanExporter} instance.
 	 */
@@ -154,6 +169,38 @@ public class EndpointMBeanExporter extends MBeanExporter
 		this.objectNameStaticProperties = objectNameStaticProperties;
 	}
 
+	/**
+	 * Set the time in milliseconds for which the data read from an endpoint is cached. A
+	 * value of zero or less (the default) disables caching.
+	 * @param cacheTimeToLive the time to live in milliseconds
+	 * @since 2.0.0
+	 */
+	public void setCacheTimeToLive(long cacheTimeToLive) {
+		this.cacheTimeToLive = cacheTimeToLive;
+	}
+
+	/**
+	 * Set the time in milliseconds for which the data read from specific endpoints is
+	 * cached, overriding the {@link #setCacheTimeToLive(long) default}.
+	 * @param endpointCacheTimeToLive the time to live in milliseconds keyed by endpoint
+	 * id
+	 * @since 2.0.0
+	 */
+	public void setEndpointCacheTimeToLive(Map<String, Long> endpointCacheTimeToLive) {
+		this.endpointCacheTimeToLive = new LinkedHashMap<String, Long>(
+				endpointCacheTimeToLive);
+	}
+
+	/**
+	 * Set whether the metrics and health endpoints should be exposed as MXBeans with
+	 * typed attributes rather than as JSON-like data.
+	 * @param typedEndpoints {@code true} to expose typed MXBeans
+	 * @since 2.0.0
+	 */
+	public void setTypedEndpoints(boolean typedEndpoints) {
+		this.typedEndpoints = typedEndpoints;
+	}
+
 	protected void doStart() {
 		locateAndRegisterEndpoints();
 	}
@@ -229,7 +276,30 @@ public class EndpointMBeanExporter extends MBeanExporter
 	 * @return an adapted endpoint
 	 */
 	protected JmxEndpoint adaptEndpoint(String beanName, Endpoint<?> endpoint) {
-		return getEndpointMBean(beanName, endpoint);
+		long timeToLive = getCacheTimeToLive(endpoint);
+		if (this.typedEndpoints && endpoint instanceof MetricsEndpoint) {
+			MetricsEndpointMXBeanAdapter adapter = new MetricsEndpointMXBeanAdapter(
+					(MetricsEndpoint) endpoint);
+			adapter.setCacheTimeToLive(timeToLive);
+			return adapter;
+		}
+		if (this.typedEndpoints && endpoint instanceof HealthEndpoint) {
+			HealthEndpointMXBeanAdapter adapter = new HealthEndpointMXBeanAdapter(
+					(HealthEndpoint) endpoint);
+			adapter.setCacheTimeToLive(timeToLive);
+			return adapter;
+		}
+		EndpointMBean endpointMBean = getEndpointMBean(beanName, endpoint);
+		if (endpointMBean instanceof DataEndpointMBean) {
+			((DataEndpointMBean) endpointMBean).setCacheTimeToLive(timeToLive);
+		}
+		return endpointMBean;
+	}
+
+	private long getCacheTimeToLive(Endpoint<?> endpoint) {
+		Long timeToLive = (endpoint.getId() == null ? null
+				: this.endpointCacheTimeToLive.get(endpoint.getId()));
+		return (timeToLive == null ? this.cacheTimeToLive : timeToLive);
 	}
 
 	/**
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint.jmx;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache for the result of reading an endpoint over JMX. A cached result is reused until
+ * its time to live has expired, after which the next read loads a new one. Concurrent
+ * reads of an expired result wait for a single load rather than each invoking the
+ * endpoint.
+ *
+ * @param <T> the type of the result
+ * @author Jerry Lei
+ */
+class EndpointResultCache<T> {
+
+	private final Object monitor = new Object();
+
+	private volatile long timeToLive;
+
+	private volatile CachedResult<T> cached;
+
+	/**
+	 * Set the time in milliseconds for which a result is cached. A value of zero or less
+	 * disables caching.
+	 * @param timeToLive the time to live in milliseconds
+	 */
+	void setTimeToLive(long timeToLive) {
+		this.timeToLive = timeToLive;
+		this.cached = null;
+	}
+
+	long getTimeToLive() {
+		return this.timeToLive;
+	}
+
+	/**
+	 * Return the cached result or use the given loader to obtain a new one.
+	 * @param loader the loader used when there is no valid cached result
+	 * @return the result
+	 */
+	T get(Loader<T> loader) {
+		long ttl = this.timeToLive;
+		if (ttl <= 0) {
+			return loader.load();
+		}
+		CachedResult<T> result = this.cached;
+		if (result != null && !result.isExpired(ttl)) {
+			return result.value;
+		}
+		synchronized (this.monitor) {
+			result = this.cached;
+			if (result == null || result.isExpired(ttl)) {
+				result = new CachedResult<T>(loader.load());
+				this.cached = result;
+			}
+			return result.value;
+		}
+	}
+
+	/**
+	 * Callback used to load a result.
+	 *
+	 * @param <T> the type of the result
+	 */
+	interface Loader<T> {
+
+		/**
+		 * Load the result.
+		 * @return the result
+		 */
+		T load();
+
+	}
+
+	private static final class CachedResult<T> {
+
+		private final T value;
+
+		private final long creationTime = System.nanoTime();
+
+		CachedResult(T value) {
+			this.value = value;
+		}
+
+		boolean isExpired(long timeToLive) {
+			return System.nanoTime() - this.creationTime >= TimeUnit.MILLISECONDS
+					.toNanos(timeToLive);
+		}
+
+	}
+
+}
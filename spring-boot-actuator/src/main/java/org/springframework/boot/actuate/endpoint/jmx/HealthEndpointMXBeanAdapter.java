@@ -0,0 +1,60 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint.jmx;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.HealthEndpoint;
+import org.springframework.boot.actuate.health.Health;
+
+/**
+ * {@link HealthEndpointMXBean} backed by a {@link HealthEndpoint}.
+ *
+ * @author Jerry Lei
+ */
+class HealthEndpointMXBeanAdapter extends
+		AbstractEndpointMXBeanAdapter<HealthEndpoint, Health> implements HealthEndpointMXBean {
+
+	HealthEndpointMXBeanAdapter(HealthEndpoint endpoint) {
+		super(endpoint);
+	}
+
+	@Override
+	public String getStatus() {
+		return getProjection().getStatus().getCode();
+	}
+
+	@Override
+	public Map<String, String> getComponents() {
+		Map<String, String> components = new LinkedHashMap<String, String>();
+		for (Map.Entry<String, Object> entry : getProjection().getDetails().entrySet()) {
+			if (entry.getValue() instanceof Health) {
+				components.put(entry.getKey(),
+						((Health) entry.getValue()).getStatus().getCode());
+			}
+		}
+		return Collections.unmodifiableMap(components);
+	}
+
+	@Override
+	protected Health project(HealthEndpoint endpoint) {
+		return endpoint.invoke();
+	}
+
+}
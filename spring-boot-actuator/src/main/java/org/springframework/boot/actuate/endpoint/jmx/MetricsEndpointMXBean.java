@@ -0,0 +1,44 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint.jmx;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.MetricsEndpoint;
+
+/**
+ * MXBean view of a {@link MetricsEndpoint} that exposes metric values as open types so
+ * that they can be read by JMX clients without converting them to JSON first.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+public interface MetricsEndpointMXBean {
+
+	/**
+	 * Return the current value of each metric, keyed by metric name.
+	 * @return the metric values
+	 */
+	Map<String, Double> getMetrics();
+
+	/**
+	 * Return the number of metrics.
+	 * @return the number of metrics
+	 */
+	int getMetricCount();
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint.jmx;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.MetricsEndpoint;
+import org.springframework.boot.actuate.metrics.reader.MetricValueSource;
+
+/**
+ * {@link MetricsEndpointMXBean} backed by a {@link MetricsEndpoint}. Metric values are
+ * read directly from the endpoint's {@link MetricValueSource} without creating an
+ * intermediate map of metrics.
+ *
+ * @author Jerry Lei
+ */
+class MetricsEndpointMXBeanAdapter
+		extends AbstractEndpointMXBeanAdapter<MetricsEndpoint, Map<String, Double>>
+		implements MetricsEndpointMXBean {
+
+	MetricsEndpointMXBeanAdapter(MetricsEndpoint endpoint) {
+		super(endpoint);
+	}
+
+	@Override
+	public Map<String, Double> getMetrics() {
+		return getProjection();
+	}
+
+	@Override
+	public int getMetricCount() {
+		return getProjection().size();
+	}
+
+	@Override
+	protected Map<String, Double> project(MetricsEndpoint endpoint) {
+		final Map<String, Double> metrics = new LinkedHashMap<String, Double>();
+		endpoint.forEachValue(new MetricValueSource.Callback() {
+
+			@Override
+			public void value(String name, long value) {
+				metrics.put(name, (double) value);
+			}
+
+			@Override
+			public void value(String name, double value) {
+				metrics.put(name, value);
+			}
+
+		});
+		return Collections.unmodifiableMap(metrics);
+	}
+
+}
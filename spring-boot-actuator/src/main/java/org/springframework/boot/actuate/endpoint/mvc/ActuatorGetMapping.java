@@ -49,4 +49,11 @@ import org.springframework.web.bind.annotation.RequestMethod;
 	@AliasFor(annotation = RequestMapping.class)
 	String[] value() default {};
 
+	/**
+	 * Alias for {@link RequestMapping#params}.
+	 * @return the params
+	 */
+	@AliasFor(annotation = RequestMapping.class)
+	String[] params() default {};
+
 }
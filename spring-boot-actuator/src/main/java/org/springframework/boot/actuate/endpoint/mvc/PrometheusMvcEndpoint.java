@@ -0,0 +1,187 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint.mvc;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.boot.actuate.endpoint.MetricsEndpoint;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.reader.MetricValueSource;
+import org.springframework.boot.actuate.metrics.reader.MetricValueSource.Callback;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.Assert;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+/**
+ * {@link MvcEndpoint} to expose metrics in the Prometheus text exposition format. The
+ * values are written to the response as they are read from the {@link MetricValueSource}
+ * (typically the {@link MetricsEndpoint}) so no intermediate collection of metrics is
+ * created. Metric names are converted to valid Prometheus names by replacing any invalid
+ * character with an underscore. As with the {@link MetricsEndpoint}, the
+ * {@link PublicMetrics} should provide metrics with unique names.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+@ConfigurationProperties(prefix = "endpoints.prometheus")
+@HypermediaDisabled
+public class PrometheusMvcEndpoint extends AbstractNamedMvcEndpoint {
+
+	/**
+	 * The content type of the Prometheus text exposition format.
+	 */
+	public static final String CONTENT_TYPE = "text/plain;version=0.0.4;charset=utf-8";
+
+	private final MetricValueSource metrics;
+
+	public PrometheusMvcEndpoint(MetricValueSource metrics) {
+		super("prometheus", "/prometheus", true);
+		Assert.notNull(metrics, "Metrics must not be null");
+		this.metrics = metrics;
+	}
+
+	@RequestMapping(method = RequestMethod.GET, produces = CONTENT_TYPE)
+	public void invoke(HttpServletResponse response) throws IOException {
+		if (!isEnabled()) {
+			response.setStatus(HttpStatus.NOT_FOUND.value());
+			return;
+		}
+		response.setContentType(CONTENT_TYPE);
+		Writer writer = response.getWriter();
+		this.metrics.forEachValue(new ExpositionWriter(writer));
+		writer.flush();
+	}
+
+	/**
+	 * {@link Callback} that writes each value as a line of the exposition format. Lines
+	 * are assembled in a reusable buffer so that, apart from the text of non-integral
+	 * values, nothing is allocated per metric.
+	 */
+	static class ExpositionWriter implements Callback {
+
+		private static final double MAX_EXACT_LONG = 9007199254740992.0;
+
+		private final Writer writer;
+
+		private char[] buffer = new char[128];
+
+		ExpositionWriter(Writer writer) {
+			this.writer = writer;
+		}
+
+		@Override
+		public void value(String name, long value) {
+			int length = appendName(name);
+			length = appendLong(length, value);
+			this.buffer[length++] = '\n';
+			write(this.buffer, length);
+		}
+
+		@Override
+		public void value(String name, double value) {
+			if (value == Math.rint(value) && Math.abs(value) < MAX_EXACT_LONG) {
+				value(name, (long) value);
+				return;
+			}
+			String text = format(value);
+			int length = appendName(name);
+			ensureCapacity(length + text.length() + 1);
+			text.getChars(0, text.length(), this.buffer, length);
+			length += text.length();
+			this.buffer[length++] = '\n';
+			write(this.buffer, length);
+		}
+
+		private String format(double value) {
+			if (Double.isNaN(value)) {
+				return "NaN";
+			}
+			if (Double.isInfinite(value)) {
+				return (value > 0 ? "+Inf" : "-Inf");
+			}
+			return Double.toString(value);
+		}
+
+		private int appendName(String name) {
+			// Room for a leading underscore, a space, a long value and a new line
+			ensureCapacity(name.length() + 24);
+			int length = 0;
+			if (name.isEmpty() || isDigit(name.charAt(0))) {
+				this.buffer[length++] = '_';
+			}
+			for (int i = 0; i < name.length(); i++) {
+				char ch = name.charAt(i);
+				this.buffer[length++] = (isValidNameChar(ch) ? ch : '_');
+			}
+			this.buffer[length++] = ' ';
+			return length;
+		}
+
+		private int appendLong(int offset, long value) {
+			int length = offset;
+			if (value < 0) {
+				this.buffer[length++] = '-';
+			}
+			int start = length;
+			long remaining = value;
+			do {
+				this.buffer[length++] = (char) ('0' + Math.abs(remaining % 10));
+				remaining /= 10;
+			}
+			while (remaining != 0);
+			for (int i = start, j = length - 1; i < j; i++, j--) {
+				char ch = this.buffer[i];
+				this.buffer[i] = this.buffer[j];
+				this.buffer[j] = ch;
+			}
+			return length;
+		}
+
+		private boolean isValidNameChar(char ch) {
+			return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || isDigit(ch)
+					|| ch == '_' || ch == ':';
+		}
+
+		private boolean isDigit(char ch) {
+			return ch >= '0' && ch <= '9';
+		}
+
+		private void ensureCapacity(int capacity) {
+			if (this.buffer.length < capacity) {
+				this.buffer = Arrays.copyOf(this.buffer,
+						Math.max(capacity, this.buffer.length * 2));
+			}
+		}
+
+		private void write(char[] chars, int length) {
+			try {
+				this.writer.write(chars, 0, length);
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Unable to write metrics", ex);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint.mvc;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.TraceEndpoint;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * Adapter to expose {@link TraceEndpoint} as an {@link MvcEndpoint}. In addition to the
+ * most recent traces, traces recorded in a time range can be requested using the
+ * {@code from} and {@code to} parameters, either of which may be omitted. Dates use the
+ * ISO-8601 date-time format.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+@ConfigurationProperties(prefix = "endpoints.trace")
+public class TraceMvcEndpoint extends EndpointMvcAdapter {
+
+	private final TraceEndpoint delegate;
+
+	public TraceMvcEndpoint(TraceEndpoint delegate) {
+		super(delegate);
+		this.delegate = delegate;
+	}
+
+	@ActuatorGetMapping(params = "from")
+	@ResponseBody
+	public Object find(@RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) Date from,
+			@RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) Date to,
+			@RequestParam(defaultValue = "100") int limit) {
+		if (!this.delegate.isEnabled()) {
+			// Shouldn't happen - MVC endpoint shouldn't be registered when delegate's
+			// disabled
+			return getDisabledResponse();
+		}
+		if (limit < 0) {
+			return new ResponseEntity<Map<String, String>>(
+					Collections.singletonMap("message", "Limit must not be negative"),
+					HttpStatus.BAD_REQUEST);
+		}
+		return this.delegate.find(from, to, limit);
+	}
+
+	@ActuatorGetMapping(params = { "to", "!from" })
+	@ResponseBody
+	public Object findUntil(@RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) Date to,
+			@RequestParam(defaultValue = "100") int limit) {
+		return find(null, to, limit);
+	}
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.health;
+
+import java.util.function.Function;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Base {@link ReactiveHealthIndicator} implementation that encapsulates creation of
+ * {@link Health} instance and error handling.
+ * <p>
+ * This implementation is only suitable if an error raised from
+ * {@link #doHealthCheck(Health.Builder)}, either directly or through the returned
+ * {@link Mono}, should create a {@link Status#DOWN} health status.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+public abstract class AbstractReactiveHealthIndicator implements ReactiveHealthIndicator {
+
+	@Override
+	public final Mono<Health> health() {
+		try {
+			return doHealthCheck(new Health.Builder())
+					.onErrorResume(new Function<Throwable, Mono<Health>>() {
+
+						@Override
+						public Mono<Health> apply(Throwable ex) {
+							return Mono.just(down(ex));
+						}
+
+					});
+		}
+		catch (Exception ex) {
+			return Mono.just(down(ex));
+		}
+	}
+
+	private Health down(Throwable ex) {
+		return new Health.Builder().down(
+				ex instanceof Exception ? (Exception) ex : new IllegalStateException(ex))
+				.build();
+	}
+
+	/**
+	 * Actual health check logic. If an error occurs in the pipeline it will be handled
+	 * automatically.
+	 * @param builder the {@link Health.Builder} to report health status and details
+	 * @return a {@link Mono} that provides the {@link Health}
+	 */
+	protected abstract Mono<Health> doHealthCheck(Health.Builder builder);
+
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.health;
+
+import java.time.Duration;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.util.Assert;
+
+/**
+ * {@link ReactiveHealthIndicator} that returns health indications from all registered
+ * delegates. The delegates are subscribed to concurrently and their results aggregated
+ * once all of them have provided their health, without blocking. Blocking
+ * {@link HealthIndicator HealthIndicators} can be added as well, in which case they are
+ * run on a scheduler suitable for blocking work. When a {@link #setTimeout(long) timeout}
+ * is set, an indicator that does not provide its health in time is reported as
+ * {@link Status#DOWN} without affecting the others.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ * @see CompositeHealthIndicator
+ */
+public class CompositeReactiveHealthIndicator implements ReactiveHealthIndicator {
+
+	private final Map<String, ReactiveHealthIndicator> indicators;
+
+	private final HealthAggregator healthAggregator;
+
+	private long timeout;
+
+	/**
+	 * Create a new {@link CompositeReactiveHealthIndicator}.
+	 * @param healthAggregator the health aggregator
+	 */
+	public CompositeReactiveHealthIndicator(HealthAggregator healthAggregator) {
+		this(healthAggregator, new LinkedHashMap<String, ReactiveHealthIndicator>());
+	}
+
+	/**
+	 * Create a new {@link CompositeReactiveHealthIndicator} from the specified
+	 * indicators.
+	 * @param healthAggregator the health aggregator
+	 * @param indicators a map of {@link ReactiveHealthIndicator}s with the key being used
+	 * as an indicator name.
+	 */
+	public CompositeReactiveHealthIndicator(HealthAggregator healthAggregator,
+			Map<String, ReactiveHealthIndicator> indicators) {
+		Assert.notNull(healthAggregator, "HealthAggregator must not be null");
+		Assert.notNull(indicators, "Indicators must not be null");
+		this.indicators = new LinkedHashMap<String, ReactiveHealthIndicator>(indicators);
+		this.healthAggregator = healthAggregator;
+	}
+
+	/**
+	 * Set the maximum time in milliseconds that each indicator may take to provide its
+	 * health. No timeout is applied if the value is zero or negative.
+	 * @param timeout the timeout in milliseconds
+	 */
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+	public void addHealthIndicator(String name, ReactiveHealthIndicator indicator) {
+		this.indicators.put(name, indicator);
+	}
+
+	public void addHealthIndicator(String name, HealthIndicator indicator) {
+		this.indicators.put(name, new HealthIndicatorReactiveAdapter(indicator));
+	}
+
+	@Override
+	public Mono<Health> health() {
+		return Flux.fromIterable(this.indicators.entrySet())
+				.flatMapSequential(new Function<Map.Entry<String, ReactiveHealthIndicator>,
+						Publisher<Map.Entry<String, Health>>>() {
+
+					@Override
+					public Publisher<Map.Entry<String, Health>> apply(
+							Map.Entry<String, ReactiveHealthIndicator> entry) {
+						return health(entry.getKey(), entry.getValue());
+					}
+
+				}).collectMap(new Function<Map.Entry<String, Health>, String>() {
+
+					@Override
+					public String apply(Map.Entry<String, Health> entry) {
+						return entry.getKey();
+					}
+
+				}, new Function<Map.Entry<String, Health>, Health>() {
+
+					@Override
+					public Health apply(Map.Entry<String, Health> entry) {
+						return entry.getValue();
+					}
+
+				}, new Supplier<Map<String, Health>>() {
+
+					@Override
+					public Map<String, Health> get() {
+						return new LinkedHashMap<String, Health>();
+					}
+
+				}).map(new Function<Map<String, Health>, Health>() {
+
+					@Override
+					public Health apply(Map<String, Health> healths) {
+						return CompositeReactiveHealthIndicator.this.healthAggregator
+								.aggregate(healths);
+					}
+
+				});
+	}
+
+	private Mono<Map.Entry<String, Health>> health(final String name,
+			final ReactiveHealthIndicator indicator) {
+		Mono<Health> health = Mono.defer(new Supplier<Mono<Health>>() {
+
+			@Override
+			public Mono<Health> get() {
+				return indicator.health();
+			}
+
+		});
+		if (this.timeout > 0) {
+			health = health.timeout(Duration.ofMillis(this.timeout), Mono.just(Health
+					.down().withDetail("error", "Timeout after " + this.timeout + "ms")
+					.build()));
+		}
+		return health.defaultIfEmpty(Health.unknown().build())
+				.onErrorResume(new Function<Throwable, Mono<Health>>() {
+
+					@Override
+					public Mono<Health> apply(Throwable ex) {
+						return Mono.just(Health.down(ex instanceof Exception
+								? (Exception) ex : new IllegalStateException(ex)).build());
+					}
+
+				}).map(new Function<Health, Map.Entry<String, Health>>() {
+
+					@Override
+					public Map.Entry<String, Health> apply(Health health) {
+						return new SimpleImmutableEntry<String, Health>(name, health);
+					}
+
+				});
+	}
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.health;
+
+import java.util.Map;
+
+import org.springframework.util.Assert;
+
+/**
+ * Factory to create a {@link CompositeReactiveHealthIndicator}.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+public class CompositeReactiveHealthIndicatorFactory {
+
+	private final HealthIndicatorNameFactory healthIndicatorNameFactory;
+
+	public CompositeReactiveHealthIndicatorFactory() {
+		this(new HealthIndicatorNameFactory());
+	}
+
+	public CompositeReactiveHealthIndicatorFactory(
+			HealthIndicatorNameFactory healthIndicatorNameFactory) {
+		Assert.notNull(healthIndicatorNameFactory,
+				"HealthIndicatorNameFactory must not be null");
+		this.healthIndicatorNameFactory = healthIndicatorNameFactory;
+	}
+
+	/**
+	 * Create a {@link CompositeReactiveHealthIndicator} based on the specified health
+	 * indicators. Each {@link HealthIndicator} is adapted so that it is run on a
+	 * scheduler suitable for blocking work. When a {@link ReactiveHealthIndicator} and
+	 * a {@link HealthIndicator} share the same name, the reactive one is used.
+	 * @param healthAggregator the {@link HealthAggregator}
+	 * @param reactiveHealthIndicators the {@link ReactiveHealthIndicator} instances
+	 * mapped by name
+	 * @param healthIndicators the {@link HealthIndicator} instances mapped by name, may
+	 * be {@code null}
+	 * @return a {@link ReactiveHealthIndicator} that delegates to the specified
+	 * indicators
+	 */
+	public CompositeReactiveHealthIndicator createReactiveHealthIndicator(
+			HealthAggregator healthAggregator,
+			Map<String, ReactiveHealthIndicator> reactiveHealthIndicators,
+			Map<String, HealthIndicator> healthIndicators) {
+		Assert.notNull(healthAggregator, "HealthAggregator must not be null");
+		Assert.notNull(reactiveHealthIndicators,
+				"ReactiveHealthIndicators must not be null");
+		CompositeReactiveHealthIndicator healthIndicator = new CompositeReactiveHealthIndicator(
+				healthAggregator);
+		for (Map.Entry<String, ReactiveHealthIndicator> entry : reactiveHealthIndicators
+				.entrySet()) {
+			healthIndicator.addHealthIndicator(getName(entry.getKey()),
+					entry.getValue());
+		}
+		if (healthIndicators != null) {
+			for (Map.Entry<String, HealthIndicator> entry : healthIndicators
+					.entrySet()) {
+				if (!reactiveHealthIndicators.containsKey(entry.getKey())) {
+					healthIndicator.addHealthIndicator(getName(entry.getKey()),
+							entry.getValue());
+				}
+			}
+		}
+		return healthIndicator;
+	}
+
+	private String getName(String beanName) {
+		return this.healthIndicatorNameFactory.createHealthIndicatorName(beanName);
+	}
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.health;
+
+/**
+ * Generate a sensible health indicator name based on its bean name.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+public class HealthIndicatorNameFactory {
+
+	/**
+	 * Return the name under which the health of the indicator with the given bean name
+	 * is reported. A {@code HealthIndicator} suffix, if any, is removed.
+	 * @param beanName the bean name
+	 * @return the health indicator name
+	 */
+	public String createHealthIndicatorName(String beanName) {
+		int index = beanName.toLowerCase().indexOf("healthindicator");
+		if (index > 0) {
+			return beanName.substring(0, index);
+		}
+		return beanName;
+	}
+
+}
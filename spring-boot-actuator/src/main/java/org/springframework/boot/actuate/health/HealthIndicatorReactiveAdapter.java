@@ -0,0 +1,56 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.health;
+
+import java.util.concurrent.Callable;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.util.Assert;
+
+/**
+ * Adapts a {@link HealthIndicator} to a {@link ReactiveHealthIndicator} so that it can be
+ * safely invoked in a reactive environment. The blocking check is run on a
+ * {@link Scheduler} suitable for blocking work rather than on the subscribing thread.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+public class HealthIndicatorReactiveAdapter implements ReactiveHealthIndicator {
+
+	private final HealthIndicator delegate;
+
+	public HealthIndicatorReactiveAdapter(HealthIndicator delegate) {
+		Assert.notNull(delegate, "Delegate must not be null");
+		this.delegate = delegate;
+	}
+
+	@Override
+	public Mono<Health> health() {
+		return Mono.fromCallable(new Callable<Health>() {
+
+			@Override
+			public Health call() throws Exception {
+				return HealthIndicatorReactiveAdapter.this.delegate.health();
+			}
+
+		}).subscribeOn(Schedulers.elastic());
+	}
+
+}
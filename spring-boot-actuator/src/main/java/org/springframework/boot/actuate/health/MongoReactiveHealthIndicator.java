@@ -0,0 +1,60 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.health;
+
+import java.util.function.Function;
+
+import org.bson.Document;
+import reactor.core.publisher.Mono;
+
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link ReactiveHealthIndicator} for Mongo that uses a reactive driver and so does not
+ * block a thread while the check is in progress.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ * @see MongoHealthIndicator
+ */
+public class MongoReactiveHealthIndicator extends AbstractReactiveHealthIndicator {
+
+	private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+	public MongoReactiveHealthIndicator(ReactiveMongoTemplate reactiveMongoTemplate) {
+		Assert.notNull(reactiveMongoTemplate,
+				"ReactiveMongoTemplate must not be null");
+		this.reactiveMongoTemplate = reactiveMongoTemplate;
+	}
+
+	@Override
+	protected Mono<Health> doHealthCheck(final Health.Builder builder) {
+		return this.reactiveMongoTemplate.executeCommand("{ buildInfo: 1 }")
+				.map(new Function<Document, Health>() {
+
+					@Override
+					public Health apply(Document document) {
+						return builder.up()
+								.withDetail("version", document.getString("version"))
+								.build();
+					}
+
+				});
+	}
+
+}
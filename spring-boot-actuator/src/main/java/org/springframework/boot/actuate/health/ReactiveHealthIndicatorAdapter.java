@@ -0,0 +1,70 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.health;
+
+import java.time.Duration;
+
+import reactor.core.publisher.Mono;
+
+import org.springframework.util.Assert;
+
+/**
+ * Adapts a {@link ReactiveHealthIndicator} to a {@link HealthIndicator} so that it can be
+ * used by the {@link org.springframework.boot.actuate.endpoint.HealthEndpoint
+ * HealthEndpoint}. The calling thread waits for the reactive indicator. When the delegate
+ * is a {@link CompositeReactiveHealthIndicator} all of its indicators are checked
+ * concurrently so only a single thread is blocked, and the composite's timeout bounds
+ * the time that each of them may take.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+public class ReactiveHealthIndicatorAdapter implements HealthIndicator {
+
+	private final ReactiveHealthIndicator delegate;
+
+	private long timeout;
+
+	public ReactiveHealthIndicatorAdapter(ReactiveHealthIndicator delegate) {
+		Assert.notNull(delegate, "Delegate must not be null");
+		this.delegate = delegate;
+	}
+
+	/**
+	 * Set the maximum time in milliseconds to wait for the delegate. If the delegate does
+	 * not provide its health in time, a {@link Status#DOWN} health is returned. By
+	 * default, there is no timeout.
+	 * @param timeout the timeout in milliseconds
+	 */
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+	@Override
+	public Health health() {
+		try {
+			Mono<Health> health = this.delegate.health();
+			Health result = (this.timeout > 0
+					? health.block(Duration.ofMillis(this.timeout)) : health.block());
+			return (result == null ? Health.unknown().build() : result);
+		}
+		catch (Exception ex) {
+			return Health.down(ex).build();
+		}
+	}
+
+}
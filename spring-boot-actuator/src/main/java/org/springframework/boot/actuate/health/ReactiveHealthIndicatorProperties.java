@@ -0,0 +1,45 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.health;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * External configuration properties for reactive health indicators.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+@ConfigurationProperties(prefix = "management.health.reactive", ignoreUnknownFields = false)
+public class ReactiveHealthIndicatorProperties {
+
+	/**
+	 * Time, in milliseconds, to wait for each health indicator when reactive health
+	 * indicators are used. An indicator that does not respond in time is reported as
+	 * down.
+	 */
+	private long timeout = 10000L;
+
+	public long getTimeout() {
+		return this.timeout;
+	}
+
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.health;
+
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import reactor.core.publisher.Mono;
+
+import org.springframework.data.redis.connection.ReactiveRedisConnection;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link ReactiveHealthIndicator} for Redis that uses a reactive connection and so does
+ * not block a thread while the check is in progress.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ * @see RedisHealthIndicator
+ */
+public class RedisReactiveHealthIndicator extends AbstractReactiveHealthIndicator {
+
+	private static final String VERSION = "version";
+
+	private static final String REDIS_VERSION = "redis_version";
+
+	private final ReactiveRedisConnectionFactory connectionFactory;
+
+	public RedisReactiveHealthIndicator(
+			ReactiveRedisConnectionFactory connectionFactory) {
+		Assert.notNull(connectionFactory, "ConnectionFactory must not be null");
+		this.connectionFactory = connectionFactory;
+	}
+
+	@Override
+	protected Mono<Health> doHealthCheck(final Health.Builder builder) {
+		return Mono.using(new Callable<ReactiveRedisConnection>() {
+
+			@Override
+			public ReactiveRedisConnection call() {
+				return RedisReactiveHealthIndicator.this.connectionFactory
+						.getReactiveConnection();
+			}
+
+		}, new Function<ReactiveRedisConnection, Mono<Health>>() {
+
+			@Override
+			public Mono<Health> apply(ReactiveRedisConnection connection) {
+				return connection.serverCommands().info().map(
+						new Function<Properties, Health>() {
+
+							@Override
+							public Health apply(Properties info) {
+								return builder.up().withDetail(VERSION,
+										info.getProperty(REDIS_VERSION)).build();
+							}
+
+						});
+			}
+
+		}, new Consumer<ReactiveRedisConnection>() {
+
+			@Override
+			public void accept(ReactiveRedisConnection connection) {
+				connection.close();
+			}
+
+		});
+	}
+
+}
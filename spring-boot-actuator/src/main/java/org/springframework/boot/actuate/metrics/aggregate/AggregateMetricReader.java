@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2015 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,10 +16,19 @@
 
 package org.springframework.boot.actuate.metrics.aggregate;
 
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.reader.ChangeTrackingMetricReader;
 import org.springframework.boot.actuate.metrics.reader.MetricReader;
 import org.springframework.boot.actuate.metrics.repository.InMemoryMetricRepository;
 import org.springframework.util.StringUtils;
@@ -31,6 +40,12 @@ import org.springframework.util.StringUtils;
  * {@code *.*.[anything].**}, and the result has metric names in the form
  * {@code aggregate.count.**} and {@code aggregate.[anything].**}. Counters are summed and
  * anything else (i.e. gauges) are aggregated by choosing the most recent value.
+ * <p>
+ * By default the aggregates are recomputed from all the source metrics on every read. In
+ * {@link #setIncremental(boolean) incremental} mode the aggregates are kept between reads
+ * and only updated with the changes to the source metrics, and the name of each source
+ * metric is only parsed once. If the source is a {@link ChangeTrackingMetricReader} only
+ * the source metrics that have changed are read.
  *
  * @author Dave Syer
  * @since 1.3.0
@@ -41,8 +56,21 @@ public class AggregateMetricReader implements MetricReader {
 
 	private String keyPattern = "d.d";
 
+	private String[] patterns = StringUtils.delimitedListToStringArray(this.keyPattern,
+			".");
+
 	private String prefix = "aggregate.";
 
+	private boolean incremental;
+
+	private final Map<String, SourceMetric> sources = new HashMap<String, SourceMetric>();
+
+	private final Map<String, Aggregate> aggregates = new TreeMap<String, Aggregate>();
+
+	private long version;
+
+	private long generation;
+
 	public AggregateMetricReader(MetricReader source) {
 		this.source = source;
 	}
@@ -63,6 +91,8 @@ public class AggregateMetricReader implements MetricReader {
 	 */
 	public void setKeyPattern(String keyPattern) {
 		this.keyPattern = keyPattern;
+		this.patterns = StringUtils.delimitedListToStringArray(keyPattern, ".");
+		clearAggregates();
 	}
 
 	/**
@@ -75,6 +105,20 @@ public class AggregateMetricReader implements MetricReader {
 			prefix = prefix + ".";
 		}
 		this.prefix = prefix;
+		clearAggregates();
+	}
+
+	/**
+	 * Keep the aggregates between reads and update them incrementally from the changes to
+	 * the source metrics rather than recomputing them on every read. Source metrics that
+	 * are removed are only detected if the source is not a
+	 * {@link ChangeTrackingMetricReader}.
+	 * @param incremental {@code true} to update the aggregates incrementally
+	 * @since 2.0.0
+	 */
+	public void setIncremental(boolean incremental) {
+		this.incremental = incremental;
+		clearAggregates();
 	}
 
 	@Override
@@ -82,6 +126,14 @@ public class AggregateMetricReader implements MetricReader {
 		if (!metricName.startsWith(this.prefix)) {
 			return null;
 		}
+		if (this.incremental) {
+			synchronized (this.aggregates) {
+				refreshAggregates();
+				Aggregate aggregate = this.aggregates
+						.get(metricName.substring(this.prefix.length()));
+				return (aggregate == null ? null : aggregate.getMetric());
+			}
+		}
 		InMemoryMetricRepository result = new InMemoryMetricRepository();
 		String baseName = metricName.substring(this.prefix.length());
 		for (Metric<?> metric : this.source.findAll()) {
@@ -95,6 +147,16 @@ public class AggregateMetricReader implements MetricReader {
 
 	@Override
 	public Iterable<Metric<?>> findAll() {
+		if (this.incremental) {
+			synchronized (this.aggregates) {
+				refreshAggregates();
+				List<Metric<?>> result = new ArrayList<Metric<?>>(this.aggregates.size());
+				for (Aggregate aggregate : this.aggregates.values()) {
+					result.add(aggregate.getMetric());
+				}
+				return result;
+			}
+		}
 		InMemoryMetricRepository result = new InMemoryMetricRepository();
 		for (Metric<?> metric : this.source.findAll()) {
 			String key = getSourceKey(metric.getName());
@@ -107,6 +169,12 @@ public class AggregateMetricReader implements MetricReader {
 
 	@Override
 	public long count() {
+		if (this.incremental) {
+			synchronized (this.aggregates) {
+				refreshAggregates();
+				return this.aggregates.size();
+			}
+		}
 		Set<String> names = new HashSet<String>();
 		for (Metric<?> metric : this.source.findAll()) {
 			String name = getSourceKey(metric.getName());
@@ -138,21 +206,177 @@ public class AggregateMetricReader implements MetricReader {
 		result.set(aggregate);
 	}
 
+	private void clearAggregates() {
+		synchronized (this.aggregates) {
+			this.sources.clear();
+			this.aggregates.clear();
+			this.version = 0;
+		}
+	}
+
+	private void refreshAggregates() {
+		if (this.source instanceof ChangeTrackingMetricReader) {
+			ChangeTrackingMetricReader changes = (ChangeTrackingMetricReader) this.source;
+			long next = changes.getVersion();
+			for (Metric<?> metric : changes.findChanged(this.version)) {
+				updateAggregate(metric);
+			}
+			this.version = next;
+			return;
+		}
+		this.generation++;
+		for (Metric<?> metric : this.source.findAll()) {
+			updateAggregate(metric).generation = this.generation;
+		}
+		Iterator<Map.Entry<String, SourceMetric>> iterator = this.sources.entrySet()
+				.iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<String, SourceMetric> entry = iterator.next();
+			Aggregate aggregate = entry.getValue().aggregate;
+			if (entry.getValue().generation != this.generation) {
+				iterator.remove();
+				aggregate.remove(entry.getKey());
+				if (aggregate.isEmpty()) {
+					this.aggregates.remove(aggregate.getKey());
+				}
+			}
+		}
+	}
+
+	private SourceMetric updateAggregate(Metric<?> metric) {
+		SourceMetric sourceMetric = this.sources.get(metric.getName());
+		if (sourceMetric == null) {
+			String key = getSourceKey(metric.getName());
+			Aggregate aggregate = this.aggregates.get(key);
+			if (aggregate == null) {
+				aggregate = new Aggregate(key, this.prefix + key);
+				this.aggregates.put(key, aggregate);
+			}
+			sourceMetric = new SourceMetric(aggregate);
+			this.sources.put(metric.getName(), sourceMetric);
+		}
+		sourceMetric.aggregate.update(metric);
+		return sourceMetric;
+	}
+
 	private String getSourceKey(String name) {
 		String[] keys = StringUtils.delimitedListToStringArray(name, ".");
-		String[] patterns = StringUtils.delimitedListToStringArray(this.keyPattern, ".");
 		StringBuilder builder = new StringBuilder();
-		for (int i = 0; i < patterns.length; i++) {
-			if ("k".equals(patterns[i])) {
+		for (int i = 0; i < this.patterns.length; i++) {
+			if ("k".equals(this.patterns[i])) {
 				builder.append(builder.length() > 0 ? "." : "");
 				builder.append(keys[i]);
 			}
 		}
-		for (int i = patterns.length; i < keys.length; i++) {
+		for (int i = this.patterns.length; i < keys.length; i++) {
 			builder.append(builder.length() > 0 ? "." : "");
 			builder.append(keys[i]);
 		}
 		return builder.toString();
 	}
 
+	/**
+	 * A source metric and the aggregate that it contributes to.
+	 */
+	private static final class SourceMetric {
+
+		private final Aggregate aggregate;
+
+		private long generation;
+
+		SourceMetric(Aggregate aggregate) {
+			this.aggregate = aggregate;
+		}
+
+	}
+
+	/**
+	 * The running aggregate of the source metrics with the same key.
+	 */
+	private static final class Aggregate {
+
+		private final String key;
+
+		private final String name;
+
+		private final boolean counter;
+
+		private final Map<String, Metric<?>> sources = new LinkedHashMap<String, Metric<?>>();
+
+		private long total;
+
+		private Metric<?> latest;
+
+		Aggregate(String key, String name) {
+			this.key = key;
+			this.name = name;
+			this.counter = key.contains("counter.");
+		}
+
+		public String getKey() {
+			return this.key;
+		}
+
+		public boolean isEmpty() {
+			return this.sources.isEmpty();
+		}
+
+		public void update(Metric<?> metric) {
+			Metric<?> previous = this.sources.put(metric.getName(), metric);
+			if (previous != null && isUnchanged(previous, metric)) {
+				return;
+			}
+			if (this.counter) {
+				// accumulate the change in value
+				this.total += metric.getValue().longValue()
+						- (previous == null ? 0 : previous.getValue().longValue());
+			}
+			if (this.latest == null
+					|| this.latest.getTimestamp().before(metric.getTimestamp())) {
+				this.latest = metric;
+			}
+			else if (this.latest == previous) {
+				if (metric.getTimestamp().before(previous.getTimestamp())) {
+					recompute();
+				}
+				else {
+					this.latest = metric;
+				}
+			}
+		}
+
+		public void remove(String sourceName) {
+			Metric<?> previous = this.sources.remove(sourceName);
+			if (previous != null) {
+				recompute();
+			}
+		}
+
+		private boolean isUnchanged(Metric<?> previous, Metric<?> metric) {
+			return previous.getValue().equals(metric.getValue())
+					&& previous.getTimestamp().equals(metric.getTimestamp());
+		}
+
+		private void recompute() {
+			this.total = 0;
+			this.latest = null;
+			for (Metric<?> metric : this.sources.values()) {
+				this.total += metric.getValue().longValue();
+				if (this.latest == null
+						|| this.latest.getTimestamp().before(metric.getTimestamp())) {
+					this.latest = metric;
+				}
+			}
+		}
+
+		public Metric<?> getMetric() {
+			Date timestamp = this.latest.getTimestamp();
+			if (this.counter) {
+				return new Metric<Long>(this.name, this.total, timestamp);
+			}
+			return new Metric<Number>(this.name, this.latest.getValue(), timestamp);
+		}
+
+	}
+
 }
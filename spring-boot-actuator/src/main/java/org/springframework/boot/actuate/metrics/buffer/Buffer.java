@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,6 +27,8 @@ abstract class Buffer<T extends Number> {
 
 	private volatile long timestamp;
 
+	private volatile long version;
+
 	Buffer(long timestamp) {
 		this.timestamp = timestamp;
 	}
@@ -39,6 +41,19 @@ abstract class Buffer<T extends Number> {
 		this.timestamp = timestamp;
 	}
 
+	/**
+	 * Returns the version of the owning {@link Buffers} when this buffer was last
+	 * changed.
+	 * @return the version
+	 */
+	public long getVersion() {
+		return this.version;
+	}
+
+	public void setVersion(long version) {
+		this.version = version;
+	}
+
 	/**
 	 * Returns the buffer value.
 	 * @return the value of the buffer
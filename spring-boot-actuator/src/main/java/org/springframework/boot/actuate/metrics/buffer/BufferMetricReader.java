@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,17 +24,21 @@ import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
 import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.reader.ChangeTrackingMetricReader;
 import org.springframework.boot.actuate.metrics.reader.MetricReader;
+import org.springframework.boot.actuate.metrics.reader.MetricValueSource;
 import org.springframework.boot.actuate.metrics.reader.PrefixMetricReader;
 
 /**
  * {@link MetricReader} implementation using {@link CounterBuffers} and
- * {@link GaugeBuffers}.
+ * {@link GaugeBuffers}. Changes are tracked using the versions of the buffers so that
+ * only the metrics that have changed can be {@link #findChanged(long) found}.
  *
  * @author Dave Syer
  * @since 1.3.0
  */
-public class BufferMetricReader implements MetricReader, PrefixMetricReader {
+public class BufferMetricReader implements MetricReader, PrefixMetricReader,
+		ChangeTrackingMetricReader, MetricValueSource {
 
 	private static final Predicate<String> ALL = Pattern.compile(".*").asPredicate();
 
@@ -63,7 +67,7 @@ public class BufferMetricReader implements MetricReader, PrefixMetricReader {
 
 	@Override
 	public Iterable<Metric<?>> findAll(String prefix) {
-		return findAll(Pattern.compile(prefix + ".*").asPredicate());
+		return findAll(getPrefixPredicate(prefix));
 	}
 
 	@Override
@@ -71,17 +75,64 @@ public class BufferMetricReader implements MetricReader, PrefixMetricReader {
 		return this.counterBuffers.count() + this.gaugeBuffers.count();
 	}
 
+	@Override
+	public long getVersion() {
+		long version = Math.max(this.counterBuffers.getVersion(),
+				this.gaugeBuffers.getVersion()) + 1;
+		this.counterBuffers.advanceVersion(version);
+		this.gaugeBuffers.advanceVersion(version);
+		return version;
+	}
+
+	@Override
+	public Iterable<Metric<?>> findChanged(long version) {
+		return findChanged(BufferMetricReader.ALL, version);
+	}
+
+	@Override
+	public Iterable<Metric<?>> findChanged(String prefix, long version) {
+		return findChanged(getPrefixPredicate(prefix), version);
+	}
+
+	private Predicate<String> getPrefixPredicate(String prefix) {
+		return Pattern.compile("^" + prefix + ".*").asPredicate();
+	}
+
+	@Override
+	public void forEachValue(final Callback callback) {
+		this.gaugeBuffers.forEach(new BiConsumer<String, GaugeBuffer>() {
+
+			@Override
+			public void accept(String name, GaugeBuffer buffer) {
+				callback.value(name, buffer.getValue().doubleValue());
+			}
+
+		});
+		this.counterBuffers.forEach(new BiConsumer<String, CounterBuffer>() {
+
+			@Override
+			public void accept(String name, CounterBuffer buffer) {
+				callback.value(name, buffer.getValue().longValue());
+			}
+
+		});
+	}
+
 	private Iterable<Metric<?>> findAll(Predicate<String> predicate) {
+		return findChanged(predicate, 0);
+	}
+
+	private Iterable<Metric<?>> findChanged(Predicate<String> predicate, long version) {
 		final List<Metric<?>> metrics = new ArrayList<Metric<?>>();
-		collectMetrics(this.gaugeBuffers, predicate, metrics);
-		collectMetrics(this.counterBuffers, predicate, metrics);
+		collectMetrics(this.gaugeBuffers, predicate, version, metrics);
+		collectMetrics(this.counterBuffers, predicate, version, metrics);
 		return metrics;
 	}
 
 	private <T extends Number, B extends Buffer<T>> void collectMetrics(
-			Buffers<B> buffers, Predicate<String> predicate,
+			Buffers<B> buffers, Predicate<String> predicate, long version,
 			final List<Metric<?>> metrics) {
-		buffers.forEach(predicate, new BiConsumer<String, B>() {
+		buffers.forEachChanged(version, predicate, new BiConsumer<String, B>() {
 
 			@Override
 			public void accept(String name, B value) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,13 +17,17 @@
 package org.springframework.boot.actuate.metrics.buffer;
 
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.LongBinaryOperator;
 import java.util.function.Predicate;
 
 /**
- * Base class used to manage a map of {@link Buffer} objects.
+ * Base class used to manage a map of {@link Buffer} objects. Each buffer is stamped with
+ * the current {@link #getVersion() version} whenever it changes so that readers can find
+ * the buffers that have changed since they last advanced the version.
  *
  * @param <B> The buffer type
  * @author Dave Syer
@@ -31,8 +35,23 @@ import java.util.function.Predicate;
  */
 abstract class Buffers<B extends Buffer<?>> {
 
+	private static final LongBinaryOperator MAX = new LongBinaryOperator() {
+
+		@Override
+		public long applyAsLong(long left, long right) {
+			return Math.max(left, right);
+		}
+
+	};
+
 	private final ConcurrentHashMap<String, B> buffers = new ConcurrentHashMap<String, B>();
 
+	private final AtomicLong version = new AtomicLong();
+
+	public void forEach(BiConsumer<String, B> consumer) {
+		this.buffers.forEach(consumer);
+	}
+
 	public void forEach(final Predicate<String> predicate,
 			final BiConsumer<String, B> consumer) {
 		this.buffers.forEach(new BiConsumer<String, B>() {
@@ -47,6 +66,20 @@ abstract class Buffers<B extends Buffer<?>> {
 		});
 	}
 
+	public void forEachChanged(final long version, final Predicate<String> predicate,
+			final BiConsumer<String, B> consumer) {
+		this.buffers.forEach(new BiConsumer<String, B>() {
+
+			@Override
+			public void accept(String name, B value) {
+				if (value.getVersion() >= version && predicate.test(name)) {
+					consumer.accept(name, value);
+				}
+			}
+
+		});
+	}
+
 	public B find(final String name) {
 		return this.buffers.get(name);
 	}
@@ -66,6 +99,37 @@ abstract class Buffers<B extends Buffer<?>> {
 			});
 		}
 		consumer.accept(buffer);
+		markChanged(buffer);
+	}
+
+	private void markChanged(B buffer) {
+		// Stamp until the version is stable so that a reader that advances it
+		// concurrently either sees this change now or on its next read
+		long stamp = this.version.get();
+		buffer.setVersion(stamp);
+		long current = this.version.get();
+		while (current != stamp) {
+			stamp = current;
+			buffer.setVersion(stamp);
+			current = this.version.get();
+		}
+	}
+
+	/**
+	 * Return the current version of the buffers.
+	 * @return the version
+	 */
+	public long getVersion() {
+		return this.version.get();
+	}
+
+	/**
+	 * Advance the version of the buffers to at least the given value. Buffers that change
+	 * after this call are stamped with the new version or later.
+	 * @param version the minimum version
+	 */
+	public void advanceVersion(long version) {
+		this.version.accumulateAndGet(version, MAX);
 	}
 
 	protected abstract B createBuffer();
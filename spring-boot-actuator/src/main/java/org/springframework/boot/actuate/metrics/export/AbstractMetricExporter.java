@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -156,6 +156,17 @@ public abstract class AbstractMetricExporter implements Exporter, Closeable, Flu
 	public void flush() {
 	}
 
+	/**
+	 * Return whether only the metrics that changed since the last export will be
+	 * exported. Subclasses can use this to read just the changed metrics when their
+	 * source supports it.
+	 * @return {@code true} if only changed metrics are exported
+	 * @since 2.0.0
+	 */
+	protected boolean isExportingChangesOnly() {
+		return this.sendLatest && !this.ignoreTimestamps;
+	}
+
 	/**
 	 * Generate a group of metrics to iterate over in the form of a set of Strings (e.g.
 	 * prefixes). If the metrics to be exported partition into groups identified by a
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,6 +27,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.reader.ChangeTrackingMetricReader;
 import org.springframework.boot.actuate.metrics.reader.MetricReader;
 import org.springframework.boot.actuate.metrics.writer.CompositeMetricWriter;
 import org.springframework.boot.actuate.metrics.writer.CounterWriter;
@@ -48,7 +49,8 @@ import org.springframework.util.ReflectionUtils;
  * previous value of the counter so the delta can be computed. For best results with the
  * counters, do not use the exporter concurrently in multiple threads (normally it will
  * only be used periodically and sequentially, even if it is in a background thread, and
- * this is fine).
+ * this is fine). If the reader is a {@link ChangeTrackingMetricReader} and only the
+ * latest data is being sent, only the metrics that changed since the last export are read.
  *
  * @author Dave Syer
  * @since 1.3.0
@@ -69,6 +71,8 @@ public class MetricCopyExporter extends AbstractMetricExporter {
 
 	private String[] excludes = new String[0];
 
+	private long version;
+
 	/**
 	 * Create a new {@link MetricCopyExporter} instance.
 	 * @param reader the metric reader
@@ -118,10 +122,23 @@ public class MetricCopyExporter extends AbstractMetricExporter {
 
 	@Override
 	protected Iterable<Metric<?>> next(String group) {
+		Iterable<Metric<?>> metrics = findMetrics();
 		if (ObjectUtils.isEmpty(this.includes) && ObjectUtils.isEmpty(this.excludes)) {
-			return this.reader.findAll();
+			return metrics;
+		}
+		return new PatternMatchingIterable(metrics);
+	}
+
+	private Iterable<Metric<?>> findMetrics() {
+		if (isExportingChangesOnly()
+				&& this.reader instanceof ChangeTrackingMetricReader) {
+			ChangeTrackingMetricReader changes = (ChangeTrackingMetricReader) this.reader;
+			long next = changes.getVersion();
+			Iterable<Metric<?>> metrics = changes.findChanged(this.version);
+			this.version = next;
+			return metrics;
 		}
-		return new PatternMatchingIterable(MetricCopyExporter.this.reader);
+		return this.reader.findAll();
 	}
 
 	@Override
@@ -179,15 +196,15 @@ public class MetricCopyExporter extends AbstractMetricExporter {
 
 	private class PatternMatchingIterable implements Iterable<Metric<?>> {
 
-		private final MetricReader reader;
+		private final Iterable<Metric<?>> metrics;
 
-		PatternMatchingIterable(MetricReader reader) {
-			this.reader = reader;
+		PatternMatchingIterable(Iterable<Metric<?>> metrics) {
+			this.metrics = metrics;
 		}
 
 		@Override
 		public Iterator<Metric<?>> iterator() {
-			return new PatternMatchingIterator(this.reader.findAll().iterator());
+			return new PatternMatchingIterator(this.metrics.iterator());
 		}
 
 	}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,6 +23,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.reader.ChangeTrackingMetricReader;
 import org.springframework.boot.actuate.metrics.reader.PrefixMetricReader;
 import org.springframework.boot.actuate.metrics.repository.MultiMetricRepository;
 import org.springframework.boot.actuate.metrics.writer.Delta;
@@ -31,6 +32,8 @@ import org.springframework.boot.actuate.metrics.writer.PrefixMetricWriter;
 /**
  * A convenient exporter for a group of metrics from a {@link PrefixMetricReader}. Exports
  * all metrics whose name starts with a prefix (or all metrics if the prefix is empty).
+ * If the reader is a {@link ChangeTrackingMetricReader} and only the latest data is being
+ * sent, only the metrics in each group that changed since the last export are read.
  *
  * @author Dave Syer
  * @since 1.3.0
@@ -45,6 +48,8 @@ public class PrefixMetricGroupExporter extends AbstractMetricExporter {
 
 	private Set<String> groups = new HashSet<String>();
 
+	private final ConcurrentMap<String, Long> versions = new ConcurrentHashMap<String, Long>();
+
 	/**
 	 * Create a new exporter for metrics to a writer based on an empty prefix for the
 	 * metric names.
@@ -88,6 +93,13 @@ public class PrefixMetricGroupExporter extends AbstractMetricExporter {
 
 	@Override
 	protected Iterable<Metric<?>> next(String group) {
+		if (isExportingChangesOnly()
+				&& this.reader instanceof ChangeTrackingMetricReader) {
+			ChangeTrackingMetricReader changes = (ChangeTrackingMetricReader) this.reader;
+			long next = changes.getVersion();
+			Long version = this.versions.put(group, next);
+			return changes.findChanged(group, (version == null ? 0 : version));
+		}
 		return this.reader.findAll(group);
 	}
 
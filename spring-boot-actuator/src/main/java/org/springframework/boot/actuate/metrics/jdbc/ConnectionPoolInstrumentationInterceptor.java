@@ -0,0 +1,131 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.jdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLTransientException;
+import java.util.NoSuchElementException;
+
+import org.aopalliance.intercept.MethodInvocation;
+
+import org.springframework.aop.IntroductionInterceptor;
+
+/**
+ * {@link IntroductionInterceptor} that records the {@link ConnectionPoolStatistics} of a
+ * {@link javax.sql.DataSource} and introduces {@link InstrumentedDataSource}.
+ *
+ * @author Jerry Lei
+ */
+class ConnectionPoolInstrumentationInterceptor implements IntroductionInterceptor {
+
+	private final ConnectionPoolStatistics statistics = new ConnectionPoolStatistics();
+
+	private final ClassLoader classLoader;
+
+	ConnectionPoolInstrumentationInterceptor(ClassLoader classLoader) {
+		this.classLoader = classLoader;
+	}
+
+	@Override
+	public boolean implementsInterface(Class<?> intf) {
+		return intf.isAssignableFrom(InstrumentedDataSource.class);
+	}
+
+	@Override
+	public Object invoke(MethodInvocation invocation) throws Throwable {
+		Method method = invocation.getMethod();
+		if (method.getDeclaringClass() == InstrumentedDataSource.class) {
+			return this.statistics;
+		}
+		if (!"getConnection".equals(method.getName())
+				|| !Connection.class.equals(method.getReturnType())) {
+			return invocation.proceed();
+		}
+		long start = System.nanoTime();
+		Connection connection;
+		try {
+			connection = (Connection) invocation.proceed();
+		}
+		catch (Throwable ex) {
+			if (isTimeout(ex)) {
+				this.statistics.recordTimeout();
+			}
+			throw ex;
+		}
+		long acquired = System.nanoTime();
+		this.statistics.getAcquireTime().record(acquired - start);
+		return (connection == null ? null
+				: (Connection) Proxy.newProxyInstance(this.classLoader,
+						new Class<?>[] { Connection.class },
+						new HoldTimeInvocationHandler(connection, acquired)));
+	}
+
+	private boolean isTimeout(Throwable ex) {
+		// Hikari reports timeouts as SQLTransientConnectionException, the Tomcat pool
+		// as PoolExhaustedException and DBCP2 as a NoSuchElementException cause
+		return ex instanceof SQLTransientException
+				|| ex.getClass().getSimpleName().equals("PoolExhaustedException")
+				|| ex.getCause() instanceof NoSuchElementException;
+	}
+
+	/**
+	 * {@link InvocationHandler} for a {@link Connection} that records the time for which
+	 * it is held when it is closed.
+	 */
+	private class HoldTimeInvocationHandler implements InvocationHandler {
+
+		private final Connection target;
+
+		private final long acquired;
+
+		private boolean closed;
+
+		HoldTimeInvocationHandler(Connection target, long acquired) {
+			this.target = target;
+			this.acquired = acquired;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args)
+				throws Throwable {
+			String name = method.getName();
+			if ("equals".equals(name)) {
+				return proxy == args[0];
+			}
+			if ("hashCode".equals(name)) {
+				return System.identityHashCode(proxy);
+			}
+			if ("close".equals(name) && !this.closed) {
+				this.closed = true;
+				ConnectionPoolInstrumentationInterceptor.this.statistics.getHoldTime()
+						.record(System.nanoTime() - this.acquired);
+			}
+			try {
+				return method.invoke(this.target, args);
+			}
+			catch (InvocationTargetException ex) {
+				throw ex.getTargetException();
+			}
+		}
+
+	}
+
+}
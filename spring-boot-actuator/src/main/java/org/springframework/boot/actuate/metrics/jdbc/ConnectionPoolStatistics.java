@@ -0,0 +1,100 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.jdbc;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.actuate.metrics.Metric;
+
+/**
+ * Statistics of the connections obtained from an {@link InstrumentedDataSource}. The time
+ * spent waiting for a connection to be acquired from the pool and the time for which
+ * each connection is held before being closed are recorded as {@link LatencyHistogram
+ * histograms}, along with the number of attempts to acquire a connection that timed out.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+public class ConnectionPoolStatistics {
+
+	private static final double[] PERCENTILES = { 50, 95, 99 };
+
+	private final LatencyHistogram acquireTime = new LatencyHistogram();
+
+	private final LatencyHistogram holdTime = new LatencyHistogram();
+
+	private final LongAdder timeouts = new LongAdder();
+
+	/**
+	 * Return the histogram of the time spent waiting for connections to be acquired.
+	 * @return the acquire time histogram
+	 */
+	public LatencyHistogram getAcquireTime() {
+		return this.acquireTime;
+	}
+
+	/**
+	 * Return the histogram of the time for which connections were held.
+	 * @return the hold time histogram
+	 */
+	public LatencyHistogram getHoldTime() {
+		return this.holdTime;
+	}
+
+	/**
+	 * Return the number of attempts to acquire a connection that timed out.
+	 * @return the number of timeouts
+	 */
+	public long getTimeouts() {
+		return this.timeouts.sum();
+	}
+
+	void recordTimeout() {
+		this.timeouts.increment();
+	}
+
+	/**
+	 * Generate the relevant {@link Metric} instances based on the specified prefix.
+	 * Durations are expressed in milliseconds.
+	 * @param prefix the metrics prefix (ends with '.')
+	 * @return the metrics corresponding to this instance
+	 */
+	public Collection<Metric<?>> toMetrics(String prefix) {
+		Collection<Metric<?>> result = new ArrayList<Metric<?>>();
+		addMetrics(result, prefix + "acquire.", this.acquireTime);
+		addMetrics(result, prefix + "hold.", this.holdTime);
+		result.add(new Metric<Long>(prefix + "timeouts", getTimeouts()));
+		return result;
+	}
+
+	private void addMetrics(Collection<Metric<?>> result, String prefix,
+			LatencyHistogram histogram) {
+		result.add(new Metric<Long>(prefix + "count", histogram.getCount()));
+		result.add(new Metric<Double>(prefix + "mean",
+				histogram.getMean(TimeUnit.MILLISECONDS)));
+		result.add(new Metric<Double>(prefix + "max",
+				histogram.getMax(TimeUnit.MILLISECONDS)));
+		for (double percentile : PERCENTILES) {
+			result.add(new Metric<Double>(prefix + "p" + (int) percentile,
+					histogram.getPercentile(percentile, TimeUnit.MILLISECONDS)));
+		}
+	}
+
+}
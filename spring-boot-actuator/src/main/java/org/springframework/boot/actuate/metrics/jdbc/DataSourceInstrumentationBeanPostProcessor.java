@@ -0,0 +1,88 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.jdbc;
+
+import java.lang.reflect.Modifier;
+
+import javax.sql.DataSource;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultIntroductionAdvisor;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.util.ClassUtils;
+
+/**
+ * {@link BeanPostProcessor} that instruments {@link DataSource} beans so that the
+ * {@link ConnectionPoolStatistics} of the connections they provide are recorded. Each
+ * data source is replaced by a class-based proxy that implements
+ * {@link InstrumentedDataSource}, so it can still be used (and its pool metadata read)
+ * as an instance of its original type. Data sources whose type cannot be proxied are
+ * left untouched.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+public class DataSourceInstrumentationBeanPostProcessor
+		implements BeanPostProcessor, BeanClassLoaderAware, Ordered {
+
+	private ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+
+	@Override
+	public void setBeanClassLoader(ClassLoader classLoader) {
+		this.classLoader = classLoader;
+	}
+
+	@Override
+	public int getOrder() {
+		return Ordered.LOWEST_PRECEDENCE;
+	}
+
+	@Override
+	public Object postProcessBeforeInitialization(Object bean, String beanName)
+			throws BeansException {
+		return bean;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName)
+			throws BeansException {
+		if (bean instanceof DataSource && !(bean instanceof InstrumentedDataSource)
+				&& isInstrumentable(bean.getClass())) {
+			return instrument((DataSource) bean);
+		}
+		return bean;
+	}
+
+	private boolean isInstrumentable(Class<?> type) {
+		int modifiers = type.getModifiers();
+		return Modifier.isPublic(modifiers) && !Modifier.isFinal(modifiers)
+				&& !ClassUtils.isCglibProxyClass(type);
+	}
+
+	private Object instrument(DataSource dataSource) {
+		ProxyFactory factory = new ProxyFactory(dataSource);
+		factory.setProxyTargetClass(true);
+		factory.addAdvisor(new DefaultIntroductionAdvisor(
+				new ConnectionPoolInstrumentationInterceptor(this.classLoader),
+				InstrumentedDataSource.class));
+		return factory.getProxy(this.classLoader);
+	}
+
+}
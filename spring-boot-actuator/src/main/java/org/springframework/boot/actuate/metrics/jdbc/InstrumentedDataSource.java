@@ -0,0 +1,36 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.jdbc;
+
+import javax.sql.DataSource;
+
+/**
+ * Interface implemented by {@link DataSource data sources} that have been instrumented
+ * by a {@link DataSourceInstrumentationBeanPostProcessor}.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+public interface InstrumentedDataSource {
+
+	/**
+	 * Return the statistics of the connections obtained from this data source.
+	 * @return the connection pool statistics
+	 */
+	ConnectionPoolStatistics getConnectionPoolStatistics();
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.jdbc;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.util.Assert;
+
+/**
+ * A histogram of durations with buckets whose bounds are powers of two nanoseconds.
+ * Recording a duration is lock-free and does not allocate, at the cost of percentiles
+ * being reported as the upper bound of the bucket that contains them (that is, with an
+ * error of at most a factor of two).
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+public final class LatencyHistogram {
+
+	private static final int BUCKETS = 64;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+	private final LongAdder count = new LongAdder();
+
+	private final LongAdder total = new LongAdder();
+
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Record a duration.
+	 * @param nanos the duration in nanoseconds
+	 */
+	public void record(long nanos) {
+		long duration = Math.max(nanos, 0);
+		this.buckets.incrementAndGet(getBucket(duration));
+		this.count.increment();
+		this.total.add(duration);
+		long current = this.max.get();
+		while (duration > current && !this.max.compareAndSet(current, duration)) {
+			current = this.max.get();
+		}
+	}
+
+	/**
+	 * Return the number of recorded durations.
+	 * @return the count
+	 */
+	public long getCount() {
+		return this.count.sum();
+	}
+
+	/**
+	 * Return the mean of the recorded durations.
+	 * @param unit the unit of the result
+	 * @return the mean or {@code 0} if no duration has been recorded
+	 */
+	public double getMean(TimeUnit unit) {
+		long recorded = getCount();
+		return (recorded == 0 ? 0 : toUnit(this.total.sum(), unit) / recorded);
+	}
+
+	/**
+	 * Return the longest recorded duration.
+	 * @param unit the unit of the result
+	 * @return the maximum or {@code 0} if no duration has been recorded
+	 */
+	public double getMax(TimeUnit unit) {
+		return toUnit(this.max.get(), unit);
+	}
+
+	/**
+	 * Return an upper bound of the duration below which the given percentage of
+	 * recorded durations fall.
+	 * @param percentile the percentile (between {@code 0} and {@code 100})
+	 * @param unit the unit of the result
+	 * @return the percentile or {@code 0} if no duration has been recorded
+	 */
+	public double getPercentile(double percentile, TimeUnit unit) {
+		Assert.isTrue(percentile >= 0 && percentile <= 100,
+				"Percentile must be between 0 and 100");
+		long[] counts = new long[BUCKETS];
+		long recorded = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] = this.buckets.get(i);
+			recorded += counts[i];
+		}
+		long rank = (long) Math.ceil(recorded * percentile / 100);
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts[i];
+			if (counts[i] > 0 && seen >= rank) {
+				return toUnit(Math.min(getUpperBound(i), this.max.get()), unit);
+			}
+		}
+		return 0;
+	}
+
+	private int getBucket(long nanos) {
+		return (nanos == 0 ? 0 : BUCKETS - Long.numberOfLeadingZeros(nanos - 1));
+	}
+
+	private long getUpperBound(int bucket) {
+		return (bucket >= BUCKETS - 1 ? Long.MAX_VALUE : 1L << bucket);
+	}
+
+	private double toUnit(long nanos, TimeUnit unit) {
+		return (double) nanos / unit.toNanos(1);
+	}
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.reader;
+
+import org.springframework.boot.actuate.metrics.Metric;
+
+/**
+ * Interface implemented by metric readers that can cheaply return only the metrics that
+ * have changed since a previous read. Callers obtain a version before each read and pass
+ * the version from their previous read to {@link #findChanged(long)}. A metric may be
+ * returned more than once if it changes while it is being read, but no change is missed.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+public interface ChangeTrackingMetricReader {
+
+	/**
+	 * Return a new version that can later be passed to {@link #findChanged(long)} to
+	 * find the metrics that changed after this call.
+	 * @return the version
+	 */
+	long getVersion();
+
+	/**
+	 * Find all metrics that have changed since the given version was obtained. A version
+	 * of {@code 0} finds all metrics.
+	 * @param version a version returned from {@link #getVersion()}
+	 * @return the metrics that have changed
+	 */
+	Iterable<Metric<?>> findChanged(long version);
+
+	/**
+	 * Find all metrics whose name starts with the given prefix that have changed since
+	 * the given version was obtained.
+	 * @param prefix the prefix for metric names
+	 * @param version a version returned from {@link #getVersion()}
+	 * @return the metrics with names starting with the prefix that have changed
+	 * @see PrefixMetricReader#findAll(String)
+	 */
+	Iterable<Metric<?>> findChanged(String prefix, long version);
+
+}
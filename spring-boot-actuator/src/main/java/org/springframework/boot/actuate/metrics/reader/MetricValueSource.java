@@ -0,0 +1,59 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.reader;
+
+import org.springframework.boot.actuate.metrics.Metric;
+
+/**
+ * Interface implemented by sources of metrics that can pass the current value of each
+ * metric to a {@link Callback} without creating {@link Metric} instances or collecting
+ * them first.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+@FunctionalInterface
+public interface MetricValueSource {
+
+	/**
+	 * Pass the name and current value of each metric to the given callback.
+	 * @param callback the callback
+	 */
+	void forEachValue(Callback callback);
+
+	/**
+	 * Callback used to receive metric values.
+	 */
+	interface Callback {
+
+		/**
+		 * Receive an integral metric value.
+		 * @param name the metric name
+		 * @param value the metric value
+		 */
+		void value(String name, long value);
+
+		/**
+		 * Receive a floating point metric value.
+		 * @param name the metric name
+		 * @param value the metric value
+		 */
+		void value(String name, double value);
+
+	}
+
+}
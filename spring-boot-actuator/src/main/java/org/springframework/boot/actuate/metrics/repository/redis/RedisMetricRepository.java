@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,6 +28,7 @@ import org.springframework.boot.actuate.metrics.writer.Delta;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.BoundZSetOperations;
 import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
 import org.springframework.util.Assert;
 
 /**
@@ -120,15 +121,19 @@ public class RedisMetricRepository implements MetricRepository {
 	@Override
 	public Iterable<Metric<?>> findAll() {
 
-		// This set is sorted
-		Set<String> keys = this.zSetOperations.range(0, -1);
-		Iterator<String> keysIt = keys.iterator();
+		// This set is sorted and includes the values so they need not be read per key
+		Set<TypedTuple<String>> tuples = this.zSetOperations.rangeWithScores(0, -1);
+		List<String> keys = new ArrayList<String>(tuples.size());
+		for (TypedTuple<String> tuple : tuples) {
+			keys.add(tuple.getValue());
+		}
+		Iterator<TypedTuple<String>> tuplesIt = tuples.iterator();
 
 		List<Metric<?>> result = new ArrayList<Metric<?>>(keys.size());
 		List<String> values = this.redisOperations.opsForValue().multiGet(keys);
 		for (String v : values) {
-			String key = keysIt.next();
-			Metric<?> value = deserialize(key, v, this.zSetOperations.score(key));
+			TypedTuple<String> tuple = tuplesIt.next();
+			Metric<?> value = deserialize(tuple.getValue(), v, tuple.getScore());
 			if (value != null) {
 				result.add(value);
 			}
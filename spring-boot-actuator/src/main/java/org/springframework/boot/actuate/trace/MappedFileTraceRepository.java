@@ -0,0 +1,554 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.trace;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.Assert;
+
+/**
+ * {@link SearchableTraceRepository} that appends traces to memory-mapped segment files
+ * so that a long history of requests can be kept without holding it on the heap. A new
+ * segment is started when the current one is full or older than the
+ * {@link #setRolloverInterval(long) rollover interval} and the oldest segments are
+ * deleted once there are more than {@link #setMaxSegments(int) maxSegments}. Each segment
+ * keeps a sparse in-memory index of record timestamps that is used to locate the start
+ * of a time range. Segments found in the directory on startup are reopened.
+ * <p>
+ * Traces are stored in a compact binary format. Nested maps, collections, strings,
+ * numbers, booleans and dates are preserved and any other value is stored as a string.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+public class MappedFileTraceRepository
+		implements SearchableTraceRepository, DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(MappedFileTraceRepository.class);
+
+	private static final int MAGIC = 0x53425452;
+
+	private static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 8;
+
+	private static final int RECORD_HEADER_SIZE = 12;
+
+	private static final int INDEX_INTERVAL = 64;
+
+	private static final String PREFIX = "trace-";
+
+	private static final String SUFFIX = ".seg";
+
+	private final File directory;
+
+	private final Object monitor = new Object();
+
+	private final List<Segment> segments = new CopyOnWriteArrayList<Segment>();
+
+	private int segmentSize = 8 * 1024 * 1024;
+
+	private long rolloverInterval = 60 * 60 * 1000;
+
+	private int maxSegments = 48;
+
+	private int capacity = 100;
+
+	private volatile boolean opened;
+
+	private Segment current;
+
+	private long lastTimestamp;
+
+	private long sequence;
+
+	/**
+	 * Create a new {@link MappedFileTraceRepository} instance.
+	 * @param directory the directory used to store segment files
+	 */
+	public MappedFileTraceRepository(File directory) {
+		Assert.notNull(directory, "Directory must not be null");
+		this.directory = directory;
+	}
+
+	/**
+	 * Set the size of each segment file in bytes.
+	 * @param segmentSize the segment size
+	 */
+	public void setSegmentSize(int segmentSize) {
+		Assert.isTrue(segmentSize > HEADER_SIZE + RECORD_HEADER_SIZE,
+				"SegmentSize is too small");
+		this.segmentSize = segmentSize;
+	}
+
+	/**
+	 * Set the time in milliseconds after which a new segment is started.
+	 * @param rolloverInterval the rollover interval
+	 */
+	public void setRolloverInterval(long rolloverInterval) {
+		Assert.isTrue(rolloverInterval > 0, "RolloverInterval must be positive");
+		this.rolloverInterval = rolloverInterval;
+	}
+
+	/**
+	 * Set the maximum number of segments to keep. The oldest segments are deleted when
+	 * this number is exceeded.
+	 * @param maxSegments the maximum number of segments
+	 */
+	public void setMaxSegments(int maxSegments) {
+		Assert.isTrue(maxSegments > 0, "MaxSegments must be positive");
+		this.maxSegments = maxSegments;
+	}
+
+	/**
+	 * Set the number of most recent traces returned by {@link #findAll()}.
+	 * @param capacity the capacity
+	 */
+	public void setCapacity(int capacity) {
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Returns the most recent traces, newest first.
+	 * @return the most recent traces
+	 */
+	@Override
+	public List<Trace> findAll() {
+		open();
+		LinkedList<Trace> traces = new LinkedList<Trace>();
+		List<Segment> snapshot = new ArrayList<Segment>(this.segments);
+		for (int i = snapshot.size() - 1; i >= 0 && traces.size() < this.capacity; i--) {
+			List<Trace> latest = snapshot.get(i).readLatest(this.capacity - traces.size());
+			for (int j = latest.size() - 1; j >= 0; j--) {
+				traces.add(latest.get(j));
+			}
+		}
+		return Collections.unmodifiableList(traces);
+	}
+
+	/**
+	 * Returns the most recent traces in the given time range, oldest first.
+	 * @param from the start of the range (inclusive) or {@code null}
+	 * @param to the end of the range (inclusive) or {@code null}
+	 * @param limit the maximum number of traces to return
+	 * @return the most recent traces in the range
+	 */
+	@Override
+	public List<Trace> find(Date from, Date to, int limit) {
+		open();
+		long fromTime = (from == null ? Long.MIN_VALUE : from.getTime());
+		long toTime = (to == null ? Long.MAX_VALUE : to.getTime());
+		LinkedList<Trace> traces = new LinkedList<Trace>();
+		List<Segment> snapshot = new ArrayList<Segment>(this.segments);
+		for (int i = snapshot.size() - 1; i >= 0 && traces.size() < limit; i--) {
+			traces.addAll(0,
+					snapshot.get(i).read(fromTime, toTime, limit - traces.size()));
+		}
+		return new ArrayList<Trace>(traces);
+	}
+
+	@Override
+	public void add(Map<String, Object> traceInfo) {
+		byte[] payload = TraceInfoCodec.encode(traceInfo);
+		if (HEADER_SIZE + RECORD_HEADER_SIZE + payload.length > this.segmentSize) {
+			logger.warn("Trace of " + payload.length + " bytes exceeds the segment size "
+					+ "and will not be recorded");
+			return;
+		}
+		synchronized (this.monitor) {
+			open();
+			long timestamp = Math.max(System.currentTimeMillis(), this.lastTimestamp);
+			try {
+				getCurrentSegment(timestamp, payload.length).append(timestamp, payload);
+				this.lastTimestamp = timestamp;
+			}
+			catch (IOException ex) {
+				logger.warn("Unable to record trace", ex);
+			}
+		}
+	}
+
+	@Override
+	public void destroy() {
+		synchronized (this.monitor) {
+			if (this.current != null) {
+				this.current.force();
+				this.current = null;
+			}
+			this.segments.clear();
+			this.opened = false;
+		}
+	}
+
+	private void open() {
+		if (this.opened) {
+			return;
+		}
+		synchronized (this.monitor) {
+			if (!this.opened) {
+				this.directory.mkdirs();
+				List<Segment> recovered = recoverSegments();
+				if (!recovered.isEmpty()) {
+					Segment last = recovered.get(recovered.size() - 1);
+					this.sequence = last.sequence + 1;
+					this.lastTimestamp = last.getEndTime();
+				}
+				this.segments.addAll(recovered);
+				removeExpiredSegments();
+				this.opened = true;
+			}
+		}
+	}
+
+	private List<Segment> recoverSegments() {
+		List<Segment> recovered = new ArrayList<Segment>();
+		File[] files = this.directory.listFiles(new FileFilter() {
+
+			@Override
+			public boolean accept(File file) {
+				String name = file.getName();
+				return file.isFile() && name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+			}
+
+		});
+		for (File file : (files == null ? new File[0] : files)) {
+			try {
+				recovered.add(Segment.load(file));
+			}
+			catch (Exception ex) {
+				logger.warn("Ignoring invalid trace segment " + file, ex);
+			}
+		}
+		Collections.sort(recovered, new Comparator<Segment>() {
+
+			@Override
+			public int compare(Segment o1, Segment o2) {
+				int result = compareLongs(o1.startTime, o2.startTime);
+				return (result != 0 ? result : compareLongs(o1.sequence, o2.sequence));
+			}
+
+		});
+		return recovered;
+	}
+
+	private Segment getCurrentSegment(long timestamp, int length) throws IOException {
+		if (this.current == null || !this.current.hasRoom(length)
+				|| timestamp - this.current.startTime >= this.rolloverInterval) {
+			if (this.current != null) {
+				this.current.force();
+			}
+			this.current = Segment.create(this.directory, timestamp, this.sequence++,
+					this.segmentSize);
+			this.segments.add(this.current);
+			removeExpiredSegments();
+		}
+		return this.current;
+	}
+
+	/**
+	 * Remove the oldest segments. A reader that is still scanning a removed segment
+	 * holds its mapping, so the contents remain readable until it is done, and the
+	 * mapping is released once the segment is no longer referenced. Platforms that do
+	 * not allow a mapped file to be deleted fall back to deleting it on exit.
+	 */
+	private void removeExpiredSegments() {
+		while (this.segments.size() > this.maxSegments) {
+			File file = this.segments.remove(0).file;
+			if (!file.delete()) {
+				file.deleteOnExit();
+			}
+		}
+	}
+
+	private static int compareLongs(long x, long y) {
+		return (x < y ? -1 : (x == y ? 0 : 1));
+	}
+
+	/**
+	 * A segment file containing a header followed by records. Each record is the length
+	 * of the encoded trace, the timestamp and the encoded trace. A zero length marks the
+	 * end of the records. The length is written last so that a partially written record
+	 * is never read.
+	 */
+	private static final class Segment {
+
+		private final File file;
+
+		private final long startTime;
+
+		private final long sequence;
+
+		private final ByteBuffer buffer;
+
+		private long[] indexTimestamps = new long[16];
+
+		private int[] indexPositions = new int[16];
+
+		private int indexSize;
+
+		private int limit = HEADER_SIZE;
+
+		private int count;
+
+		private long endTime;
+
+		private Segment(File file, long startTime, long sequence, ByteBuffer buffer) {
+			this.file = file;
+			this.startTime = startTime;
+			this.sequence = sequence;
+			this.buffer = buffer;
+		}
+
+		static Segment create(File directory, long startTime, long sequence, int size)
+				throws IOException {
+			File file = new File(directory,
+					PREFIX + startTime + "-" + sequence + SUFFIX);
+			RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+			try {
+				randomAccessFile.setLength(size);
+				MappedByteBuffer buffer = randomAccessFile.getChannel()
+						.map(MapMode.READ_WRITE, 0, size);
+				buffer.putInt(0, MAGIC);
+				buffer.putInt(4, VERSION);
+				return new Segment(file, startTime, sequence, buffer);
+			}
+			finally {
+				randomAccessFile.close();
+			}
+		}
+
+		static Segment load(File file) throws IOException {
+			String name = file.getName();
+			String[] parts = name
+					.substring(PREFIX.length(), name.length() - SUFFIX.length())
+					.split("-");
+			Assert.state(parts.length == 2, "Unexpected segment file name");
+			RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+			try {
+				MappedByteBuffer buffer = randomAccessFile.getChannel()
+						.map(MapMode.READ_ONLY, 0, randomAccessFile.length());
+				Assert.state(buffer.capacity() >= HEADER_SIZE
+						&& buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION,
+						"Unexpected segment header");
+				Segment segment = new Segment(file, Long.parseLong(parts[0]),
+						Long.parseLong(parts[1]), buffer);
+				segment.recover();
+				return segment;
+			}
+			finally {
+				randomAccessFile.close();
+			}
+		}
+
+		private void recover() {
+			int position = HEADER_SIZE;
+			while (position + RECORD_HEADER_SIZE <= this.buffer.capacity()) {
+				int length = this.buffer.getInt(position);
+				int end = position + RECORD_HEADER_SIZE + length;
+				if (length <= 0 || end > this.buffer.capacity()) {
+					break;
+				}
+				record(this.buffer.getLong(position + 4), position, end);
+				position = end;
+			}
+		}
+
+		synchronized boolean hasRoom(int length) {
+			return this.limit + RECORD_HEADER_SIZE + length <= this.buffer.capacity();
+		}
+
+		synchronized long getEndTime() {
+			return this.endTime;
+		}
+
+		void append(long timestamp, byte[] payload) {
+			int position;
+			synchronized (this) {
+				position = this.limit;
+			}
+			ByteBuffer target = this.buffer.duplicate();
+			target.position(position + RECORD_HEADER_SIZE);
+			target.put(payload);
+			this.buffer.putLong(position + 4, timestamp);
+			this.buffer.putInt(position, payload.length);
+			record(timestamp, position, position + RECORD_HEADER_SIZE + payload.length);
+		}
+
+		private synchronized void record(long timestamp, int position, int end) {
+			if (this.count % INDEX_INTERVAL == 0) {
+				if (this.indexSize == this.indexPositions.length) {
+					this.indexTimestamps = Arrays.copyOf(this.indexTimestamps,
+							this.indexSize * 2);
+					this.indexPositions = Arrays.copyOf(this.indexPositions,
+							this.indexSize * 2);
+				}
+				this.indexTimestamps[this.indexSize] = timestamp;
+				this.indexPositions[this.indexSize] = position;
+				this.indexSize++;
+			}
+			this.count++;
+			this.endTime = timestamp;
+			this.limit = end;
+		}
+
+		/**
+		 * Read the most recent records in the given time range, oldest first.
+		 * @param from the start of the range in milliseconds
+		 * @param to the end of the range in milliseconds
+		 * @param max the maximum number of records to read
+		 * @return the traces
+		 */
+		List<Trace> read(long from, long to, int max) {
+			int start;
+			int end;
+			synchronized (this) {
+				if (this.count == 0 || this.endTime < from || this.startTime > to) {
+					return Collections.emptyList();
+				}
+				start = getPositionBefore(from);
+				end = this.limit;
+			}
+			int skip = Math.max(0, count(start, end, from, to) - max);
+			List<Trace> result = new ArrayList<Trace>();
+			scan(start, end, from, to, skip, max, result);
+			return result;
+		}
+
+		List<Trace> readLatest(int max) {
+			int start;
+			int end;
+			int skip;
+			synchronized (this) {
+				if (this.count == 0) {
+					return Collections.emptyList();
+				}
+				int first = Math.max(0, this.count - max);
+				start = this.indexPositions[first / INDEX_INTERVAL];
+				skip = first % INDEX_INTERVAL;
+				end = this.limit;
+			}
+			List<Trace> result = new ArrayList<Trace>();
+			scan(start, end, Long.MIN_VALUE, Long.MAX_VALUE, skip, max, result);
+			return result;
+		}
+
+		/**
+		 * Return the position of the last indexed record before the given time, or the
+		 * first record if there is none.
+		 * @param time the time in milliseconds
+		 * @return the record position
+		 */
+		private int getPositionBefore(long time) {
+			int low = 0;
+			int high = this.indexSize - 1;
+			int position = HEADER_SIZE;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				if (this.indexTimestamps[mid] < time) {
+					position = this.indexPositions[mid];
+					low = mid + 1;
+				}
+				else {
+					high = mid - 1;
+				}
+			}
+			return position;
+		}
+
+		private int count(int start, int end, long from, long to) {
+			int position = start;
+			int count = 0;
+			while (position < end) {
+				int length = this.buffer.getInt(position);
+				long timestamp = this.buffer.getLong(position + 4);
+				if (length <= 0 || position + RECORD_HEADER_SIZE + length > end
+						|| timestamp > to) {
+					break;
+				}
+				if (timestamp >= from) {
+					count++;
+				}
+				position += RECORD_HEADER_SIZE + length;
+			}
+			return count;
+		}
+
+		private void scan(int start, int end, long from, long to, int skip, int max,
+				List<Trace> result) {
+			ByteBuffer view = this.buffer.duplicate();
+			int position = start;
+			int skipped = 0;
+			int added = 0;
+			while (position < end && added < max) {
+				int length = view.getInt(position);
+				long timestamp = view.getLong(position + 4);
+				if (length <= 0 || position + RECORD_HEADER_SIZE + length > end
+						|| timestamp > to) {
+					break;
+				}
+				boolean inRange = (timestamp >= from);
+				if (inRange && skipped < skip) {
+					skipped++;
+				}
+				else if (inRange) {
+					byte[] bytes = new byte[length];
+					view.position(position + RECORD_HEADER_SIZE);
+					view.get(bytes);
+					Map<String, Object> info;
+					try {
+						info = TraceInfoCodec.decode(bytes);
+					}
+					catch (IllegalStateException ex) {
+						// A record that was only partly written before a crash
+						logger.debug("Ignoring the rest of segment " + this.file, ex);
+						break;
+					}
+					result.add(new Trace(new Date(timestamp), info));
+					added++;
+				}
+				position += RECORD_HEADER_SIZE + length;
+			}
+		}
+
+		void force() {
+			if (this.buffer instanceof MappedByteBuffer && !this.buffer.isReadOnly()) {
+				((MappedByteBuffer) this.buffer).force();
+			}
+		}
+
+	}
+
+}
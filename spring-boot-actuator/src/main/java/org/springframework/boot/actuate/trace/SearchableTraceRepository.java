@@ -0,0 +1,40 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.trace;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A {@link TraceRepository} that can find the {@link Trace}s recorded in a time range.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+public interface SearchableTraceRepository extends TraceRepository {
+
+	/**
+	 * Find the most recent {@link Trace} objects recorded in the given time range. The
+	 * results are ordered oldest first.
+	 * @param from the start of the range (inclusive) or {@code null}
+	 * @param to the end of the range (inclusive) or {@code null}
+	 * @param limit the maximum number of most recent traces to return
+	 * @return the results
+	 */
+	List<Trace> find(Date from, Date to, int limit);
+
+}
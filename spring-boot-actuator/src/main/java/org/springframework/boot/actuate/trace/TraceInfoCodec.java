@@ -0,0 +1,186 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.trace;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Compact binary encoding of trace information. Maps, collections, arrays, strings,
+ * numbers, booleans and dates are encoded with a one byte type tag. Any other value is
+ * encoded using its {@code toString()} representation and arrays are decoded as lists.
+ *
+ * @author Jerry Lei
+ */
+final class TraceInfoCodec {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final int NULL = 0;
+
+	private static final int STRING = 1;
+
+	private static final int LONG = 2;
+
+	private static final int DOUBLE = 3;
+
+	private static final int BOOLEAN = 4;
+
+	private static final int DATE = 5;
+
+	private static final int MAP = 6;
+
+	private static final int LIST = 7;
+
+	private TraceInfoCodec() {
+	}
+
+	static byte[] encode(Map<String, Object> info) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+		try {
+			write(new DataOutputStream(bytes), info);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException(ex);
+		}
+		return bytes.toByteArray();
+	}
+
+	@SuppressWarnings("unchecked")
+	static Map<String, Object> decode(byte[] bytes) {
+		try {
+			return (Map<String, Object>) read(
+					new DataInputStream(new ByteArrayInputStream(bytes)));
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Corrupt trace record", ex);
+		}
+	}
+
+	private static void write(DataOutputStream output, Object value)
+			throws IOException {
+		if (value == null) {
+			output.writeByte(NULL);
+		}
+		else if (value instanceof Map) {
+			Map<?, ?> map = (Map<?, ?>) value;
+			output.writeByte(MAP);
+			output.writeInt(map.size());
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				writeString(output, String.valueOf(entry.getKey()));
+				write(output, entry.getValue());
+			}
+		}
+		else if (value instanceof Collection) {
+			writeList(output, (Collection<?>) value);
+		}
+		else if (value.getClass().isArray()) {
+			writeList(output, Arrays.asList(ObjectUtils.toObjectArray(value)));
+		}
+		else if (value instanceof Long || value instanceof Integer
+				|| value instanceof Short || value instanceof Byte) {
+			output.writeByte(LONG);
+			output.writeLong(((Number) value).longValue());
+		}
+		else if (value instanceof Double || value instanceof Float) {
+			output.writeByte(DOUBLE);
+			output.writeDouble(((Number) value).doubleValue());
+		}
+		else if (value instanceof Boolean) {
+			output.writeByte(BOOLEAN);
+			output.writeBoolean((Boolean) value);
+		}
+		else if (value instanceof Date) {
+			output.writeByte(DATE);
+			output.writeLong(((Date) value).getTime());
+		}
+		else {
+			output.writeByte(STRING);
+			writeString(output, value.toString());
+		}
+	}
+
+	private static void writeList(DataOutputStream output, Collection<?> values)
+			throws IOException {
+		output.writeByte(LIST);
+		output.writeInt(values.size());
+		for (Object element : values) {
+			write(output, element);
+		}
+	}
+
+	private static void writeString(DataOutputStream output, String value)
+			throws IOException {
+		byte[] bytes = value.getBytes(UTF_8);
+		output.writeInt(bytes.length);
+		output.write(bytes);
+	}
+
+	private static Object read(DataInputStream input) throws IOException {
+		int type = input.readUnsignedByte();
+		switch (type) {
+		case NULL:
+			return null;
+		case STRING:
+			return readString(input);
+		case LONG:
+			return input.readLong();
+		case DOUBLE:
+			return input.readDouble();
+		case BOOLEAN:
+			return input.readBoolean();
+		case DATE:
+			return new Date(input.readLong());
+		case MAP:
+			int size = input.readInt();
+			Map<String, Object> map = new LinkedHashMap<String, Object>(size * 2);
+			for (int i = 0; i < size; i++) {
+				map.put(readString(input), read(input));
+			}
+			return map;
+		case LIST:
+			int length = input.readInt();
+			List<Object> list = new ArrayList<Object>(length);
+			for (int i = 0; i < length; i++) {
+				list.add(read(input));
+			}
+			return list;
+		default:
+			throw new IOException("Unknown value type " + type);
+		}
+	}
+
+	private static String readString(DataInputStream input) throws IOException {
+		byte[] bytes = new byte[input.readInt()];
+		input.readFully(bytes);
+		return new String(bytes, UTF_8);
+	}
+
+}
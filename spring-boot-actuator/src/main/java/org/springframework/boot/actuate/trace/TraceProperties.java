@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -52,6 +52,22 @@ public class TraceProperties {
 	 */
 	private Set<Include> include = new HashSet<Include>(DEFAULT_INCLUDES);
 
+	/**
+	 * Maximum length of traced header values. Longer values are truncated. A negative
+	 * value means no limit.
+	 */
+	private int maxHeaderValueLength = 1024;
+
+	/**
+	 * Maximum length of traced parameter values. Longer values are truncated. A negative
+	 * value means no limit.
+	 */
+	private int maxParameterValueLength = 1024;
+
+	private final Sampling sampling = new Sampling();
+
+	private final Journal journal = new Journal();
+
 	public Set<Include> getInclude() {
 		return this.include;
 	}
@@ -60,6 +76,137 @@ public class TraceProperties {
 		this.include = include;
 	}
 
+	public int getMaxHeaderValueLength() {
+		return this.maxHeaderValueLength;
+	}
+
+	public void setMaxHeaderValueLength(int maxHeaderValueLength) {
+		this.maxHeaderValueLength = maxHeaderValueLength;
+	}
+
+	public int getMaxParameterValueLength() {
+		return this.maxParameterValueLength;
+	}
+
+	public void setMaxParameterValueLength(int maxParameterValueLength) {
+		this.maxParameterValueLength = maxParameterValueLength;
+	}
+
+	public Sampling getSampling() {
+		return this.sampling;
+	}
+
+	public Journal getJournal() {
+		return this.journal;
+	}
+
+	/**
+	 * Request sampling properties.
+	 */
+	public static class Sampling {
+
+		/**
+		 * Trace one in every 'interval' requests.
+		 */
+		private int interval = 1;
+
+		/**
+		 * Maximum number of requests to trace per second. A negative value means no
+		 * limit.
+		 */
+		private int maxPerSecond = -1;
+
+		public int getInterval() {
+			return this.interval;
+		}
+
+		public void setInterval(int interval) {
+			this.interval = interval;
+		}
+
+		public int getMaxPerSecond() {
+			return this.maxPerSecond;
+		}
+
+		public void setMaxPerSecond(int maxPerSecond) {
+			this.maxPerSecond = maxPerSecond;
+		}
+
+	}
+
+	/**
+	 * Trace journal properties.
+	 */
+	public static class Journal {
+
+		/**
+		 * Directory in which traces are appended to memory-mapped segment files. The
+		 * journal is used instead of the in-memory repository when set.
+		 */
+		private String directory;
+
+		/**
+		 * Size of each segment file in bytes.
+		 */
+		private int segmentSize = 8 * 1024 * 1024;
+
+		/**
+		 * Time in milliseconds after which a new segment is started.
+		 */
+		private long rolloverIntervalMillis = 60 * 60 * 1000;
+
+		/**
+		 * Maximum number of segments to keep. The oldest segments are deleted first.
+		 */
+		private int maxSegments = 48;
+
+		/**
+		 * Number of most recent traces returned by the trace endpoint.
+		 */
+		private int capacity = 100;
+
+		public String getDirectory() {
+			return this.directory;
+		}
+
+		public void setDirectory(String directory) {
+			this.directory = directory;
+		}
+
+		public int getSegmentSize() {
+			return this.segmentSize;
+		}
+
+		public void setSegmentSize(int segmentSize) {
+			this.segmentSize = segmentSize;
+		}
+
+		public long getRolloverIntervalMillis() {
+			return this.rolloverIntervalMillis;
+		}
+
+		public void setRolloverIntervalMillis(long rolloverIntervalMillis) {
+			this.rolloverIntervalMillis = rolloverIntervalMillis;
+		}
+
+		public int getMaxSegments() {
+			return this.maxSegments;
+		}
+
+		public void setMaxSegments(int maxSegments) {
+			this.maxSegments = maxSegments;
+		}
+
+		public int getCapacity() {
+			return this.capacity;
+		}
+
+		public void setCapacity(int capacity) {
+			this.capacity = capacity;
+		}
+
+	}
+
 	/**
 	 * Include options for tracing.
 	 */
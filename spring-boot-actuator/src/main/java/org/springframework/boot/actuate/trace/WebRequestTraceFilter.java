@@ -25,6 +25,8 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
@@ -45,7 +47,9 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 /**
- * Servlet {@link Filter} that logs all requests to a {@link TraceRepository}.
+ * Servlet {@link Filter} that logs requests to a {@link TraceRepository}. Requests can be
+ * sampled using {@link TraceProperties#getSampling()}, in which case no trace is built
+ * for requests that are not sampled.
  *
  * @author Dave Syer
  * @author Wallace Wadge
@@ -69,6 +73,12 @@ public class WebRequestTraceFilter extends OncePerRequestFilter implements Order
 
 	private final TraceProperties properties;
 
+	private final AtomicLong requestCount = new AtomicLong();
+
+	private final AtomicLong rateLimitSecond = new AtomicLong();
+
+	private final AtomicInteger rateLimitCount = new AtomicInteger();
+
 	/**
 	 * Create a new {@link WebRequestTraceFilter} instance.
 	 * @param repository the trace repository
@@ -101,6 +111,10 @@ public class WebRequestTraceFilter extends OncePerRequestFilter implements Order
 	protected void doFilterInternal(HttpServletRequest request,
 			HttpServletResponse response, FilterChain filterChain)
 					throws ServletException, IOException {
+		if (!isSampled(request)) {
+			filterChain.doFilter(request, response);
+			return;
+		}
 		Map<String, Object> trace = getTrace(request);
 		logTrace(request, trace);
 		int status = HttpStatus.INTERNAL_SERVER_ERROR.value();
@@ -115,6 +129,33 @@ public class WebRequestTraceFilter extends OncePerRequestFilter implements Order
 		}
 	}
 
+	/**
+	 * Determine if the given request should be traced. By default one in every
+	 * {@link TraceProperties.Sampling#getInterval() interval} requests is traced, up to
+	 * {@link TraceProperties.Sampling#getMaxPerSecond() maxPerSecond}.
+	 * @param request the request
+	 * @return {@code true} if the request should be traced
+	 * @since 2.0.0
+	 */
+	protected boolean isSampled(HttpServletRequest request) {
+		TraceProperties.Sampling sampling = this.properties.getSampling();
+		int interval = sampling.getInterval();
+		if (interval > 1 && this.requestCount.getAndIncrement() % interval != 0) {
+			return false;
+		}
+		int maxPerSecond = sampling.getMaxPerSecond();
+		return (maxPerSecond < 0 || acquire(maxPerSecond));
+	}
+
+	private boolean acquire(int maxPerSecond) {
+		long second = System.currentTimeMillis() / 1000;
+		long current = this.rateLimitSecond.get();
+		if (current != second && this.rateLimitSecond.compareAndSet(current, second)) {
+			this.rateLimitCount.set(0);
+		}
+		return this.rateLimitCount.incrementAndGet() <= maxPerSecond;
+	}
+
 	protected Map<String, Object> getTrace(HttpServletRequest request) {
 		HttpSession session = request.getSession(false);
 		Throwable exception = (Throwable) request
@@ -135,7 +176,7 @@ public class WebRequestTraceFilter extends OncePerRequestFilter implements Order
 		add(trace, Include.USER_PRINCIPAL, "userPrincipal",
 				(userPrincipal == null ? null : userPrincipal.getName()));
 		if (isIncluded(Include.PARAMETERS)) {
-			trace.put("parameters", request.getParameterMap());
+			trace.put("parameters", getParameters(request));
 		}
 		add(trace, Include.QUERY_STRING, "query", request.getQueryString());
 		add(trace, Include.AUTH_TYPE, "authType", request.getAuthType());
@@ -151,6 +192,19 @@ public class WebRequestTraceFilter extends OncePerRequestFilter implements Order
 		return trace;
 	}
 
+	private Map<String, String[]> getParameters(HttpServletRequest request) {
+		int maxLength = this.properties.getMaxParameterValueLength();
+		Map<String, String[]> parameters = new LinkedHashMap<String, String[]>();
+		for (Map.Entry<String, String[]> entry : request.getParameterMap().entrySet()) {
+			String[] values = new String[entry.getValue().length];
+			for (int i = 0; i < values.length; i++) {
+				values[i] = truncate(entry.getValue()[i], maxLength);
+			}
+			parameters.put(entry.getKey(), values);
+		}
+		return parameters;
+	}
+
 	private Map<String, Object> getRequestHeaders(HttpServletRequest request) {
 		Map<String, Object> headers = new LinkedHashMap<String, Object>();
 		Set<String> excludedHeaders = getExcludeHeaders();
@@ -178,15 +232,26 @@ public class WebRequestTraceFilter extends OncePerRequestFilter implements Order
 
 	private Object getHeaderValue(HttpServletRequest request, String name) {
 		List<String> value = Collections.list(request.getHeaders(name));
+		int maxLength = this.properties.getMaxHeaderValueLength();
 		if (value.size() == 1) {
-			return value.get(0);
+			return truncate(value.get(0), maxLength);
 		}
 		if (value.isEmpty()) {
 			return "";
 		}
+		for (int i = 0; i < value.size(); i++) {
+			value.set(i, truncate(value.get(i), maxLength));
+		}
 		return value;
 	}
 
+	private String truncate(String value, int maxLength) {
+		if (value == null || maxLength < 0 || value.length() <= maxLength) {
+			return value;
+		}
+		return value.substring(0, maxLength);
+	}
+
 	/**
 	 * Post process request headers before they are added to the trace.
 	 * @param headers a mutable map containing the request headers to trace
@@ -205,9 +270,10 @@ public class WebRequestTraceFilter extends OncePerRequestFilter implements Order
 
 	private Map<String, String> getResponseHeaders(HttpServletResponse response) {
 		Map<String, String> headers = new LinkedHashMap<String, String>();
+		int maxLength = this.properties.getMaxHeaderValueLength();
 		for (String header : response.getHeaderNames()) {
 			String value = response.getHeader(header);
-			headers.put(header, value);
+			headers.put(header, truncate(value, maxLength));
 		}
 		if (!isIncluded(Include.COOKIES)) {
 			headers.remove("Set-Cookie");
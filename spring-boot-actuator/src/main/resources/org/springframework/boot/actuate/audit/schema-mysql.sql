@@ -0,0 +1,9 @@
+CREATE TABLE AUDIT_EVENT (
+	EVENT_TIMESTAMP TIMESTAMP(3) NOT NULL,
+	PRINCIPAL VARCHAR(256) NOT NULL,
+	EVENT_TYPE VARCHAR(256) NOT NULL,
+	EVENT_DATA TEXT
+) ENGINE=InnoDB;
+
+CREATE INDEX AUDIT_EVENT_IX1 ON AUDIT_EVENT (PRINCIPAL, EVENT_TIMESTAMP);
+CREATE INDEX AUDIT_EVENT_IX2 ON AUDIT_EVENT (EVENT_TIMESTAMP);
@@ -0,0 +1,9 @@
+CREATE TABLE AUDIT_EVENT (
+	EVENT_TIMESTAMP TIMESTAMP NOT NULL,
+	PRINCIPAL VARCHAR2(256) NOT NULL,
+	EVENT_TYPE VARCHAR2(256) NOT NULL,
+	EVENT_DATA CLOB
+);
+
+CREATE INDEX AUDIT_EVENT_IX1 ON AUDIT_EVENT (PRINCIPAL, EVENT_TIMESTAMP);
+CREATE INDEX AUDIT_EVENT_IX2 ON AUDIT_EVENT (EVENT_TIMESTAMP);
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.audit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link JdbcAuditEventRepository}.
+ *
+ * @author Jerry Lei
+ */
+public class JdbcAuditEventRepositoryTests {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	private EmbeddedDatabase dataSource;
+
+	private JdbcAuditEventRepository repository;
+
+	@Before
+	public void setup() {
+		this.dataSource = new EmbeddedDatabaseBuilder().generateUniqueName(true)
+				.setType(EmbeddedDatabaseType.H2)
+				.addScript("org/springframework/boot/actuate/audit/schema-h2.sql")
+				.build();
+		this.repository = new JdbcAuditEventRepository(this.dataSource);
+	}
+
+	@After
+	public void close() throws Exception {
+		this.repository.destroy();
+		this.dataSource.shutdown();
+	}
+
+	@Test
+	public void addNullAuditEvent() throws Exception {
+		this.thrown.expect(IllegalArgumentException.class);
+		this.thrown.expectMessage("AuditEvent must not be null");
+		this.repository.add(null);
+	}
+
+	@Test
+	public void addAndFind() throws Exception {
+		this.repository.afterPropertiesSet();
+		Map<String, Object> data = new HashMap<String, Object>();
+		data.put("remoteAddress", "127.0.0.1");
+		this.repository.add(new AuditEvent(new Date(1000), "dave", "a", data));
+		this.repository.add(createEvent(2000, "phil", "b"));
+		List<AuditEvent> events = this.repository.find(null);
+		assertThat(events).hasSize(2);
+		assertThat(events.get(0).getTimestamp()).isEqualTo(new Date(1000));
+		assertThat(events.get(0).getPrincipal()).isEqualTo("dave");
+		assertThat(events.get(0).getType()).isEqualTo("a");
+		assertThat(events.get(0).getData()).containsEntry("remoteAddress", "127.0.0.1");
+		assertThat(events.get(1).getPrincipal()).isEqualTo("phil");
+		assertThat(events.get(1).getData()).isEmpty();
+	}
+
+	@Test
+	public void findByPrincipalDateAndType() throws Exception {
+		this.repository.afterPropertiesSet();
+		this.repository.add(createEvent(1000, "dave", "a"));
+		this.repository.add(createEvent(2000, "phil", "a"));
+		this.repository.add(createEvent(3000, "dave", "b"));
+		this.repository.add(createEvent(4000, "dave", "a"));
+		assertThat(getTimestamps(this.repository.find("dave", null))).containsExactly(
+				1000L, 3000L, 4000L);
+		assertThat(getTimestamps(this.repository.find(new Date(2000))))
+				.containsExactly(2000L, 3000L, 4000L);
+		assertThat(getTimestamps(this.repository.find("dave", new Date(2000))))
+				.containsExactly(3000L, 4000L);
+		assertThat(getTimestamps(this.repository.find("dave", new Date(2000), "a")))
+				.containsExactly(4000L);
+		assertThat(getTimestamps(this.repository.find(null, null, "a")))
+				.containsExactly(1000L, 2000L, 4000L);
+	}
+
+	@Test
+	public void concurrentAddsAreBatched() throws Exception {
+		this.repository.setBatchSize(50);
+		this.repository.afterPropertiesSet();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Void>> futures = new ArrayList<Future<Void>>();
+			for (int i = 0; i < 8; i++) {
+				final String principal = "user" + i;
+				futures.add(executor.submit(new Callable<Void>() {
+
+					@Override
+					public Void call() throws Exception {
+						for (int j = 0; j < 500; j++) {
+							JdbcAuditEventRepositoryTests.this.repository
+									.add(new AuditEvent(principal, "type"));
+						}
+						return null;
+					}
+
+				}));
+			}
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+		assertThat(this.repository.find(null)).hasSize(4000);
+		assertThat(this.repository.find("user3", null)).hasSize(500);
+	}
+
+	@Test
+	public void eventsAreWrittenOnCallingThreadWhenBufferIsFull() throws Exception {
+		this.repository.setCapacity(1);
+		this.repository.add(createEvent(1000, "dave", "a"));
+		this.repository.add(createEvent(2000, "dave", "b"));
+		assertThat(countRows()).isEqualTo(1);
+		assertThat(getTimestamps(this.repository.find(null))).containsExactly(1000L,
+				2000L);
+	}
+
+	@Test
+	public void destroyWritesBufferedEvents() throws Exception {
+		this.repository.afterPropertiesSet();
+		for (int i = 0; i < 10; i++) {
+			this.repository.add(new AuditEvent("dave", "a"));
+		}
+		this.repository.destroy();
+		assertThat(countRows()).isEqualTo(10);
+	}
+
+	@Test
+	public void nonSerializableDataIsStoredAsString() throws Exception {
+		this.repository.afterPropertiesSet();
+		Map<String, Object> data = new HashMap<String, Object>();
+		data.put("value", new Object() {
+
+			@Override
+			public String toString() {
+				return "custom";
+			}
+
+		});
+		this.repository.add(new AuditEvent("dave", "a", data));
+		List<AuditEvent> events = this.repository.find(null);
+		assertThat(events).hasSize(1);
+		assertThat(events.get(0).getData())
+				.isEqualTo(Collections.singletonMap("value", "custom"));
+	}
+
+	@Test
+	public void dataIsStoredAsJson() throws Exception {
+		this.repository.afterPropertiesSet();
+		Map<String, Object> data = new LinkedHashMap<String, Object>();
+		data.put("message", "hello");
+		data.put("count", 3);
+		this.repository.add(new AuditEvent("dave", "a", data));
+		List<AuditEvent> events = this.repository.find(null);
+		assertThat(events).hasSize(1);
+		assertThat(events.get(0).getData()).isEqualTo(data);
+		assertThat(new JdbcTemplate(this.dataSource).queryForObject(
+				"SELECT EVENT_DATA FROM AUDIT_EVENT", String.class))
+						.isEqualTo("{\"message\":\"hello\",\"count\":3}");
+	}
+
+	@Test
+	public void eventThatCannotBeWrittenDoesNotPreventRestOfBatch() throws Exception {
+		char[] principal = new char[300];
+		Arrays.fill(principal, 'x');
+		this.repository.add(createEvent(1000, "dave", "a"));
+		this.repository.add(createEvent(2000, new String(principal), "b"));
+		this.repository.add(createEvent(3000, "phil", "c"));
+		List<AuditEvent> events = this.repository.find(null);
+		assertThat(events).extracting("principal").containsExactly("dave", "phil");
+	}
+
+	@Test
+	public void writerContinuesAfterUnexpectedFailure() throws Exception {
+		this.repository.setFlushTimeout(5000);
+		this.repository.afterPropertiesSet();
+		Map<String, Object> data = new HashMap<String, Object>();
+		data.put("value", new Object() {
+
+			@Override
+			public String toString() {
+				throw new IllegalStateException("Failed");
+			}
+
+		});
+		this.repository.add(new AuditEvent("dave", "a", data));
+		this.repository.flush();
+		this.repository.add(new AuditEvent("phil", "b"));
+		long start = System.currentTimeMillis();
+		List<AuditEvent> events = this.repository.find(null);
+		assertThat(System.currentTimeMillis() - start).isLessThan(5000);
+		assertThat(events).extracting("principal").containsExactly("phil");
+	}
+
+	@Test
+	public void customTableName() throws Exception {
+		new JdbcTemplate(this.dataSource).execute("CREATE TABLE CUSTOM_AUDIT_EVENT "
+				+ "AS SELECT * FROM AUDIT_EVENT WHERE 1 = 0");
+		this.repository.setTableName("CUSTOM_AUDIT_EVENT");
+		this.repository.add(new AuditEvent("dave", "a"));
+		assertThat(this.repository.find(null)).hasSize(1);
+		assertThat(countRows()).isEqualTo(0);
+	}
+
+	private AuditEvent createEvent(long timestamp, String principal, String type) {
+		return new AuditEvent(new Date(timestamp), principal, type,
+				Collections.<String, Object>emptyMap());
+	}
+
+	private int countRows() {
+		return new JdbcTemplate(this.dataSource)
+				.queryForObject("SELECT COUNT(*) FROM AUDIT_EVENT", Integer.class);
+	}
+
+	private List<Long> getTimestamps(List<AuditEvent> events) {
+		List<Long> timestamps = new ArrayList<Long>();
+		for (AuditEvent event : events) {
+			timestamps.add(event.getTimestamp().getTime());
+		}
+		return timestamps;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,20 +16,27 @@
 
 package org.springframework.boot.actuate.autoconfigure;
 
+import javax.sql.DataSource;
+
+import org.junit.After;
 import org.junit.Test;
 
 import org.springframework.boot.actuate.audit.AuditEvent;
 import org.springframework.boot.actuate.audit.AuditEventRepository;
 import org.springframework.boot.actuate.audit.InMemoryAuditEventRepository;
+import org.springframework.boot.actuate.audit.JdbcAuditEventRepository;
 import org.springframework.boot.actuate.audit.listener.AbstractAuditListener;
 import org.springframework.boot.actuate.security.AbstractAuthenticationAuditListener;
 import org.springframework.boot.actuate.security.AbstractAuthorizationAuditListener;
 import org.springframework.boot.actuate.security.AuthenticationAuditListener;
 import org.springframework.boot.actuate.security.AuthorizationAuditListener;
+import org.springframework.boot.autoconfigure.jdbc.EmbeddedDataSourceConfiguration;
+import org.springframework.boot.test.util.EnvironmentTestUtils;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.access.event.AbstractAuthorizationEvent;
 import org.springframework.security.authentication.event.AbstractAuthenticationEvent;
 
@@ -45,6 +52,11 @@ public class AuditAutoConfigurationTests {
 
 	private AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
 
+	@After
+	public void close() {
+		this.context.close();
+	}
+
 	@Test
 	public void defaultConfiguration() throws Exception {
 		registerAndRefresh(AuditAutoConfiguration.class);
@@ -85,6 +97,52 @@ public class AuditAutoConfigurationTests {
 				.isInstanceOf(TestAuditListener.class);
 	}
 
+	@Test
+	public void jdbcAuditEventRepository() throws Exception {
+		EnvironmentTestUtils.addEnvironment(this.context,
+				"management.audit.jdbc.enabled:true");
+		registerAndRefresh(EmbeddedDataSourceConfiguration.class,
+				AuditAutoConfiguration.class);
+		AuditEventRepository repository = this.context
+				.getBean(AuditEventRepository.class);
+		assertThat(repository).isInstanceOf(JdbcAuditEventRepository.class);
+		repository.add(new AuditEvent("dave", "a"));
+		assertThat(repository.find("dave", null)).hasSize(1);
+	}
+
+	@Test
+	public void jdbcAuditEventRepositoryWithCustomTableName() throws Exception {
+		EnvironmentTestUtils.addEnvironment(this.context,
+				"management.audit.jdbc.enabled:true",
+				"management.audit.jdbc.table-name:CUSTOM_AUDIT_EVENT");
+		registerAndRefresh(EmbeddedDataSourceConfiguration.class,
+				AuditAutoConfiguration.class);
+		AuditEventRepository repository = this.context
+				.getBean(AuditEventRepository.class);
+		repository.add(new AuditEvent("dave", "a"));
+		assertThat(repository.find("dave", null)).hasSize(1);
+		assertThat(new JdbcTemplate(this.context.getBean(DataSource.class))
+				.queryForObject("SELECT COUNT(*) FROM CUSTOM_AUDIT_EVENT", Integer.class))
+						.isEqualTo(1);
+	}
+
+	@Test
+	public void jdbcAuditEventRepositoryNotEnabled() throws Exception {
+		registerAndRefresh(EmbeddedDataSourceConfiguration.class,
+				AuditAutoConfiguration.class);
+		assertThat(this.context.getBean(AuditEventRepository.class))
+				.isInstanceOf(InMemoryAuditEventRepository.class);
+	}
+
+	@Test
+	public void jdbcAuditEventRepositoryWithoutDataSource() throws Exception {
+		EnvironmentTestUtils.addEnvironment(this.context,
+				"management.audit.jdbc.enabled:true");
+		registerAndRefresh(AuditAutoConfiguration.class);
+		assertThat(this.context.getBean(AuditEventRepository.class))
+				.isInstanceOf(InMemoryAuditEventRepository.class);
+	}
+
 	private void registerAndRefresh(Class<?>... annotatedClasses) {
 		this.context.register(annotatedClasses);
 		this.context.refresh();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -29,6 +29,7 @@ import liquibase.integration.spring.SpringLiquibase;
 import org.flywaydb.core.Flyway;
 import org.junit.After;
 import org.junit.Test;
+import reactor.core.publisher.Mono;
 
 import org.springframework.boot.actuate.endpoint.AutoConfigurationReportEndpoint;
 import org.springframework.boot.actuate.endpoint.BeansEndpoint;
@@ -43,8 +44,11 @@ import org.springframework.boot.actuate.endpoint.MetricsEndpoint;
 import org.springframework.boot.actuate.endpoint.PublicMetrics;
 import org.springframework.boot.actuate.endpoint.RequestMappingEndpoint;
 import org.springframework.boot.actuate.endpoint.ShutdownEndpoint;
+import org.springframework.boot.actuate.endpoint.StartupEndpoint;
 import org.springframework.boot.actuate.endpoint.TraceEndpoint;
 import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.ReactiveHealthIndicator;
+import org.springframework.boot.actuate.health.Status;
 import org.springframework.boot.actuate.info.Info;
 import org.springframework.boot.actuate.info.InfoContributor;
 import org.springframework.boot.actuate.metrics.Metric;
@@ -56,6 +60,7 @@ import org.springframework.boot.autoconfigure.jdbc.DataSourceBuilder;
 import org.springframework.boot.autoconfigure.jdbc.EmbeddedDataSourceConfiguration;
 import org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfiguration;
 import org.springframework.boot.bind.PropertySourcesBinder;
+import org.springframework.boot.context.startup.StartupTimeline;
 import org.springframework.boot.logging.LoggingSystem;
 import org.springframework.boot.test.util.EnvironmentTestUtils;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
@@ -127,6 +132,33 @@ public class EndpointAutoConfigurationTests {
 		assertThat(result).isNotNull();
 	}
 
+	@Test
+	public void healthEndpointWithReactiveHealthIndicator() {
+		load(ReactiveHealthIndicatorConfig.class, EmbeddedDataSourceConfiguration.class,
+				EndpointAutoConfiguration.class, HealthIndicatorAutoConfiguration.class);
+		HealthEndpoint bean = this.context.getBean(HealthEndpoint.class);
+		Health result = bean.invoke();
+		assertThat(result.getStatus()).isEqualTo(Status.UP);
+		assertThat(result.getDetails()).containsKeys("db", "reactive");
+	}
+
+	@Test
+	public void healthEndpointWithSlowReactiveHealthIndicator() {
+		this.context = new AnnotationConfigApplicationContext();
+		EnvironmentTestUtils.addEnvironment(this.context,
+				"management.health.reactive.timeout:2000");
+		this.context.register(SlowReactiveHealthIndicatorConfig.class,
+				EmbeddedDataSourceConfiguration.class, EndpointAutoConfiguration.class,
+				HealthIndicatorAutoConfiguration.class);
+		this.context.refresh();
+		Health result = this.context.getBean(HealthEndpoint.class).invoke();
+		assertThat(result.getStatus()).isEqualTo(Status.DOWN);
+		assertThat(((Health) result.getDetails().get("db")).getStatus())
+				.isEqualTo(Status.UP);
+		assertThat(((Health) result.getDetails().get("slow")).getStatus())
+				.isEqualTo(Status.DOWN);
+	}
+
 	@Test
 	public void loggersEndpointHasLoggers() throws Exception {
 		load(CustomLoggingConfig.class, EndpointAutoConfiguration.class);
@@ -167,6 +199,18 @@ public class EndpointAutoConfigurationTests {
 				.isNotNull();
 	}
 
+	@Test
+	public void startupEndpoint() {
+		load(EndpointAutoConfiguration.class, StartupTimeline.class);
+		assertThat(this.context.getBean(StartupEndpoint.class)).isNotNull();
+	}
+
+	@Test
+	public void startupEndpointWithoutTimeline() {
+		load(EndpointAutoConfiguration.class);
+		assertThat(this.context.getBeansOfType(StartupEndpoint.class)).isEmpty();
+	}
+
 	@Test
 	public void testInfoEndpoint() throws Exception {
 		this.context = new AnnotationConfigApplicationContext();
@@ -390,4 +434,38 @@ public class EndpointAutoConfigurationTests {
 
 	}
 
+	@Configuration
+	static class ReactiveHealthIndicatorConfig {
+
+		@Bean
+		public ReactiveHealthIndicator reactiveHealthIndicator() {
+			return new ReactiveHealthIndicator() {
+
+				@Override
+				public Mono<Health> health() {
+					return Mono.just(Health.up().build());
+				}
+
+			};
+		}
+
+	}
+
+	@Configuration
+	static class SlowReactiveHealthIndicatorConfig {
+
+		@Bean
+		public ReactiveHealthIndicator slowHealthIndicator() {
+			return new ReactiveHealthIndicator() {
+
+				@Override
+				public Mono<Health> health() {
+					return Mono.never();
+				}
+
+			};
+		}
+
+	}
+
 }
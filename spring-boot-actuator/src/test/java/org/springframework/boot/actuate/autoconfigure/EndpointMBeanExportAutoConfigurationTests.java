@@ -18,6 +18,7 @@ package org.springframework.boot.actuate.autoconfigure;
 
 import javax.management.InstanceNotFoundException;
 import javax.management.IntrospectionException;
+import javax.management.JMX;
 import javax.management.MalformedObjectNameException;
 import javax.management.ObjectName;
 import javax.management.ReflectionException;
@@ -29,6 +30,8 @@ import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.boot.actuate.endpoint.AbstractEndpoint;
 import org.springframework.boot.actuate.endpoint.Endpoint;
 import org.springframework.boot.actuate.endpoint.jmx.EndpointMBeanExporter;
+import org.springframework.boot.actuate.endpoint.jmx.HealthEndpointMXBean;
+import org.springframework.boot.actuate.endpoint.jmx.MetricsEndpointMXBean;
 import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
 import org.springframework.boot.autoconfigure.jmx.JmxAutoConfiguration;
 import org.springframework.context.ApplicationContext;
@@ -134,6 +137,27 @@ public class EndpointMBeanExportAutoConfigurationTests {
 						+ ",key1=value1,key2=value2"))).isNotNull();
 	}
 
+	@Test
+	public void testEndpointMBeanExporterWithTypedEndpoints() throws Exception {
+		MockEnvironment environment = new MockEnvironment();
+		environment.setProperty("endpoints.jmx.typed", "true");
+		environment.setProperty("endpoints.jmx.cache.time-to-live", "5000");
+		this.context = new AnnotationConfigApplicationContext();
+		this.context.setEnvironment(environment);
+		this.context.register(JmxAutoConfiguration.class, EndpointAutoConfiguration.class,
+				EndpointMBeanExportAutoConfiguration.class);
+		this.context.refresh();
+		MBeanExporter mbeanExporter = this.context.getBean(EndpointMBeanExporter.class);
+		HealthEndpointMXBean health = JMX.newMXBeanProxy(mbeanExporter.getServer(),
+				getObjectName("org.springframework.boot", "healthEndpoint", this.context),
+				HealthEndpointMXBean.class);
+		assertThat(health.getStatus()).isEqualTo("UNKNOWN");
+		MetricsEndpointMXBean metrics = JMX.newMXBeanProxy(mbeanExporter.getServer(),
+				getObjectName("org.springframework.boot", "metricsEndpoint", this.context),
+				MetricsEndpointMXBean.class);
+		assertThat(metrics.getMetricCount()).isEqualTo(metrics.getMetrics().size());
+	}
+
 	@Test
 	public void testEndpointMBeanExporterInParentChild() throws IntrospectionException,
 			InstanceNotFoundException, MalformedObjectNameException, ReflectionException {
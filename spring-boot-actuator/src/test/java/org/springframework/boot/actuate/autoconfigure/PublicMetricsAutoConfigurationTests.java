@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.boot.actuate.autoconfigure;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -38,6 +39,7 @@ import org.springframework.boot.actuate.endpoint.RichGaugeReaderPublicMetrics;
 import org.springframework.boot.actuate.endpoint.SystemPublicMetrics;
 import org.springframework.boot.actuate.endpoint.TomcatPublicMetrics;
 import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.jdbc.InstrumentedDataSource;
 import org.springframework.boot.actuate.metrics.rich.RichGauge;
 import org.springframework.boot.actuate.metrics.rich.RichGaugeReader;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
@@ -46,6 +48,7 @@ import org.springframework.boot.autoconfigure.jdbc.metadata.DataSourcePoolMetada
 import org.springframework.boot.context.embedded.AnnotationConfigEmbeddedWebApplicationContext;
 import org.springframework.boot.context.embedded.MockEmbeddedServletContainerFactory;
 import org.springframework.boot.context.embedded.tomcat.TomcatEmbeddedServletContainerFactory;
+import org.springframework.boot.test.util.EnvironmentTestUtils;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.ConfigurableApplicationContext;
@@ -159,6 +162,38 @@ public class PublicMetricsAutoConfigurationTests {
 				"datasource.commonsDbcp.usage");
 	}
 
+	@Test
+	public void dataSourcesAreNotInstrumentedByDefault() {
+		load(DataSourceAutoConfiguration.class);
+		assertThat(this.context.getBean(DataSource.class))
+				.isNotInstanceOf(InstrumentedDataSource.class);
+		Collection<Metric<?>> metrics = this.context
+				.getBean(DataSourcePublicMetrics.class).metrics();
+		assertThat(getMetricNames(metrics)).doesNotContain("datasource.primary.timeouts");
+	}
+
+	@Test
+	public void instrumentedDataSources() {
+		load(new String[] { "endpoints.metrics.datasource.instrumentation.enabled:true" },
+				MultipleDataSourcesConfig.class);
+		DataSource hikari = this.context.getBean("hikariDS", DataSource.class);
+		assertThat(hikari).isInstanceOf(HikariDataSource.class)
+				.isInstanceOf(InstrumentedDataSource.class);
+		new JdbcTemplate(hikari).queryForObject(
+				"SELECT 1 FROM INFORMATION_SCHEMA.SYSTEM_USERS", Integer.class);
+		PublicMetrics bean = this.context.getBean(DataSourcePublicMetrics.class);
+		Collection<Metric<?>> metrics = bean.metrics();
+		assertMetrics(metrics, "datasource.tomcat.active", "datasource.hikariDS.active",
+				"datasource.commonsDbcp.active", "datasource.tomcat.acquire.count",
+				"datasource.tomcat.hold.p99", "datasource.tomcat.timeouts",
+				"datasource.hikariDS.acquire.p95", "datasource.commonsDbcp.acquire.max");
+		for (Metric<?> metric : metrics) {
+			if (metric.getName().equals("datasource.hikariDS.acquire.count")) {
+				assertThat(metric.getValue()).isEqualTo(1L);
+			}
+		}
+	}
+
 	@Test
 	public void multipleDataSourcesWithPrimary() {
 		load(MultipleDataSourcesWithPrimaryConfig.class);
@@ -216,6 +251,14 @@ public class PublicMetricsAutoConfigurationTests {
 				"cache.first_speakers.size", "cache.users.size");
 	}
 
+	@Test
+	public void cacheMetricsTimeToLive() {
+		load(new String[] { "management.metrics.cache.time-to-live=1000" },
+				CacheConfiguration.class);
+		CachePublicMetrics bean = this.context.getBean(CachePublicMetrics.class);
+		assertThat(bean.getTimeToLive()).isEqualTo(1000);
+	}
+
 	private void assertHasMetric(Collection<Metric<?>> metrics, Metric<?> metric) {
 		for (Metric<?> m : metrics) {
 			if (m.getValue().equals(metric.getValue())
@@ -249,8 +292,21 @@ public class PublicMetricsAutoConfigurationTests {
 		this.context = context;
 	}
 
+	private Collection<String> getMetricNames(Collection<Metric<?>> metrics) {
+		Collection<String> names = new ArrayList<String>();
+		for (Metric<?> metric : metrics) {
+			names.add(metric.getName());
+		}
+		return names;
+	}
+
 	private void load(Class<?>... config) {
+		load(new String[0], config);
+	}
+
+	private void load(String[] environment, Class<?>... config) {
 		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		EnvironmentTestUtils.addEnvironment(context, environment);
 		if (config.length > 0) {
 			context.register(config);
 		}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,13 +16,18 @@
 
 package org.springframework.boot.actuate.autoconfigure;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import org.springframework.boot.actuate.trace.InMemoryTraceRepository;
+import org.springframework.boot.actuate.trace.MappedFileTraceRepository;
 import org.springframework.boot.actuate.trace.TraceRepository;
+import org.springframework.boot.test.util.EnvironmentTestUtils;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -34,6 +39,9 @@ import static org.mockito.Mockito.mock;
  */
 public class TraceRepositoryAutoConfigurationTests {
 
+	@Rule
+	public TemporaryFolder temp = new TemporaryFolder();
+
 	@Test
 	public void configuresInMemoryTraceRepository() throws Exception {
 		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
@@ -42,6 +50,34 @@ public class TraceRepositoryAutoConfigurationTests {
 		context.close();
 	}
 
+	@Test
+	public void configuresMappedFileTraceRepositoryWhenJournalDirectoryIsSet()
+			throws Exception {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		EnvironmentTestUtils.addEnvironment(context, "management.trace.journal.directory:"
+				+ this.temp.newFolder().getAbsolutePath());
+		context.register(TraceRepositoryAutoConfiguration.class);
+		context.refresh();
+		assertThat(context.getBean(TraceRepository.class))
+				.isInstanceOf(MappedFileTraceRepository.class);
+		context.close();
+	}
+
+	@Test
+	public void configuresMappedFileTraceRepositoryCapacity() throws Exception {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		EnvironmentTestUtils.addEnvironment(context,
+				"management.trace.journal.directory:"
+						+ this.temp.newFolder().getAbsolutePath(),
+				"management.trace.journal.capacity:500");
+		context.register(TraceRepositoryAutoConfiguration.class);
+		context.refresh();
+		assertThat(ReflectionTestUtils.getField(
+				context.getBean(MappedFileTraceRepository.class), "capacity"))
+						.isEqualTo(500);
+		context.close();
+	}
+
 	@Test
 	public void skipsIfRepositoryExists() throws Exception {
 		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
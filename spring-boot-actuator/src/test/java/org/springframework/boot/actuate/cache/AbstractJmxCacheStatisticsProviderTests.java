@@ -0,0 +1,224 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.cache;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link AbstractJmxCacheStatisticsProvider}.
+ *
+ * @author Jerry Lei
+ */
+public class AbstractJmxCacheStatisticsProviderTests {
+
+	private static final int CACHE_COUNT = 300;
+
+	private MBeanServer mBeanServer;
+
+	private CountingMBeanServer countingMBeanServer;
+
+	private TestJmxCacheStatisticsProvider provider;
+
+	@Before
+	public void setup() throws Exception {
+		this.mBeanServer = MBeanServerFactory.newMBeanServer();
+		for (int i = 0; i < CACHE_COUNT; i++) {
+			register("cache" + i, i);
+		}
+		this.countingMBeanServer = new CountingMBeanServer(this.mBeanServer);
+		this.provider = new TestJmxCacheStatisticsProvider(
+				this.countingMBeanServer.getProxy());
+	}
+
+	@Test
+	public void attributesAreReadWithSingleInvocation() throws Exception {
+		for (int i = 0; i < CACHE_COUNT; i++) {
+			CacheStatistics statistics = getCacheStatistics("cache" + i);
+			assertThat(statistics.getSize()).isEqualTo((long) i);
+			assertThat(statistics.getHitRatio()).isEqualTo(0.75);
+		}
+		assertThat(this.countingMBeanServer.getCount("getAttributes"))
+				.isEqualTo(CACHE_COUNT);
+		assertThat(this.countingMBeanServer.getCount("getAttribute")).isEqualTo(0);
+		assertThat(this.countingMBeanServer.getCount("queryNames"))
+				.isEqualTo(CACHE_COUNT);
+	}
+
+	@Test
+	public void objectNamesAreResolvedOnce() throws Exception {
+		for (int run = 0; run < 3; run++) {
+			for (int i = 0; i < CACHE_COUNT; i++) {
+				getCacheStatistics("cache" + i);
+			}
+		}
+		assertThat(this.countingMBeanServer.getCount("getAttributes"))
+				.isEqualTo(3 * CACHE_COUNT);
+		assertThat(this.countingMBeanServer.getCount("queryNames"))
+				.isEqualTo(CACHE_COUNT);
+	}
+
+	@Test
+	public void objectNameIsResolvedAgainWhenMBeanIsReplaced() throws Exception {
+		assertThat(getCacheStatistics("cache1").getSize()).isEqualTo(1L);
+		this.mBeanServer.unregisterMBean(getObjectName("cache1", 1));
+		assertThat(getCacheStatistics("cache1").getSize()).isNull();
+		register("cache1", 42);
+		assertThat(getCacheStatistics("cache1").getSize()).isEqualTo(42L);
+		assertThat(this.countingMBeanServer.getCount("queryNames")).isEqualTo(2);
+	}
+
+	private CacheStatistics getCacheStatistics(String name) {
+		return this.provider.getCacheStatistics(null, new ConcurrentMapCache(name));
+	}
+
+	private void register(String name, long size) throws Exception {
+		this.mBeanServer.registerMBean(new CacheStats(size),
+				getObjectName(name, size));
+	}
+
+	private ObjectName getObjectName(String name, long id)
+			throws MalformedObjectNameException {
+		return new ObjectName("test:type=CacheStatistics,name=" + name + ",id=" + id);
+	}
+
+	/**
+	 * MBean interface exposing cache statistics.
+	 */
+	public interface CacheStatsMBean {
+
+		long getSize();
+
+		double getHitRatio();
+
+	}
+
+	/**
+	 * {@link CacheStatsMBean} implementation.
+	 */
+	public static class CacheStats implements CacheStatsMBean {
+
+		private final long size;
+
+		CacheStats(long size) {
+			this.size = size;
+		}
+
+		@Override
+		public long getSize() {
+			return this.size;
+		}
+
+		@Override
+		public double getHitRatio() {
+			return 0.75;
+		}
+
+	}
+
+	private static class TestJmxCacheStatisticsProvider
+			extends AbstractJmxCacheStatisticsProvider<ConcurrentMapCache> {
+
+		private final MBeanServer mBeanServer;
+
+		TestJmxCacheStatisticsProvider(MBeanServer mBeanServer) {
+			this.mBeanServer = mBeanServer;
+		}
+
+		@Override
+		protected MBeanServer getMBeanServer() {
+			return this.mBeanServer;
+		}
+
+		@Override
+		protected ObjectName getObjectName(ConcurrentMapCache cache)
+				throws MalformedObjectNameException {
+			Set<ObjectName> names = getMBeanServer().queryNames(new ObjectName(
+					"test:type=CacheStatistics,name=" + cache.getName() + ",*"), null);
+			return (names.size() == 1 ? names.iterator().next() : null);
+		}
+
+		@Override
+		protected CacheStatistics getCacheStatistics(ObjectName objectName) {
+			Map<String, Object> attributes = getAttributes(objectName, "Size",
+					"HitRatio");
+			DefaultCacheStatistics statistics = new DefaultCacheStatistics();
+			statistics.setSize((Long) attributes.get("Size"));
+			statistics.setHitRatio((Double) attributes.get("HitRatio"));
+			return statistics;
+		}
+
+	}
+
+	private static class CountingMBeanServer implements InvocationHandler {
+
+		private final MBeanServer delegate;
+
+		private final Map<String, AtomicInteger> counts = new ConcurrentHashMap<String, AtomicInteger>();
+
+		CountingMBeanServer(MBeanServer delegate) {
+			this.delegate = delegate;
+		}
+
+		MBeanServer getProxy() {
+			return (MBeanServer) Proxy.newProxyInstance(getClass().getClassLoader(),
+					new Class<?>[] { MBeanServer.class }, this);
+		}
+
+		int getCount(String methodName) {
+			AtomicInteger count = this.counts.get(methodName);
+			return (count == null ? 0 : count.get());
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args)
+				throws Throwable {
+			AtomicInteger count = this.counts.get(method.getName());
+			if (count == null) {
+				count = new AtomicInteger();
+				this.counts.put(method.getName(), count);
+			}
+			count.incrementAndGet();
+			try {
+				return method.invoke(this.delegate, args);
+			}
+			catch (InvocationTargetException ex) {
+				throw ex.getTargetException();
+			}
+		}
+
+	}
+
+}
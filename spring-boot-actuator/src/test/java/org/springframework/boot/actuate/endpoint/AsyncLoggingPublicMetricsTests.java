@@ -0,0 +1,74 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint;
+
+import java.util.Iterator;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import org.junit.After;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.logging.logback.BatchingAsyncAppender;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link AsyncLoggingPublicMetrics}.
+ *
+ * @author Jerry Lei
+ */
+public class AsyncLoggingPublicMetricsTests {
+
+	private final Logger root = ((LoggerContext) LoggerFactory.getILoggerFactory())
+			.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+
+	private BatchingAsyncAppender appender;
+
+	@After
+	public void cleanup() {
+		if (this.appender != null) {
+			this.root.detachAppender(this.appender);
+			this.appender.stop();
+		}
+	}
+
+	@Test
+	public void noMetricsWithoutAsyncAppender() throws Exception {
+		assertThat(new AsyncLoggingPublicMetrics().metrics()).isEmpty();
+	}
+
+	@Test
+	public void asyncAppenderMetrics() throws Exception {
+		this.appender = new BatchingAsyncAppender();
+		this.appender.setContext(this.root.getLoggerContext());
+		this.appender.start();
+		this.root.addAppender(this.appender);
+		Iterator<Metric<?>> metrics = new AsyncLoggingPublicMetrics().metrics()
+				.iterator();
+		Metric<?> queued = metrics.next();
+		assertThat(queued.getName()).isEqualTo("logging.async.queued");
+		assertThat(queued.getValue()).isEqualTo(0L);
+		Metric<?> discarded = metrics.next();
+		assertThat(discarded.getName()).isEqualTo("logging.async.discarded");
+		assertThat(discarded.getValue()).isEqualTo(0L);
+		assertThat(metrics.hasNext()).isFalse();
+	}
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.boot.actuate.cache.ConcurrentMapCacheStatisticsProvider;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CachePublicMetrics}.
+ *
+ * @author Jerry Lei
+ */
+public class CachePublicMetricsTests {
+
+	private AnnotationConfigApplicationContext context;
+
+	@After
+	public void close() {
+		if (this.context != null) {
+			this.context.close();
+		}
+	}
+
+	@Test
+	public void statisticsAreHeldInSnapshot() throws Exception {
+		CachePublicMetrics publicMetrics = load();
+		publicMetrics.setTimeToLive(60000);
+		assertThat(getSize(publicMetrics, "books")).isEqualTo(0L);
+		getCacheManager().getCache("books").put("a", "b");
+		assertThat(getSize(publicMetrics, "books")).isEqualTo(0L);
+	}
+
+	@Test
+	public void expiredSnapshotIsRefreshedInBackground() throws Exception {
+		CachePublicMetrics publicMetrics = load();
+		CountingExecutor executor = new CountingExecutor();
+		publicMetrics.setExecutor(executor);
+		publicMetrics.setTimeToLive(500);
+		assertThat(getSize(publicMetrics, "books")).isEqualTo(0L);
+		assertThat(executor.count).isEqualTo(0);
+		getCacheManager().getCache("books").put("a", "b");
+		Thread.sleep(600);
+		assertThat(getSize(publicMetrics, "books")).isEqualTo(0L);
+		assertThat(executor.count).isEqualTo(1);
+		publicMetrics.setTimeToLive(60000);
+		assertThat(getSize(publicMetrics, "books")).isEqualTo(1L);
+		assertThat(executor.count).isEqualTo(1);
+	}
+
+	@Test
+	public void staleSnapshotIsNotUsed() throws Exception {
+		CachePublicMetrics publicMetrics = load();
+		CountingExecutor executor = new CountingExecutor();
+		publicMetrics.setExecutor(executor);
+		publicMetrics.setTimeToLive(1);
+		assertThat(getSize(publicMetrics, "books")).isEqualTo(0L);
+		getCacheManager().getCache("books").put("a", "b");
+		Thread.sleep(10);
+		assertThat(getSize(publicMetrics, "books")).isEqualTo(1L);
+		assertThat(executor.count).isEqualTo(0);
+	}
+
+	@Test
+	public void statisticsAreGatheredOnEachCallByDefault() throws Exception {
+		CachePublicMetrics publicMetrics = load();
+		assertThat(publicMetrics.getTimeToLive()).isEqualTo(0);
+		assertThat(getSize(publicMetrics, "books")).isEqualTo(0L);
+		getCacheManager().getCache("books").put("a", "b");
+		assertThat(getSize(publicMetrics, "books")).isEqualTo(1L);
+	}
+
+	@Test
+	public void defaultExecutorIsShutDownWhenDestroyed() throws Exception {
+		CachePublicMetrics publicMetrics = load();
+		publicMetrics.setTimeToLive(500);
+		getSize(publicMetrics, "books");
+		Thread.sleep(600);
+		getSize(publicMetrics, "books");
+		ExecutorService executor = (ExecutorService) ReflectionTestUtils
+				.getField(publicMetrics, "defaultExecutor");
+		assertThat(executor).isNotNull();
+		this.context.close();
+		assertThat(executor.isShutdown()).isTrue();
+	}
+
+	private CachePublicMetrics load() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		return this.context.getBean(CachePublicMetrics.class);
+	}
+
+	private CacheManager getCacheManager() {
+		return this.context.getBean(CacheManager.class);
+	}
+
+	private Number getSize(CachePublicMetrics publicMetrics, String cacheName) {
+		Collection<Metric<?>> metrics = publicMetrics.metrics();
+		Map<String, Number> values = new HashMap<String, Number>();
+		for (Metric<?> metric : metrics) {
+			values.put(metric.getName(), metric.getValue());
+		}
+		return values.get("cache." + cacheName + ".size");
+	}
+
+	private static class CountingExecutor implements Executor {
+
+		private final Executor delegate = new SyncTaskExecutor();
+
+		private int count;
+
+		@Override
+		public void execute(Runnable command) {
+			this.count++;
+			this.delegate.execute(command);
+		}
+
+	}
+
+	@Configuration
+	static class Config {
+
+		@Bean
+		public CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager("books");
+		}
+
+		@Bean
+		public ConcurrentMapCacheStatisticsProvider cacheStatisticsProvider() {
+			return new ConcurrentMapCacheStatisticsProvider();
+		}
+
+		@Bean
+		public CachePublicMetrics cachePublicMetrics() {
+			return new CachePublicMetrics();
+		}
+
+	}
+
+}
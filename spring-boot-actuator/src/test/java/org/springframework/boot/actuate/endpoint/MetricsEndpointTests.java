@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -28,12 +29,14 @@ import java.util.Map.Entry;
 import org.junit.Test;
 
 import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.reader.MetricValueSource.Callback;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 
 /**
  * Tests for {@link MetricsEndpoint}.
@@ -71,6 +74,30 @@ public class MetricsEndpointTests extends AbstractEndpointTests<MetricsEndpoint>
 		assertThat(iterator.hasNext()).isFalse();
 	}
 
+	@Test
+	public void forEachValue() {
+		List<PublicMetrics> publicMetrics = new ArrayList<PublicMetrics>();
+		publicMetrics.add(new TestPublicMetrics(2, this.metric3,
+				new Metric<Number>("d", 4.5)));
+		publicMetrics.add(new TestPublicMetrics(1, this.metric1, this.metric2));
+		final Map<String, Number> values = new LinkedHashMap<String, Number>();
+		new MetricsEndpoint(publicMetrics).forEachValue(new Callback() {
+
+			@Override
+			public void value(String name, long value) {
+				values.put(name, value);
+			}
+
+			@Override
+			public void value(String name, double value) {
+				values.put(name, value);
+			}
+
+		});
+		assertThat(values).containsExactly(entry("a", 1L), entry("b", 2L),
+				entry("c", 3L), entry("d", 4.5));
+	}
+
 	private static class TestPublicMetrics implements PublicMetrics, Ordered {
 
 		private final int order;
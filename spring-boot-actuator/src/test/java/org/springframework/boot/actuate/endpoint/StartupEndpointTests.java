@@ -0,0 +1,62 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint;
+
+import org.junit.Test;
+
+import org.springframework.boot.actuate.endpoint.StartupEndpoint.Timeline;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.startup.StartupTimeline;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link StartupEndpoint}.
+ *
+ * @author Jerry Lei
+ */
+public class StartupEndpointTests extends AbstractEndpointTests<StartupEndpoint> {
+
+	public StartupEndpointTests() {
+		super(Config.class, StartupEndpoint.class, "startup", true, "endpoints.startup");
+	}
+
+	@Test
+	public void invoke() throws Exception {
+		Timeline timeline = getEndpointBean().invoke();
+		assertThat(timeline.getSteps()).hasSize(1);
+		assertThat(timeline.getSteps().get(0).getName()).isEqualTo("test");
+		assertThat(timeline.getDroppedSteps()).isEqualTo(1);
+	}
+
+	@Configuration
+	@EnableConfigurationProperties
+	public static class Config {
+
+		@Bean
+		public StartupEndpoint endpoint() {
+			StartupTimeline timeline = new StartupTimeline(1);
+			timeline.start("test").end();
+			timeline.start("dropped").end();
+			return new StartupEndpoint(timeline);
+		}
+
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,11 +17,14 @@
 package org.springframework.boot.actuate.endpoint;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.junit.Test;
 
 import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.reader.MetricValueSource.Callback;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -61,4 +64,28 @@ public class SystemPublicMetricsTests {
 		assertThat(results).containsKey("classes");
 	}
 
+	@Test
+	public void forEachValueMatchesMetrics() throws Exception {
+		SystemPublicMetrics publicMetrics = new SystemPublicMetrics();
+		final Set<String> names = new HashSet<String>();
+		publicMetrics.forEachValue(new Callback() {
+
+			@Override
+			public void value(String name, long value) {
+				names.add(name);
+			}
+
+			@Override
+			public void value(String name, double value) {
+				names.add(name);
+			}
+
+		});
+		Set<String> expected = new HashSet<String>();
+		for (Metric<?> metric : publicMetrics.metrics()) {
+			expected.add(metric.getName());
+		}
+		assertThat(names).isEqualTo(expected);
+	}
+
 }
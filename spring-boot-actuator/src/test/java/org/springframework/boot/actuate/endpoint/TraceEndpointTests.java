@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,11 +16,18 @@
 
 package org.springframework.boot.actuate.endpoint;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 
 import org.springframework.boot.actuate.trace.InMemoryTraceRepository;
+import org.springframework.boot.actuate.trace.SearchableTraceRepository;
 import org.springframework.boot.actuate.trace.Trace;
 import org.springframework.boot.actuate.trace.TraceRepository;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -28,6 +35,9 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 /**
  * Tests for {@link TraceEndpoint}.
@@ -36,6 +46,9 @@ import static org.assertj.core.api.Assertions.assertThat;
  */
 public class TraceEndpointTests extends AbstractEndpointTests<TraceEndpoint> {
 
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
 	public TraceEndpointTests() {
 		super(Config.class, TraceEndpoint.class, "trace", true, "endpoints.trace");
 	}
@@ -46,6 +59,47 @@ public class TraceEndpointTests extends AbstractEndpointTests<TraceEndpoint> {
 		assertThat(trace.getInfo().get("a")).isEqualTo("b");
 	}
 
+	@Test
+	public void findFiltersTracesFromRepository() throws Exception {
+		TraceRepository repository = mock(TraceRepository.class);
+		Map<String, Object> info = Collections.emptyMap();
+		Trace first = new Trace(new Date(1000), info);
+		Trace second = new Trace(new Date(2000), info);
+		Trace third = new Trace(new Date(3000), info);
+		given(repository.findAll()).willReturn(Arrays.asList(third, second, first));
+		TraceEndpoint endpoint = new TraceEndpoint(repository);
+		assertThat(endpoint.find(new Date(2000), null, 10)).containsExactly(second,
+				third);
+		assertThat(endpoint.find(null, new Date(2000), 10)).containsExactly(first,
+				second);
+		assertThat(endpoint.find(null, null, 1)).containsExactly(third);
+		assertThat(endpoint.find(null, null, 2)).containsExactly(second, third);
+	}
+
+	@Test
+	public void findDelegatesToSearchableRepository() throws Exception {
+		SearchableTraceRepository repository = mock(SearchableTraceRepository.class);
+		List<Trace> traces = Collections.singletonList(
+				new Trace(new Date(1000), Collections.<String, Object>emptyMap()));
+		given(repository.find(new Date(1000), new Date(2000), 5)).willReturn(traces);
+		assertThat(new TraceEndpoint(repository).find(new Date(1000), new Date(2000),
+				5)).isSameAs(traces);
+	}
+
+	@Test
+	public void findWithNegativeLimit() throws Exception {
+		this.thrown.expect(IllegalArgumentException.class);
+		this.thrown.expectMessage("Limit must not be negative");
+		new TraceEndpoint(mock(TraceRepository.class)).find(null, null, -1);
+	}
+
+	@Test
+	public void findCapsLimit() throws Exception {
+		SearchableTraceRepository repository = mock(SearchableTraceRepository.class);
+		new TraceEndpoint(repository).find(null, null, Integer.MAX_VALUE);
+		verify(repository).find(null, null, TraceEndpoint.MAXIMUM_LIMIT);
+	}
+
 	@Configuration
 	@EnableConfigurationProperties
 	public static class Config {
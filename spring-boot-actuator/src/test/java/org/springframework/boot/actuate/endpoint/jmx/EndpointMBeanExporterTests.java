@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.boot.actuate.endpoint.jmx;
 
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -25,7 +26,9 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.management.JMX;
 import javax.management.MBeanException;
 import javax.management.MBeanInfo;
 import javax.management.MalformedObjectNameException;
@@ -41,7 +44,14 @@ import org.springframework.beans.MutablePropertyValues;
 import org.springframework.beans.factory.config.ConstructorArgumentValues;
 import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.boot.actuate.endpoint.AbstractEndpoint;
+import org.springframework.boot.actuate.endpoint.HealthEndpoint;
 import org.springframework.boot.actuate.endpoint.LoggersEndpoint;
+import org.springframework.boot.actuate.endpoint.MetricsEndpoint;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.OrderedHealthAggregator;
+import org.springframework.boot.actuate.metrics.Metric;
 import org.springframework.boot.logging.logback.LogbackLoggingSystem;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.support.GenericApplicationContext;
@@ -285,6 +295,117 @@ public class EndpointMBeanExporterTests {
 				new String[] { String.class.getName(), String.class.getName() });
 	}
 
+	@Test
+	public void dataIsNotCachedByDefault() throws Exception {
+		MBeanExporter mbeanExporter = registerCountingEndpoint(
+				new MutablePropertyValues());
+		ObjectName objectName = getObjectName("endpoint1", this.context);
+		mbeanExporter.getServer().getAttribute(objectName, "Data");
+		mbeanExporter.getServer().getAttribute(objectName, "Data");
+		assertThat(this.context.getBean(CountingEndpoint.class).invocations.get())
+				.isEqualTo(2);
+	}
+
+	@Test
+	public void dataIsCachedWhenTimeToLiveIsSet() throws Exception {
+		MutablePropertyValues mpv = new MutablePropertyValues();
+		mpv.add("cacheTimeToLive", 60000);
+		MBeanExporter mbeanExporter = registerCountingEndpoint(mpv);
+		ObjectName objectName = getObjectName("endpoint1", this.context);
+		for (int i = 0; i < 10; i++) {
+			assertThat(mbeanExporter.getServer().getAttribute(objectName, "Data"))
+					.isEqualTo("hello world");
+		}
+		assertThat(this.context.getBean(CountingEndpoint.class).invocations.get())
+				.isEqualTo(1);
+	}
+
+	@Test
+	public void endpointCacheTimeToLiveOverridesDefault() throws Exception {
+		MutablePropertyValues mpv = new MutablePropertyValues();
+		mpv.add("cacheTimeToLive", 60000);
+		mpv.add("endpointCacheTimeToLive", Collections.singletonMap("counting", 0L));
+		MBeanExporter mbeanExporter = registerCountingEndpoint(mpv);
+		ObjectName objectName = getObjectName("endpoint1", this.context);
+		mbeanExporter.getServer().getAttribute(objectName, "Data");
+		mbeanExporter.getServer().getAttribute(objectName, "Data");
+		assertThat(this.context.getBean(CountingEndpoint.class).invocations.get())
+				.isEqualTo(2);
+	}
+
+	@Test
+	public void typedMetricsEndpoint() throws Exception {
+		this.context = new GenericApplicationContext();
+		MutablePropertyValues mpv = new MutablePropertyValues();
+		mpv.add("typedEndpoints", true);
+		this.context.registerBeanDefinition("endpointMbeanExporter",
+				new RootBeanDefinition(EndpointMBeanExporter.class, null, mpv));
+		this.context.getBeanFactory().registerSingleton("metricsEndpoint",
+				new MetricsEndpoint(new PublicMetrics() {
+
+					@Override
+					public Collection<Metric<?>> metrics() {
+						return Arrays.<Metric<?>>asList(new Metric<Long>("counter", 3L),
+								new Metric<Double>("gauge", 2.5));
+					}
+
+				}));
+		this.context.refresh();
+		MBeanExporter mbeanExporter = this.context.getBean(EndpointMBeanExporter.class);
+		MetricsEndpointMXBean mxBean = JMX.newMXBeanProxy(mbeanExporter.getServer(),
+				getObjectName("metricsEndpoint", this.context),
+				MetricsEndpointMXBean.class);
+		assertThat(mxBean.getMetricCount()).isEqualTo(2);
+		assertThat(mxBean.getMetrics()).containsEntry("counter", 3.0)
+				.containsEntry("gauge", 2.5);
+	}
+
+	@Test
+	public void typedHealthEndpoint() throws Exception {
+		this.context = new GenericApplicationContext();
+		MutablePropertyValues mpv = new MutablePropertyValues();
+		mpv.add("typedEndpoints", true);
+		this.context.registerBeanDefinition("endpointMbeanExporter",
+				new RootBeanDefinition(EndpointMBeanExporter.class, null, mpv));
+		Map<String, HealthIndicator> indicators = new LinkedHashMap<String, HealthIndicator>();
+		indicators.put("diskSpaceHealthIndicator", new HealthIndicator() {
+
+			@Override
+			public Health health() {
+				return Health.up().withDetail("free", 1024).build();
+			}
+
+		});
+		indicators.put("db", new HealthIndicator() {
+
+			@Override
+			public Health health() {
+				return Health.down().build();
+			}
+
+		});
+		this.context.getBeanFactory().registerSingleton("healthEndpoint",
+				new HealthEndpoint(new OrderedHealthAggregator(), indicators));
+		this.context.refresh();
+		MBeanExporter mbeanExporter = this.context.getBean(EndpointMBeanExporter.class);
+		HealthEndpointMXBean mxBean = JMX.newMXBeanProxy(mbeanExporter.getServer(),
+				getObjectName("healthEndpoint", this.context),
+				HealthEndpointMXBean.class);
+		assertThat(mxBean.getStatus()).isEqualTo("DOWN");
+		assertThat(mxBean.getComponents()).containsEntry("diskSpace", "UP")
+				.containsEntry("db", "DOWN");
+	}
+
+	private MBeanExporter registerCountingEndpoint(MutablePropertyValues mpv) {
+		this.context = new GenericApplicationContext();
+		this.context.registerBeanDefinition("endpointMbeanExporter",
+				new RootBeanDefinition(EndpointMBeanExporter.class, null, mpv));
+		this.context.registerBeanDefinition("endpoint1",
+				new RootBeanDefinition(CountingEndpoint.class));
+		this.context.refresh();
+		return this.context.getBean(EndpointMBeanExporter.class);
+	}
+
 	private MBeanExporter registerLoggersEndpoint() {
 		this.context = new GenericApplicationContext();
 		this.context.registerBeanDefinition("endpointMbeanExporter",
@@ -333,6 +454,22 @@ public class EndpointMBeanExporterTests {
 
 	}
 
+	public static class CountingEndpoint extends AbstractEndpoint<String> {
+
+		private final AtomicInteger invocations = new AtomicInteger();
+
+		public CountingEndpoint() {
+			super("counting");
+		}
+
+		@Override
+		public String invoke() {
+			this.invocations.incrementAndGet();
+			return "hello world";
+		}
+
+	}
+
 	public static class JsonMapConversionEndpoint
 			extends AbstractEndpoint<Map<String, Object>> {
 
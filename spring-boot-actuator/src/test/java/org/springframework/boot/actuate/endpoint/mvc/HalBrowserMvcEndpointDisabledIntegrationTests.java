@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -83,7 +83,8 @@ public class HalBrowserMvcEndpointDisabledIntegrationTests {
 	public void endpointsDoNotHaveLinks() throws Exception {
 		for (MvcEndpoint endpoint : this.mvcEndpoints.getEndpoints()) {
 			String path = endpoint.getPath();
-			if ("/actuator".equals(path) || endpoint instanceof HeapdumpMvcEndpoint) {
+			if ("/actuator".equals(path) || endpoint instanceof HeapdumpMvcEndpoint
+					|| endpoint instanceof PrometheusMvcEndpoint) {
 				continue;
 			}
 			path = path.length() > 0 ? path : "/";
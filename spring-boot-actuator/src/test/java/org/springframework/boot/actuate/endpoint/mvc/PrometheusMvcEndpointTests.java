@@ -0,0 +1,140 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint.mvc;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import org.springframework.boot.actuate.endpoint.MetricsEndpoint;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.reader.MetricValueSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link PrometheusMvcEndpoint}.
+ *
+ * @author Jerry Lei
+ */
+public class PrometheusMvcEndpointTests {
+
+	@Test
+	public void invokeWritesExpositionFormat() throws Exception {
+		PrometheusMvcEndpoint endpoint = new PrometheusMvcEndpoint(
+				new MetricsEndpoint(new TestPublicMetrics(new Metric<Integer>("a", 1),
+						new Metric<Double>("b", 0.5))));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		endpoint.invoke(response);
+		assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+		assertThat(response.getContentType())
+				.isEqualTo(PrometheusMvcEndpoint.CONTENT_TYPE);
+		assertThat(response.getContentAsString()).isEqualTo("a 1\nb 0.5\n");
+	}
+
+	@Test
+	public void invokeWhenDisabled() throws Exception {
+		PrometheusMvcEndpoint endpoint = new PrometheusMvcEndpoint(
+				new MetricsEndpoint(new TestPublicMetrics(new Metric<Integer>("a", 1))));
+		endpoint.setEnabled(false);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		endpoint.invoke(response);
+		assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_FOUND.value());
+		assertThat(response.getContentAsString()).isEmpty();
+	}
+
+	@Test
+	public void namesAreSanitized() throws Exception {
+		assertThat(write("mem.free", 1L)).isEqualTo("mem_free 1\n");
+		assertThat(write("counter.status.200.star-star", 1L))
+				.isEqualTo("counter_status_200_star_star 1\n");
+		assertThat(write("2xx", 1L)).isEqualTo("_2xx 1\n");
+		assertThat(write("", 1L)).isEqualTo("_ 1\n");
+		assertThat(write("a:b_C", 1L)).isEqualTo("a:b_C 1\n");
+	}
+
+	@Test
+	public void longValues() throws Exception {
+		assertThat(write("a", 0L)).isEqualTo("a 0\n");
+		assertThat(write("a", 1234567890L)).isEqualTo("a 1234567890\n");
+		assertThat(write("a", -42L)).isEqualTo("a -42\n");
+		assertThat(write("a", Long.MAX_VALUE)).isEqualTo("a " + Long.MAX_VALUE + "\n");
+		assertThat(write("a", Long.MIN_VALUE)).isEqualTo("a " + Long.MIN_VALUE + "\n");
+	}
+
+	@Test
+	public void doubleValues() throws Exception {
+		assertThat(write("a", 3.0)).isEqualTo("a 3\n");
+		assertThat(write("a", -0.25)).isEqualTo("a -0.25\n");
+		assertThat(write("a", 1e20)).isEqualTo("a 1.0E20\n");
+		assertThat(write("a", Double.NaN)).isEqualTo("a NaN\n");
+		assertThat(write("a", Double.POSITIVE_INFINITY)).isEqualTo("a +Inf\n");
+		assertThat(write("a", Double.NEGATIVE_INFINITY)).isEqualTo("a -Inf\n");
+	}
+
+	@Test
+	public void longNamesGrowTheBuffer() throws Exception {
+		StringBuilder name = new StringBuilder();
+		for (int i = 0; i < 500; i++) {
+			name.append('x');
+		}
+		assertThat(write(name.toString(), 0.125))
+				.isEqualTo(name.toString() + " 0.125\n");
+	}
+
+	private String write(final String name, final Object value) throws Exception {
+		PrometheusMvcEndpoint endpoint = new PrometheusMvcEndpoint(
+				new MetricValueSource() {
+
+					@Override
+					public void forEachValue(Callback callback) {
+						if (value instanceof Long) {
+							callback.value(name, (Long) value);
+						}
+						else {
+							callback.value(name, (Double) value);
+						}
+					}
+
+				});
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		endpoint.invoke(response);
+		return response.getContentAsString();
+	}
+
+	private static class TestPublicMetrics implements PublicMetrics {
+
+		private final Collection<Metric<?>> metrics;
+
+		TestPublicMetrics(Metric<?>... metrics) {
+			this.metrics = new ArrayList<Metric<?>>();
+			Collections.addAll(this.metrics, metrics);
+		}
+
+		@Override
+		public Collection<Metric<?>> metrics() {
+			return this.metrics;
+		}
+
+	}
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint.mvc;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.EndpointAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.EndpointWebMvcAutoConfiguration;
+import org.springframework.boot.actuate.endpoint.TraceEndpoint;
+import org.springframework.boot.actuate.trace.Trace;
+import org.springframework.boot.actuate.trace.TraceRepository;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for {@link TraceMvcEndpoint}.
+ *
+ * @author Jerry Lei
+ */
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@TestPropertySource(properties = "management.security.enabled=false")
+public class TraceMvcEndpointTests {
+
+	@Autowired
+	private WebApplicationContext context;
+
+	private MockMvc mvc;
+
+	@Before
+	public void setUp() {
+		this.context.getBean(TraceEndpoint.class).setEnabled(true);
+		this.mvc = MockMvcBuilders.webAppContextSetup(this.context).build();
+	}
+
+	@Test
+	public void invokeReturnsAllTraces() throws Exception {
+		this.mvc.perform(get("/trace")).andExpect(status().isOk())
+				.andExpect(content().string(containsString("/one")))
+				.andExpect(content().string(containsString("/three")));
+	}
+
+	@Test
+	public void invokeFilterByTimeRange() throws Exception {
+		this.mvc.perform(get("/trace").param("from", "2016-11-01T11:30:00.000Z")
+				.param("to", "2016-11-01T12:30:00.000Z")).andExpect(status().isOk())
+				.andExpect(content().string(containsString("/two")))
+				.andExpect(content().string(not(containsString("/one"))))
+				.andExpect(content().string(not(containsString("/three"))));
+	}
+
+	@Test
+	public void invokeFilterByFromWithLimit() throws Exception {
+		this.mvc.perform(get("/trace").param("from", "2016-11-01T11:30:00.000Z")
+				.param("limit", "1")).andExpect(status().isOk())
+				.andExpect(content().string(containsString("/two")))
+				.andExpect(content().string(not(containsString("/three"))));
+	}
+
+	@Test
+	public void invokeFilterByToWithOffset() throws Exception {
+		this.mvc.perform(get("/trace").param("to", "2016-11-01T13:30:00.000+01:00"))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("/one")))
+				.andExpect(content().string(containsString("/two")))
+				.andExpect(content().string(not(containsString("/three"))));
+	}
+
+	@Test
+	public void invokeWithNegativeLimitShouldReturnBadRequestStatus() throws Exception {
+		this.mvc.perform(get("/trace").param("from", "2016-11-01T11:30:00.000Z")
+				.param("limit", "-1")).andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void invokeWhenDisabledShouldReturnNotFoundStatus() throws Exception {
+		this.context.getBean(TraceEndpoint.class).setEnabled(false);
+		this.mvc.perform(get("/trace").param("from", "2016-11-01T10:00:00.000Z"))
+				.andExpect(status().isNotFound());
+	}
+
+	@Import({ JacksonAutoConfiguration.class,
+			HttpMessageConvertersAutoConfiguration.class, EndpointAutoConfiguration.class,
+			EndpointWebMvcAutoConfiguration.class, WebMvcAutoConfiguration.class })
+	@Configuration
+	protected static class TestConfiguration {
+
+		@Bean
+		public TraceRepository traceRepository() {
+			final List<Trace> traces = Arrays.asList(
+					createTrace("2016-11-01T13:00:00Z", "/three"),
+					createTrace("2016-11-01T12:00:00Z", "/two"),
+					createTrace("2016-11-01T11:00:00Z", "/one"));
+			return new TraceRepository() {
+
+				@Override
+				public List<Trace> findAll() {
+					return traces;
+				}
+
+				@Override
+				public void add(Map<String, Object> traceInfo) {
+				}
+
+			};
+		}
+
+		private Trace createTrace(String instant, String path) {
+			return new Trace(Date.from(Instant.parse(instant)),
+					Collections.<String, Object>singletonMap("path", path));
+		}
+
+	}
+
+}
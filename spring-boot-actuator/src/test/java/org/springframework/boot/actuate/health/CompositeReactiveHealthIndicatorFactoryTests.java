@@ -0,0 +1,114 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.health;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CompositeReactiveHealthIndicatorFactory}.
+ *
+ * @author Jerry Lei
+ */
+public class CompositeReactiveHealthIndicatorFactoryTests {
+
+	private static final Health UP = new Health.Builder().status(Status.UP).build();
+
+	private static final Health DOWN = new Health.Builder().status(Status.DOWN).build();
+
+	@Test
+	public void noHealthIndicator() {
+		Health health = createHealth(
+				Collections.<String, ReactiveHealthIndicator>singletonMap("test",
+						new ReactiveHealthIndicator() {
+
+							@Override
+							public Mono<Health> health() {
+								return Mono.just(UP);
+							}
+
+						}),
+				null);
+		assertThat(health.getDetails()).containsOnlyKeys("test");
+	}
+
+	@Test
+	public void healthIndicatorNamesAreDerivedFromBeanNames() {
+		Map<String, HealthIndicator> healthIndicators = new LinkedHashMap<String, HealthIndicator>();
+		healthIndicators.put("diskSpaceHealthIndicator", new HealthIndicator() {
+
+			@Override
+			public Health health() {
+				return UP;
+			}
+
+		});
+		Health health = createHealth(
+				Collections.<String, ReactiveHealthIndicator>singletonMap(
+						"mongoHealthIndicator", new ReactiveHealthIndicator() {
+
+							@Override
+							public Mono<Health> health() {
+								return Mono.just(UP);
+							}
+
+						}),
+				healthIndicators);
+		assertThat(health.getDetails()).containsOnlyKeys("mongo", "diskSpace");
+	}
+
+	@Test
+	public void reactiveHealthIndicatorTakesPrecedence() {
+		Health health = createHealth(
+				Collections.<String, ReactiveHealthIndicator>singletonMap("test",
+						new ReactiveHealthIndicator() {
+
+							@Override
+							public Mono<Health> health() {
+								return Mono.just(UP);
+							}
+
+						}),
+				Collections.<String, HealthIndicator>singletonMap("test",
+						new HealthIndicator() {
+
+							@Override
+							public Health health() {
+								return DOWN;
+							}
+
+						}));
+		assertThat(health.getStatus()).isEqualTo(Status.UP);
+		assertThat(health.getDetails()).containsOnlyKeys("test");
+	}
+
+	private Health createHealth(
+			Map<String, ReactiveHealthIndicator> reactiveHealthIndicators,
+			Map<String, HealthIndicator> healthIndicators) {
+		return new CompositeReactiveHealthIndicatorFactory()
+				.createReactiveHealthIndicator(new OrderedHealthAggregator(),
+						reactiveHealthIndicators, healthIndicators)
+				.health().block();
+	}
+
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.health;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CompositeReactiveHealthIndicator}.
+ *
+ * @author Jerry Lei
+ */
+public class CompositeReactiveHealthIndicatorTests {
+
+	private static final Health UNKNOWN_HEALTH = Health.unknown()
+			.withDetail("detail", "value").build();
+
+	private static final Health HEALTHY = Health.up().build();
+
+	private final OrderedHealthAggregator healthAggregator = new OrderedHealthAggregator();
+
+	@Test
+	public void singleIndicator() {
+		CompositeReactiveHealthIndicator indicator = new CompositeReactiveHealthIndicator(
+				this.healthAggregator);
+		indicator.addHealthIndicator("test", new ReactiveHealthIndicator() {
+
+			@Override
+			public Mono<Health> health() {
+				return Mono.just(HEALTHY);
+			}
+
+		});
+		Health health = indicator.health().block();
+		assertThat(health.getStatus()).isEqualTo(Status.UP);
+		assertThat(health.getDetails()).containsOnlyKeys("test");
+	}
+
+	@Test
+	public void indicatorsAreCheckedConcurrently() {
+		Map<String, ReactiveHealthIndicator> indicators = new LinkedHashMap<String, ReactiveHealthIndicator>();
+		for (int i = 0; i < 10; i++) {
+			indicators.put("test" + i, new DelayedHealthIndicator(HEALTHY, 500));
+		}
+		CompositeReactiveHealthIndicator indicator = new CompositeReactiveHealthIndicator(
+				this.healthAggregator, indicators);
+		long start = System.currentTimeMillis();
+		Health health = indicator.health().block();
+		assertThat(System.currentTimeMillis() - start).isLessThan(2500);
+		assertThat(health.getStatus()).isEqualTo(Status.UP);
+		assertThat(health.getDetails()).hasSize(10);
+	}
+
+	@Test
+	public void resultsAreInRegistrationOrder() {
+		CompositeReactiveHealthIndicator indicator = new CompositeReactiveHealthIndicator(
+				this.healthAggregator);
+		indicator.addHealthIndicator("slow", new DelayedHealthIndicator(HEALTHY, 200));
+		indicator.addHealthIndicator("fast", new DelayedHealthIndicator(HEALTHY, 0));
+		Health health = indicator.health().block();
+		assertThat(health.getDetails().keySet()).containsExactly("slow", "fast");
+	}
+
+	@Test
+	public void errorIsReportedAsDown() {
+		CompositeReactiveHealthIndicator indicator = new CompositeReactiveHealthIndicator(
+				this.healthAggregator);
+		indicator.addHealthIndicator("ok", new DelayedHealthIndicator(HEALTHY, 0));
+		indicator.addHealthIndicator("failing", new ReactiveHealthIndicator() {
+
+			@Override
+			public Mono<Health> health() {
+				return Mono.error(new IllegalStateException("Failed"));
+			}
+
+		});
+		Health health = indicator.health().block();
+		assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+		Health failing = (Health) health.getDetails().get("failing");
+		assertThat(failing.getStatus()).isEqualTo(Status.DOWN);
+		assertThat((String) failing.getDetails().get("error")).contains("Failed");
+	}
+
+	@Test
+	public void synchronousFailureIsReportedAsDown() {
+		CompositeReactiveHealthIndicator indicator = new CompositeReactiveHealthIndicator(
+				this.healthAggregator);
+		indicator.addHealthIndicator("ok", new DelayedHealthIndicator(HEALTHY, 0));
+		indicator.addHealthIndicator("failing", new ReactiveHealthIndicator() {
+
+			@Override
+			public Mono<Health> health() {
+				throw new IllegalStateException("Failed");
+			}
+
+		});
+		Health health = indicator.health().block();
+		assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+		assertThat(health.getDetails().get("ok")).isEqualTo(HEALTHY);
+		Health failing = (Health) health.getDetails().get("failing");
+		assertThat(failing.getStatus()).isEqualTo(Status.DOWN);
+		assertThat((String) failing.getDetails().get("error")).contains("Failed");
+	}
+
+	@Test
+	public void timeoutIsReportedAsDownForThatIndicatorOnly() {
+		CompositeReactiveHealthIndicator indicator = new CompositeReactiveHealthIndicator(
+				this.healthAggregator);
+		indicator.setTimeout(100);
+		indicator.addHealthIndicator("ok", new DelayedHealthIndicator(HEALTHY, 0));
+		indicator.addHealthIndicator("slow", new ReactiveHealthIndicator() {
+
+			@Override
+			public Mono<Health> health() {
+				return Mono.never();
+			}
+
+		});
+		Health health = indicator.health().block(Duration.ofSeconds(10));
+		assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+		assertThat(health.getDetails().get("ok")).isEqualTo(HEALTHY);
+		Health slow = (Health) health.getDetails().get("slow");
+		assertThat(slow.getStatus()).isEqualTo(Status.DOWN);
+		assertThat(slow.getDetails().get("error")).isEqualTo("Timeout after 100ms");
+	}
+
+	@Test
+	public void emptyIsReportedAsUnknown() {
+		CompositeReactiveHealthIndicator indicator = new CompositeReactiveHealthIndicator(
+				this.healthAggregator);
+		indicator.addHealthIndicator("empty", new ReactiveHealthIndicator() {
+
+			@Override
+			public Mono<Health> health() {
+				return Mono.empty();
+			}
+
+		});
+		Health health = indicator.health().block();
+		assertThat(((Health) health.getDetails().get("empty")).getStatus())
+				.isEqualTo(Status.UNKNOWN);
+	}
+
+	@Test
+	public void blockingIndicatorIsNotRunOnCallingThread() {
+		final Thread caller = Thread.currentThread();
+		CompositeReactiveHealthIndicator indicator = new CompositeReactiveHealthIndicator(
+				this.healthAggregator);
+		indicator.addHealthIndicator("blocking", new HealthIndicator() {
+
+			@Override
+			public Health health() {
+				return (Thread.currentThread() == caller ? HEALTHY : UNKNOWN_HEALTH);
+			}
+
+		});
+		Health health = indicator.health().block();
+		assertThat(health.getDetails()).containsEntry("blocking", UNKNOWN_HEALTH);
+	}
+
+	private static class DelayedHealthIndicator implements ReactiveHealthIndicator {
+
+		private final Health health;
+
+		private final long delay;
+
+		DelayedHealthIndicator(Health health, long delay) {
+			this.health = health;
+			this.delay = delay;
+		}
+
+		@Override
+		public Mono<Health> health() {
+			return Mono.just(this.health).delayElement(Duration.ofMillis(this.delay));
+		}
+
+	}
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.health;
+
+import com.mongodb.MongoException;
+import org.bson.Document;
+import org.junit.After;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+
+import org.springframework.boot.actuate.autoconfigure.EndpointAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.HealthIndicatorAutoConfiguration;
+import org.springframework.boot.actuate.endpoint.HealthEndpoint;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.ReactiveMongoDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.ReactiveMongoAutoConfiguration;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link MongoReactiveHealthIndicator}.
+ *
+ * @author Jerry Lei
+ */
+public class MongoReactiveHealthIndicatorTests {
+
+	private AnnotationConfigApplicationContext context;
+
+	@After
+	public void close() {
+		if (this.context != null) {
+			this.context.close();
+		}
+	}
+
+	@Test
+	public void indicatorExists() {
+		this.context = new AnnotationConfigApplicationContext(
+				PropertyPlaceholderAutoConfiguration.class, MongoAutoConfiguration.class,
+				MongoDataAutoConfiguration.class, ReactiveMongoAutoConfiguration.class,
+				ReactiveMongoDataAutoConfiguration.class, EndpointAutoConfiguration.class,
+				HealthIndicatorAutoConfiguration.class);
+		assertThat(this.context.getBeanNamesForType(ReactiveMongoTemplate.class).length)
+				.isEqualTo(1);
+		assertThat(this.context.getBean("mongoHealthIndicator"))
+				.isInstanceOf(MongoReactiveHealthIndicator.class);
+		assertThat(this.context.getBeansOfType(MongoHealthIndicator.class)).isEmpty();
+		assertThat(this.context.getBean(HealthEndpoint.class)).isNotNull();
+	}
+
+	@Test
+	public void mongoIsUp() throws Exception {
+		Document commandResult = mock(Document.class);
+		given(commandResult.getString("version")).willReturn("2.6.4");
+		ReactiveMongoTemplate reactiveMongoTemplate = mock(ReactiveMongoTemplate.class);
+		given(reactiveMongoTemplate.executeCommand("{ buildInfo: 1 }"))
+				.willReturn(Mono.just(commandResult));
+		MongoReactiveHealthIndicator healthIndicator = new MongoReactiveHealthIndicator(
+				reactiveMongoTemplate);
+		Health health = healthIndicator.health().block();
+		assertThat(health.getStatus()).isEqualTo(Status.UP);
+		assertThat(health.getDetails().get("version")).isEqualTo("2.6.4");
+		verify(reactiveMongoTemplate).executeCommand("{ buildInfo: 1 }");
+	}
+
+	@Test
+	public void mongoIsDown() throws Exception {
+		ReactiveMongoTemplate reactiveMongoTemplate = mock(ReactiveMongoTemplate.class);
+		given(reactiveMongoTemplate.executeCommand("{ buildInfo: 1 }")).willReturn(
+				Mono.<Document>error(new MongoException("Connection failed")));
+		MongoReactiveHealthIndicator healthIndicator = new MongoReactiveHealthIndicator(
+				reactiveMongoTemplate);
+		Health health = healthIndicator.health().block();
+		assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+		assertThat((String) health.getDetails().get("error"))
+				.contains("Connection failed");
+	}
+
+	@Test
+	public void mongoThrowsWhenInvoked() throws Exception {
+		ReactiveMongoTemplate reactiveMongoTemplate = mock(ReactiveMongoTemplate.class);
+		given(reactiveMongoTemplate.executeCommand("{ buildInfo: 1 }"))
+				.willThrow(new MongoException("Connection failed"));
+		MongoReactiveHealthIndicator healthIndicator = new MongoReactiveHealthIndicator(
+				reactiveMongoTemplate);
+		Health health = healthIndicator.health().block();
+		assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+		assertThat((String) health.getDetails().get("error"))
+				.contains("Connection failed");
+	}
+
+}
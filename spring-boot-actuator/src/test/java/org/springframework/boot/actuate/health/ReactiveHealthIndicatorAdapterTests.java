@@ -0,0 +1,74 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.health;
+
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ReactiveHealthIndicatorAdapter}.
+ *
+ * @author Jerry Lei
+ */
+public class ReactiveHealthIndicatorAdapterTests {
+
+	@Test
+	public void healthOfDelegate() {
+		ReactiveHealthIndicatorAdapter adapter = new ReactiveHealthIndicatorAdapter(
+				new ReactiveHealthIndicator() {
+
+					@Override
+					public Mono<Health> health() {
+						return Mono.just(Health.up().withDetail("a", "b").build());
+					}
+
+				});
+		assertThat(adapter.health()).isEqualTo(Health.up().withDetail("a", "b").build());
+	}
+
+	@Test
+	public void emptyDelegateIsUnknown() {
+		ReactiveHealthIndicatorAdapter adapter = new ReactiveHealthIndicatorAdapter(
+				new ReactiveHealthIndicator() {
+
+					@Override
+					public Mono<Health> health() {
+						return Mono.empty();
+					}
+
+				});
+		assertThat(adapter.health().getStatus()).isEqualTo(Status.UNKNOWN);
+	}
+
+	@Test
+	public void timeoutIsDown() {
+		ReactiveHealthIndicatorAdapter adapter = new ReactiveHealthIndicatorAdapter(
+				new ReactiveHealthIndicator() {
+
+					@Override
+					public Mono<Health> health() {
+						return Mono.never();
+					}
+
+				});
+		adapter.setTimeout(100);
+		assertThat(adapter.health().getStatus()).isEqualTo(Status.DOWN);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,7 +20,11 @@ import java.util.Date;
 
 import org.junit.Test;
 
+import org.springframework.boot.actuate.metrics.Iterables;
 import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.buffer.BufferMetricReader;
+import org.springframework.boot.actuate.metrics.buffer.CounterBuffers;
+import org.springframework.boot.actuate.metrics.buffer.GaugeBuffers;
 import org.springframework.boot.actuate.metrics.repository.InMemoryMetricRepository;
 import org.springframework.boot.actuate.metrics.writer.Delta;
 
@@ -111,4 +115,80 @@ public class AggregateMetricReaderTests {
 		assertThat(this.reader.count()).isEqualTo(2);
 	}
 
+	@Test
+	public void incrementalMatchesRecomputedAggregates() {
+		AggregateMetricReader incremental = new AggregateMetricReader(this.source);
+		incremental.setIncremental(true);
+		for (int i = 0; i < 1000; i++) {
+			this.source.increment(
+					new Delta<Long>("host" + (i % 7) + ".app.counter.c" + (i % 13), 1L));
+			this.source.set(new Metric<Double>("host" + (i % 5) + ".app.g" + (i % 11),
+					(double) i, new Date(i)));
+		}
+		assertSameAggregates(incremental, this.reader);
+		for (int i = 0; i < 100; i++) {
+			this.source.increment(
+					new Delta<Long>("host" + (i % 3) + ".app.counter.c" + (i % 13), 2L));
+			this.source.set(new Metric<Double>("host" + (i % 5) + ".app.g" + (i % 11),
+					(double) -i, new Date(2000 + i)));
+		}
+		assertSameAggregates(incremental, this.reader);
+	}
+
+	@Test
+	public void incrementalRemovesSourceMetrics() {
+		this.reader.setIncremental(true);
+		this.source.increment(new Delta<Long>("foo.bar.counter.spam", 2L));
+		this.source.increment(new Delta<Long>("oof.rab.counter.spam", 3L));
+		this.source.set(new Metric<Double>("foo.bar.spam", 2.3, new Date(100L)));
+		this.source.set(new Metric<Double>("oof.rab.spam", 2.4, new Date(0L)));
+		assertThat(this.reader.count()).isEqualTo(2);
+		assertThat(this.reader.findOne("aggregate.spam").getValue()).isEqualTo(2.3);
+		this.source.reset("foo.bar.counter.spam");
+		this.source.reset("foo.bar.spam");
+		assertThat(this.reader.findOne("aggregate.counter.spam").getValue())
+				.isEqualTo(3L);
+		assertThat(this.reader.findOne("aggregate.spam").getValue()).isEqualTo(2.4);
+		this.source.reset("oof.rab.spam");
+		assertThat(this.reader.findOne("aggregate.spam")).isNull();
+		assertThat(this.reader.count()).isEqualTo(1);
+	}
+
+	@Test
+	public void incrementalWithChangeTrackingSource() {
+		CounterBuffers counters = new CounterBuffers();
+		AggregateMetricReader reader = new AggregateMetricReader(
+				new BufferMetricReader(counters, new GaugeBuffers()));
+		reader.setIncremental(true);
+		for (int instance = 0; instance < 40; instance++) {
+			for (int i = 0; i < 2500; i++) {
+				counters.increment("instance" + instance + ".app.counter.c" + i, 1);
+			}
+		}
+		assertThat(reader.count()).isEqualTo(2500);
+		assertThat(reader.findOne("aggregate.counter.c0").getValue()).isEqualTo(40L);
+		for (int instance = 0; instance < 40; instance += 4) {
+			for (int i = 0; i < 2500; i += 100) {
+				counters.increment("instance" + instance + ".app.counter.c" + i, 5);
+			}
+		}
+		for (Metric<?> metric : reader.findAll()) {
+			String name = metric.getName();
+			int index = Integer.parseInt(name.substring(name.lastIndexOf('c') + 1));
+			long expected = (index % 100 == 0 ? 90L : 40L);
+			assertThat(metric.getValue()).as(metric.getName()).isEqualTo(expected);
+		}
+	}
+
+	private void assertSameAggregates(AggregateMetricReader actual,
+			AggregateMetricReader expected) {
+		assertThat(Iterables.collection(actual.findAll()))
+				.hasSameSizeAs(Iterables.collection(expected.findAll()));
+		for (Metric<?> metric : expected.findAll()) {
+			Metric<?> aggregate = actual.findOne(metric.getName());
+			assertThat(aggregate.getValue().doubleValue()).as(metric.getName())
+					.isEqualTo(metric.getValue().doubleValue());
+		}
+	}
+
 }
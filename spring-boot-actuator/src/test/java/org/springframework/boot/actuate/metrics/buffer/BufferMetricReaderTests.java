@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,9 @@ package org.springframework.boot.actuate.metrics.buffer;
 
 import org.junit.Test;
 
+import org.springframework.boot.actuate.metrics.Iterables;
+import org.springframework.boot.actuate.metrics.Metric;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -55,4 +58,40 @@ public class BufferMetricReaderTests {
 		assertThat(this.reader.count()).isEqualTo(1);
 	}
 
+	@Test
+	public void findChangedWithInitialVersionFindsAll() {
+		this.gauges.set("foo", 1);
+		this.counters.increment("bar", 2);
+		assertThat(Iterables.collection(this.reader.findChanged(0))).hasSize(2);
+	}
+
+	@Test
+	public void findChangedSinceVersion() {
+		this.gauges.set("foo", 1);
+		this.counters.increment("bar", 2);
+		long version = this.reader.getVersion();
+		assertThat(Iterables.collection(this.reader.findChanged(version))).isEmpty();
+		this.gauges.set("foo", 3);
+		this.counters.increment("baz", 1);
+		long next = this.reader.getVersion();
+		assertThat(next).isGreaterThan(version);
+		assertThat(Iterables.collection(this.reader.findChanged(version)))
+				.extracting("name").containsOnly("foo", "baz");
+		assertThat(Iterables.collection(this.reader.findChanged(next))).isEmpty();
+		this.counters.increment("bar", 1);
+		Metric<?> bar = this.reader.findChanged(next).iterator().next();
+		assertThat(bar.getName()).isEqualTo("bar");
+		assertThat(bar.getValue()).isEqualTo(3L);
+	}
+
+	@Test
+	public void findChangedWithPrefix() {
+		long version = this.reader.getVersion();
+		this.gauges.set("foo.bar", 1);
+		this.gauges.set("foo.spam", 1);
+		this.counters.increment("bar.foo", 2);
+		assertThat(Iterables.collection(this.reader.findChanged("foo", version)))
+				.extracting("name").containsOnly("foo.bar", "foo.spam");
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,9 @@ import java.util.Date;
 import org.junit.Test;
 
 import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.buffer.BufferMetricReader;
+import org.springframework.boot.actuate.metrics.buffer.CounterBuffers;
+import org.springframework.boot.actuate.metrics.buffer.GaugeBuffers;
 import org.springframework.boot.actuate.metrics.repository.InMemoryMetricRepository;
 import org.springframework.boot.actuate.metrics.writer.Delta;
 import org.springframework.boot.actuate.metrics.writer.GaugeWriter;
@@ -120,6 +123,78 @@ public class MetricCopyExporterTests {
 		assertThat(this.writer.count()).isEqualTo(1);
 	}
 
+	@Test
+	public void exportChangesFromChangeTrackingReader() {
+		GaugeBuffers gauges = new GaugeBuffers();
+		CountingGaugeWriter writer = new CountingGaugeWriter();
+		MetricCopyExporter exporter = new MetricCopyExporter(
+				new BufferMetricReader(new CounterBuffers(), gauges), writer);
+		for (int i = 0; i < 1000; i++) {
+			gauges.set("gauge." + i, i);
+		}
+		exporter.export();
+		assertThat(writer.getCount()).isEqualTo(1000);
+		for (int changes : new int[] { 10, 100, 1000 }) {
+			writer.reset();
+			for (int i = 0; i < changes; i++) {
+				gauges.set("gauge." + (i * 1000 / changes), -i);
+			}
+			exporter.export();
+			assertThat(writer.getCount()).isEqualTo(changes);
+		}
+		writer.reset();
+		exporter.export();
+		assertThat(writer.getCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void exportChangedCountersFromChangeTrackingReader() {
+		CounterBuffers counters = new CounterBuffers();
+		MetricCopyExporter exporter = new MetricCopyExporter(
+				new BufferMetricReader(counters, new GaugeBuffers()), this.writer);
+		counters.increment("counter.foo", 2);
+		counters.increment("counter.bar", 1);
+		exporter.export();
+		counters.increment("counter.foo", 3);
+		exporter.export();
+		exporter.export();
+		assertThat(this.writer.findOne("counter.foo").getValue()).isEqualTo(5L);
+		assertThat(this.writer.findOne("counter.bar").getValue()).isEqualTo(1L);
+	}
+
+	@Test
+	public void exportUnchangedFromChangeTrackingReaderWhenIgnoringTimestamps() {
+		GaugeBuffers gauges = new GaugeBuffers();
+		CountingGaugeWriter writer = new CountingGaugeWriter();
+		MetricCopyExporter exporter = new MetricCopyExporter(
+				new BufferMetricReader(new CounterBuffers(), gauges), writer);
+		exporter.setIgnoreTimestamps(true);
+		gauges.set("foo", 1);
+		gauges.set("bar", 2);
+		exporter.export();
+		exporter.export();
+		assertThat(writer.getCount()).isEqualTo(4);
+	}
+
+	private static class CountingGaugeWriter implements GaugeWriter {
+
+		private int count;
+
+		@Override
+		public void set(Metric<?> value) {
+			this.count++;
+		}
+
+		public int getCount() {
+			return this.count;
+		}
+
+		public void reset() {
+			this.count = 0;
+		}
+
+	}
+
 	private static class SimpleGaugeWriter implements GaugeWriter {
 
 		private Metric<?> value;
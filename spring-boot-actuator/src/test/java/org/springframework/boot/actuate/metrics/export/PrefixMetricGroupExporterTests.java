@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,11 +18,15 @@ package org.springframework.boot.actuate.metrics.export;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 
 import org.junit.Test;
 
 import org.springframework.boot.actuate.metrics.Iterables;
 import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.buffer.BufferMetricReader;
+import org.springframework.boot.actuate.metrics.buffer.CounterBuffers;
+import org.springframework.boot.actuate.metrics.buffer.GaugeBuffers;
 import org.springframework.boot.actuate.metrics.repository.InMemoryMultiMetricRepository;
 import org.springframework.boot.actuate.metrics.writer.Delta;
 
@@ -91,4 +95,24 @@ public class PrefixMetricGroupExporterTests {
 		assertThat(Iterables.collection(this.writer.groups())).hasSize(1);
 	}
 
+	@Test
+	public void onlyChangedMetricsCopiedFromChangeTrackingReader() {
+		GaugeBuffers gauges = new GaugeBuffers();
+		PrefixMetricGroupExporter exporter = new PrefixMetricGroupExporter(
+				new BufferMetricReader(new CounterBuffers(), gauges), this.writer);
+		exporter.setGroups(new HashSet<String>(Arrays.asList("foo", "bar")));
+		gauges.set("foo.spam", 1);
+		gauges.set("bar.spam", 2);
+		exporter.export();
+		assertThat(Iterables.collection(this.writer.findAll("foo"))).hasSize(1);
+		assertThat(Iterables.collection(this.writer.findAll("bar"))).hasSize(1);
+		this.writer.reset("foo");
+		this.writer.reset("bar");
+		gauges.set("bar.spam", 3);
+		exporter.export();
+		assertThat(Iterables.collection(this.writer.findAll("foo"))).isEmpty();
+		assertThat(this.writer.findAll("bar").iterator().next().getValue())
+				.isEqualTo(3.0);
+	}
+
 }
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Tests for {@link DataSourceInstrumentationBeanPostProcessor}.
+ *
+ * @author Jerry Lei
+ */
+public class DataSourceInstrumentationBeanPostProcessorTests {
+
+	private AnnotationConfigApplicationContext context;
+
+	@After
+	public void close() {
+		if (this.context != null) {
+			this.context.close();
+		}
+	}
+
+	@Test
+	public void dataSourceIsInstrumentedAndKeepsItsType() throws Exception {
+		load(HikariConfig.class);
+		DataSource dataSource = this.context.getBean(DataSource.class);
+		assertThat(dataSource).isInstanceOf(HikariDataSource.class);
+		assertThat(dataSource).isInstanceOf(InstrumentedDataSource.class);
+		assertThat(this.context.getBean(HikariDataSource.class).getMaximumPoolSize())
+				.isEqualTo(2);
+		new JdbcTemplate(dataSource).queryForObject("SELECT 1", Integer.class);
+		ConnectionPoolStatistics statistics = getStatistics(dataSource);
+		assertThat(statistics.getAcquireTime().getCount()).isEqualTo(1);
+		assertThat(statistics.getHoldTime().getCount()).isEqualTo(1);
+		assertThat(statistics.getTimeouts()).isEqualTo(0);
+	}
+
+	@Test
+	public void holdTimeIsRecordedOnce() throws Exception {
+		load(HikariConfig.class);
+		DataSource dataSource = this.context.getBean(DataSource.class);
+		Connection connection = dataSource.getConnection();
+		assertThat(connection.isWrapperFor(Connection.class)).isTrue();
+		Thread.sleep(20);
+		connection.close();
+		connection.close();
+		LatencyHistogram holdTime = getStatistics(dataSource).getHoldTime();
+		assertThat(holdTime.getCount()).isEqualTo(1);
+		assertThat(holdTime.getMax(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(20);
+	}
+
+	@Test
+	public void waitTimesAreRecordedUnderConcurrentLoad() throws Exception {
+		load(HikariConfig.class);
+		final DataSource dataSource = this.context.getBean(DataSource.class);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Void>> futures = new ArrayList<Future<Void>>();
+			for (int i = 0; i < 40; i++) {
+				futures.add(executor.submit(new Callable<Void>() {
+
+					@Override
+					public Void call() throws Exception {
+						Connection connection = dataSource.getConnection();
+						try {
+							Thread.sleep(10);
+							connection.createStatement().execute("SELECT 1");
+						}
+						finally {
+							connection.close();
+						}
+						return null;
+					}
+
+				}));
+			}
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+		ConnectionPoolStatistics statistics = getStatistics(dataSource);
+		assertThat(statistics.getAcquireTime().getCount()).isEqualTo(40);
+		assertThat(statistics.getHoldTime().getCount()).isEqualTo(40);
+		// Only two connections for eight threads so most have to wait
+		assertThat(statistics.getAcquireTime().getPercentile(95,
+				TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(10);
+		assertThat(statistics.getHoldTime().getPercentile(50, TimeUnit.MILLISECONDS))
+				.isGreaterThanOrEqualTo(10);
+	}
+
+	@Test
+	public void timeoutsAreCounted() throws Exception {
+		load(HikariConfig.class);
+		DataSource dataSource = this.context.getBean(DataSource.class);
+		Connection first = dataSource.getConnection();
+		Connection second = dataSource.getConnection();
+		try {
+			dataSource.getConnection();
+			fail("Did not time out");
+		}
+		catch (SQLTransientConnectionException ex) {
+			// Expected
+		}
+		finally {
+			first.close();
+			second.close();
+		}
+		ConnectionPoolStatistics statistics = getStatistics(dataSource);
+		assertThat(statistics.getTimeouts()).isEqualTo(1);
+		assertThat(statistics.getAcquireTime().getCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void statisticsAreExposedAsMetrics() throws Exception {
+		load(HikariConfig.class);
+		DataSource dataSource = this.context.getBean(DataSource.class);
+		dataSource.getConnection().close();
+		Map<String, Number> metrics = new HashMap<String, Number>();
+		for (Metric<?> metric : getStatistics(dataSource).toMetrics("pool.")) {
+			metrics.put(metric.getName(), metric.getValue());
+		}
+		assertThat(metrics).containsKeys("pool.acquire.count", "pool.acquire.mean",
+				"pool.acquire.max", "pool.acquire.p50", "pool.acquire.p95",
+				"pool.acquire.p99", "pool.hold.count", "pool.hold.mean",
+				"pool.hold.max", "pool.hold.p50", "pool.hold.p95", "pool.hold.p99",
+				"pool.timeouts");
+		assertThat(metrics.get("pool.acquire.count")).isEqualTo(1L);
+		assertThat(metrics.get("pool.timeouts")).isEqualTo(0L);
+	}
+
+	@Test
+	public void dataSourceThatCannotBeProxiedIsLeftAlone() throws Exception {
+		load(FinalDataSourceConfig.class);
+		DataSource dataSource = this.context.getBean(DataSource.class);
+		assertThat(dataSource).isInstanceOf(FinalDataSource.class);
+		assertThat(dataSource).isNotInstanceOf(InstrumentedDataSource.class);
+	}
+
+	private ConnectionPoolStatistics getStatistics(DataSource dataSource) {
+		return ((InstrumentedDataSource) dataSource).getConnectionPoolStatistics();
+	}
+
+	private void load(Class<?> config) {
+		this.context = new AnnotationConfigApplicationContext();
+		this.context.register(config, DataSourceInstrumentationBeanPostProcessor.class);
+		this.context.refresh();
+	}
+
+	@Configuration
+	static class HikariConfig {
+
+		@Bean
+		public HikariDataSource dataSource() {
+			HikariDataSource dataSource = new HikariDataSource();
+			dataSource.setJdbcUrl("jdbc:h2:mem:instrumented;DB_CLOSE_DELAY=-1");
+			dataSource.setMaximumPoolSize(2);
+			dataSource.setConnectionTimeout(250);
+			return dataSource;
+		}
+
+	}
+
+	@Configuration
+	static class FinalDataSourceConfig {
+
+		@Bean
+		public DataSource dataSource() {
+			return new FinalDataSource();
+		}
+
+	}
+
+	static final class FinalDataSource extends DriverManagerDataSource {
+
+	}
+
+}
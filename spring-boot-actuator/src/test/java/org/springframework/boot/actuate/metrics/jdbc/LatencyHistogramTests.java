@@ -0,0 +1,117 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.jdbc;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link LatencyHistogram}.
+ *
+ * @author Jerry Lei
+ */
+public class LatencyHistogramTests {
+
+	private final LatencyHistogram histogram = new LatencyHistogram();
+
+	@Test
+	public void empty() {
+		assertThat(this.histogram.getCount()).isEqualTo(0);
+		assertThat(this.histogram.getMean(TimeUnit.NANOSECONDS)).isEqualTo(0.0);
+		assertThat(this.histogram.getMax(TimeUnit.NANOSECONDS)).isEqualTo(0.0);
+		assertThat(this.histogram.getPercentile(99, TimeUnit.NANOSECONDS))
+				.isEqualTo(0.0);
+	}
+
+	@Test
+	public void countMeanAndMax() {
+		this.histogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+		this.histogram.record(TimeUnit.MILLISECONDS.toNanos(3));
+		assertThat(this.histogram.getCount()).isEqualTo(2);
+		assertThat(this.histogram.getMean(TimeUnit.MILLISECONDS)).isEqualTo(2.0);
+		assertThat(this.histogram.getMax(TimeUnit.MILLISECONDS)).isEqualTo(3.0);
+	}
+
+	@Test
+	public void percentilesAreUpperBoundOfBucket() {
+		for (int i = 0; i < 90; i++) {
+			this.histogram.record(100);
+		}
+		for (int i = 0; i < 10; i++) {
+			this.histogram.record(1000);
+		}
+		assertThat(this.histogram.getPercentile(50, TimeUnit.NANOSECONDS))
+				.isEqualTo(128.0);
+		assertThat(this.histogram.getPercentile(90, TimeUnit.NANOSECONDS))
+				.isEqualTo(128.0);
+		assertThat(this.histogram.getPercentile(95, TimeUnit.NANOSECONDS))
+				.isEqualTo(1000.0);
+	}
+
+	@Test
+	public void exactPowersOfTwoStayInTheirBucket() {
+		this.histogram.record(64);
+		assertThat(this.histogram.getPercentile(100, TimeUnit.NANOSECONDS))
+				.isEqualTo(64.0);
+	}
+
+	@Test
+	public void zeroAndNegativeDurations() {
+		this.histogram.record(0);
+		this.histogram.record(-5);
+		assertThat(this.histogram.getCount()).isEqualTo(2);
+		assertThat(this.histogram.getMax(TimeUnit.NANOSECONDS)).isEqualTo(0.0);
+		assertThat(this.histogram.getPercentile(100, TimeUnit.NANOSECONDS))
+				.isEqualTo(0.0);
+	}
+
+	@Test
+	public void longestDuration() {
+		this.histogram.record(Long.MAX_VALUE);
+		assertThat(this.histogram.getPercentile(100, TimeUnit.NANOSECONDS))
+				.isEqualTo((double) Long.MAX_VALUE);
+	}
+
+	@Test
+	public void concurrentRecording() throws Exception {
+		Thread[] threads = new Thread[8];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					for (int j = 1; j <= 10000; j++) {
+						LatencyHistogramTests.this.histogram.record(j);
+					}
+				}
+
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertThat(this.histogram.getCount()).isEqualTo(80000);
+		assertThat(this.histogram.getMax(TimeUnit.NANOSECONDS)).isEqualTo(10000.0);
+		assertThat(this.histogram.getPercentile(100, TimeUnit.NANOSECONDS))
+				.isEqualTo(10000.0);
+	}
+
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.trace;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link MappedFileTraceRepository}.
+ *
+ * @author Jerry Lei
+ */
+public class MappedFileTraceRepositoryTests {
+
+	@Rule
+	public TemporaryFolder temp = new TemporaryFolder();
+
+	private File directory;
+
+	private MappedFileTraceRepository repository;
+
+	@Before
+	public void setup() throws Exception {
+		this.directory = this.temp.newFolder();
+		this.repository = new MappedFileTraceRepository(this.directory);
+	}
+
+	@After
+	public void close() {
+		this.repository.destroy();
+	}
+
+	@Test
+	public void findAllReturnsLatestTracesNewestFirst() throws Exception {
+		this.repository.setCapacity(50);
+		addTraces(this.repository, 0, 200);
+		List<Trace> traces = this.repository.findAll();
+		assertThat(traces).hasSize(50);
+		assertThat(traces.get(0).getInfo().get("id")).isEqualTo(199L);
+		assertThat(traces.get(49).getInfo().get("id")).isEqualTo(150L);
+	}
+
+	@Test
+	public void findAllWhenEmpty() throws Exception {
+		assertThat(this.repository.findAll()).isEmpty();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void traceInfoIsPreserved() throws Exception {
+		Map<String, Object> headers = new LinkedHashMap<String, Object>();
+		headers.put("Accept", "application/json");
+		headers.put("X-Multi", Arrays.asList("a", "b"));
+		Map<String, Object> info = new LinkedHashMap<String, Object>();
+		info.put("method", "GET");
+		info.put("headers", headers);
+		info.put("parameters",
+				Collections.singletonMap("p", new String[] { "1", "2" }));
+		info.put("timeTaken", 12);
+		info.put("ratio", 0.5);
+		info.put("secure", true);
+		info.put("timestamp", new Date(1000));
+		info.put("missing", null);
+		info.put("other", new StringBuilder("text"));
+		this.repository.add(info);
+		Map<String, Object> traced = this.repository.findAll().get(0).getInfo();
+		assertThat(traced.keySet()).containsExactlyElementsOf(info.keySet());
+		assertThat(traced.get("method")).isEqualTo("GET");
+		assertThat(traced.get("headers")).isEqualTo(headers);
+		assertThat(((Map<String, Object>) traced.get("parameters")).get("p"))
+				.isEqualTo(Arrays.asList("1", "2"));
+		assertThat(traced.get("timeTaken")).isEqualTo(12L);
+		assertThat(traced.get("ratio")).isEqualTo(0.5);
+		assertThat(traced.get("secure")).isEqualTo(true);
+		assertThat(traced.get("timestamp")).isEqualTo(new Date(1000));
+		assertThat(traced.get("missing")).isNull();
+		assertThat(traced.get("other")).isEqualTo("text");
+	}
+
+	@Test
+	public void findTimeRange() throws Exception {
+		this.repository.setSegmentSize(4096);
+		for (int i = 0; i < 5; i++) {
+			addTraces(this.repository, i * 100, 100);
+			Thread.sleep(5);
+		}
+		List<Trace> all = this.repository.find(null, null, Integer.MAX_VALUE);
+		assertThat(all).hasSize(500);
+		Date from = all.get(150).getTimestamp();
+		Date to = all.get(320).getTimestamp();
+		List<Trace> expected = new ArrayList<Trace>();
+		int after = 0;
+		for (Trace trace : all) {
+			if (!trace.getTimestamp().before(from) && !trace.getTimestamp().after(to)) {
+				expected.add(trace);
+			}
+			if (trace.getTimestamp().after(to)) {
+				after++;
+			}
+		}
+		List<Trace> traces = this.repository.find(from, to, Integer.MAX_VALUE);
+		assertThat(getIds(traces)).isEqualTo(getIds(expected));
+		assertThat(getIds(this.repository.find(from, to, 10))).isEqualTo(
+				getIds(expected.subList(expected.size() - 10, expected.size())));
+		assertThat(this.repository.find(new Date(to.getTime() + 1), null, 1000))
+				.hasSize(after);
+	}
+
+	@Test
+	public void rollsOverWhenSegmentIsFull() throws Exception {
+		this.repository.setSegmentSize(1024);
+		addTraces(this.repository, 0, 100);
+		assertThat(getSegmentFiles().length).isGreaterThan(1);
+		assertThat(this.repository.find(null, null, 1000)).hasSize(100);
+	}
+
+	@Test
+	public void rollsOverAfterInterval() throws Exception {
+		this.repository.setRolloverInterval(1);
+		for (int i = 0; i < 3; i++) {
+			addTraces(this.repository, i, 1);
+			Thread.sleep(5);
+		}
+		assertThat(getSegmentFiles()).hasSize(3);
+	}
+
+	@Test
+	public void deletesOldestSegments() throws Exception {
+		this.repository.setSegmentSize(1024);
+		this.repository.setMaxSegments(2);
+		addTraces(this.repository, 0, 200);
+		assertThat(getSegmentFiles()).hasSize(2);
+		List<Trace> traces = this.repository.find(null, null, 1000);
+		assertThat(traces.size()).isLessThan(200);
+		assertThat(traces.get(traces.size() - 1).getInfo().get("id")).isEqualTo(199L);
+	}
+
+	@Test
+	public void recoversExistingSegments() throws Exception {
+		this.repository.setSegmentSize(2048);
+		addTraces(this.repository, 0, 100);
+		this.repository.destroy();
+		MappedFileTraceRepository reopened = new MappedFileTraceRepository(
+				this.directory);
+		try {
+			assertThat(reopened.find(null, null, 1000)).hasSize(100);
+			addTraces(reopened, 100, 1);
+			List<Trace> traces = reopened.findAll();
+			assertThat(traces.get(0).getInfo().get("id")).isEqualTo(100L);
+			assertThat(traces.get(1).getInfo().get("id")).isEqualTo(99L);
+		}
+		finally {
+			reopened.destroy();
+		}
+	}
+
+	@Test
+	public void stopsReadingSegmentAtTornRecord() throws Exception {
+		addTraces(this.repository, 0, 3);
+		this.repository.destroy();
+		File[] files = getSegmentFiles();
+		assertThat(files).hasSize(1);
+		RandomAccessFile file = new RandomAccessFile(files[0], "rw");
+		try {
+			file.seek(8);
+			int second = 8 + 12 + file.readInt();
+			file.seek(second);
+			byte[] payload = new byte[file.readInt()];
+			Arrays.fill(payload, (byte) 0xFF);
+			file.seek(second + 12);
+			file.write(payload);
+		}
+		finally {
+			file.close();
+		}
+		MappedFileTraceRepository reopened = new MappedFileTraceRepository(
+				this.directory);
+		try {
+			assertThat(getIds(reopened.find(null, null, 1000))).containsExactly(0L);
+		}
+		finally {
+			reopened.destroy();
+		}
+	}
+
+	@Test
+	public void traceLargerThanSegmentIsNotRecorded() throws Exception {
+		this.repository.setSegmentSize(256);
+		char[] value = new char[512];
+		Arrays.fill(value, 'a');
+		this.repository.add(Collections.<String, Object>singletonMap("large",
+				new String(value)));
+		addTraces(this.repository, 0, 1);
+		assertThat(this.repository.findAll()).hasSize(1);
+	}
+
+	@Test
+	public void concurrentWrites() throws Exception {
+		this.repository.setSegmentSize(64 * 1024);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Void>> futures = new ArrayList<Future<Void>>();
+			for (int i = 0; i < 4; i++) {
+				final int start = i * 2500;
+				futures.add(executor.submit(new Callable<Void>() {
+
+					@Override
+					public Void call() throws Exception {
+						addTraces(MappedFileTraceRepositoryTests.this.repository, start,
+								2500);
+						return null;
+					}
+
+				}));
+			}
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+		List<Trace> traces = this.repository.find(null, null, Integer.MAX_VALUE);
+		assertThat(traces).hasSize(10000);
+		for (int i = 1; i < traces.size(); i++) {
+			assertThat(traces.get(i).getTimestamp())
+					.isAfterOrEqualsTo(traces.get(i - 1).getTimestamp());
+		}
+	}
+
+	private void addTraces(MappedFileTraceRepository repository, int start, int count) {
+		for (int i = start; i < start + count; i++) {
+			Map<String, Object> info = new LinkedHashMap<String, Object>();
+			info.put("id", i);
+			info.put("method", "GET");
+			info.put("path", "/foo/" + i);
+			repository.add(info);
+		}
+	}
+
+	private List<Object> getIds(List<Trace> traces) {
+		List<Object> ids = new ArrayList<Object>();
+		for (Trace trace : traces) {
+			ids.add(trace.getInfo().get("id"));
+		}
+		return ids;
+	}
+
+	private File[] getSegmentFiles() {
+		return this.directory.listFiles();
+	}
+
+}
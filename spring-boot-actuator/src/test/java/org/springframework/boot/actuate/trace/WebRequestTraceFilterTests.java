@@ -38,6 +38,7 @@ import org.springframework.mock.web.MockHttpServletResponse;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.fail;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -306,4 +307,90 @@ public class WebRequestTraceFilterTests {
 		assertThat(map.get("request").toString()).isEqualTo("{Accept=application/json}");
 	}
 
+	@Test
+	public void filterTracesOneInEveryIntervalRequests() throws Exception {
+		this.properties.getSampling().setInterval(4);
+		for (int i = 0; i < 10; i++) {
+			doFilter(new MockHttpServletRequest("GET", "/foo"));
+		}
+		assertThat(this.repository.findAll()).hasSize(3);
+	}
+
+	@Test
+	public void filterLimitsTracesPerSecond() throws Exception {
+		this.properties.getSampling().setMaxPerSecond(3);
+		for (int i = 0; i < 20; i++) {
+			doFilter(new MockHttpServletRequest("GET", "/foo"));
+		}
+		// The requests may straddle a second boundary
+		assertThat(this.repository.findAll().size()).isBetween(3, 6);
+	}
+
+	@Test
+	public void filterDoesNotBuildTraceForRequestsThatAreNotSampled()
+			throws Exception {
+		this.properties.getSampling().setMaxPerSecond(0);
+		MockHttpServletRequest request = spy(new MockHttpServletRequest("GET", "/foo"));
+		request.addHeader("Accept", "application/json");
+		final boolean[] invoked = new boolean[1];
+		this.filter.doFilterInternal(request, new MockHttpServletResponse(),
+				new FilterChain() {
+
+					@Override
+					public void doFilter(ServletRequest request,
+							ServletResponse response) {
+						invoked[0] = true;
+					}
+
+				});
+		assertThat(invoked[0]).isTrue();
+		assertThat(this.repository.findAll()).isEmpty();
+		verify(request, never()).getHeaderNames();
+		verify(request, never()).getSession(false);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void filterTruncatesLongHeaderValues() throws Exception {
+		this.properties.setMaxHeaderValueLength(5);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo");
+		request.addHeader("Accept", "application/json");
+		request.addHeader("X-Test", "abcdefgh");
+		request.addHeader("X-Test", "abc");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		response.addHeader("Content-Type", "application/json");
+		Map<String, Object> trace = this.filter.getTrace(request);
+		this.filter.enhanceTrace(trace, response);
+		Map<String, Object> headers = (Map<String, Object>) trace.get("headers");
+		assertThat(headers.get("request").toString())
+				.isEqualTo("{Accept=appli, X-Test=[abcde, abc]}");
+		assertThat(headers.get("response").toString())
+				.isEqualTo("{Content-Type=appli, status=200}");
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void filterTruncatesLongParameterValues() throws Exception {
+		this.properties.setInclude(EnumSet.of(Include.PARAMETERS));
+		this.properties.setMaxParameterValueLength(3);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo");
+		request.addParameter("a", "abcdef", "ab");
+		Map<String, String[]> parameters = (Map<String, String[]>) this.filter
+				.getTrace(request).get("parameters");
+		assertThat(parameters.get("a")).containsExactly("abc", "ab");
+		assertThat(request.getParameterValues("a")).containsExactly("abcdef", "ab");
+	}
+
+	private void doFilter(MockHttpServletRequest request) throws Exception {
+		this.filter.doFilterInternal(request, new MockHttpServletResponse(),
+				new FilterChain() {
+
+					@Override
+					public void doFilter(ServletRequest request,
+							ServletResponse response) {
+					}
+
+				});
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import javax.annotation.PostConstruct;
 import javax.sql.DataSource;
 
 import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
 import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
@@ -61,7 +62,7 @@ public abstract class AbstractDatabaseInitializer {
 			String platform = getDatabaseName();
 			schemaLocation = schemaLocation.replace(PLATFORM_PLACEHOLDER, platform);
 		}
-		populator.addScript(this.resourceLoader.getResource(schemaLocation));
+		populator.addScript(getSchema(this.resourceLoader.getResource(schemaLocation)));
 		populator.setContinueOnError(true);
 		DatabasePopulatorUtils.execute(populator, this.dataSource);
 	}
@@ -70,6 +71,17 @@ public abstract class AbstractDatabaseInitializer {
 
 	protected abstract String getSchemaLocation();
 
+	/**
+	 * Return the schema script to execute. Subclasses can override this method to adapt
+	 * the script that was loaded from the {@link #getSchemaLocation() schema location}.
+	 * @param schema the loaded schema script
+	 * @return the schema script to execute
+	 * @since 2.0.0
+	 */
+	protected Resource getSchema(Resource schema) {
+		return schema;
+	}
+
 	protected String getDatabaseName() {
 		try {
 			String productName = JdbcUtils.commonDatabaseName(JdbcUtils
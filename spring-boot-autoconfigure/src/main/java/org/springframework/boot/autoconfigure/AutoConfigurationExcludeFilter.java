@@ -20,8 +20,8 @@ import java.io.IOException;
 import java.util.List;
 
 import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.boot.SpringFactoriesRegistry;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.io.support.SpringFactoriesLoader;
 import org.springframework.core.type.classreading.MetadataReader;
 import org.springframework.core.type.classreading.MetadataReaderFactory;
 import org.springframework.core.type.filter.TypeFilter;
@@ -61,7 +61,7 @@ public class AutoConfigurationExcludeFilter implements TypeFilter, BeanClassLoad
 
 	protected List<String> getAutoConfigurations() {
 		if (this.autoConfigurations == null) {
-			this.autoConfigurations = SpringFactoriesLoader.loadFactoryNames(
+			this.autoConfigurations = SpringFactoriesRegistry.loadFactoryNames(
 					EnableAutoConfiguration.class, this.beanClassLoader);
 		}
 		return this.autoConfigurations;
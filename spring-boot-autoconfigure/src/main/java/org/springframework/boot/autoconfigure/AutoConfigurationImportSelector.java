@@ -37,7 +37,10 @@ import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.SpringFactoriesRegistry;
 import org.springframework.boot.bind.RelaxedPropertyResolver;
+import org.springframework.boot.context.startup.StartupTimeline;
+import org.springframework.boot.context.startup.StartupTimeline.Step;
 import org.springframework.context.EnvironmentAware;
 import org.springframework.context.ResourceLoaderAware;
 import org.springframework.context.annotation.DeferredImportSelector;
@@ -88,6 +91,8 @@ public class AutoConfigurationImportSelector
 		if (!isEnabled(annotationMetadata)) {
 			return NO_IMPORTS;
 		}
+		Step step = StartupTimeline.get(getBeanFactory())
+				.start("auto-configuration.imports");
 		try {
 			AutoConfigurationMetadata autoConfigurationMetadata = AutoConfigurationMetadataLoader
 					.loadMetadata(this.beanClassLoader);
@@ -106,6 +111,9 @@ public class AutoConfigurationImportSelector
 		catch (IOException ex) {
 			throw new IllegalStateException(ex);
 		}
+		finally {
+			step.end();
+		}
 	}
 
 	protected boolean isEnabled(AnnotationMetadata metadata) {
@@ -139,7 +147,7 @@ public class AutoConfigurationImportSelector
 
 	/**
 	 * Return the auto-configuration class names that should be considered. By default
-	 * this method will load candidates using {@link SpringFactoriesLoader} with
+	 * this method will load candidates using the {@link SpringFactoriesRegistry} with
 	 * {@link #getSpringFactoriesLoaderFactoryClass()}.
 	 * @param metadata the source metadata
 	 * @param attributes the {@link #getAttributes(AnnotationMetadata) annotation
@@ -148,7 +156,7 @@ public class AutoConfigurationImportSelector
 	 */
 	protected List<String> getCandidateConfigurations(AnnotationMetadata metadata,
 			AnnotationAttributes attributes) {
-		List<String> configurations = SpringFactoriesLoader.loadFactoryNames(
+		List<String> configurations = SpringFactoriesRegistry.loadFactoryNames(
 				getSpringFactoriesLoaderFactoryClass(), getBeanClassLoader());
 		Assert.notEmpty(configurations,
 				"No auto configuration classes found in META-INF/spring.factories. If you "
@@ -245,19 +253,27 @@ public class AutoConfigurationImportSelector
 	private List<String> filter(List<String> configurations,
 			AutoConfigurationMetadata autoConfigurationMetadata) {
 		long startTime = System.nanoTime();
+		List<AutoConfigurationImportFilter> filters = getAutoConfigurationImportFilters();
+		Step step = StartupTimeline.get(getBeanFactory())
+				.start("auto-configuration.imports.filter");
 		String[] candidates = configurations.toArray(new String[configurations.size()]);
 		boolean[] skip = new boolean[candidates.length];
 		boolean skipped = false;
-		for (AutoConfigurationImportFilter filter : getAutoConfigurationImportFilters()) {
-			invokeAwareMethods(filter);
-			boolean[] match = filter.match(candidates, autoConfigurationMetadata);
-			for (int i = 0; i < match.length; i++) {
-				if (!match[i]) {
-					skip[i] = true;
-					skipped = true;
+		try {
+			for (AutoConfigurationImportFilter filter : filters) {
+				invokeAwareMethods(filter);
+				boolean[] match = filter.match(candidates, autoConfigurationMetadata);
+				for (int i = 0; i < match.length; i++) {
+					if (!match[i]) {
+						skip[i] = true;
+						skipped = true;
+					}
 				}
 			}
 		}
+		finally {
+			step.end();
+		}
 		if (!skipped) {
 			return configurations;
 		}
@@ -277,7 +293,7 @@ public class AutoConfigurationImportSelector
 	}
 
 	protected List<AutoConfigurationImportFilter> getAutoConfigurationImportFilters() {
-		return SpringFactoriesLoader.loadFactories(AutoConfigurationImportFilter.class,
+		return SpringFactoriesRegistry.loadFactories(AutoConfigurationImportFilter.class,
 				this.beanClassLoader);
 	}
 
@@ -315,8 +331,8 @@ public class AutoConfigurationImportSelector
 	}
 
 	protected List<AutoConfigurationImportListener> getAutoConfigurationImportListeners() {
-		return SpringFactoriesLoader.loadFactories(AutoConfigurationImportListener.class,
-				this.beanClassLoader);
+		return SpringFactoriesRegistry.loadFactories(
+				AutoConfigurationImportListener.class, this.beanClassLoader);
 	}
 
 	private void invokeAwareMethods(Object instance) {
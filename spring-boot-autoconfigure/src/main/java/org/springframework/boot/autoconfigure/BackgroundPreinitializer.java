@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,119 +16,203 @@
 
 package org.springframework.boot.autoconfigure;
 
-import javax.validation.Validation;
-
-import org.apache.catalina.mbeans.MBeanFactory;
-
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.boot.SpringFactoriesRegistry;
+import org.springframework.boot.bind.RelaxedPropertyResolver;
 import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
 import org.springframework.boot.logging.LoggingApplicationListener;
 import org.springframework.context.ApplicationListener;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.core.annotation.Order;
-import org.springframework.format.support.DefaultFormattingConversionService;
-import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
-import org.springframework.http.converter.support.AllEncompassingFormHttpMessageConverter;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 
 /**
- * {@link ApplicationListener} to trigger early initialization in a background thread of
- * time consuming tasks.
+ * {@link ApplicationListener} to trigger early initialization in the background of time
+ * consuming tasks. The {@link PreinitializationTask tasks} are loaded from
+ * {@code META-INF/spring.factories} and run on a small, bounded pool of threads. The
+ * maximum number of threads can be configured using the
+ * {@value #MAX_THREADS_PROPERTY} property.
  *
  * @author Phillip Webb
  * @author Andy Wilkinson
  * @since 1.3.0
+ * @see PreinitializationTask
  */
 @Order(LoggingApplicationListener.DEFAULT_ORDER + 1)
 public class BackgroundPreinitializer
 		implements ApplicationListener<ApplicationEnvironmentPreparedEvent> {
 
+	/**
+	 * The name of the property used to configure the maximum number of threads that
+	 * are used to run preinitialization tasks.
+	 */
+	public static final String MAX_THREADS_PROPERTY = "spring.backgroundpreinitializer.max-threads";
+
+	private static final int DEFAULT_MAX_THREADS = 2;
+
+	private static final Log logger = LogFactory.getLog(BackgroundPreinitializer.class);
+
+	private final List<PreinitializationTask> tasks;
+
+	private final Map<String, Long> taskTimings = Collections
+			.synchronizedMap(new LinkedHashMap<String, Long>());
+
+	private volatile CountDownLatch remainingTasks = new CountDownLatch(0);
+
+	public BackgroundPreinitializer() {
+		this(null);
+	}
+
+	BackgroundPreinitializer(List<PreinitializationTask> tasks) {
+		this.tasks = tasks;
+	}
+
 	@Override
 	public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+		ClassLoader classLoader = event.getSpringApplication().getClassLoader();
+		List<PreinitializationTask> tasks = (this.tasks != null ? this.tasks
+				: loadTasks(classLoader));
+		if (tasks.isEmpty()) {
+			return;
+		}
+		int threads = Math.min(tasks.size(), getMaxThreads(event.getEnvironment()));
+		if (threads < 1) {
+			return;
+		}
+		CountDownLatch remainingTasks = new CountDownLatch(tasks.size());
+		this.remainingTasks = remainingTasks;
 		try {
-			Thread thread = new Thread(new Runnable() {
-
-				@Override
-				public void run() {
-					runSafely(new MessageConverterInitializer());
-					runSafely(new MBeanFactoryInitializer());
-					runSafely(new ValidationInitializer());
-					runSafely(new JacksonInitializer());
-					runSafely(new ConversionServiceInitializer());
+			ExecutorService executor = Executors.newFixedThreadPool(threads,
+					new CustomizableThreadFactory("background-preinit-"));
+			try {
+				for (PreinitializationTask task : tasks) {
+					executor.execute(
+							new TimedTask(task, classLoader, remainingTasks));
 				}
-
-				public void runSafely(Runnable runnable) {
-					try {
-						runnable.run();
-					}
-					catch (Throwable ex) {
-						// Ignore
-					}
-				}
-
-			}, "background-preinit");
-			thread.start();
+			}
+			finally {
+				executor.shutdown();
+			}
 		}
 		catch (Exception ex) {
 			// This will fail on GAE where creating threads is prohibited. We can safely
 			// continue but startup will be slightly slower as the initialization will now
 			// happen on the main thread.
+			this.remainingTasks = new CountDownLatch(0);
 		}
 	}
 
-	/**
-	 * Early initializer for Spring MessageConverters.
-	 */
-	private static class MessageConverterInitializer implements Runnable {
-
-		@Override
-		public void run() {
-			new AllEncompassingFormHttpMessageConverter();
+	private List<PreinitializationTask> loadTasks(ClassLoader classLoader) {
+		List<String> names = SpringFactoriesRegistry
+				.loadFactoryNames(PreinitializationTask.class, classLoader);
+		List<PreinitializationTask> tasks = new ArrayList<PreinitializationTask>(
+				names.size());
+		for (String name : names) {
+			try {
+				Class<?> taskClass = ClassUtils.forName(name, classLoader);
+				Assert.isAssignable(PreinitializationTask.class, taskClass);
+				tasks.add((PreinitializationTask) BeanUtils.instantiateClass(taskClass));
+			}
+			catch (Throwable ex) {
+				if (logger.isTraceEnabled()) {
+					logger.trace("Unable to instantiate preinitialization task " + name,
+							ex);
+				}
+			}
 		}
+		AnnotationAwareOrderComparator.sort(tasks);
+		return tasks;
+	}
 
+	private int getMaxThreads(Environment environment) {
+		RelaxedPropertyResolver resolver = new RelaxedPropertyResolver(environment,
+				"spring.backgroundpreinitializer.");
+		return resolver.getProperty("max-threads", Integer.class,
+				Math.min(DEFAULT_MAX_THREADS,
+						Runtime.getRuntime().availableProcessors()));
 	}
 
 	/**
-	 * Early initializer to load Tomcat MBean XML.
+	 * Return the time, in nanoseconds, taken by each preinitialization task that has
+	 * completed, keyed by the name of the task's class and in order of completion.
+	 * @return the task timings
+	 * @since 2.0.0
 	 */
-	private static class MBeanFactoryInitializer implements Runnable {
-
-		@Override
-		public void run() {
-			new MBeanFactory();
+	public Map<String, Long> getTaskTimings() {
+		synchronized (this.taskTimings) {
+			return Collections
+					.unmodifiableMap(new LinkedHashMap<String, Long>(this.taskTimings));
 		}
-
 	}
 
 	/**
-	 * Early initializer for javax.validation.
+	 * Wait for the preinitialization tasks that were started by the most recent
+	 * {@link ApplicationEnvironmentPreparedEvent} to complete.
+	 * @param timeout the maximum time to wait
+	 * @param unit the unit of the {@code timeout} argument
+	 * @return {@code true} if all tasks completed and {@code false} if the timeout
+	 * elapsed first
+	 * @throws InterruptedException if the current thread is interrupted while waiting
+	 * @since 2.0.0
 	 */
-	private static class ValidationInitializer implements Runnable {
-
-		@Override
-		public void run() {
-			Validation.byDefaultProvider().configure();
-		}
-
+	public boolean awaitCompletion(long timeout, TimeUnit unit)
+			throws InterruptedException {
+		return this.remainingTasks.await(timeout, unit);
 	}
 
 	/**
-	 * Early initializer for Jackson.
+	 * Wrapper for a {@link PreinitializationTask} that records how long it takes.
 	 */
-	private static class JacksonInitializer implements Runnable {
+	private class TimedTask implements Runnable {
 
-		@Override
-		public void run() {
-			Jackson2ObjectMapperBuilder.json().build();
-		}
+		private final PreinitializationTask task;
 
-	}
+		private final ClassLoader classLoader;
 
-	/**
-	 * Early initializer for Spring's ConversionService.
-	 */
-	private static class ConversionServiceInitializer implements Runnable {
+		private final CountDownLatch remainingTasks;
+
+		TimedTask(PreinitializationTask task, ClassLoader classLoader,
+				CountDownLatch remainingTasks) {
+			this.task = task;
+			this.classLoader = classLoader;
+			this.remainingTasks = remainingTasks;
+		}
 
 		@Override
 		public void run() {
-			new DefaultFormattingConversionService();
+			String name = this.task.getClass().getName();
+			long start = System.nanoTime();
+			try {
+				this.task.preinitialize(this.classLoader);
+			}
+			catch (Throwable ex) {
+				// Ignore
+			}
+			finally {
+				long elapsed = System.nanoTime() - start;
+				BackgroundPreinitializer.this.taskTimings.put(name, elapsed);
+				if (logger.isDebugEnabled()) {
+					logger.debug("Preinitialization task " + name + " completed in "
+							+ TimeUnit.NANOSECONDS.toMillis(elapsed) + "ms");
+				}
+				this.remainingTasks.countDown();
+			}
 		}
 
 	}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure;
+
+/**
+ * Base class for {@link PreinitializationTask PreinitializationTasks} that load and
+ * initialize a set of classes. Classes that are not present are silently skipped.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+public abstract class ClassLoadingPreinitializationTask
+		implements PreinitializationTask {
+
+	private final String[] classNames;
+
+	/**
+	 * Create a new {@link ClassLoadingPreinitializationTask} instance.
+	 * @param classNames the fully qualified names of the classes to load and initialize
+	 */
+	protected ClassLoadingPreinitializationTask(String... classNames) {
+		this.classNames = classNames;
+	}
+
+	@Override
+	public void preinitialize(ClassLoader classLoader) {
+		for (String className : this.classNames) {
+			try {
+				Class.forName(className, true, classLoader);
+			}
+			catch (Throwable ex) {
+				// Ignore
+			}
+		}
+	}
+
+}
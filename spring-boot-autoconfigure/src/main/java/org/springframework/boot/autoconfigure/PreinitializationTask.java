@@ -0,0 +1,42 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure;
+
+/**
+ * A task that performs time consuming initialization early, in the background, so that
+ * the work does not need to happen on the main thread when the application context is
+ * refreshed. Implementations are loaded using
+ * {@link org.springframework.core.io.support.SpringFactoriesLoader} and may implement
+ * {@link org.springframework.core.Ordered} or be annotated with
+ * {@link org.springframework.core.annotation.Order @Order}.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ * @see BackgroundPreinitializer
+ */
+@FunctionalInterface
+public interface PreinitializationTask {
+
+	/**
+	 * Perform the preinitialization. Implementations should be tolerant of the classes
+	 * they warm up not being present. Any exception thrown by this method is ignored.
+	 * @param classLoader the class loader of the application
+	 * @throws Exception if preinitialization fails
+	 */
+	void preinitialize(ClassLoader classLoader) throws Exception;
+
+}
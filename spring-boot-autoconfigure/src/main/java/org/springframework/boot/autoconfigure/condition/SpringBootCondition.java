@@ -19,6 +19,8 @@ package org.springframework.boot.autoconfigure.condition;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.boot.context.startup.StartupTimeline;
+import org.springframework.boot.context.startup.StartupTimeline.Step;
 import org.springframework.context.annotation.Condition;
 import org.springframework.context.annotation.ConditionContext;
 import org.springframework.core.type.AnnotatedTypeMetadata;
@@ -43,6 +45,7 @@ public abstract class SpringBootCondition implements Condition {
 	public final boolean matches(ConditionContext context,
 			AnnotatedTypeMetadata metadata) {
 		String classOrMethodName = getClassOrMethodName(metadata);
+		Step step = startStep(context, classOrMethodName);
 		try {
 			ConditionOutcome outcome = getMatchOutcome(context, metadata);
 			logOutcome(classOrMethodName, outcome);
@@ -63,6 +66,18 @@ public abstract class SpringBootCondition implements Condition {
 			throw new IllegalStateException(
 					"Error processing condition on " + getName(metadata), ex);
 		}
+		finally {
+			step.end();
+		}
+	}
+
+	private Step startStep(ConditionContext context, String classOrMethodName) {
+		StartupTimeline timeline = StartupTimeline.get(context.getBeanFactory());
+		if (!timeline.isEnabled()) {
+			return timeline.start("condition");
+		}
+		return timeline.start("condition." + ClassUtils.getShortName(getClass()) + "("
+				+ classOrMethodName + ")");
 	}
 
 	private String getName(AnnotatedTypeMetadata metadata) {
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.logging;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.PatternLayout;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.CoreConstants;
+
+import org.springframework.boot.autoconfigure.PreinitializationTask;
+import org.springframework.boot.logging.logback.ColorConverter;
+import org.springframework.boot.logging.logback.ExtendedWhitespaceThrowableProxyConverter;
+import org.springframework.util.ClassUtils;
+
+/**
+ * {@link PreinitializationTask} that compiles and applies a Logback pattern equivalent to
+ * Spring Boot's default console pattern so that Logback's pattern parser and converters
+ * are warmed up.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+public class LogbackPreinitializationTask implements PreinitializationTask {
+
+	private static final String PATTERN_LAYOUT_CLASS = "ch.qos.logback.classic.PatternLayout";
+
+	@Override
+	public void preinitialize(ClassLoader classLoader) {
+		if (ClassUtils.isPresent(PATTERN_LAYOUT_CLASS, classLoader)) {
+			PatternCompiler.compile();
+		}
+	}
+
+	/**
+	 * Inner class to isolate Logback dependencies.
+	 */
+	private static class PatternCompiler {
+
+		private static final String PATTERN = "%clr(%d{yyyy-MM-dd HH:mm:ss.SSS}){faint} "
+				+ "%clr(%5p) %clr(---){faint} %clr([%15.15t]){faint} "
+				+ "%clr(%-40.40logger{39}){cyan} %clr(:){faint} %m%n%wEx";
+
+		static void compile() {
+			LoggerContext context = new LoggerContext();
+			Map<String, String> rules = new HashMap<String, String>();
+			rules.put("clr", ColorConverter.class.getName());
+			rules.put("wEx", ExtendedWhitespaceThrowableProxyConverter.class.getName());
+			context.putObject(CoreConstants.PATTERN_RULE_REGISTRY, rules);
+			PatternLayout layout = new PatternLayout();
+			layout.setContext(context);
+			layout.setPattern(PATTERN);
+			layout.start();
+			layout.doLayout(new LoggingEvent(PatternCompiler.class.getName(),
+					context.getLogger(PatternCompiler.class), Level.INFO,
+					"Preinitialization", null, null));
+			layout.stop();
+			context.stop();
+		}
+
+	}
+
+}
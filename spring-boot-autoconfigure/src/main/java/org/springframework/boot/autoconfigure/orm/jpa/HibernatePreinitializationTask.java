@@ -0,0 +1,41 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.orm.jpa;
+
+import org.springframework.boot.autoconfigure.ClassLoadingPreinitializationTask;
+import org.springframework.boot.autoconfigure.PreinitializationTask;
+
+/**
+ * {@link PreinitializationTask} that loads Hibernate's dialect, type and JPA metamodel
+ * classes.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+public class HibernatePreinitializationTask extends ClassLoadingPreinitializationTask {
+
+	public HibernatePreinitializationTask() {
+		super("org.hibernate.dialect.Dialect", "org.hibernate.type.BasicTypeRegistry",
+				"org.hibernate.cfg.AnnotationBinder",
+				"org.hibernate.boot.internal.MetadataBuilderImpl",
+				"org.hibernate.jpa.HibernatePersistenceProvider",
+				"org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl",
+				"org.hibernate.internal.SessionFactoryImpl",
+				"org.hibernate.metamodel.internal.MetamodelImpl");
+	}
+
+}
@@ -23,11 +23,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.springframework.boot.SpringFactoriesRegistry;
 import org.springframework.boot.bind.RelaxedPropertyResolver;
 import org.springframework.context.ApplicationContext;
 import org.springframework.core.env.Environment;
 import org.springframework.core.io.ResourceLoader;
-import org.springframework.core.io.support.SpringFactoriesLoader;
 import org.springframework.util.Assert;
 
 /**
@@ -85,7 +85,7 @@ public class TemplateAvailabilityProviders {
 	 */
 	public TemplateAvailabilityProviders(ClassLoader classLoader) {
 		Assert.notNull(classLoader, "ClassLoader must not be null");
-		this.providers = SpringFactoriesLoader
+		this.providers = SpringFactoriesRegistry
 				.loadFactories(TemplateAvailabilityProvider.class, classLoader);
 	}
 
@@ -427,6 +427,8 @@ public class DefaultServletContainerCustomizer
 			if (undertowProperties.getDirectBuffers() != null) {
 				factory.setDirectBuffers(undertowProperties.getDirectBuffers());
 			}
+			factory.setPersistSessionCompression(
+					undertowProperties.isPersistentSessionCompression());
 			if (undertowProperties.getAccesslog().getEnabled() != null) {
 				factory.setAccessLogEnabled(accesslogProperties.getEnabled());
 			}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.web;
+
+import org.springframework.boot.autoconfigure.ClassLoadingPreinitializationTask;
+import org.springframework.boot.autoconfigure.PreinitializationTask;
+
+/**
+ * {@link PreinitializationTask} that loads the core classes of the supported embedded
+ * servlet containers, including the Tomcat MBean XML descriptors.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+public class EmbeddedServletContainerPreinitializationTask
+		extends ClassLoadingPreinitializationTask {
+
+	public EmbeddedServletContainerPreinitializationTask() {
+		super("org.apache.catalina.mbeans.MBeanFactory",
+				"org.apache.catalina.startup.Tomcat",
+				"org.apache.catalina.core.StandardContext",
+				"org.apache.catalina.connector.Connector",
+				"org.apache.coyote.http11.Http11NioProtocol",
+				"org.eclipse.jetty.server.Server",
+				"org.eclipse.jetty.server.ServerConnector",
+				"org.eclipse.jetty.server.HttpConnectionFactory",
+				"org.eclipse.jetty.webapp.WebAppContext", "io.undertow.Undertow",
+				"io.undertow.servlet.Servlets",
+				"io.undertow.servlet.core.DeploymentManagerImpl");
+	}
+
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.web;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.MimeType;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.GzipResourceResolver;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+/**
+ * {@link org.springframework.web.servlet.resource.ResourceResolver ResourceResolver}
+ * that serves a gzip compressed variant of resources that do not have a pre-compressed
+ * "*.gz" sibling. Each variant is compressed once and held in memory until the original
+ * resource changes. Intended to be placed before a {@link GzipResourceResolver} so that
+ * variants that are already present take precedence.
+ *
+ * @author Jerry Lei
+ */
+class GzipCompressingResourceResolver extends AbstractResourceResolver {
+
+	private final List<MimeType> mimeTypes;
+
+	private final int minSize;
+
+	private final Map<Resource, CompressedContent> cache = new ConcurrentReferenceHashMap<Resource, CompressedContent>();
+
+	GzipCompressingResourceResolver(String[] mimeTypes, int minSize) {
+		this.mimeTypes = new ArrayList<MimeType>();
+		for (String mimeType : mimeTypes) {
+			this.mimeTypes.add(MimeType.valueOf(mimeType));
+		}
+		this.minSize = minSize;
+	}
+
+	@Override
+	protected Resource resolveResourceInternal(HttpServletRequest request,
+			String requestPath, List<? extends Resource> locations,
+			ResourceResolverChain chain) {
+		Resource resource = chain.resolveResource(request, requestPath, locations);
+		if (resource == null || resource instanceof HttpResource || request == null
+				|| !isGzipAccepted(request) || !isCompressible(request, resource)) {
+			return resource;
+		}
+		try {
+			CompressedContent content = getCompressedContent(resource);
+			return (content.isSmaller() ? new CompressedResource(resource, content)
+					: resource);
+		}
+		catch (IOException ex) {
+			this.logger.trace("Unable to compress resource " + resource, ex);
+			return resource;
+		}
+	}
+
+	private boolean isGzipAccepted(HttpServletRequest request) {
+		String value = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+		return (value != null && value.toLowerCase().contains("gzip"));
+	}
+
+	private boolean isCompressible(HttpServletRequest request, Resource resource) {
+		String mimeType = request.getServletContext()
+				.getMimeType(resource.getFilename());
+		if (mimeType == null) {
+			return false;
+		}
+		MimeType candidate = MimeType.valueOf(mimeType);
+		for (MimeType compressible : this.mimeTypes) {
+			if (compressible.isCompatibleWith(candidate)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private CompressedContent getCompressedContent(Resource resource)
+			throws IOException {
+		long lastModified = resource.lastModified();
+		CompressedContent content = this.cache.get(resource);
+		if (content == null || content.getLastModified() != lastModified) {
+			content = compress(resource, lastModified);
+			this.cache.put(resource, content);
+		}
+		return content;
+	}
+
+	private CompressedContent compress(Resource resource, long lastModified)
+			throws IOException {
+		InputStream inputStream = resource.getInputStream();
+		try {
+			byte[] original = StreamUtils.copyToByteArray(inputStream);
+			if (original.length < this.minSize) {
+				return new CompressedContent(null, lastModified);
+			}
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+					original.length / 2);
+			GZIPOutputStream gzip = new GZIPOutputStream(bytes);
+			gzip.write(original);
+			gzip.close();
+			byte[] compressed = bytes.toByteArray();
+			return new CompressedContent(
+					compressed.length < original.length ? compressed : null,
+					lastModified);
+		}
+		finally {
+			inputStream.close();
+		}
+	}
+
+	@Override
+	protected String resolveUrlPathInternal(String resourceUrlPath,
+			List<? extends Resource> locations, ResourceResolverChain chain) {
+		return chain.resolveUrlPath(resourceUrlPath, locations);
+	}
+
+	/**
+	 * Compressed bytes for a resource, or {@code null} bytes if the resource is not worth
+	 * compressing.
+	 */
+	private static final class CompressedContent {
+
+		private final byte[] bytes;
+
+		private final long lastModified;
+
+		CompressedContent(byte[] bytes, long lastModified) {
+			this.bytes = bytes;
+			this.lastModified = lastModified;
+		}
+
+		public byte[] getBytes() {
+			return this.bytes;
+		}
+
+		public long getLastModified() {
+			return this.lastModified;
+		}
+
+		public boolean isSmaller() {
+			return this.bytes != null;
+		}
+
+	}
+
+	/**
+	 * {@link HttpResource} for in-memory compressed content.
+	 */
+	private static final class CompressedResource extends AbstractResource
+			implements HttpResource {
+
+		private final Resource original;
+
+		private final CompressedContent content;
+
+		CompressedResource(Resource original, CompressedContent content) {
+			this.original = original;
+			this.content = content;
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			return new ByteArrayInputStream(this.content.getBytes());
+		}
+
+		@Override
+		public boolean exists() {
+			return true;
+		}
+
+		@Override
+		public URL getURL() throws IOException {
+			return this.original.getURL();
+		}
+
+		@Override
+		public URI getURI() throws IOException {
+			return this.original.getURI();
+		}
+
+		@Override
+		public long contentLength() {
+			return this.content.getBytes().length;
+		}
+
+		@Override
+		public long lastModified() {
+			return this.content.getLastModified();
+		}
+
+		@Override
+		public Resource createRelative(String relativePath) throws IOException {
+			return this.original.createRelative(relativePath);
+		}
+
+		@Override
+		public String getFilename() {
+			return this.original.getFilename();
+		}
+
+		@Override
+		public String getDescription() {
+			return "Compressed " + this.original.getDescription();
+		}
+
+		@Override
+		public HttpHeaders getResponseHeaders() {
+			HttpHeaders headers = new HttpHeaders();
+			headers.add(HttpHeaders.CONTENT_ENCODING, "gzip");
+			headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+			return headers;
+		}
+
+	}
+
+}
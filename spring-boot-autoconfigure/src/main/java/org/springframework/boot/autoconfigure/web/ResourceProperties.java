@@ -176,6 +176,13 @@ public class ResourceProperties implements ResourceLoaderAware {
 		 */
 		private boolean gzipped = false;
 
+		/**
+		 * Enable on-demand gzip compression of resources that have no "*.gz" variant.
+		 * Compressed variants are generated once and cached in memory. Candidates are
+		 * selected using the "server.compression" MIME types and minimum size.
+		 */
+		private boolean compress = false;
+
 		@NestedConfigurationProperty
 		private final Strategy strategy = new Strategy();
 
@@ -222,6 +229,14 @@ public class ResourceProperties implements ResourceLoaderAware {
 			this.gzipped = gzipped;
 		}
 
+		public boolean isCompress() {
+			return this.compress;
+		}
+
+		public void setCompress(boolean compress) {
+			this.compress = compress;
+		}
+
 		static Boolean getEnabled(boolean fixedEnabled, boolean contentEnabled,
 				Boolean chainEnabled) {
 			return (fixedEnabled || contentEnabled ? Boolean.TRUE : chainEnabled);
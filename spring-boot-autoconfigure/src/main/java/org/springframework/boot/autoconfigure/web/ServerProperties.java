@@ -795,6 +795,11 @@ public class ServerProperties {
 		 */
 		private Boolean directBuffers;
 
+		/**
+		 * Compress the attributes of persisted sessions.
+		 */
+		private boolean persistentSessionCompression;
+
 		private final Accesslog accesslog = new Accesslog();
 
 		public long getMaxHttpPostSize() {
@@ -846,6 +851,15 @@ public class ServerProperties {
 			this.directBuffers = directBuffers;
 		}
 
+		public boolean isPersistentSessionCompression() {
+			return this.persistentSessionCompression;
+		}
+
+		public void setPersistentSessionCompression(
+				boolean persistentSessionCompression) {
+			this.persistentSessionCompression = persistentSessionCompression;
+		}
+
 		public Accesslog getAccesslog() {
 			return this.accesslog;
 		}
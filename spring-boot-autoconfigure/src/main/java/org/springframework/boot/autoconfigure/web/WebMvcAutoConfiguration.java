@@ -44,6 +44,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
 import org.springframework.boot.autoconfigure.web.ResourceProperties.Strategy;
+import org.springframework.boot.context.embedded.Compression;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.filter.OrderedHiddenHttpMethodFilter;
 import org.springframework.boot.web.filter.OrderedHttpPutFormContentFilter;
@@ -463,6 +464,9 @@ public class WebMvcAutoConfiguration {
 		@Autowired
 		private ResourceProperties resourceProperties = new ResourceProperties();
 
+		@Autowired(required = false)
+		private ServerProperties serverProperties;
+
 		@Override
 		public void customize(ResourceHandlerRegistration registration) {
 			ResourceProperties.Chain properties = this.resourceProperties.getChain();
@@ -476,7 +480,10 @@ public class WebMvcAutoConfiguration {
 			if (strategy.getFixed().isEnabled() || strategy.getContent().isEnabled()) {
 				chain.addResolver(getVersionResourceResolver(strategy));
 			}
-			if (properties.isGzipped()) {
+			if (properties.isCompress()) {
+				chain.addResolver(getCompressingResourceResolver());
+			}
+			if (properties.isGzipped() || properties.isCompress()) {
 				chain.addResolver(new GzipResourceResolver());
 			}
 			if (properties.isHtmlApplicationCache()) {
@@ -484,6 +491,13 @@ public class WebMvcAutoConfiguration {
 			}
 		}
 
+		private ResourceResolver getCompressingResourceResolver() {
+			Compression compression = (this.serverProperties != null
+					? this.serverProperties.getCompression() : new Compression());
+			return new GzipCompressingResourceResolver(compression.getMimeTypes(),
+					compression.getMinResponseSize());
+		}
+
 		private ResourceResolver getVersionResourceResolver(
 				ResourceProperties.Strategy properties) {
 			VersionResourceResolver resolver = new VersionResourceResolver();
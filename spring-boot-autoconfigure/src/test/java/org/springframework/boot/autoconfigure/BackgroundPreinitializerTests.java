@@ -0,0 +1,141 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.jackson.JacksonPreinitializationTask;
+import org.springframework.boot.autoconfigure.web.MessageConvertersPreinitializationTask;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link BackgroundPreinitializer}.
+ *
+ * @author Jerry Lei
+ */
+public class BackgroundPreinitializerTests {
+
+	private final MockEnvironment environment = new MockEnvironment();
+
+	@Test
+	public void tasksAreLoadedFromSpringFactories() throws Exception {
+		BackgroundPreinitializer preinitializer = new BackgroundPreinitializer();
+		preinitializer.onApplicationEvent(createEvent());
+		assertThat(preinitializer.awaitCompletion(30, TimeUnit.SECONDS)).isTrue();
+		assertThat(preinitializer.getTaskTimings()).containsKeys(
+				MessageConvertersPreinitializationTask.class.getName(),
+				JacksonPreinitializationTask.class.getName());
+	}
+
+	@Test
+	public void timingIsRecordedForEachTask() throws Exception {
+		BackgroundPreinitializer preinitializer = new BackgroundPreinitializer(
+				Arrays.<PreinitializationTask>asList(new FirstTask(), new SecondTask()));
+		preinitializer.onApplicationEvent(createEvent());
+		assertThat(preinitializer.awaitCompletion(30, TimeUnit.SECONDS)).isTrue();
+		assertThat(preinitializer.getTaskTimings()).containsOnlyKeys(
+				FirstTask.class.getName(), SecondTask.class.getName());
+		assertThat(preinitializer.getTaskTimings().get(FirstTask.class.getName()))
+				.isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+	}
+
+	@Test
+	public void failingTaskDoesNotPreventOtherTasksFromRunning() throws Exception {
+		BackgroundPreinitializer preinitializer = new BackgroundPreinitializer(
+				Arrays.<PreinitializationTask>asList(new FailingTask(),
+						new SecondTask()));
+		preinitializer.onApplicationEvent(createEvent());
+		assertThat(preinitializer.awaitCompletion(30, TimeUnit.SECONDS)).isTrue();
+		assertThat(preinitializer.getTaskTimings()).containsOnlyKeys(
+				FailingTask.class.getName(), SecondTask.class.getName());
+	}
+
+	@Test
+	public void maxThreadsCanBeConfigured() throws Exception {
+		this.environment.setProperty("spring.backgroundpreinitializer.max-threads",
+				"1");
+		ThreadRecordingTask task = new ThreadRecordingTask();
+		BackgroundPreinitializer preinitializer = new BackgroundPreinitializer(
+				Arrays.<PreinitializationTask>asList(task, task, task, task));
+		preinitializer.onApplicationEvent(createEvent());
+		assertThat(preinitializer.awaitCompletion(30, TimeUnit.SECONDS)).isTrue();
+		assertThat(task.threadNames).containsExactly("background-preinit-1");
+	}
+
+	@Test
+	public void noTasks() throws Exception {
+		BackgroundPreinitializer preinitializer = new BackgroundPreinitializer(
+				Collections.<PreinitializationTask>emptyList());
+		preinitializer.onApplicationEvent(createEvent());
+		assertThat(preinitializer.awaitCompletion(0, TimeUnit.SECONDS)).isTrue();
+		assertThat(preinitializer.getTaskTimings()).isEmpty();
+	}
+
+	private ApplicationEnvironmentPreparedEvent createEvent() {
+		return new ApplicationEnvironmentPreparedEvent(new SpringApplication(),
+				new String[0], this.environment);
+	}
+
+	static class FirstTask implements PreinitializationTask {
+
+		@Override
+		public void preinitialize(ClassLoader classLoader) throws Exception {
+			Thread.sleep(10);
+		}
+
+	}
+
+	static class SecondTask implements PreinitializationTask {
+
+		@Override
+		public void preinitialize(ClassLoader classLoader) {
+		}
+
+	}
+
+	static class FailingTask implements PreinitializationTask {
+
+		@Override
+		public void preinitialize(ClassLoader classLoader) {
+			throw new IllegalStateException("Failed");
+		}
+
+	}
+
+	static class ThreadRecordingTask implements PreinitializationTask {
+
+		private final Set<String> threadNames = Collections
+				.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+		@Override
+		public void preinitialize(ClassLoader classLoader) {
+			this.threadNames.add(Thread.currentThread().getName());
+		}
+
+	}
+
+}
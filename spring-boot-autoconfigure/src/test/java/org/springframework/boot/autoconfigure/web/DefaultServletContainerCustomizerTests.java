@@ -389,6 +389,17 @@ public class DefaultServletContainerCustomizerTests {
 		verify(container).setAccessLogRotate(false);
 	}
 
+	@Test
+	public void customizeUndertowPersistentSessionCompression() {
+		Map<String, String> map = new HashMap<String, String>();
+		map.put("server.undertow.persistent-session-compression", "true");
+		bindProperties(map);
+		UndertowEmbeddedServletContainerFactory container = spy(
+				new UndertowEmbeddedServletContainerFactory());
+		this.customizer.customize(container);
+		verify(container).setPersistSessionCompression(true);
+	}
+
 	@Test
 	public void testCustomizeTomcatMinSpareThreads() throws Exception {
 		Map<String, String> map = new HashMap<String, String>();
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.web;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.resource.GzipResourceResolver;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link GzipCompressingResourceResolver}.
+ *
+ * @author Jerry Lei
+ */
+public class GzipCompressingResourceResolverTests {
+
+	@Rule
+	public TemporaryFolder temp = new TemporaryFolder();
+
+	private ResourceResolverChain chain;
+
+	private List<Resource> locations;
+
+	private MockHttpServletRequest request;
+
+	@Before
+	public void setup() throws IOException {
+		List<ResourceResolver> resolvers = Arrays.<ResourceResolver>asList(
+				new GzipCompressingResourceResolver(new String[] { "text/css" }, 16),
+				new GzipResourceResolver(), new PathResourceResolver());
+		this.chain = new TestResourceResolverChain(resolvers, 0);
+		this.locations = Collections.<Resource>singletonList(
+				new FileSystemResource(this.temp.getRoot().getAbsolutePath() + "/"));
+		this.request = new MockHttpServletRequest();
+		this.request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+	}
+
+	@Test
+	public void compressesResource() throws Exception {
+		String content = createFile("test.css", 1024);
+		Resource resource = this.chain.resolveResource(this.request, "test.css",
+				this.locations);
+		assertThat(resource).isInstanceOf(HttpResource.class);
+		assertThat(((HttpResource) resource).getResponseHeaders()
+				.getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(resource.getFilename()).isEqualTo("test.css");
+		assertThat(resource.contentLength()).isLessThan(1024);
+		assertThat(decompress(resource)).isEqualTo(content);
+	}
+
+	@Test
+	public void compressedContentIsCached() throws Exception {
+		createFile("test.css", 1024);
+		Resource first = this.chain.resolveResource(this.request, "test.css",
+				this.locations);
+		Resource second = this.chain.resolveResource(this.request, "test.css",
+				this.locations);
+		assertThat(ReflectionTestUtils.getField(second, "content"))
+				.isSameAs(ReflectionTestUtils.getField(first, "content"));
+	}
+
+	@Test
+	public void gzipNotAccepted() throws Exception {
+		createFile("test.css", 1024);
+		Resource resource = this.chain.resolveResource(new MockHttpServletRequest(),
+				"test.css", this.locations);
+		assertThat(resource).isNotInstanceOf(HttpResource.class);
+	}
+
+	@Test
+	public void belowMinimumSize() throws Exception {
+		createFile("test.css", 8);
+		Resource resource = this.chain.resolveResource(this.request, "test.css",
+				this.locations);
+		assertThat(resource).isNotInstanceOf(HttpResource.class);
+	}
+
+	@Test
+	public void mimeTypeNotCompressible() throws Exception {
+		createFile("test.png", 1024);
+		Resource resource = this.chain.resolveResource(this.request, "test.png",
+				this.locations);
+		assertThat(resource).isNotInstanceOf(HttpResource.class);
+	}
+
+	@Test
+	public void existingGzippedVariantIsPreferred() throws Exception {
+		String content = createFile("test.css", 1024);
+		File gzipped = this.temp.newFile("test.css.gz");
+		GZIPOutputStream out = new GZIPOutputStream(new FileOutputStream(gzipped));
+		out.write(content.getBytes());
+		out.close();
+		Resource resource = this.chain.resolveResource(this.request, "test.css",
+				this.locations);
+		assertThat(resource).isInstanceOf(HttpResource.class);
+		assertThat(resource.getURL()).isEqualTo(gzipped.toURI().toURL());
+	}
+
+	private String createFile(String name, int length) throws IOException {
+		StringBuilder content = new StringBuilder();
+		while (content.length() < length) {
+			content.append("a");
+		}
+		FileCopyUtils.copy(content.toString().getBytes(), this.temp.newFile(name));
+		return content.toString();
+	}
+
+	private String decompress(Resource resource) throws IOException {
+		InputStream inputStream = new GZIPInputStream(resource.getInputStream());
+		try {
+			return new String(StreamUtils.copyToByteArray(inputStream));
+		}
+		finally {
+			inputStream.close();
+		}
+	}
+
+	private static class TestResourceResolverChain implements ResourceResolverChain {
+
+		private final List<ResourceResolver> resolvers;
+
+		private final int index;
+
+		TestResourceResolverChain(List<ResourceResolver> resolvers, int index) {
+			this.resolvers = resolvers;
+			this.index = index;
+		}
+
+		@Override
+		public Resource resolveResource(HttpServletRequest request, String requestPath,
+				List<? extends Resource> locations) {
+			return this.resolvers.get(this.index).resolveResource(request, requestPath,
+					locations, next());
+		}
+
+		@Override
+		public String resolveUrlPath(String resourcePath,
+				List<? extends Resource> locations) {
+			return this.resolvers.get(this.index).resolveUrlPath(resourcePath,
+					locations, next());
+		}
+
+		private ResourceResolverChain next() {
+			return new TestResourceResolverChain(this.resolvers, this.index + 1);
+		}
+
+	}
+
+}
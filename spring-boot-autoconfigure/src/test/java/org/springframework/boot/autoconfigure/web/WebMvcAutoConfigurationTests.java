@@ -237,6 +237,16 @@ public class WebMvcAutoConfigurationTests {
 				.isInstanceOf(ContentVersionStrategy.class);
 	}
 
+	@Test
+	public void resourceHandlerChainWithCompression() throws Exception {
+		load("spring.resources.chain.enabled:true",
+				"spring.resources.chain.compress:true");
+		assertThat(getResourceResolvers("/**")).extractingResultOf("getClass")
+				.containsExactly(CachingResourceResolver.class,
+						GzipCompressingResourceResolver.class,
+						GzipResourceResolver.class, PathResourceResolver.class);
+	}
+
 	@Test
 	public void resourceHandlerChainCustomized() throws Exception {
 		load("spring.resources.chain.enabled:true", "spring.resources.chain.cache:false",
@@ -103,6 +103,18 @@ public class DevToolsProperties {
 		 */
 		private List<File> additionalPaths = new ArrayList<File>();
 
+		/**
+		 * Use the file system's native watch service to detect classpath changes rather
+		 * than polling. Changes are still only acted upon after the quiet period.
+		 */
+		private boolean useWatchService;
+
+		/**
+		 * Reload only the affected beans, rather than restarting the application, when
+		 * the changed classes back simple application beans.
+		 */
+		private boolean reloadBeans;
+
 		public boolean isEnabled() {
 			return this.enabled;
 		}
@@ -171,6 +183,22 @@ public class DevToolsProperties {
 			this.additionalPaths = additionalPaths;
 		}
 
+		public boolean isUseWatchService() {
+			return this.useWatchService;
+		}
+
+		public void setUseWatchService(boolean useWatchService) {
+			this.useWatchService = useWatchService;
+		}
+
+		public boolean isReloadBeans() {
+			return this.reloadBeans;
+		}
+
+		public void setReloadBeans(boolean reloadBeans) {
+			this.reloadBeans = reloadBeans;
+		}
+
 	}
 
 	/**
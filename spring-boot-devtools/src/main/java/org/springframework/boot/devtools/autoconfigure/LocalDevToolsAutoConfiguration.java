@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,7 +18,9 @@ package org.springframework.boot.devtools.autoconfigure;
 
 import java.io.File;
 import java.net.URL;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
@@ -26,10 +28,13 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.devtools.autoconfigure.DevToolsProperties.Restart;
+import org.springframework.boot.devtools.classpath.ClassPathChangeReloader;
 import org.springframework.boot.devtools.classpath.ClassPathChangedEvent;
 import org.springframework.boot.devtools.classpath.ClassPathFileSystemWatcher;
 import org.springframework.boot.devtools.classpath.ClassPathRestartStrategy;
 import org.springframework.boot.devtools.classpath.PatternClassPathRestartStrategy;
+import org.springframework.boot.devtools.filewatch.ChangedFile;
+import org.springframework.boot.devtools.filewatch.ChangedFiles;
 import org.springframework.boot.devtools.filewatch.FileSystemWatcher;
 import org.springframework.boot.devtools.filewatch.FileSystemWatcherFactory;
 import org.springframework.boot.devtools.livereload.LiveReloadServer;
@@ -118,6 +123,9 @@ public class LocalDevToolsAutoConfiguration {
 			ClassPathFileSystemWatcher watcher = new ClassPathFileSystemWatcher(
 					fileSystemWatcherFactory(), classPathRestartStrategy(), urls);
 			watcher.setStopWatcherOnRestart(true);
+			if (this.properties.getRestart().isReloadBeans()) {
+				watcher.setChangeReloader(new BeanChangeReloader());
+			}
 			return watcher;
 		}
 
@@ -149,7 +157,8 @@ public class LocalDevToolsAutoConfiguration {
 			Restart restartProperties = this.properties.getRestart();
 			FileSystemWatcher watcher = new FileSystemWatcher(true,
 					restartProperties.getPollInterval(),
-					restartProperties.getQuietPeriod());
+					restartProperties.getQuietPeriod(),
+					restartProperties.isUseWatchService());
 			String triggerFile = restartProperties.getTriggerFile();
 			if (StringUtils.hasLength(triggerFile)) {
 				watcher.setTriggerFilter(new TriggerFileFilter(triggerFile));
@@ -161,6 +170,32 @@ public class LocalDevToolsAutoConfiguration {
 			return watcher;
 		}
 
+		/**
+		 * {@link ClassPathChangeReloader} that reloads the beans backed by modified
+		 * class files.
+		 */
+		private static class BeanChangeReloader implements ClassPathChangeReloader {
+
+			@Override
+			public boolean reload(Set<ChangedFiles> changeSet) {
+				Set<String> classNames = new LinkedHashSet<String>();
+				for (ChangedFiles changedFiles : changeSet) {
+					for (ChangedFile changedFile : changedFiles) {
+						String name = changedFile.getRelativeName();
+						if (changedFile.getType() != ChangedFile.Type.MODIFY
+								|| !name.endsWith(".class")) {
+							return false;
+						}
+						classNames.add(name
+								.substring(0, name.length() - ".class".length())
+								.replace('/', '.'));
+					}
+				}
+				return Restarter.getInstance().reload(classNames);
+			}
+
+		}
+
 	}
 
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2015 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -119,6 +119,12 @@ public class RemoteDevToolsProperties {
 		 */
 		private int localPort = DEFAULT_LOCAL_PORT;
 
+		/**
+		 * Multiplex debugger connections over a single windowed HTTP tunnel session
+		 * rather than using one tunnel per connection.
+		 */
+		private boolean multiplexed;
+
 		public boolean isEnabled() {
 			return this.enabled;
 		}
@@ -135,6 +141,14 @@ public class RemoteDevToolsProperties {
 			this.localPort = localPort;
 		}
 
+		public boolean isMultiplexed() {
+			return this.multiplexed;
+		}
+
+		public void setMultiplexed(boolean multiplexed) {
+			this.multiplexed = multiplexed;
+		}
+
 	}
 
 	public static class Proxy {
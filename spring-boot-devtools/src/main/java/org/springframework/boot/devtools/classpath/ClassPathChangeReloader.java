@@ -0,0 +1,42 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.devtools.classpath;
+
+import java.util.Set;
+
+import org.springframework.boot.devtools.filewatch.ChangedFiles;
+
+/**
+ * Strategy interface used to apply classpath changes to the running application in
+ * place of a full restart. Consulted before a {@link ClassPathChangedEvent} is published
+ * so that a successfully reloaded change is not reported as requiring a restart.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ * @see ClassPathFileSystemWatcher#setChangeReloader(ClassPathChangeReloader)
+ */
+@FunctionalInterface
+public interface ClassPathChangeReloader {
+
+	/**
+	 * Attempt to apply the given changes without a restart.
+	 * @param changeSet the changed files
+	 * @return {@code true} if the changes were applied and no restart is required
+	 */
+	boolean reload(Set<ChangedFiles> changeSet);
+
+}
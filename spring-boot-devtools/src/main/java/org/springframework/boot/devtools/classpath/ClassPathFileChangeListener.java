@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2015 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -41,6 +41,8 @@ class ClassPathFileChangeListener implements FileChangeListener {
 
 	private final FileSystemWatcher fileSystemWatcherToStop;
 
+	private final ClassPathChangeReloader changeReloader;
+
 	/**
 	 * Create a new {@link ClassPathFileChangeListener} instance.
 	 * @param eventPublisher the event publisher used send events
@@ -51,16 +53,33 @@ class ClassPathFileChangeListener implements FileChangeListener {
 	ClassPathFileChangeListener(ApplicationEventPublisher eventPublisher,
 			ClassPathRestartStrategy restartStrategy,
 			FileSystemWatcher fileSystemWatcherToStop) {
+		this(eventPublisher, restartStrategy, fileSystemWatcherToStop, null);
+	}
+
+	/**
+	 * Create a new {@link ClassPathFileChangeListener} instance.
+	 * @param eventPublisher the event publisher used send events
+	 * @param restartStrategy the restart strategy to use
+	 * @param fileSystemWatcherToStop the file system watcher to stop on a restart (or
+	 * {@code null})
+	 * @param changeReloader the reloader to try before requiring a restart (or
+	 * {@code null})
+	 */
+	ClassPathFileChangeListener(ApplicationEventPublisher eventPublisher,
+			ClassPathRestartStrategy restartStrategy,
+			FileSystemWatcher fileSystemWatcherToStop,
+			ClassPathChangeReloader changeReloader) {
 		Assert.notNull(eventPublisher, "EventPublisher must not be null");
 		Assert.notNull(restartStrategy, "RestartStrategy must not be null");
 		this.eventPublisher = eventPublisher;
 		this.restartStrategy = restartStrategy;
 		this.fileSystemWatcherToStop = fileSystemWatcherToStop;
+		this.changeReloader = changeReloader;
 	}
 
 	@Override
 	public void onChange(Set<ChangedFiles> changeSet) {
-		boolean restart = isRestartRequired(changeSet);
+		boolean restart = isRestartRequired(changeSet) && !reload(changeSet);
 		publishEvent(new ClassPathChangedEvent(this, changeSet, restart));
 	}
 
@@ -71,6 +90,10 @@ class ClassPathFileChangeListener implements FileChangeListener {
 		}
 	}
 
+	private boolean reload(Set<ChangedFiles> changeSet) {
+		return (this.changeReloader != null && this.changeReloader.reload(changeSet));
+	}
+
 	private boolean isRestartRequired(Set<ChangedFiles> changeSet) {
 		if (AgentReloader.isActive()) {
 			return false;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2015 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -46,6 +46,8 @@ public class ClassPathFileSystemWatcher
 
 	private boolean stopWatcherOnRestart;
 
+	private ClassPathChangeReloader changeReloader;
+
 	/**
 	 * Create a new {@link ClassPathFileSystemWatcher} instance.
 	 * @param fileSystemWatcherFactory a factory to create the underlying
@@ -71,6 +73,16 @@ public class ClassPathFileSystemWatcher
 		this.stopWatcherOnRestart = stopWatcherOnRestart;
 	}
 
+	/**
+	 * Set the {@link ClassPathChangeReloader} to try before a change is reported as
+	 * requiring a restart. Changes that it reloads are published without requiring a
+	 * restart, so the {@link FileSystemWatcher} keeps running.
+	 * @param changeReloader the change reloader (or {@code null})
+	 */
+	public void setChangeReloader(ClassPathChangeReloader changeReloader) {
+		this.changeReloader = changeReloader;
+	}
+
 	@Override
 	public void setApplicationContext(ApplicationContext applicationContext)
 			throws BeansException {
@@ -85,7 +97,8 @@ public class ClassPathFileSystemWatcher
 				watcherToStop = this.fileSystemWatcher;
 			}
 			this.fileSystemWatcher.addListener(new ClassPathFileChangeListener(
-					this.applicationContext, this.restartStrategy, watcherToStop));
+					this.applicationContext, this.restartStrategy, watcherToStop,
+					this.changeReloader));
 		}
 		this.fileSystemWatcher.start();
 	}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.boot.devtools.filewatch;
 
 import java.io.File;
 import java.io.FileFilter;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -27,6 +28,9 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.util.Assert;
@@ -45,6 +49,8 @@ public class FileSystemWatcher {
 
 	private static final long DEFAULT_QUIET_PERIOD = 400;
 
+	private static final int MAX_SCAN_PARALLELISM = 4;
+
 	private final List<FileChangeListener> listeners = new ArrayList<FileChangeListener>();
 
 	private final boolean daemon;
@@ -53,12 +59,16 @@ public class FileSystemWatcher {
 
 	private final long quietPeriod;
 
+	private final boolean useWatchService;
+
 	private final AtomicInteger remainingScans = new AtomicInteger(-1);
 
 	private final Map<File, FolderSnapshot> folders = new HashMap<File, FolderSnapshot>();
 
 	private Thread watchThread;
 
+	private ForkJoinPool scanPool;
+
 	private FileFilter triggerFilter;
 
 	private final Object monitor = new Object();
@@ -78,6 +88,22 @@ public class FileSystemWatcher {
 	 * ensure that updates have completed
 	 */
 	public FileSystemWatcher(boolean daemon, long pollInterval, long quietPeriod) {
+		this(daemon, pollInterval, quietPeriod, false);
+	}
+
+	/**
+	 * Create a new {@link FileSystemWatcher} instance.
+	 * @param daemon if a daemon thread used to monitor changes
+	 * @param pollInterval the amount of time to wait between checking for changes
+	 * @param quietPeriod the amount of time required after a change has been detected to
+	 * ensure that updates have completed
+	 * @param useWatchService if changes should be detected using a
+	 * {@link java.nio.file.WatchService WatchService} rather than by polling. Polling is
+	 * used if folders cannot be watched.
+	 * @since 2.0.0
+	 */
+	public FileSystemWatcher(boolean daemon, long pollInterval, long quietPeriod,
+			boolean useWatchService) {
 		Assert.isTrue(pollInterval > 0, "PollInterval must be positive");
 		Assert.isTrue(quietPeriod > 0, "QuietPeriod must be positive");
 		Assert.isTrue(pollInterval > quietPeriod,
@@ -85,6 +111,7 @@ public class FileSystemWatcher {
 		this.daemon = daemon;
 		this.pollInterval = pollInterval;
 		this.quietPeriod = quietPeriod;
+		this.useWatchService = useWatchService;
 	}
 
 	/**
@@ -150,14 +177,8 @@ public class FileSystemWatcher {
 	 */
 	public void start() {
 		synchronized (this.monitor) {
-			saveInitialSnapshots();
 			if (this.watchThread == null) {
-				Map<File, FolderSnapshot> localFolders = new HashMap<File, FolderSnapshot>();
-				localFolders.putAll(this.folders);
-				this.watchThread = new Thread(new Watcher(this.remainingScans,
-						new ArrayList<FileChangeListener>(this.listeners),
-						this.triggerFilter, this.pollInterval, this.quietPeriod,
-						localFolders));
+				this.watchThread = new Thread(createWatcher());
 				this.watchThread.setName("File Watcher");
 				this.watchThread.setDaemon(this.daemon);
 				this.watchThread.start();
@@ -165,10 +186,32 @@ public class FileSystemWatcher {
 		}
 	}
 
-	private void saveInitialSnapshots() {
-		for (File folder : this.folders.keySet()) {
-			this.folders.put(folder, new FolderSnapshot(folder));
+	private Runnable createWatcher() {
+		List<FileChangeListener> listeners = new ArrayList<FileChangeListener>(
+				this.listeners);
+		if (this.useWatchService) {
+			try {
+				return new WatchServiceWatcher(this.remainingScans, listeners,
+						this.triggerFilter, this.pollInterval, this.quietPeriod,
+						this.folders.keySet());
+			}
+			catch (IOException ex) {
+				// Fall back to polling
+			}
 		}
+		this.scanPool = new ForkJoinPool(
+				Math.min(MAX_SCAN_PARALLELISM,
+						Runtime.getRuntime().availableProcessors()),
+				new ScanThreadFactory(), null, false);
+		saveInitialSnapshots();
+		Map<File, FolderSnapshot> localFolders = new HashMap<File, FolderSnapshot>();
+		localFolders.putAll(this.folders);
+		return new Watcher(this.remainingScans, listeners, this.triggerFilter,
+				this.pollInterval, this.quietPeriod, localFolders, this.scanPool);
+	}
+
+	private void saveInitialSnapshots() {
+		this.folders.putAll(FolderSnapshot.snapshot(this.folders.keySet(), this.scanPool));
 	}
 
 	/**
@@ -200,6 +243,10 @@ public class FileSystemWatcher {
 				}
 				this.watchThread = null;
 			}
+			if (this.scanPool != null) {
+				this.scanPool.shutdown();
+				this.scanPool = null;
+			}
 		}
 	}
 
@@ -217,15 +264,18 @@ public class FileSystemWatcher {
 
 		private Map<File, FolderSnapshot> folders;
 
+		private final ForkJoinPool scanPool;
+
 		private Watcher(AtomicInteger remainingScans, List<FileChangeListener> listeners,
 				FileFilter triggerFilter, long pollInterval, long quietPeriod,
-				Map<File, FolderSnapshot> folders) {
+				Map<File, FolderSnapshot> folders, ForkJoinPool scanPool) {
 			this.remainingScans = remainingScans;
 			this.listeners = listeners;
 			this.triggerFilter = triggerFilter;
 			this.pollInterval = pollInterval;
 			this.quietPeriod = quietPeriod;
 			this.folders = folders;
+			this.scanPool = scanPool;
 		}
 
 		@Override
@@ -276,11 +326,7 @@ public class FileSystemWatcher {
 		}
 
 		private Map<File, FolderSnapshot> getCurrentSnapshots() {
-			Map<File, FolderSnapshot> snapshots = new LinkedHashMap<File, FolderSnapshot>();
-			for (File folder : this.folders.keySet()) {
-				snapshots.put(folder, new FolderSnapshot(folder));
-			}
-			return snapshots;
+			return FolderSnapshot.snapshot(this.folders.keySet(), this.scanPool);
 		}
 
 		private void updateSnapshots(Collection<FolderSnapshot> snapshots) {
@@ -290,7 +336,7 @@ public class FileSystemWatcher {
 				FolderSnapshot previous = this.folders.get(snapshot.getFolder());
 				updated.put(snapshot.getFolder(), snapshot);
 				ChangedFiles changedFiles = previous.getChangedFiles(snapshot,
-						this.triggerFilter);
+						this.triggerFilter, this.scanPool);
 				if (!changedFiles.getFiles().isEmpty()) {
 					changeSet.add(changedFiles);
 				}
@@ -309,4 +355,21 @@ public class FileSystemWatcher {
 
 	}
 
+	/**
+	 * {@link ForkJoinWorkerThreadFactory} for the threads used to scan folders.
+	 */
+	private static class ScanThreadFactory implements ForkJoinWorkerThreadFactory {
+
+		private final AtomicInteger threadNumber = new AtomicInteger();
+
+		@Override
+		public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory
+					.newThread(pool);
+			thread.setName("File Watcher Scanner-" + this.threadNumber.incrementAndGet());
+			return thread;
+		}
+
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2015 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,20 +18,29 @@ package org.springframework.boot.devtools.filewatch;
 
 import java.io.File;
 import java.io.FileFilter;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 import org.springframework.boot.devtools.filewatch.ChangedFile.Type;
 import org.springframework.util.Assert;
 
 /**
- * A snapshot of a folder at a given point in time.
+ * A snapshot of a folder at a given point in time. Sub-folders are scanned and large
+ * snapshots are compared in parallel using fork-join tasks that run in a given
+ * {@link ForkJoinPool}. Files and changes are always collected in the same order as a
+ * depth-first scan of the folder.
  *
  * @author Phillip Webb
  */
@@ -40,6 +49,8 @@ class FolderSnapshot {
 	private static final Set<String> DOT_FOLDERS = Collections
 			.unmodifiableSet(new HashSet<String>(Arrays.asList(".", "..")));
 
+	private static final int DIFF_THRESHOLD = 1000;
+
 	private final File folder;
 
 	private final Date time;
@@ -49,65 +60,87 @@ class FolderSnapshot {
 	/**
 	 * Create a new {@link FolderSnapshot} for the given folder.
 	 * @param folder the source folder
+	 * @param pool the pool used to scan the folder
 	 */
-	FolderSnapshot(File folder) {
-		Assert.notNull(folder, "Folder must not be null");
-		Assert.isTrue(folder.isDirectory(), "Folder must not be a file");
+	FolderSnapshot(File folder, ForkJoinPool pool) {
+		this(folder, pool.invoke(createCollectFilesTask(folder)));
+	}
+
+	private FolderSnapshot(File folder, List<FileSnapshot> files) {
 		this.folder = folder;
 		this.time = new Date();
-		Set<FileSnapshot> files = new LinkedHashSet<FileSnapshot>();
-		collectFiles(folder, files);
-		this.files = Collections.unmodifiableSet(files);
+		this.files = Collections.unmodifiableSet(new LinkedHashSet<FileSnapshot>(files));
 	}
 
-	private void collectFiles(File source, Set<FileSnapshot> result) {
-		File[] children = source.listFiles();
-		if (children != null) {
-			for (File child : children) {
-				if (child.isDirectory() && !DOT_FOLDERS.contains(child.getName())) {
-					collectFiles(child, result);
-				}
-				else if (child.isFile()) {
-					result.add(new FileSnapshot(child));
-				}
+	private static CollectFilesTask createCollectFilesTask(File folder) {
+		Assert.notNull(folder, "Folder must not be null");
+		Assert.isTrue(folder.isDirectory(), "Folder must not be a file");
+		return new CollectFilesTask(folder);
+	}
+
+	/**
+	 * Create snapshots of the given folders, scanning them in parallel.
+	 * @param folders the source folders
+	 * @param pool the pool used to scan the folders
+	 * @return the snapshots, keyed by folder in the order of the given folders
+	 */
+	static Map<File, FolderSnapshot> snapshot(Collection<File> folders,
+			ForkJoinPool pool) {
+		final List<CollectFilesTask> tasks = new ArrayList<CollectFilesTask>();
+		for (File folder : folders) {
+			tasks.add(createCollectFilesTask(folder));
+		}
+		pool.invoke(new RecursiveTask<Void>() {
+
+			@Override
+			protected Void compute() {
+				invokeAll(tasks);
+				return null;
 			}
+
+		});
+		Map<File, FolderSnapshot> snapshots = new LinkedHashMap<File, FolderSnapshot>();
+		for (CollectFilesTask task : tasks) {
+			snapshots.put(task.folder, new FolderSnapshot(task.folder, task.join()));
 		}
+		return snapshots;
 	}
 
-	public ChangedFiles getChangedFiles(FolderSnapshot snapshot,
-			FileFilter triggerFilter) {
+	public ChangedFiles getChangedFiles(FolderSnapshot snapshot, FileFilter triggerFilter,
+			ForkJoinPool pool) {
 		Assert.notNull(snapshot, "Snapshot must not be null");
 		File folder = this.folder;
 		Assert.isTrue(snapshot.folder.equals(folder),
 				"Snapshot source folder must be '" + folder + "'");
-		Set<ChangedFile> changes = new LinkedHashSet<ChangedFile>();
-		Map<File, FileSnapshot> previousFiles = getFilesMap();
-		for (FileSnapshot currentFile : snapshot.files) {
-			if (acceptChangedFile(triggerFilter, currentFile)) {
-				FileSnapshot previousFile = previousFiles.remove(currentFile.getFile());
-				if (previousFile == null) {
-					changes.add(new ChangedFile(folder, currentFile.getFile(), Type.ADD));
-				}
-				else if (!previousFile.equals(currentFile)) {
-					changes.add(
-							new ChangedFile(folder, currentFile.getFile(), Type.MODIFY));
+		final DiffTask modified = new DiffTask(folder,
+				new ArrayList<FileSnapshot>(snapshot.files), getFilesMap(),
+				triggerFilter, false);
+		final DiffTask deleted = new DiffTask(folder,
+				new ArrayList<FileSnapshot>(this.files), snapshot.getFilesMap(),
+				triggerFilter, true);
+		if (this.files.size() + snapshot.files.size() > DIFF_THRESHOLD) {
+			pool.invoke(new RecursiveTask<Void>() {
+
+				@Override
+				protected Void compute() {
+					invokeAll(modified, deleted);
+					return null;
 				}
-			}
+
+			});
 		}
-		for (FileSnapshot previousFile : previousFiles.values()) {
-			if (acceptChangedFile(triggerFilter, previousFile)) {
-				changes.add(new ChangedFile(folder, previousFile.getFile(), Type.DELETE));
-			}
+		else {
+			modified.invoke();
+			deleted.invoke();
 		}
+		Set<ChangedFile> changes = new LinkedHashSet<ChangedFile>(modified.join());
+		changes.addAll(deleted.join());
 		return new ChangedFiles(folder, changes);
 	}
 
-	private boolean acceptChangedFile(FileFilter triggerFilter, FileSnapshot file) {
-		return (triggerFilter == null || !triggerFilter.accept(file.getFile()));
-	}
-
 	private Map<File, FileSnapshot> getFilesMap() {
-		Map<File, FileSnapshot> files = new LinkedHashMap<File, FileSnapshot>();
+		Map<File, FileSnapshot> files = new HashMap<File, FileSnapshot>(
+				(int) (this.files.size() / 0.75f) + 1);
 		for (FileSnapshot file : this.files) {
 			files.put(file.getFile(), file);
 		}
@@ -170,4 +203,126 @@ class FolderSnapshot {
 		return this.folder + " snapshot at " + this.time;
 	}
 
+	/**
+	 * {@link RecursiveTask} that collects the files of a folder, forking a task for
+	 * each sub-folder.
+	 */
+	private static class CollectFilesTask extends RecursiveTask<List<FileSnapshot>> {
+
+		private final File folder;
+
+		CollectFilesTask(File folder) {
+			this.folder = folder;
+		}
+
+		@Override
+		protected List<FileSnapshot> compute() {
+			File[] children = this.folder.listFiles();
+			if (children == null) {
+				return Collections.emptyList();
+			}
+			CollectFilesTask[] tasks = new CollectFilesTask[children.length];
+			for (int i = 0; i < children.length; i++) {
+				File child = children[i];
+				if (child.isDirectory() && !DOT_FOLDERS.contains(child.getName())) {
+					tasks[i] = new CollectFilesTask(child);
+					tasks[i].fork();
+				}
+			}
+			List<FileSnapshot> files = new ArrayList<FileSnapshot>(children.length);
+			for (int i = 0; i < children.length; i++) {
+				if (tasks[i] != null) {
+					files.addAll(tasks[i].join());
+				}
+				else if (children[i].isFile()) {
+					files.add(new FileSnapshot(children[i]));
+				}
+			}
+			return files;
+		}
+
+	}
+
+	/**
+	 * {@link RecursiveTask} that compares a range of files with the files of another
+	 * snapshot, splitting large ranges.
+	 */
+	private static class DiffTask extends RecursiveTask<List<ChangedFile>> {
+
+		private final File folder;
+
+		private final List<FileSnapshot> files;
+
+		private final Map<File, FileSnapshot> otherFiles;
+
+		private final FileFilter triggerFilter;
+
+		private final boolean deletes;
+
+		private final int start;
+
+		private final int end;
+
+		DiffTask(File folder, List<FileSnapshot> files,
+				Map<File, FileSnapshot> otherFiles, FileFilter triggerFilter,
+				boolean deletes) {
+			this(folder, files, otherFiles, triggerFilter, deletes, 0, files.size());
+		}
+
+		private DiffTask(File folder, List<FileSnapshot> files,
+				Map<File, FileSnapshot> otherFiles, FileFilter triggerFilter,
+				boolean deletes, int start, int end) {
+			this.folder = folder;
+			this.files = files;
+			this.otherFiles = otherFiles;
+			this.triggerFilter = triggerFilter;
+			this.deletes = deletes;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected List<ChangedFile> compute() {
+			if (this.end - this.start > DIFF_THRESHOLD) {
+				int middle = (this.start + this.end) >>> 1;
+				DiffTask first = new DiffTask(this.folder, this.files, this.otherFiles,
+						this.triggerFilter, this.deletes, this.start, middle);
+				first.fork();
+				List<ChangedFile> second = new DiffTask(this.folder, this.files,
+						this.otherFiles, this.triggerFilter, this.deletes, middle,
+						this.end).compute();
+				List<ChangedFile> changes = first.join();
+				changes.addAll(second);
+				return changes;
+			}
+			List<ChangedFile> changes = new ArrayList<ChangedFile>();
+			for (int i = this.start; i < this.end; i++) {
+				FileSnapshot file = this.files.get(i);
+				if (acceptChangedFile(file)) {
+					FileSnapshot otherFile = this.otherFiles.get(file.getFile());
+					if (this.deletes) {
+						if (otherFile == null) {
+							changes.add(new ChangedFile(this.folder, file.getFile(),
+									Type.DELETE));
+						}
+					}
+					else if (otherFile == null) {
+						changes.add(new ChangedFile(this.folder, file.getFile(), Type.ADD));
+					}
+					else if (!otherFile.equals(file)) {
+						changes.add(
+								new ChangedFile(this.folder, file.getFile(), Type.MODIFY));
+					}
+				}
+			}
+			return changes;
+		}
+
+		private boolean acceptChangedFile(FileSnapshot file) {
+			return (this.triggerFilter == null
+					|| !this.triggerFilter.accept(file.getFile()));
+		}
+
+	}
+
 }
@@ -0,0 +1,324 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.devtools.filewatch;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.boot.devtools.filewatch.ChangedFile.Type;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * {@link Runnable} used by the {@link FileSystemWatcher} to detect changes using a
+ * {@link WatchService} rather than by polling. Folders are scanned once on creation and
+ * the snapshots are then updated only for the paths reported by the watch service.
+ * Folders are rescanned in full if events are lost and are polled if they cannot be
+ * watched.
+ *
+ * @author Jerry Lei
+ */
+class WatchServiceWatcher implements Runnable {
+
+	private static final WatchEvent.Kind<?>[] EVENT_KINDS = {
+			StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE,
+			StandardWatchEventKinds.ENTRY_MODIFY };
+
+	private final AtomicInteger remainingScans;
+
+	private final List<FileChangeListener> listeners;
+
+	private final FileFilter triggerFilter;
+
+	private final long pollInterval;
+
+	private final long quietPeriod;
+
+	private final WatchService watchService;
+
+	private final Map<WatchKey, File> keys = new HashMap<WatchKey, File>();
+
+	private final Map<File, TreeMap<String, FileSnapshot>> snapshots = new LinkedHashMap<File, TreeMap<String, FileSnapshot>>();
+
+	private final Map<File, Set<File>> pending = new LinkedHashMap<File, Set<File>>();
+
+	private final Set<File> pollingFolders = new LinkedHashSet<File>();
+
+	WatchServiceWatcher(AtomicInteger remainingScans, List<FileChangeListener> listeners,
+			FileFilter triggerFilter, long pollInterval, long quietPeriod,
+			Set<File> folders) throws IOException {
+		this.remainingScans = remainingScans;
+		this.listeners = listeners;
+		this.triggerFilter = triggerFilter;
+		this.pollInterval = pollInterval;
+		this.quietPeriod = quietPeriod;
+		this.watchService = FileSystems.getDefault().newWatchService();
+		try {
+			for (File folder : folders) {
+				register(folder, folder);
+			}
+		}
+		catch (IOException ex) {
+			close();
+			throw ex;
+		}
+		// Snapshot after registering so that no change can be missed
+		for (File folder : folders) {
+			TreeMap<String, FileSnapshot> files = new TreeMap<String, FileSnapshot>();
+			collectFiles(folder, files);
+			this.snapshots.put(folder, files);
+		}
+	}
+
+	private void register(File folder, File directory) throws IOException {
+		WatchKey key = directory.toPath().register(this.watchService, EVENT_KINDS);
+		this.keys.put(key, folder);
+		File[] children = directory.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				if (child.isDirectory()) {
+					register(folder, child);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void run() {
+		try {
+			int remainingScans = this.remainingScans.get();
+			while (remainingScans > 0 || remainingScans == -1) {
+				try {
+					if (remainingScans > 0) {
+						this.remainingScans.decrementAndGet();
+					}
+					scan();
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				remainingScans = this.remainingScans.get();
+			}
+		}
+		finally {
+			close();
+		}
+	}
+
+	private void scan() throws InterruptedException {
+		WatchKey key = this.watchService.poll(this.pollInterval, TimeUnit.MILLISECONDS);
+		if (key == null) {
+			for (File folder : this.pollingFolders) {
+				addPending(folder, folder);
+			}
+		}
+		while (key != null) {
+			processEvents(key);
+			key = this.watchService.poll(this.quietPeriod, TimeUnit.MILLISECONDS);
+		}
+		if (!this.pending.isEmpty()) {
+			updateSnapshots();
+		}
+	}
+
+	private void processEvents(WatchKey key) {
+		File folder = this.keys.get(key);
+		Path directory = (Path) key.watchable();
+		for (WatchEvent<?> event : key.pollEvents()) {
+			if (folder == null) {
+				continue;
+			}
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+				addPending(folder, folder);
+			}
+			else {
+				File file = directory.resolve((Path) event.context()).toFile();
+				if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE
+						&& file.isDirectory()) {
+					registerCreatedFolder(folder, file);
+				}
+				addPending(folder, file);
+			}
+		}
+		if (!key.reset()) {
+			this.keys.remove(key);
+		}
+	}
+
+	private void registerCreatedFolder(File folder, File directory) {
+		try {
+			register(folder, directory);
+		}
+		catch (IOException ex) {
+			this.pollingFolders.add(folder);
+		}
+	}
+
+	private void addPending(File folder, File file) {
+		Set<File> files = this.pending.get(folder);
+		if (files == null) {
+			files = new LinkedHashSet<File>();
+			this.pending.put(folder, files);
+		}
+		files.add(file);
+	}
+
+	private void updateSnapshots() {
+		if (this.triggerFilter != null && !isTriggered()) {
+			return;
+		}
+		Set<ChangedFiles> changeSet = new LinkedHashSet<ChangedFiles>();
+		for (Map.Entry<File, TreeMap<String, FileSnapshot>> entry : this.snapshots
+				.entrySet()) {
+			Set<File> paths = this.pending.remove(entry.getKey());
+			if (paths != null) {
+				ChangedFiles changedFiles = update(entry.getKey(), entry.getValue(),
+						paths);
+				if (!changedFiles.getFiles().isEmpty()) {
+					changeSet.add(changedFiles);
+				}
+			}
+		}
+		if (!changeSet.isEmpty()) {
+			fireListeners(Collections.unmodifiableSet(changeSet));
+		}
+	}
+
+	private boolean isTriggered() {
+		for (Map.Entry<File, Set<File>> entry : this.pending.entrySet()) {
+			Map<String, FileSnapshot> previous = getPrevious(
+					this.snapshots.get(entry.getKey()), entry.getValue());
+			Map<String, FileSnapshot> current = getCurrent(entry.getValue());
+			Set<String> paths = new LinkedHashSet<String>(previous.keySet());
+			paths.addAll(current.keySet());
+			for (String path : paths) {
+				if (this.triggerFilter.accept(new File(path)) && !ObjectUtils
+						.nullSafeEquals(previous.get(path), current.get(path))) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private ChangedFiles update(File folder, TreeMap<String, FileSnapshot> files,
+			Set<File> paths) {
+		Map<String, FileSnapshot> previous = getPrevious(files, paths);
+		Map<String, FileSnapshot> current = getCurrent(paths);
+		Set<ChangedFile> changes = new LinkedHashSet<ChangedFile>();
+		for (Map.Entry<String, FileSnapshot> entry : current.entrySet()) {
+			FileSnapshot currentFile = entry.getValue();
+			FileSnapshot previousFile = previous.remove(entry.getKey());
+			files.put(entry.getKey(), currentFile);
+			if (acceptChangedFile(currentFile)) {
+				if (previousFile == null) {
+					changes.add(new ChangedFile(folder, currentFile.getFile(), Type.ADD));
+				}
+				else if (!previousFile.equals(currentFile)) {
+					changes.add(
+							new ChangedFile(folder, currentFile.getFile(), Type.MODIFY));
+				}
+			}
+		}
+		for (Map.Entry<String, FileSnapshot> entry : previous.entrySet()) {
+			files.remove(entry.getKey());
+			if (acceptChangedFile(entry.getValue())) {
+				changes.add(new ChangedFile(folder, entry.getValue().getFile(),
+						Type.DELETE));
+			}
+		}
+		return new ChangedFiles(folder, changes);
+	}
+
+	private boolean acceptChangedFile(FileSnapshot file) {
+		return (this.triggerFilter == null || !this.triggerFilter.accept(file.getFile()));
+	}
+
+	private Map<String, FileSnapshot> getPrevious(TreeMap<String, FileSnapshot> files,
+			Set<File> paths) {
+		Map<String, FileSnapshot> previous = new LinkedHashMap<String, FileSnapshot>();
+		for (File path : paths) {
+			String name = path.getPath();
+			FileSnapshot file = files.get(name);
+			if (file != null) {
+				previous.put(name, file);
+			}
+			String prefix = name + File.separator;
+			previous.putAll(files.subMap(prefix, prefix + Character.MAX_VALUE));
+		}
+		return previous;
+	}
+
+	private Map<String, FileSnapshot> getCurrent(Set<File> paths) {
+		Map<String, FileSnapshot> current = new LinkedHashMap<String, FileSnapshot>();
+		for (File path : paths) {
+			if (path.isDirectory()) {
+				collectFiles(path, current);
+			}
+			else if (path.isFile()) {
+				current.put(path.getPath(), new FileSnapshot(path));
+			}
+		}
+		return current;
+	}
+
+	private void collectFiles(File source, Map<String, FileSnapshot> result) {
+		File[] children = source.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				if (child.isDirectory()) {
+					collectFiles(child, result);
+				}
+				else if (child.isFile()) {
+					result.put(child.getPath(), new FileSnapshot(child));
+				}
+			}
+		}
+	}
+
+	private void fireListeners(Set<ChangedFiles> changeSet) {
+		for (FileChangeListener listener : this.listeners) {
+			listener.onChange(changeSet);
+		}
+	}
+
+	private void close() {
+		try {
+			this.watchService.close();
+		}
+		catch (IOException ex) {
+			// Ignore
+		}
+	}
+
+}
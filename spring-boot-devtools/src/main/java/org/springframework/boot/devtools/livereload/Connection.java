@@ -16,13 +16,14 @@
 
 package org.springframework.boot.devtools.livereload;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.net.Socket;
-import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -32,7 +33,9 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.util.Base64Utils;
 
 /**
- * A {@link LiveReloadServer} connection.
+ * A {@link LiveReloadServer} connection. Connections are non-blocking and are driven by
+ * the server's selector thread which calls {@link #read()} when data is available and
+ * {@link #write()} to flush any pending output. Output may be queued from any thread.
  *
  * @author Phillip Webb
  */
@@ -45,69 +48,143 @@ class Connection {
 
 	public final static String WEBSOCKET_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
 
-	private final Socket socket;
+	private static final byte[] HEADER_END = "\r\n\r\n".getBytes();
 
-	private final ConnectionInputStream inputStream;
+	private static final int BUFFER_SIZE = 4096;
 
-	private final ConnectionOutputStream outputStream;
+	private static final int MAX_BUFFER_SIZE = 8 + 0xFFFF;
 
-	private final String header;
+	private final SocketChannel channel;
+
+	private final Queue<ByteBuffer> output = new ConcurrentLinkedQueue<ByteBuffer>();
+
+	private ByteBuffer input = ByteBuffer.allocate(BUFFER_SIZE);
+
+	private String header;
 
 	private volatile boolean webSocket;
 
-	private volatile boolean running = true;
+	private boolean closeAfterWrite;
+
+	private long lastReadTime = System.currentTimeMillis();
+
+	private boolean pingSent;
 
 	/**
 	 * Create a new {@link Connection} instance.
-	 * @param socket the source socket
-	 * @param inputStream the socket input stream
-	 * @param outputStream the socket output stream
+	 * @param channel the source channel
 	 * @throws IOException in case of I/O errors
 	 */
-	Connection(Socket socket, InputStream inputStream, OutputStream outputStream)
-			throws IOException {
-		this.socket = socket;
-		this.inputStream = new ConnectionInputStream(inputStream);
-		this.outputStream = new ConnectionOutputStream(outputStream);
-		this.header = this.inputStream.readHeader();
-		logger.debug("Established livereload connection [" + this.header + "]");
+	Connection(SocketChannel channel) throws IOException {
+		this.channel = channel;
 	}
 
 	/**
-	 * Run the connection.
-	 * @throws Exception in case of errors
+	 * Return the channel of the connection.
+	 * @return the channel
 	 */
-	public void run() throws Exception {
+	public SocketChannel getChannel() {
+		return this.channel;
+	}
+
+	/**
+	 * Read and handle the data that is currently available without blocking.
+	 * @throws IOException in case of I/O errors
+	 */
+	public void read() throws IOException {
+		ensureInputCapacity();
+		if (this.channel.read(this.input) == -1) {
+			throw new ConnectionClosedException();
+		}
+		this.lastReadTime = System.currentTimeMillis();
+		this.pingSent = false;
+		this.input.flip();
+		try {
+			if (this.header == null) {
+				readHeader();
+			}
+			if (this.webSocket) {
+				readWebSocketFrames();
+			}
+			else if (this.header != null) {
+				this.input.position(this.input.limit());
+			}
+		}
+		finally {
+			this.input.compact();
+		}
+	}
+
+	private void ensureInputCapacity() throws IOException {
+		if (!this.input.hasRemaining()) {
+			if (this.input.capacity() >= MAX_BUFFER_SIZE) {
+				throw new IOException("LiveReload request is too large");
+			}
+			ByteBuffer input = ByteBuffer
+					.allocate(Math.min(this.input.capacity() * 2, MAX_BUFFER_SIZE));
+			this.input.flip();
+			input.put(this.input);
+			this.input = input;
+		}
+	}
+
+	private void readHeader() throws IOException {
+		int end = indexOfHeaderEnd();
+		if (end == -1) {
+			return;
+		}
+		byte[] header = new byte[end - this.input.position()];
+		this.input.get(header);
+		this.input.position(end + HEADER_END.length);
+		this.header = new String(header);
+		logger.debug("Established livereload connection [" + this.header + "]");
 		if (this.header.contains("Upgrade: websocket")
 				&& this.header.contains("Sec-WebSocket-Version: 13")) {
-			runWebSocket(this.header);
+			startWebSocket();
+			return;
 		}
 		if (this.header.contains("GET /livereload.js")) {
-			this.outputStream.writeHttp(getClass().getResourceAsStream("livereload.js"),
-					"text/javascript");
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			new ConnectionOutputStream(bytes).writeHttp(
+					getClass().getResourceAsStream("livereload.js"), "text/javascript");
+			queue(bytes.toByteArray());
 		}
+		this.closeAfterWrite = true;
 	}
 
-	private void runWebSocket(String header) throws Exception {
+	private int indexOfHeaderEnd() {
+		int last = this.input.limit() - HEADER_END.length;
+		for (int i = this.input.position(); i <= last; i++) {
+			int matched = 0;
+			while (matched < HEADER_END.length
+					&& this.input.get(i + matched) == HEADER_END[matched]) {
+				matched++;
+			}
+			if (matched == HEADER_END.length) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private void startWebSocket() throws IOException {
 		String accept = getWebsocketAcceptResponse();
-		this.outputStream.writeHeaders("HTTP/1.1 101 Switching Protocols",
-				"Upgrade: websocket", "Connection: Upgrade",
-				"Sec-WebSocket-Accept: " + accept);
-		new Frame("{\"command\":\"hello\",\"protocols\":"
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		new ConnectionOutputStream(bytes).writeHeaders(
+				"HTTP/1.1 101 Switching Protocols", "Upgrade: websocket",
+				"Connection: Upgrade", "Sec-WebSocket-Accept: " + accept);
+		queue(bytes.toByteArray());
+		queue(new Frame("{\"command\":\"hello\",\"protocols\":"
 				+ "[\"http://livereload.com/protocols/official-7\"],"
-				+ "\"serverName\":\"spring-boot\"}").write(this.outputStream);
-		Thread.sleep(100);
+				+ "\"serverName\":\"spring-boot\"}"));
 		this.webSocket = true;
-		while (this.running) {
-			readWebSocketFrame();
-		}
 	}
 
-	private void readWebSocketFrame() throws IOException {
-		try {
-			Frame frame = Frame.read(this.inputStream);
+	private void readWebSocketFrames() throws IOException {
+		Frame frame = Frame.read(this.input);
+		while (frame != null) {
 			if (frame.getType() == Frame.Type.PING) {
-				writeWebSocketFrame(new Frame(Frame.Type.PONG));
+				queue(new Frame(Frame.Type.PONG));
 			}
 			else if (frame.getType() == Frame.Type.CLOSE) {
 				throw new ConnectionClosedException();
@@ -115,43 +192,100 @@ class Connection {
 			else if (frame.getType() == Frame.Type.TEXT) {
 				logger.debug("Received LiveReload text frame " + frame);
 			}
-			else {
+			else if (frame.getType() != Frame.Type.PONG) {
 				throw new IOException("Unexpected Frame Type " + frame.getType());
 			}
+			frame = Frame.read(this.input);
 		}
-		catch (SocketTimeoutException ex) {
-			writeWebSocketFrame(new Frame(Frame.Type.PING));
-			Frame frame = Frame.read(this.inputStream);
-			if (frame.getType() != Frame.Type.PONG) {
-				throw new IllegalStateException("No Pong");
-			}
+	}
+
+	/**
+	 * Check that data has been received within the given timeout. An idle WebSocket is
+	 * sent a ping and must respond before the timeout elapses again.
+	 * @param now the current time
+	 * @param timeout the read timeout
+	 * @throws IOException if the connection has timed out
+	 */
+	public void checkTimeout(long now, long timeout) throws IOException {
+		if (now - this.lastReadTime < timeout) {
+			return;
+		}
+		if (!this.webSocket) {
+			throw new IOException("Read timed out");
+		}
+		if (this.pingSent) {
+			throw new IOException("No Pong");
 		}
+		queue(new Frame(Frame.Type.PING));
+		this.pingSent = true;
+		this.lastReadTime = now;
 	}
 
 	/**
-	 * Trigger livereload for the client using this connection.
+	 * Trigger livereload for the client using this connection. The reload message is
+	 * queued and written by the next call to {@link #write()}.
 	 * @throws IOException in case of I/O errors
 	 */
 	public void triggerReload() throws IOException {
 		if (this.webSocket) {
 			logger.debug("Triggering LiveReload");
-			writeWebSocketFrame(new Frame("{\"command\":\"reload\",\"path\":\"/\"}"));
+			queue(new Frame("{\"command\":\"reload\",\"path\":\"/\"}"));
+		}
+	}
+
+	private void queue(Frame frame) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		frame.write(bytes);
+		queue(bytes.toByteArray());
+	}
+
+	private void queue(byte[] bytes) {
+		this.output.add(ByteBuffer.wrap(bytes));
+	}
+
+	/**
+	 * Write as much pending output as possible without blocking.
+	 * @return {@code true} if output remains to be written
+	 * @throws IOException in case of I/O errors
+	 */
+	public boolean write() throws IOException {
+		ByteBuffer buffer = this.output.peek();
+		while (buffer != null) {
+			this.channel.write(buffer);
+			if (buffer.hasRemaining()) {
+				return true;
+			}
+			this.output.poll();
+			buffer = this.output.peek();
+		}
+		if (this.closeAfterWrite) {
+			close();
 		}
+		return false;
 	}
 
-	private void writeWebSocketFrame(Frame frame) throws IOException {
-		frame.write(this.outputStream);
+	/**
+	 * Return if the connection is open.
+	 * @return {@code true} if the connection is open
+	 */
+	public boolean isOpen() {
+		return this.channel.isOpen();
 	}
 
-	private String getWebsocketAcceptResponse() throws NoSuchAlgorithmException {
+	private String getWebsocketAcceptResponse() throws IOException {
 		Matcher matcher = WEBSOCKET_KEY_PATTERN.matcher(this.header);
 		if (!matcher.find()) {
 			throw new IllegalStateException("No Sec-WebSocket-Key");
 		}
 		String response = matcher.group(1).trim() + WEBSOCKET_GUID;
-		MessageDigest messageDigest = MessageDigest.getInstance("SHA-1");
-		messageDigest.update(response.getBytes(), 0, response.length());
-		return Base64Utils.encodeToString(messageDigest.digest());
+		try {
+			MessageDigest messageDigest = MessageDigest.getInstance("SHA-1");
+			messageDigest.update(response.getBytes(), 0, response.length());
+			return Base64Utils.encodeToString(messageDigest.digest());
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
 	}
 
 	/**
@@ -159,8 +293,7 @@ class Connection {
 	 * @throws IOException in case of I/O errors
 	 */
 	public void close() throws IOException {
-		this.running = false;
-		this.socket.close();
+		this.channel.close();
 	}
 
 }
@@ -18,6 +18,7 @@ package org.springframework.boot.devtools.livereload;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 import org.springframework.util.Assert;
 
@@ -100,13 +101,59 @@ class Frame {
 		byte[] payload = new byte[length];
 		inputStream.readFully(payload, 0, length);
 		if (hasMask) {
-			for (int i = 0; i < payload.length; i++) {
-				payload[i] ^= mask[i % 4];
+			unmask(payload, mask);
+		}
+		return new Frame(Type.forCode(firstByte & 0x0F), payload);
+	}
+
+	/**
+	 * Read a frame from the given buffer without blocking. If the buffer does not yet
+	 * contain a complete frame its position is left unchanged and {@code null} is
+	 * returned.
+	 * @param buffer the source buffer
+	 * @return the frame or {@code null} if more data is required
+	 */
+	public static Frame read(ByteBuffer buffer) {
+		int start = buffer.position();
+		if (buffer.remaining() < 2) {
+			return null;
+		}
+		int firstByte = buffer.get(start) & 0xFF;
+		Assert.state((firstByte & 0x80) != 0, "Fragmented frames are not supported");
+		int maskAndLength = buffer.get(start + 1) & 0xFF;
+		boolean hasMask = (maskAndLength & 0x80) != 0;
+		int length = (maskAndLength & 0x7F);
+		Assert.state(length != 127, "Large frames are not supported");
+		int headerLength = 2;
+		if (length == 126) {
+			if (buffer.remaining() < 4) {
+				return null;
 			}
+			length = ((buffer.get(start + 2) & 0xFF) << 8 | buffer.get(start + 3) & 0xFF);
+			headerLength = 4;
+		}
+		if (buffer.remaining() < headerLength + (hasMask ? 4 : 0) + length) {
+			return null;
+		}
+		buffer.position(start + headerLength);
+		byte[] mask = new byte[4];
+		if (hasMask) {
+			buffer.get(mask);
+		}
+		byte[] payload = new byte[length];
+		buffer.get(payload);
+		if (hasMask) {
+			unmask(payload, mask);
 		}
 		return new Frame(Type.forCode(firstByte & 0x0F), payload);
 	}
 
+	private static void unmask(byte[] payload, byte[] mask) {
+		for (int i = 0; i < payload.length; i++) {
+			payload[i] ^= mask[i % 4];
+		}
+	}
+
 	/**
 	 * Frame types.
 	 */
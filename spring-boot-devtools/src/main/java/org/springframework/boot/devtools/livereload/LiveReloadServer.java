@@ -17,18 +17,16 @@
 package org.springframework.boot.devtools.livereload;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.net.ServerSocket;
-import java.net.Socket;
-import java.net.SocketTimeoutException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -36,7 +34,8 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.util.Assert;
 
 /**
- * A <a href="http://livereload.com">livereload</a> server.
+ * A <a href="http://livereload.com">livereload</a> server. All connections are handled
+ * by a single thread using non-blocking I/O.
  *
  * @author Phillip Webb
  * @since 1.3.0
@@ -53,9 +52,6 @@ public class LiveReloadServer {
 
 	private static final int READ_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(4);
 
-	private final ExecutorService executor = Executors
-			.newCachedThreadPool(new WorkerThreadFactory());
-
 	private final List<Connection> connections = new ArrayList<Connection>();
 
 	private final Object monitor = new Object();
@@ -64,7 +60,11 @@ public class LiveReloadServer {
 
 	private final ThreadFactory threadFactory;
 
-	private ServerSocket serverSocket;
+	private ServerSocketChannel serverChannel;
+
+	private Selector selector;
+
+	private volatile boolean running;
 
 	private Thread listenThread;
 
@@ -118,12 +118,23 @@ public class LiveReloadServer {
 		synchronized (this.monitor) {
 			Assert.state(!isStarted(), "Server already started");
 			logger.debug("Starting live reload server on port " + this.port);
-			this.serverSocket = new ServerSocket(this.port);
+			this.serverChannel = ServerSocketChannel.open();
+			try {
+				this.serverChannel.socket().bind(new InetSocketAddress(this.port));
+				this.serverChannel.configureBlocking(false);
+				this.selector = Selector.open();
+				this.serverChannel.register(this.selector, SelectionKey.OP_ACCEPT);
+			}
+			catch (IOException ex) {
+				closeQuietly();
+				throw ex;
+			}
+			this.running = true;
 			this.listenThread = this.threadFactory.newThread(new Runnable() {
 
 				@Override
 				public void run() {
-					acceptConnections();
+					handleConnections();
 				}
 
 			});
@@ -151,23 +162,105 @@ public class LiveReloadServer {
 		return this.port;
 	}
 
-	private void acceptConnections() {
-		do {
-			try {
-				Socket socket = this.serverSocket.accept();
-				socket.setSoTimeout(READ_TIMEOUT);
-				this.executor.execute(new ConnectionHandler(socket));
+	private void handleConnections() {
+		try {
+			while (this.running) {
+				try {
+					this.selector.select(READ_TIMEOUT);
+					handleSelectedKeys();
+					updateConnections();
+				}
+				catch (IOException ex) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("LiveReload server error", ex);
+					}
+				}
 			}
-			catch (SocketTimeoutException ex) {
-				// Ignore
+		}
+		finally {
+			closeAllConnections();
+			closeQuietly();
+		}
+	}
+
+	private void handleSelectedKeys() {
+		Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+		while (keys.hasNext()) {
+			SelectionKey key = keys.next();
+			keys.remove();
+			if (key.isValid() && key.isAcceptable()) {
+				acceptConnection();
 			}
-			catch (Exception ex) {
-				if (logger.isDebugEnabled()) {
-					logger.debug("LiveReload server error", ex);
+			else if (key.isValid()) {
+				Connection connection = (Connection) key.attachment();
+				try {
+					if (key.isReadable()) {
+						connection.read();
+					}
+					updateInterest(connection, key);
 				}
+				catch (Exception ex) {
+					handleError(connection, ex);
+				}
+			}
+		}
+	}
+
+	private void acceptConnection() {
+		try {
+			SocketChannel channel = this.serverChannel.accept();
+			if (channel != null) {
+				channel.configureBlocking(false);
+				Connection connection = createConnection(channel);
+				channel.register(this.selector, SelectionKey.OP_READ, connection);
+				addConnection(connection);
+			}
+		}
+		catch (Exception ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("LiveReload server error", ex);
 			}
 		}
-		while (!this.serverSocket.isClosed());
+	}
+
+	/**
+	 * Write any output that has been queued since the last select, check for timeouts and
+	 * remove closed connections.
+	 */
+	private void updateConnections() {
+		long now = System.currentTimeMillis();
+		for (Connection connection : getConnections()) {
+			SelectionKey key = connection.getChannel().keyFor(this.selector);
+			try {
+				connection.checkTimeout(now, READ_TIMEOUT);
+				updateInterest(connection, key);
+			}
+			catch (Exception ex) {
+				handleError(connection, ex);
+			}
+		}
+	}
+
+	private void updateInterest(Connection connection, SelectionKey key)
+			throws IOException {
+		boolean pendingOutput = connection.write();
+		if (!connection.isOpen()) {
+			removeConnection(connection);
+		}
+		else if (key != null && key.isValid()) {
+			key.interestOps(SelectionKey.OP_READ
+					| (pendingOutput ? SelectionKey.OP_WRITE : 0));
+		}
+	}
+
+	private void handleError(Connection connection, Exception ex) {
+		if (ex instanceof ConnectionClosedException) {
+			logger.debug("LiveReload connection closed");
+		}
+		else if (logger.isDebugEnabled()) {
+			logger.debug("LiveReload error", ex);
+		}
+		closeConnection(connection);
 	}
 
 	/**
@@ -177,53 +270,80 @@ public class LiveReloadServer {
 	public void stop() throws IOException {
 		synchronized (this.monitor) {
 			if (this.listenThread != null) {
-				closeAllConnections();
+				this.running = false;
+				this.selector.wakeup();
 				try {
-					this.executor.shutdown();
-					this.executor.awaitTermination(1, TimeUnit.MINUTES);
-				}
-				catch (InterruptedException ex) {
-					Thread.currentThread().interrupt();
-				}
-				this.serverSocket.close();
-				try {
-					this.listenThread.join();
+					this.listenThread.join(TimeUnit.MINUTES.toMillis(1));
 				}
 				catch (InterruptedException ex) {
 					Thread.currentThread().interrupt();
 				}
 				this.listenThread = null;
-				this.serverSocket = null;
+				this.selector = null;
+				this.serverChannel = null;
 			}
 		}
 	}
 
-	private void closeAllConnections() throws IOException {
-		synchronized (this.connections) {
-			for (Connection connection : this.connections) {
-				connection.close();
+	private void closeAllConnections() {
+		for (Connection connection : getConnections()) {
+			closeConnection(connection);
+		}
+	}
+
+	private void closeConnection(Connection connection) {
+		try {
+			connection.close();
+		}
+		catch (IOException ex) {
+			// Ignore
+		}
+		removeConnection(connection);
+	}
+
+	private void closeQuietly() {
+		try {
+			if (this.selector != null) {
+				this.selector.close();
 			}
 		}
+		catch (IOException ex) {
+			// Ignore
+		}
+		try {
+			this.serverChannel.close();
+		}
+		catch (IOException ex) {
+			// Ignore
+		}
 	}
 
 	/**
-	 * Trigger livereload of all connected clients.
+	 * Trigger livereload of all connected clients. Reload messages are queued and
+	 * written by the server thread.
 	 */
 	public void triggerReload() {
 		synchronized (this.monitor) {
-			synchronized (this.connections) {
-				for (Connection connection : this.connections) {
-					try {
-						connection.triggerReload();
-					}
-					catch (Exception ex) {
-						logger.debug("Unable to send reload message", ex);
-					}
+			for (Connection connection : getConnections()) {
+				try {
+					connection.triggerReload();
 				}
+				catch (Exception ex) {
+					logger.debug("Unable to send reload message", ex);
+				}
+			}
+			if (this.selector != null) {
+				this.selector.wakeup();
 			}
 		}
 	}
 
+	private List<Connection> getConnections() {
+		synchronized (this.connections) {
+			return new ArrayList<Connection>(this.connections);
+		}
+	}
+
 	private void addConnection(Connection connection) {
 		synchronized (this.connections) {
 			this.connections.add(connection);
@@ -238,97 +358,12 @@ public class LiveReloadServer {
 
 	/**
 	 * Factory method used to create the {@link Connection}.
-	 * @param socket the source socket
-	 * @param inputStream the socket input stream
-	 * @param outputStream the socket output stream
+	 * @param channel the non-blocking source channel
 	 * @return a connection
 	 * @throws IOException in case of I/O errors
 	 */
-	protected Connection createConnection(Socket socket, InputStream inputStream,
-			OutputStream outputStream) throws IOException {
-		return new Connection(socket, inputStream, outputStream);
-	}
-
-	/**
-	 * {@link Runnable} to handle a single connection.
-	 *
-	 * @see Connection
-	 */
-	private class ConnectionHandler implements Runnable {
-
-		private final Socket socket;
-
-		private final InputStream inputStream;
-
-		ConnectionHandler(Socket socket) throws IOException {
-			this.socket = socket;
-			this.inputStream = socket.getInputStream();
-		}
-
-		@Override
-		public void run() {
-			try {
-				handle();
-			}
-			catch (ConnectionClosedException ex) {
-				logger.debug("LiveReload connection closed");
-			}
-			catch (Exception ex) {
-				if (logger.isDebugEnabled()) {
-					logger.debug("LiveReload error", ex);
-				}
-			}
-		}
-
-		private void handle() throws Exception {
-			try {
-				try {
-					OutputStream outputStream = this.socket.getOutputStream();
-					try {
-						Connection connection = createConnection(this.socket,
-								this.inputStream, outputStream);
-						runConnection(connection);
-					}
-					finally {
-						outputStream.close();
-					}
-				}
-				finally {
-					this.inputStream.close();
-				}
-			}
-			finally {
-				this.socket.close();
-			}
-		}
-
-		private void runConnection(Connection connection) throws IOException, Exception {
-			try {
-				addConnection(connection);
-				connection.run();
-			}
-			finally {
-				removeConnection(connection);
-			}
-		}
-
-	}
-
-	/**
-	 * {@link ThreadFactory} to create the worker threads.
-	 */
-	private static class WorkerThreadFactory implements ThreadFactory {
-
-		private final AtomicInteger threadNumber = new AtomicInteger(1);
-
-		@Override
-		public Thread newThread(Runnable r) {
-			Thread thread = new Thread(r);
-			thread.setDaemon(true);
-			thread.setName("Live Reload #" + this.threadNumber.getAndIncrement());
-			return thread;
-		}
-
+	protected Connection createConnection(SocketChannel channel) throws IOException {
+		return new Connection(channel);
 	}
 
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.boot.devtools.remote.client;
 
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
 import java.net.ConnectException;
@@ -27,6 +28,7 @@ import java.net.URL;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -37,6 +39,7 @@ import org.springframework.boot.devtools.filewatch.ChangedFiles;
 import org.springframework.boot.devtools.restart.classloader.ClassLoaderFile;
 import org.springframework.boot.devtools.restart.classloader.ClassLoaderFile.Kind;
 import org.springframework.boot.devtools.restart.classloader.ClassLoaderFiles;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFilesCodec;
 import org.springframework.context.ApplicationListener;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -49,7 +52,12 @@ import org.springframework.util.Assert;
 import org.springframework.util.FileCopyUtils;
 
 /**
- * Listens and pushes any classpath updates to a remote endpoint.
+ * Listens and pushes any classpath updates to a remote endpoint. A manifest of content
+ * digests is sent first so that the contents of files that the remote application
+ * already has can be omitted from the compressed upload that follows. If the remote
+ * application no longer has those contents when the upload arrives, all contents are
+ * uploaded again. Remote applications that do not accept manifests receive a serialized
+ * upload instead.
  *
  * @author Phillip Webb
  * @author Andy Wilkinson
@@ -74,6 +82,8 @@ public class ClassPathChangeUploader
 
 	private final ClientHttpRequestFactory requestFactory;
 
+	private volatile boolean manifestSupported = true;
+
 	public ClassPathChangeUploader(String url, ClientHttpRequestFactory requestFactory) {
 		Assert.hasLength(url, "URL must not be empty");
 		Assert.notNull(requestFactory, "RequestFactory must not be null");
@@ -93,30 +103,47 @@ public class ClassPathChangeUploader
 	public void onApplicationEvent(ClassPathChangedEvent event) {
 		try {
 			ClassLoaderFiles classLoaderFiles = getClassLoaderFiles(event);
-			byte[] bytes = serialize(classLoaderFiles);
-			performUpload(classLoaderFiles, bytes);
+			performUpload(classLoaderFiles);
 		}
 		catch (IOException ex) {
 			throw new IllegalStateException(ex);
 		}
 	}
 
-	private void performUpload(ClassLoaderFiles classLoaderFiles, byte[] bytes)
-			throws IOException {
+	private void performUpload(ClassLoaderFiles classLoaderFiles) throws IOException {
+		boolean omitExisting = true;
 		try {
 			while (true) {
 				try {
+					Set<String> existing = (omitExisting
+							? getExistingFiles(classLoaderFiles)
+							: Collections.<String>emptySet());
 					ClientHttpRequest request = this.requestFactory
 							.createRequest(this.uri, HttpMethod.POST);
-					HttpHeaders headers = request.getHeaders();
-					headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-					headers.setContentLength(bytes.length);
-					FileCopyUtils.copy(bytes, request.getBody());
+					request.getHeaders()
+							.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+					if (existing != null) {
+						ClassLoaderFilesCodec.writeFiles(classLoaderFiles, existing,
+								request.getBody());
+					}
+					else {
+						byte[] bytes = serialize(classLoaderFiles);
+						request.getHeaders().setContentLength(bytes.length);
+						FileCopyUtils.copy(bytes, request.getBody());
+					}
 					ClientHttpResponse response = request.execute();
+					if (response.getStatusCode() == HttpStatus.CONFLICT
+							&& existing != null && !existing.isEmpty()) {
+						logger.debug("Remote application no longer has unchanged "
+								+ "class resources, uploading all contents");
+						response.close();
+						omitExisting = false;
+						continue;
+					}
 					Assert.state(response.getStatusCode() == HttpStatus.OK,
 							"Unexpected " + response.getStatusCode()
 									+ " response uploading class files");
-					logUpload(classLoaderFiles);
+					logUpload(classLoaderFiles, existing);
 					return;
 				}
 				catch (ConnectException ex) {
@@ -132,10 +159,45 @@ public class ClassPathChangeUploader
 		}
 	}
 
-	private void logUpload(ClassLoaderFiles classLoaderFiles) {
+	private Set<String> getExistingFiles(ClassLoaderFiles classLoaderFiles)
+			throws IOException {
+		if (!this.manifestSupported) {
+			return null;
+		}
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		ClassLoaderFilesCodec.writeManifest(classLoaderFiles, outputStream);
+		ClientHttpRequest request = this.requestFactory.createRequest(this.uri,
+				HttpMethod.POST);
+		HttpHeaders headers = request.getHeaders();
+		headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+		headers.setContentLength(outputStream.size());
+		FileCopyUtils.copy(outputStream.toByteArray(), request.getBody());
+		ClientHttpResponse response = request.execute();
+		try {
+			if (response.getStatusCode() == HttpStatus.OK) {
+				return ClassLoaderFilesCodec.readNames(response.getBody());
+			}
+		}
+		catch (EOFException ex) {
+			// Not a manifest response
+		}
+		finally {
+			response.close();
+		}
+		logger.debug("Remote application does not accept manifests, "
+				+ "falling back to serialized uploads");
+		this.manifestSupported = false;
+		return null;
+	}
+
+	private void logUpload(ClassLoaderFiles classLoaderFiles, Set<String> existing) {
 		int size = classLoaderFiles.size();
 		logger.info(
 				"Uploaded " + size + " class " + (size == 1 ? "resource" : "resources"));
+		if (existing != null && !existing.isEmpty() && logger.isDebugEnabled()) {
+			logger.debug("Contents of " + existing.size()
+					+ " unchanged class resource(s) were not uploaded");
+		}
 	}
 
 	private byte[] serialize(ClassLoaderFiles classLoaderFiles) throws IOException {
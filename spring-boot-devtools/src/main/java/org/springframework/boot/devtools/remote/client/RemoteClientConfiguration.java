@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -53,6 +53,7 @@ import org.springframework.boot.devtools.restart.DefaultRestartInitializer;
 import org.springframework.boot.devtools.restart.RestartScope;
 import org.springframework.boot.devtools.restart.Restarter;
 import org.springframework.boot.devtools.tunnel.client.HttpTunnelConnection;
+import org.springframework.boot.devtools.tunnel.client.MultiplexedHttpTunnelConnection;
 import org.springframework.boot.devtools.tunnel.client.TunnelClient;
 import org.springframework.boot.devtools.tunnel.client.TunnelConnection;
 import org.springframework.context.annotation.Bean;
@@ -215,7 +216,8 @@ public class RemoteClientConfiguration {
 			Restart restartProperties = this.properties.getRestart();
 			FileSystemWatcher watcher = new FileSystemWatcher(true,
 					restartProperties.getPollInterval(),
-					restartProperties.getQuietPeriod());
+					restartProperties.getQuietPeriod(),
+					restartProperties.isUseWatchService());
 			String triggerFile = restartProperties.getTriggerFile();
 			if (StringUtils.hasLength(triggerFile)) {
 				watcher.setTriggerFilter(new TriggerFileFilter(triggerFile));
@@ -258,7 +260,9 @@ public class RemoteClientConfiguration {
 				ClientHttpRequestFactory requestFactory) {
 			RemoteDevToolsProperties remoteProperties = this.properties.getRemote();
 			String url = this.remoteUrl + remoteProperties.getContextPath() + "/debug";
-			TunnelConnection connection = new HttpTunnelConnection(url, requestFactory);
+			TunnelConnection connection = (remoteProperties.getDebug().isMultiplexed()
+					? new MultiplexedHttpTunnelConnection(url, requestFactory)
+					: new HttpTunnelConnection(url, requestFactory));
 			int localPort = remoteProperties.getDebug().getLocalPort();
 			TunnelClient client = new TunnelClient(localPort, connection);
 			client.addListener(new LoggingTunnelClientListener());
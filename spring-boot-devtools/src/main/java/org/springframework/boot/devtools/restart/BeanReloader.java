@@ -0,0 +1,550 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.devtools.restart;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.devtools.restart.classloader.RestartClassLoader;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.ResourceUtils;
+
+/**
+ * Reloads individual beans of a running application context when the classes that back
+ * them change. The beans, together with all beans that depend on them, are redefined
+ * using classes from a new {@link ClassLoader} and then recreated. As package-private
+ * access only works between classes from the same {@link ClassLoader}, every class in
+ * the affected packages is redefined, and every bean backed by one of them recreated,
+ * at the same time. Changes are only reloaded if every changed class backs a simple
+ * application bean and no bean that is not recreated refers to a redefined class, for
+ * example by looking it up by type; in all other cases {@link #reload(Collection)}
+ * returns {@code false} so that the caller can fall back to a full restart.
+ *
+ * @author Jerry Lei
+ * @see Restarter#reload(Collection)
+ */
+class BeanReloader {
+
+	private static final String[] SUPPORTED_METHOD_ANNOTATION_PREFIXES = { "java.",
+			"javax.annotation.", "javax.inject.",
+			"org.springframework.beans.factory.annotation." };
+
+	private static final String CLASS_FILE_SUFFIX = ".class";
+
+	private static final Class<?>[] UNSUPPORTED_TYPES = { FactoryBean.class,
+			BeanPostProcessor.class, BeanFactoryPostProcessor.class,
+			ApplicationListener.class };
+
+	private final ConfigurableApplicationContext context;
+
+	private final Log logger;
+
+	private final Map<String, Class<?>> reloadedClasses = new ConcurrentHashMap<String, Class<?>>();
+
+	BeanReloader(ConfigurableApplicationContext context, Log logger) {
+		this.context = context;
+		this.logger = logger;
+	}
+
+	boolean isFor(ConfigurableApplicationContext context) {
+		return this.context == context;
+	}
+
+	/**
+	 * Reload the beans backed by the given changed classes.
+	 * @param classNames the names of the changed classes
+	 * @return {@code true} if the beans were reloaded or {@code false} if a full restart
+	 * is required
+	 */
+	public boolean reload(Collection<String> classNames) {
+		if (!this.context.isActive() || !(this.context
+				.getBeanFactory() instanceof DefaultListableBeanFactory)) {
+			return false;
+		}
+		DefaultListableBeanFactory beanFactory = (DefaultListableBeanFactory) this.context
+				.getBeanFactory();
+		if (!beanFactory.isAllowBeanDefinitionOverriding()) {
+			return false;
+		}
+		Set<String> reloadClassNames = new LinkedHashSet<String>();
+		Map<String, String> beans = getBeansToReload(beanFactory,
+				getTopLevelClassNames(classNames), reloadClassNames);
+		if (beans == null) {
+			return false;
+		}
+		long start = System.nanoTime();
+		ClassLoader previousClassLoader = ClassUtils
+				.overrideThreadContextClassLoader(beanFactory.getBeanClassLoader());
+		try {
+			reload(beanFactory, beans, reloadClassNames);
+		}
+		catch (Throwable ex) {
+			this.logger.warn("Unable to reload beans " + beans.keySet(), ex);
+			return false;
+		}
+		finally {
+			ClassUtils.overrideThreadContextClassLoader(previousClassLoader);
+		}
+		this.logger.info("Reloaded " + beans.size() + " bean(s) in "
+				+ (System.nanoTime() - start) / 1000000 + "ms");
+		return true;
+	}
+
+	private Set<String> getTopLevelClassNames(Collection<String> classNames) {
+		Set<String> topLevelClassNames = new LinkedHashSet<String>();
+		for (String className : classNames) {
+			topLevelClassNames.add(getTopLevelClassName(className));
+		}
+		return topLevelClassNames;
+	}
+
+	/**
+	 * Return the beans that need to be reloaded, mapped to their class names, or
+	 * {@code null} if they cannot be.
+	 * @param beanFactory the bean factory
+	 * @param classNames the changed top-level class names
+	 * @param reloadClassNames populated with the top-level class names to redefine
+	 * @return the beans to reload or {@code null}
+	 */
+	private Map<String, String> getBeansToReload(DefaultListableBeanFactory beanFactory,
+			Set<String> classNames, Set<String> reloadClassNames) {
+		Map<String, String> beans = new LinkedHashMap<String, String>();
+		addBeans(beanFactory, classNames, beans);
+		if (!beans.values().containsAll(classNames)) {
+			return null;
+		}
+		reloadClassNames.addAll(classNames);
+		int size;
+		do {
+			size = reloadClassNames.size();
+			addBeans(beanFactory, reloadClassNames, beans);
+			for (String beanName : beans.keySet().toArray(new String[beans.size()])) {
+				addDependents(beanFactory, beanName, beans);
+			}
+			for (String className : beans.values()) {
+				if (className != null) {
+					reloadClassNames.add(className);
+				}
+			}
+			Set<String> packageClassNames = getPackageClassNames(
+					beanFactory.getBeanClassLoader(), reloadClassNames);
+			if (packageClassNames == null) {
+				return null;
+			}
+			reloadClassNames.addAll(packageClassNames);
+		}
+		while (reloadClassNames.size() != size);
+		for (Map.Entry<String, String> entry : beans.entrySet()) {
+			if (!isReloadable(beanFactory, entry.getKey(), entry.getValue())) {
+				if (this.logger.isDebugEnabled()) {
+					this.logger.debug("Bean '" + entry.getKey()
+							+ "' cannot be reloaded, a full restart is required");
+				}
+				return null;
+			}
+		}
+		for (String beanName : beanFactory.getBeanDefinitionNames()) {
+			if (!beans.containsKey(beanName)
+					&& refersTo(beanFactory, beanName, reloadClassNames)) {
+				if (this.logger.isDebugEnabled()) {
+					this.logger.debug("Bean '" + beanName + "' refers to a reloaded "
+							+ "class but is not reloaded, a full restart is required");
+				}
+				return null;
+			}
+		}
+		return beans;
+	}
+
+	private void addBeans(DefaultListableBeanFactory beanFactory,
+			Set<String> classNames, Map<String, String> beans) {
+		for (String beanName : beanFactory.getBeanDefinitionNames()) {
+			String className = beanFactory.getBeanDefinition(beanName)
+					.getBeanClassName();
+			if (classNames.contains(className)) {
+				beans.put(beanName, className);
+			}
+		}
+	}
+
+	/**
+	 * Return the names of all top-level classes in the packages of the given classes
+	 * that are found in the folders of the given {@link ClassLoader}, or {@code null} if
+	 * they cannot be determined.
+	 * @param classLoader the class loader
+	 * @param classNames the class names
+	 * @return the class names or {@code null}
+	 */
+	private Set<String> getPackageClassNames(ClassLoader classLoader,
+			Set<String> classNames) {
+		if (!(classLoader instanceof URLClassLoader)) {
+			return null;
+		}
+		Set<String> packageNames = new LinkedHashSet<String>();
+		for (String className : classNames) {
+			packageNames.add(ClassUtils.getPackageName(className));
+		}
+		Set<String> packageClassNames = new LinkedHashSet<String>();
+		for (URL url : ((URLClassLoader) classLoader).getURLs()) {
+			File root = getFolder(url);
+			if (root != null) {
+				for (String packageName : packageNames) {
+					addClassNames(root, packageName, packageClassNames);
+				}
+			}
+		}
+		return packageClassNames;
+	}
+
+	private File getFolder(URL url) {
+		if (!ResourceUtils.isFileURL(url)) {
+			return null;
+		}
+		try {
+			File file = ResourceUtils.getFile(url);
+			return (file.isDirectory() ? file : null);
+		}
+		catch (FileNotFoundException ex) {
+			return null;
+		}
+	}
+
+	private void addClassNames(File root, String packageName, Set<String> classNames) {
+		File[] files = new File(root, packageName.replace('.', '/')).listFiles();
+		if (files == null) {
+			return;
+		}
+		String prefix = (packageName.isEmpty() ? "" : packageName + ".");
+		for (File file : files) {
+			String name = file.getName();
+			if (file.isFile() && name.endsWith(CLASS_FILE_SUFFIX)
+					&& name.indexOf('$') == -1) {
+				classNames.add(prefix
+						+ name.substring(0, name.length() - CLASS_FILE_SUFFIX.length()));
+			}
+		}
+	}
+
+	/**
+	 * Return whether the class of the given bean, or one of its nested classes, refers
+	 * to any of the given classes. Such a bean may have looked up, or may later look up,
+	 * a bean of a reloaded type by type rather than having it injected.
+	 * @param beanFactory the bean factory
+	 * @param beanName the bean name
+	 * @param classNames the top-level names of the reloaded classes
+	 * @return {@code true} if the bean refers to a reloaded class
+	 */
+	private boolean refersTo(DefaultListableBeanFactory beanFactory, String beanName,
+			Set<String> classNames) {
+		Class<?> type = beanFactory.getType(beanName);
+		if (type == null) {
+			return false;
+		}
+		type = ClassUtils.getUserClass(type);
+		if (!(type.getClassLoader() instanceof RestartClassLoader
+				|| type.getClassLoader() instanceof ReloadClassLoader)) {
+			return false;
+		}
+		Set<String> internalNames = new HashSet<String>();
+		for (String className : classNames) {
+			internalNames.add(className.replace('.', '/'));
+		}
+		try {
+			return refersTo(type.getClassLoader(), type.getName().replace('.', '/'),
+					internalNames, new HashSet<String>());
+		}
+		catch (IOException ex) {
+			return true;
+		}
+	}
+
+	private boolean refersTo(ClassLoader classLoader, String internalName,
+			Set<String> internalNames, Set<String> visited) throws IOException {
+		if (!visited.add(internalName)) {
+			return false;
+		}
+		InputStream inputStream = classLoader
+				.getResourceAsStream(internalName + CLASS_FILE_SUFFIX);
+		if (inputStream == null) {
+			throw new FileNotFoundException(internalName);
+		}
+		Set<String> nestedNames = new LinkedHashSet<String>();
+		try {
+			for (String constant : readUtf8Constants(inputStream)) {
+				if (refersTo(constant, internalNames)) {
+					return true;
+				}
+				if (constant.startsWith(internalName + "$")) {
+					nestedNames.add(constant);
+				}
+			}
+		}
+		finally {
+			inputStream.close();
+		}
+		for (String nestedName : nestedNames) {
+			if (refersTo(classLoader, nestedName, internalNames, visited)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean refersTo(String constant, Set<String> internalNames) {
+		for (String internalName : internalNames) {
+			if (constant.equals(internalName) || constant.startsWith(internalName + "$")
+					|| constant.contains("L" + internalName + ";")
+					|| constant.contains("L" + internalName + "<")
+					|| constant.contains("L" + internalName + "$")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Read the UTF-8 entries of the constant pool of a class file. Class, field, method
+	 * and generic signature references are all held in such entries.
+	 * @param inputStream the class file contents
+	 * @return the UTF-8 constants
+	 * @throws IOException if the class file cannot be read
+	 */
+	private List<String> readUtf8Constants(InputStream inputStream) throws IOException {
+		DataInputStream input = new DataInputStream(
+				new BufferedInputStream(inputStream));
+		input.readInt();
+		input.readUnsignedShort();
+		input.readUnsignedShort();
+		int count = input.readUnsignedShort();
+		List<String> constants = new ArrayList<String>();
+		for (int i = 1; i < count; i++) {
+			int tag = input.readUnsignedByte();
+			switch (tag) {
+			case 1:
+				constants.add(input.readUTF());
+				break;
+			case 7:
+			case 8:
+			case 16:
+			case 19:
+			case 20:
+				input.skipBytes(2);
+				break;
+			case 15:
+				input.skipBytes(3);
+				break;
+			case 3:
+			case 4:
+			case 9:
+			case 10:
+			case 11:
+			case 12:
+			case 17:
+			case 18:
+				input.skipBytes(4);
+				break;
+			case 5:
+			case 6:
+				input.skipBytes(8);
+				i++;
+				break;
+			default:
+				throw new IOException("Unknown constant pool tag " + tag);
+			}
+		}
+		return constants;
+	}
+
+	private void addDependents(DefaultListableBeanFactory beanFactory, String beanName,
+			Map<String, String> beans) {
+		for (String dependent : beanFactory.getDependentBeans(beanName)) {
+			if (!beans.containsKey(dependent)) {
+				beans.put(dependent, (beanFactory.containsBeanDefinition(dependent)
+						? beanFactory.getBeanDefinition(dependent).getBeanClassName()
+						: null));
+				addDependents(beanFactory, dependent, beans);
+			}
+		}
+	}
+
+	private boolean isReloadable(DefaultListableBeanFactory beanFactory,
+			String beanName, String className) {
+		if (className == null || !beanFactory.containsBeanDefinition(beanName)) {
+			return false;
+		}
+		BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+		if (!(definition instanceof AbstractBeanDefinition) || !definition.isSingleton()
+				|| definition.isAbstract()
+				|| definition.getRole() != BeanDefinition.ROLE_APPLICATION
+				|| definition.getFactoryMethodName() != null
+				|| definition.getFactoryBeanName() != null) {
+			return false;
+		}
+		Class<?> type = beanFactory.getType(beanName);
+		if (type == null) {
+			return false;
+		}
+		type = ClassUtils.getUserClass(type);
+		return type.getName().equals(className) && isReloadable(type);
+	}
+
+	private boolean isReloadable(Class<?> type) {
+		for (Class<?> unsupportedType : UNSUPPORTED_TYPES) {
+			if (unsupportedType.isAssignableFrom(type)) {
+				return false;
+			}
+		}
+		if (AnnotationUtils.findAnnotation(type, Configuration.class) != null
+				|| !(type.getClassLoader() instanceof RestartClassLoader
+						|| type.getClassLoader() instanceof ReloadClassLoader)) {
+			return false;
+		}
+		// Annotated methods are typically registered with infrastructure (request
+		// mappings, event listeners, schedulers) that would keep the old Method
+		for (Method method : type.getDeclaredMethods()) {
+			for (Annotation annotation : method.getDeclaredAnnotations()) {
+				if (!isSupportedMethodAnnotation(annotation)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private boolean isSupportedMethodAnnotation(Annotation annotation) {
+		String name = annotation.annotationType().getName();
+		for (String prefix : SUPPORTED_METHOD_ANNOTATION_PREFIXES) {
+			if (name.startsWith(prefix)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void reload(DefaultListableBeanFactory beanFactory, Map<String, String> beans,
+			Set<String> classNames) throws ClassNotFoundException {
+		ReloadClassLoader classLoader = new ReloadClassLoader(
+				beanFactory.getBeanClassLoader(), classNames, this.reloadedClasses);
+		for (Map.Entry<String, String> entry : beans.entrySet()) {
+			AbstractBeanDefinition definition = ((AbstractBeanDefinition) beanFactory
+					.getBeanDefinition(entry.getKey())).cloneBeanDefinition();
+			definition.setBeanClass(classLoader.loadClass(entry.getValue()));
+			beanFactory.registerBeanDefinition(entry.getKey(), definition);
+		}
+		for (String beanName : beans.keySet()) {
+			if (!beanFactory.getBeanDefinition(beanName).isLazyInit()) {
+				beanFactory.getBean(beanName);
+			}
+		}
+	}
+
+	private static String getTopLevelClassName(String className) {
+		int index = className.indexOf('$');
+		return (index == -1 ? className : className.substring(0, index));
+	}
+
+	/**
+	 * {@link ClassLoader} that defines new versions of the classes being reloaded,
+	 * including their nested classes, and uses the most recently reloaded version of any
+	 * other class that has been reloaded before.
+	 */
+	static class ReloadClassLoader extends ClassLoader {
+
+		private final Set<String> classNames;
+
+		private final Map<String, Class<?>> reloadedClasses;
+
+		ReloadClassLoader(ClassLoader parent, Set<String> classNames,
+				Map<String, Class<?>> reloadedClasses) {
+			super(parent);
+			this.classNames = classNames;
+			this.reloadedClasses = reloadedClasses;
+		}
+
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve)
+				throws ClassNotFoundException {
+			synchronized (getClassLoadingLock(name)) {
+				Class<?> loadedClass = findLoadedClass(name);
+				if (loadedClass == null) {
+					if (this.classNames.contains(getTopLevelClassName(name))) {
+						loadedClass = defineReloadedClass(name);
+					}
+					else {
+						loadedClass = this.reloadedClasses.get(name);
+					}
+				}
+				if (loadedClass == null) {
+					return super.loadClass(name, resolve);
+				}
+				if (resolve) {
+					resolveClass(loadedClass);
+				}
+				return loadedClass;
+			}
+		}
+
+		private Class<?> defineReloadedClass(String name) throws ClassNotFoundException {
+			String path = name.replace('.', '/') + ".class";
+			InputStream inputStream = getParent().getResourceAsStream(path);
+			if (inputStream == null) {
+				throw new ClassNotFoundException(name);
+			}
+			try {
+				byte[] bytes = FileCopyUtils.copyToByteArray(inputStream);
+				Class<?> definedClass = defineClass(name, bytes, 0, bytes.length);
+				this.reloadedClasses.put(name, definedClass);
+				return definedClass;
+			}
+			catch (IOException ex) {
+				throw new ClassNotFoundException(name, ex);
+			}
+		}
+
+	}
+
+}
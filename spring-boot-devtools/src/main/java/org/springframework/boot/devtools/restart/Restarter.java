@@ -121,6 +121,8 @@ public class Restarter {
 
 	private final List<ConfigurableApplicationContext> rootContexts = new CopyOnWriteArrayList<ConfigurableApplicationContext>();
 
+	private BeanReloader beanReloader;
+
 	/**
 	 * Internal constructor to create a new {@link Restarter} instance.
 	 * @param thread the source thread
@@ -263,6 +265,36 @@ public class Restarter {
 		});
 	}
 
+	/**
+	 * Reload only the beans of the running application that are backed by the given
+	 * changed classes, together with the beans that depend on them. Changes that affect
+	 * anything other than simple application beans cannot be reloaded.
+	 * @param classNames the names of the changed classes
+	 * @return {@code true} if the beans were reloaded or {@code false} if a full
+	 * {@link #restart() restart} is required
+	 * @since 2.0.0
+	 */
+	public boolean reload(Collection<String> classNames) {
+		Assert.notNull(classNames, "ClassNames must not be null");
+		if (!this.enabled || classNames.isEmpty()) {
+			return false;
+		}
+		this.stopLock.lock();
+		try {
+			if (this.rootContexts.size() != 1) {
+				return false;
+			}
+			ConfigurableApplicationContext context = this.rootContexts.get(0);
+			if (this.beanReloader == null || !this.beanReloader.isFor(context)) {
+				this.beanReloader = new BeanReloader(context, this.logger);
+			}
+			return this.beanReloader.reload(classNames);
+		}
+		finally {
+			this.stopLock.unlock();
+		}
+	}
+
 	/**
 	 * Start the application.
 	 * @param failureHandler a failure handler for application that won't start
@@ -321,6 +353,7 @@ public class Restarter {
 				context.close();
 				this.rootContexts.remove(context);
 			}
+			this.beanReloader = null;
 			cleanupCaches();
 			if (this.forceReferenceCleanup) {
 				forceReferenceCleanup();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2015 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.boot.devtools.restart.classloader;
 
 import java.io.Serializable;
+import java.util.Arrays;
 
 import org.springframework.util.Assert;
 
@@ -38,6 +39,8 @@ public class ClassLoaderFile implements Serializable {
 
 	private final long lastModified;
 
+	private transient int contentHash;
+
 	/**
 	 * Create a new {@link ClassLoaderFile} instance.
 	 * @param kind the kind of file
@@ -87,6 +90,33 @@ public class ClassLoaderFile implements Serializable {
 		return this.contents;
 	}
 
+	/**
+	 * Return a hash of the contents of the file. The hash is calculated when first
+	 * requested and then cached.
+	 * @return the content hash
+	 * @since 2.0.0
+	 */
+	public int getContentHash() {
+		int hash = this.contentHash;
+		if (hash == 0 && this.contents != null) {
+			hash = Arrays.hashCode(this.contents);
+			this.contentHash = hash;
+		}
+		return hash;
+	}
+
+	/**
+	 * Return whether this file has the same {@link Kind} and contents as the given file.
+	 * @param file the file to compare with
+	 * @return {@code true} if the files are the same apart from their last modified time
+	 * @since 2.0.0
+	 */
+	public boolean hasSameContents(ClassLoaderFile file) {
+		return file != null && this.kind == file.getKind()
+				&& getContentHash() == file.getContentHash()
+				&& Arrays.equals(this.contents, file.getContents());
+	}
+
 	/**
 	 * The kinds of class load files.
 	 */
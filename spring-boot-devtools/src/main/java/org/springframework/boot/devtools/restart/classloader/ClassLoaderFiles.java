@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2015 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,9 +16,12 @@
 
 package org.springframework.boot.devtools.restart.classloader;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -30,7 +33,9 @@ import org.springframework.util.Assert;
 
 /**
  * {@link ClassLoaderFileRepository} that maintains a collection of
- * {@link ClassLoaderFile} items grouped by source folders.
+ * {@link ClassLoaderFile} items grouped by source folders. Files are also indexed by name
+ * so that {@link #getFile(String)} does not depend on the number of source folders.
+ * Adding a file with the same contents as the file it replaces keeps the existing file.
  *
  * @author Phillip Webb
  * @since 1.3.0
@@ -43,11 +48,14 @@ public class ClassLoaderFiles implements ClassLoaderFileRepository, Serializable
 
 	private final Map<String, SourceFolder> sourceFolders;
 
+	private transient Map<String, SourceFolder> index;
+
 	/**
 	 * Create a new {@link ClassLoaderFiles} instance.
 	 */
 	public ClassLoaderFiles() {
 		this.sourceFolders = new LinkedHashMap<String, SourceFolder>();
+		this.index = new HashMap<String, SourceFolder>();
 	}
 
 	/**
@@ -56,8 +64,28 @@ public class ClassLoaderFiles implements ClassLoaderFileRepository, Serializable
 	 */
 	public ClassLoaderFiles(ClassLoaderFiles classLoaderFiles) {
 		Assert.notNull(classLoaderFiles, "ClassLoaderFiles must not be null");
-		this.sourceFolders = new LinkedHashMap<String, SourceFolder>(
-				classLoaderFiles.sourceFolders);
+		this.sourceFolders = new LinkedHashMap<String, SourceFolder>();
+		for (SourceFolder sourceFolder : classLoaderFiles.sourceFolders.values()) {
+			this.sourceFolders.put(sourceFolder.getName(),
+					new SourceFolder(sourceFolder));
+		}
+		buildIndex();
+	}
+
+	private void readObject(ObjectInputStream inputStream)
+			throws IOException, ClassNotFoundException {
+		inputStream.defaultReadObject();
+		buildIndex();
+	}
+
+	private void buildIndex() {
+		this.index = new HashMap<String, SourceFolder>(
+				Math.max((int) (size() / 0.75f) + 1, 16));
+		for (SourceFolder sourceFolder : this.sourceFolders.values()) {
+			for (String name : sourceFolder.files.keySet()) {
+				this.index.put(name, sourceFolder);
+			}
+		}
 	}
 
 	/**
@@ -93,14 +121,17 @@ public class ClassLoaderFiles implements ClassLoaderFileRepository, Serializable
 		Assert.notNull(sourceFolder, "SourceFolder must not be null");
 		Assert.notNull(name, "Name must not be null");
 		Assert.notNull(file, "File must not be null");
-		removeAll(name);
-		getOrCreateSourceFolder(sourceFolder).add(name, file);
-	}
-
-	private void removeAll(String name) {
-		for (SourceFolder sourceFolder : this.sourceFolders.values()) {
-			sourceFolder.remove(name);
+		SourceFolder existingFolder = this.index.get(name);
+		if (existingFolder != null) {
+			if (existingFolder.getName().equals(sourceFolder)
+					&& file.hasSameContents(existingFolder.get(name))) {
+				return;
+			}
+			existingFolder.remove(name);
 		}
+		SourceFolder folder = getOrCreateSourceFolder(sourceFolder);
+		folder.add(name, file);
+		this.index.put(name, folder);
 	}
 
 	/**
@@ -140,13 +171,8 @@ public class ClassLoaderFiles implements ClassLoaderFileRepository, Serializable
 
 	@Override
 	public ClassLoaderFile getFile(String name) {
-		for (SourceFolder sourceFolder : this.sourceFolders.values()) {
-			ClassLoaderFile file = sourceFolder.get(name);
-			if (file != null) {
-				return file;
-			}
-		}
-		return null;
+		SourceFolder sourceFolder = this.index.get(name);
+		return (sourceFolder == null ? null : sourceFolder.get(name));
 	}
 
 	/**
@@ -164,6 +190,11 @@ public class ClassLoaderFiles implements ClassLoaderFileRepository, Serializable
 			this.name = name;
 		}
 
+		SourceFolder(SourceFolder sourceFolder) {
+			this.name = sourceFolder.name;
+			this.files.putAll(sourceFolder.files);
+		}
+
 		public Set<Entry<String, ClassLoaderFile>> getFilesEntrySet() {
 			return this.files.entrySet();
 		}
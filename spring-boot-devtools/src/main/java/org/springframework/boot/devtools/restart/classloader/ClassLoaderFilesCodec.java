@@ -0,0 +1,357 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.devtools.restart.classloader;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFile.Kind;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFiles.SourceFolder;
+import org.springframework.util.Assert;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Compact binary encoding of {@link ClassLoaderFiles} used when uploading changes to a
+ * remote application. A manifest of SHA-1 content digests is sent first so that the
+ * receiver can report the files that it already has. The files themselves are then
+ * written as a deflated stream of records in which the contents of those files are
+ * replaced by their digest. The receiver does not need to keep any state between the
+ * two requests as omitted contents are resolved, and verified against their digest,
+ * when the files are read.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+public abstract class ClassLoaderFilesCodec {
+
+	private static final int MANIFEST_MAGIC = 0x5342444D;
+
+	private static final int FILES_MAGIC = 0x53424446;
+
+	private static final int VERSION = 1;
+
+	private static final int END = 0;
+
+	private static final int FOLDER = 1;
+
+	private static final int FILE = 2;
+
+	private static final Kind[] KINDS = Kind.values();
+
+	/**
+	 * Return the type of the payload at the start of the given stream. The stream must
+	 * support {@link InputStream#mark(int) mark} and is reset before returning.
+	 * @param inputStream the source input stream
+	 * @return the payload type
+	 * @throws IOException in case of I/O errors
+	 */
+	public static PayloadType getPayloadType(InputStream inputStream)
+			throws IOException {
+		Assert.isTrue(inputStream.markSupported(), "InputStream must support mark");
+		inputStream.mark(4);
+		try {
+			int magic = new DataInputStream(inputStream).readInt();
+			if (magic == MANIFEST_MAGIC) {
+				return PayloadType.MANIFEST;
+			}
+			return (magic == FILES_MAGIC ? PayloadType.FILES : PayloadType.SERIALIZED);
+		}
+		finally {
+			inputStream.reset();
+		}
+	}
+
+	/**
+	 * Write a manifest containing the name and content digest of each file that has
+	 * contents.
+	 * @param files the files
+	 * @param outputStream the destination output stream
+	 * @throws IOException in case of I/O errors
+	 */
+	public static void writeManifest(ClassLoaderFiles files, OutputStream outputStream)
+			throws IOException {
+		Map<String, byte[]> digests = new LinkedHashMap<String, byte[]>();
+		for (SourceFolder folder : files.getSourceFolders()) {
+			for (Map.Entry<String, ClassLoaderFile> entry : folder.getFilesEntrySet()) {
+				byte[] contents = entry.getValue().getContents();
+				if (contents != null) {
+					digests.put(entry.getKey(), digest(contents));
+				}
+			}
+		}
+		DataOutputStream output = new DataOutputStream(outputStream);
+		output.writeInt(MANIFEST_MAGIC);
+		output.writeByte(VERSION);
+		output.writeInt(digests.size());
+		for (Map.Entry<String, byte[]> entry : digests.entrySet()) {
+			output.writeUTF(entry.getKey());
+			output.write(entry.getValue());
+		}
+		output.flush();
+	}
+
+	/**
+	 * Read a manifest written by {@link #writeManifest(ClassLoaderFiles, OutputStream)}.
+	 * @param inputStream the source input stream
+	 * @return a map of file name to content digest
+	 * @throws IOException in case of I/O errors
+	 */
+	public static Map<String, byte[]> readManifest(InputStream inputStream)
+			throws IOException {
+		DataInputStream input = new DataInputStream(inputStream);
+		readHeader(input, MANIFEST_MAGIC);
+		int size = input.readInt();
+		Map<String, byte[]> digests = new LinkedHashMap<String, byte[]>();
+		for (int i = 0; i < size; i++) {
+			String name = input.readUTF();
+			byte[] digest = new byte[getDigestLength()];
+			input.readFully(digest);
+			digests.put(name, digest);
+		}
+		return digests;
+	}
+
+	/**
+	 * Write the names of files that the receiver already has.
+	 * @param names the file names
+	 * @param outputStream the destination output stream
+	 * @throws IOException in case of I/O errors
+	 */
+	public static void writeNames(Collection<String> names, OutputStream outputStream)
+			throws IOException {
+		DataOutputStream output = new DataOutputStream(outputStream);
+		output.writeInt(names.size());
+		for (String name : names) {
+			output.writeUTF(name);
+		}
+		output.flush();
+	}
+
+	/**
+	 * Read names written by {@link #writeNames(Collection, OutputStream)}.
+	 * @param inputStream the source input stream
+	 * @return the file names
+	 * @throws IOException in case of I/O errors
+	 */
+	public static Set<String> readNames(InputStream inputStream) throws IOException {
+		DataInputStream input = new DataInputStream(inputStream);
+		int size = input.readInt();
+		Set<String> names = new LinkedHashSet<String>();
+		for (int i = 0; i < size; i++) {
+			names.add(input.readUTF());
+		}
+		return names;
+	}
+
+	/**
+	 * Write the given files, replacing the contents of any that the receiver already
+	 * has with their digest. The records are deflated as they are written. The output
+	 * stream is not closed.
+	 * @param files the files to write
+	 * @param existing the names of files whose contents should be omitted
+	 * @param outputStream the destination output stream
+	 * @throws IOException in case of I/O errors
+	 */
+	public static void writeFiles(ClassLoaderFiles files, Set<String> existing,
+			OutputStream outputStream) throws IOException {
+		DataOutputStream header = new DataOutputStream(outputStream);
+		header.writeInt(FILES_MAGIC);
+		header.writeByte(VERSION);
+		header.flush();
+		DataOutputStream output = new DataOutputStream(
+				new BufferedOutputStream(new DeflaterOutputStream(
+						StreamUtils.nonClosing(outputStream))));
+		try {
+			for (SourceFolder folder : files.getSourceFolders()) {
+				output.writeByte(FOLDER);
+				output.writeUTF(folder.getName());
+				for (Map.Entry<String, ClassLoaderFile> entry : folder
+						.getFilesEntrySet()) {
+					writeFile(output, entry.getKey(), entry.getValue(),
+							existing.contains(entry.getKey()));
+				}
+			}
+			output.writeByte(END);
+		}
+		finally {
+			output.close();
+		}
+	}
+
+	private static void writeFile(DataOutputStream output, String name,
+			ClassLoaderFile file, boolean existing) throws IOException {
+		output.writeByte(FILE);
+		output.writeUTF(name);
+		output.writeByte(file.getKind().ordinal());
+		output.writeLong(file.getLastModified());
+		if (file.getKind() != Kind.DELETED) {
+			output.writeBoolean(!existing);
+			if (existing) {
+				output.write(digest(file.getContents()));
+			}
+			else {
+				output.writeInt(file.getContents().length);
+				output.write(file.getContents());
+			}
+		}
+	}
+
+	/**
+	 * Read files written by {@link #writeFiles(ClassLoaderFiles, Set, OutputStream)}. A
+	 * {@link MissingContentsException} is thrown if the contents of an omitted file are
+	 * not available or do not match the digest that was sent.
+	 * @param inputStream the source input stream
+	 * @param existing the source of the contents of files that were omitted
+	 * @return the files
+	 * @throws IOException in case of I/O errors
+	 */
+	public static ClassLoaderFiles readFiles(InputStream inputStream,
+			ExistingContents existing) throws IOException {
+		readHeader(new DataInputStream(inputStream), FILES_MAGIC);
+		Inflater inflater = new Inflater();
+		try {
+			DataInputStream input = new DataInputStream(
+					new InflaterInputStream(inputStream, inflater));
+			ClassLoaderFiles files = new ClassLoaderFiles();
+			String folder = "";
+			int record = input.readUnsignedByte();
+			while (record != END) {
+				if (record == FOLDER) {
+					folder = input.readUTF();
+				}
+				else {
+					Assert.state(record == FILE, "Unexpected record type " + record);
+					String name = input.readUTF();
+					files.addFile(folder, name, readFile(input, name, existing));
+				}
+				record = input.readUnsignedByte();
+			}
+			return files;
+		}
+		finally {
+			inflater.end();
+		}
+	}
+
+	private static ClassLoaderFile readFile(DataInputStream input, String name,
+			ExistingContents existing) throws IOException {
+		Kind kind = KINDS[input.readUnsignedByte()];
+		long lastModified = input.readLong();
+		byte[] contents = null;
+		if (kind != Kind.DELETED) {
+			if (input.readBoolean()) {
+				contents = new byte[input.readInt()];
+				input.readFully(contents);
+			}
+			else {
+				byte[] digest = new byte[getDigestLength()];
+				input.readFully(digest);
+				contents = existing.getContents(name);
+				if (!matches(contents, digest)) {
+					throw new MissingContentsException(name);
+				}
+			}
+		}
+		return new ClassLoaderFile(kind, lastModified, contents);
+	}
+
+	private static void readHeader(DataInputStream input, int magic)
+			throws IOException {
+		Assert.state(input.readInt() == magic, "Unexpected payload");
+		int version = input.readUnsignedByte();
+		Assert.state(version == VERSION, "Unsupported payload version " + version);
+	}
+
+	/**
+	 * Return whether the given contents match the given digest.
+	 * @param contents the contents
+	 * @param digest the expected digest
+	 * @return {@code true} if the contents match
+	 */
+	public static boolean matches(byte[] contents, byte[] digest) {
+		return contents != null && Arrays.equals(digest(contents), digest);
+	}
+
+	static byte[] digest(byte[] contents) {
+		return getMessageDigest().digest(contents);
+	}
+
+	private static int getDigestLength() {
+		return getMessageDigest().getDigestLength();
+	}
+
+	private static MessageDigest getMessageDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-1");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * Source of the contents of files that the receiver already has.
+	 */
+	public interface ExistingContents {
+
+		/**
+		 * Return the current contents of the file with the given name.
+		 * @param name the name of the file
+		 * @return the contents or {@code null} if the file is not available
+		 */
+		byte[] getContents(String name);
+
+	}
+
+	/**
+	 * The types of payload that may be received.
+	 */
+	public enum PayloadType {
+
+		/**
+		 * A manifest of file content digests.
+		 */
+		MANIFEST,
+
+		/**
+		 * Deflated file records.
+		 */
+		FILES,
+
+		/**
+		 * Java serialized {@link ClassLoaderFiles}.
+		 */
+		SERIALIZED
+
+	}
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.devtools.restart.classloader;
+
+import java.io.IOException;
+
+/**
+ * Exception thrown when the contents of a file that were omitted from an upload are not
+ * available to the receiver.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ * @see ClassLoaderFilesCodec#readFiles(java.io.InputStream,
+ * ClassLoaderFilesCodec.ExistingContents)
+ */
+public class MissingContentsException extends IOException {
+
+	private final String name;
+
+	MissingContentsException(String name) {
+		super("No matching existing contents for '" + name + "'");
+		this.name = name;
+	}
+
+	/**
+	 * Return the name of the file whose contents are missing.
+	 * @return the file name
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2015 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -110,7 +110,7 @@ public class RestartClassLoader extends URLClassLoader implements SmartClassLoad
 		if (file != null && file.getKind() == Kind.DELETED) {
 			return null;
 		}
-		URL resource = findResource(name);
+		URL resource = findResource(name, file);
 		if (resource != null) {
 			return resource;
 		}
@@ -118,8 +118,11 @@ public class RestartClassLoader extends URLClassLoader implements SmartClassLoad
 	}
 
 	@Override
-	public URL findResource(final String name) {
-		final ClassLoaderFile file = this.updatedFiles.getFile(name);
+	public URL findResource(String name) {
+		return findResource(name, this.updatedFiles.getFile(name));
+	}
+
+	private URL findResource(final String name, final ClassLoaderFile file) {
 		if (file == null) {
 			return super.findResource(name);
 		}
@@ -145,7 +148,7 @@ public class RestartClassLoader extends URLClassLoader implements SmartClassLoad
 		Class<?> loadedClass = findLoadedClass(name);
 		if (loadedClass == null) {
 			try {
-				loadedClass = findClass(name);
+				loadedClass = findClass(name, file);
 			}
 			catch (ClassNotFoundException ex) {
 				loadedClass = getParent().loadClass(name);
@@ -158,9 +161,13 @@ public class RestartClassLoader extends URLClassLoader implements SmartClassLoad
 	}
 
 	@Override
-	protected Class<?> findClass(final String name) throws ClassNotFoundException {
+	protected Class<?> findClass(String name) throws ClassNotFoundException {
 		String path = name.replace('.', '/').concat(".class");
-		final ClassLoaderFile file = this.updatedFiles.getFile(path);
+		return findClass(name, this.updatedFiles.getFile(path));
+	}
+
+	private Class<?> findClass(final String name, final ClassLoaderFile file)
+			throws ClassNotFoundException {
 		if (file == null) {
 			return super.findClass(name);
 		}
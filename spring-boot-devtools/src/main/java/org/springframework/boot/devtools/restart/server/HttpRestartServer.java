@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2015 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,14 +16,24 @@
 
 package org.springframework.boot.devtools.restart.server;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.boot.devtools.restart.classloader.ClassLoaderFiles;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFilesCodec;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFilesCodec.ExistingContents;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFilesCodec.PayloadType;
+import org.springframework.boot.devtools.restart.classloader.MissingContentsException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.http.server.ServerHttpResponse;
 import org.springframework.util.Assert;
@@ -62,7 +72,12 @@ public class HttpRestartServer {
 	}
 
 	/**
-	 * Handle a server request.
+	 * Handle a server request. Requests may contain a manifest of file digests, to which
+	 * the names of files that are already present are returned, or the changed files
+	 * themselves in either the {@link ClassLoaderFilesCodec binary} or the serialized
+	 * form. If the binary form omits contents that are no longer present a
+	 * {@link HttpStatus#CONFLICT} response is returned so that the client can upload all
+	 * contents instead.
 	 * @param request the request
 	 * @param response the response
 	 * @throws IOException in case of I/O errors
@@ -70,18 +85,58 @@ public class HttpRestartServer {
 	public void handle(ServerHttpRequest request, ServerHttpResponse response)
 			throws IOException {
 		try {
-			Assert.state(request.getHeaders().getContentLength() > 0, "No content");
-			ObjectInputStream objectInputStream = new ObjectInputStream(
-					request.getBody());
-			ClassLoaderFiles files = (ClassLoaderFiles) objectInputStream.readObject();
-			objectInputStream.close();
+			InputStream body = new BufferedInputStream(request.getBody());
+			PayloadType type = ClassLoaderFilesCodec.getPayloadType(body);
+			if (type == PayloadType.MANIFEST) {
+				handleManifest(body, response);
+				return;
+			}
+			ClassLoaderFiles files = (type == PayloadType.FILES ? readFiles(body)
+					: readSerialized(body));
 			this.server.updateAndRestart(files);
 			response.setStatusCode(HttpStatus.OK);
 		}
+		catch (MissingContentsException ex) {
+			logger.debug("Unable to restart with existing contents of " + ex.getName());
+			response.setStatusCode(HttpStatus.CONFLICT);
+		}
 		catch (Exception ex) {
 			logger.warn("Unable to handler restart server HTTP request", ex);
 			response.setStatusCode(HttpStatus.INTERNAL_SERVER_ERROR);
 		}
 	}
 
+	private void handleManifest(InputStream body, ServerHttpResponse response)
+			throws IOException {
+		Set<String> existing = new LinkedHashSet<String>();
+		for (Map.Entry<String, byte[]> entry : ClassLoaderFilesCodec.readManifest(body)
+				.entrySet()) {
+			byte[] contents = this.server.getResourceContents(entry.getKey());
+			if (ClassLoaderFilesCodec.matches(contents, entry.getValue())) {
+				existing.add(entry.getKey());
+			}
+		}
+		response.setStatusCode(HttpStatus.OK);
+		response.getHeaders().setContentType(MediaType.APPLICATION_OCTET_STREAM);
+		ClassLoaderFilesCodec.writeNames(existing, response.getBody());
+	}
+
+	private ClassLoaderFiles readFiles(InputStream body) throws IOException {
+		return ClassLoaderFilesCodec.readFiles(body, new ExistingContents() {
+
+			@Override
+			public byte[] getContents(String name) {
+				return HttpRestartServer.this.server.getResourceContents(name);
+			}
+
+		});
+	}
+
+	private ClassLoaderFiles readSerialized(InputStream body) throws Exception {
+		ObjectInputStream objectInputStream = new ObjectInputStream(body);
+		ClassLoaderFiles files = (ClassLoaderFiles) objectInputStream.readObject();
+		objectInputStream.close();
+		return files;
+	}
+
 }
@@ -167,6 +167,25 @@ public class RestartServer {
 		}
 	}
 
+	/**
+	 * Return the current contents of the named resource as seen by the application or
+	 * {@code null} if there is no such resource.
+	 * @param name the resource name
+	 * @return the resource contents or {@code null}
+	 */
+	byte[] getResourceContents(String name) {
+		URL url = this.classLoader.getResource(name);
+		if (url == null) {
+			return null;
+		}
+		try {
+			return FileCopyUtils.copyToByteArray(url.openStream());
+		}
+		catch (IOException ex) {
+			return null;
+		}
+	}
+
 	/**
 	 * Called to restart the application.
 	 * @param urls the updated URLs
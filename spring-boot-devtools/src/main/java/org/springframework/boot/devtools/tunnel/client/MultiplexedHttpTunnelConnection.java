@@ -0,0 +1,436 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.boot.devtools.tunnel.client;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.boot.devtools.tunnel.payload.HttpTunnelBatch;
+import org.springframework.boot.devtools.tunnel.payload.HttpTunnelBatchForwarder;
+import org.springframework.boot.devtools.tunnel.payload.HttpTunnelBatchForwarder.FrameHandler;
+import org.springframework.boot.devtools.tunnel.payload.HttpTunnelFrame;
+import org.springframework.boot.devtools.tunnel.payload.HttpTunnelFrame.Type;
+import org.springframework.boot.devtools.tunnel.payload.HttpTunnelFrameQueue;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.Assert;
+
+/**
+ * {@link TunnelConnection} implementation that multiplexes any number of logical
+ * channels over a single HTTP tunnel session. Outgoing data is sent in
+ * {@link HttpTunnelBatch batches}: small writes that are queued whilst earlier batches
+ * are in flight are combined and up to {@link #setWindowSize(int) window size} batches
+ * may be outstanding before the server acknowledges them. Requests are sent again if
+ * they fail and all channels are closed if a request cannot be completed.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ * @see TunnelClient
+ * @see org.springframework.boot.devtools.tunnel.server.HttpTunnelServer
+ */
+public class MultiplexedHttpTunnelConnection implements TunnelConnection {
+
+	private static final Log logger = LogFactory
+			.getLog(MultiplexedHttpTunnelConnection.class);
+
+	private static final int DEFAULT_WINDOW_SIZE = 8;
+
+	private static final int MAXIMUM_BATCH_SIZE = 64 * 1024;
+
+	private static final int POLL_REQUESTS = 2;
+
+	private static final int MAXIMUM_ATTEMPTS = 3;
+
+	private final URI uri;
+
+	private final ClientHttpRequestFactory requestFactory;
+
+	private final Executor executor;
+
+	private final String session = UUID.randomUUID().toString();
+
+	private final Object monitor = new Object();
+
+	private final Map<Integer, TunnelChannel> channels = new LinkedHashMap<Integer, TunnelChannel>();
+
+	private final HttpTunnelFrameQueue outgoing = new HttpTunnelFrameQueue();
+
+	private final TreeMap<Long, List<HttpTunnelFrame>> unacknowledged = new TreeMap<Long, List<HttpTunnelFrame>>();
+
+	private final HttpTunnelBatchForwarder forwarder = new HttpTunnelBatchForwarder(
+			new IncomingFrameHandler());
+
+	private int windowSize = DEFAULT_WINDOW_SIZE;
+
+	private int lastChannel;
+
+	private long lastSequence;
+
+	private int pendingRequests;
+
+	/**
+	 * Create a new {@link MultiplexedHttpTunnelConnection} instance.
+	 * @param url the URL to connect to
+	 * @param requestFactory the HTTP request factory
+	 */
+	public MultiplexedHttpTunnelConnection(String url,
+			ClientHttpRequestFactory requestFactory) {
+		this(url, requestFactory, null);
+	}
+
+	/**
+	 * Create a new {@link MultiplexedHttpTunnelConnection} instance.
+	 * @param url the URL to connect to
+	 * @param requestFactory the HTTP request factory
+	 * @param executor the executor used to send requests
+	 */
+	protected MultiplexedHttpTunnelConnection(String url,
+			ClientHttpRequestFactory requestFactory, Executor executor) {
+		Assert.hasLength(url, "URL must not be empty");
+		Assert.notNull(requestFactory, "RequestFactory must not be null");
+		try {
+			this.uri = new URL(url).toURI();
+		}
+		catch (URISyntaxException ex) {
+			throw new IllegalArgumentException("Malformed URL '" + url + "'");
+		}
+		catch (MalformedURLException ex) {
+			throw new IllegalArgumentException("Malformed URL '" + url + "'");
+		}
+		this.requestFactory = requestFactory;
+		this.executor = (executor == null
+				? Executors.newCachedThreadPool(new TunnelThreadFactory()) : executor);
+	}
+
+	/**
+	 * Set the maximum number of batches that may be sent before they are acknowledged.
+	 * @param windowSize the window size
+	 */
+	public void setWindowSize(int windowSize) {
+		Assert.isTrue(windowSize > 0, "WindowSize must be a positive value");
+		this.windowSize = windowSize;
+	}
+
+	@Override
+	public WritableByteChannel open(WritableByteChannel incomingChannel,
+			Closeable closeable) throws Exception {
+		TunnelChannel channel;
+		synchronized (this.monitor) {
+			channel = new TunnelChannel(++this.lastChannel, incomingChannel, closeable);
+			logger.trace("Opening HTTP tunnel channel " + channel.getId() + " to "
+					+ this.uri);
+			this.channels.put(channel.getId(), channel);
+			this.outgoing.add(new HttpTunnelFrame(channel.getId(), Type.OPEN));
+		}
+		sendPending();
+		return channel;
+	}
+
+	/**
+	 * Send any queued frames that fit in the window and make sure that the server has
+	 * requests that it can use to respond whilst channels are open.
+	 */
+	private void sendPending() {
+		List<Runnable> requests = new ArrayList<Runnable>();
+		synchronized (this.monitor) {
+			while (!this.outgoing.isEmpty()
+					&& this.unacknowledged.size() < this.windowSize) {
+				long sequence = ++this.lastSequence;
+				List<HttpTunnelFrame> frames = this.outgoing.take(MAXIMUM_BATCH_SIZE);
+				this.unacknowledged.put(sequence, frames);
+				requests.add(new BatchRequest(sequence, frames));
+			}
+			while (this.pendingRequests + requests.size() < POLL_REQUESTS
+					&& !this.channels.isEmpty()) {
+				requests.add(
+						new BatchRequest(0, Collections.<HttpTunnelFrame>emptyList()));
+			}
+			this.pendingRequests += requests.size();
+		}
+		for (Runnable request : requests) {
+			this.executor.execute(request);
+		}
+	}
+
+	private void send(HttpTunnelFrame frame) {
+		synchronized (this.monitor) {
+			this.outgoing.add(frame);
+		}
+		sendPending();
+	}
+
+	private void acknowledge(long sequence) {
+		synchronized (this.monitor) {
+			this.unacknowledged.headMap(sequence, true).clear();
+		}
+	}
+
+	private void closeChannels() {
+		List<TunnelChannel> channels;
+		synchronized (this.monitor) {
+			channels = new ArrayList<TunnelChannel>(this.channels.values());
+		}
+		for (TunnelChannel channel : channels) {
+			channel.closeQuietly(false);
+		}
+	}
+
+	/**
+	 * A {@link WritableByteChannel} used to transfer the traffic of a single logical
+	 * channel.
+	 */
+	protected class TunnelChannel implements WritableByteChannel {
+
+		private final int id;
+
+		private final WritableByteChannel incomingChannel;
+
+		private final Closeable closeable;
+
+		private volatile boolean open = true;
+
+		TunnelChannel(int id, WritableByteChannel incomingChannel, Closeable closeable) {
+			this.id = id;
+			this.incomingChannel = incomingChannel;
+			this.closeable = closeable;
+		}
+
+		/**
+		 * Return the ID of the logical channel.
+		 * @return the channel ID
+		 */
+		public int getId() {
+			return this.id;
+		}
+
+		@Override
+		public boolean isOpen() {
+			return this.open;
+		}
+
+		@Override
+		public void close() throws IOException {
+			close(true);
+		}
+
+		private void close(boolean notifyServer) throws IOException {
+			synchronized (MultiplexedHttpTunnelConnection.this.monitor) {
+				if (!this.open) {
+					return;
+				}
+				this.open = false;
+				MultiplexedHttpTunnelConnection.this.channels.remove(this.id);
+			}
+			if (notifyServer) {
+				send(new HttpTunnelFrame(this.id, Type.CLOSE));
+			}
+			this.closeable.close();
+		}
+
+		private void closeQuietly(boolean notifyServer) {
+			try {
+				close(notifyServer);
+			}
+			catch (IOException ex) {
+				// Ignore
+			}
+		}
+
+		@Override
+		public int write(ByteBuffer src) throws IOException {
+			int size = src.remaining();
+			if (size > 0) {
+				ByteBuffer data = ByteBuffer.allocate(size);
+				data.put(src);
+				data.flip();
+				send(new HttpTunnelFrame(this.id, Type.DATA, data));
+			}
+			return size;
+		}
+
+		private void receive(HttpTunnelFrame frame) throws IOException {
+			if (frame.getType() == Type.CLOSE) {
+				close(false);
+			}
+			else if (frame.getType() == Type.DATA && this.open) {
+				frame.writeTo(this.incomingChannel);
+			}
+		}
+
+	}
+
+	/**
+	 * {@link FrameHandler} that passes incoming frames to their channel.
+	 */
+	private class IncomingFrameHandler implements FrameHandler {
+
+		@Override
+		public void handle(HttpTunnelFrame frame) throws IOException {
+			TunnelChannel channel;
+			synchronized (MultiplexedHttpTunnelConnection.this.monitor) {
+				channel = MultiplexedHttpTunnelConnection.this.channels
+						.get(frame.getChannel());
+			}
+			if (channel != null) {
+				try {
+					channel.receive(frame);
+				}
+				catch (IOException ex) {
+					logger.trace("Unable to write to tunnel channel " + channel.getId(),
+							ex);
+					channel.closeQuietly(true);
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * A single HTTP request that sends a batch (or polls if the batch has no frames) and
+	 * handles the response.
+	 */
+	private class BatchRequest implements Runnable {
+
+		private final long sequence;
+
+		private final List<HttpTunnelFrame> frames;
+
+		BatchRequest(long sequence, List<HttpTunnelFrame> frames) {
+			this.sequence = sequence;
+			this.frames = frames;
+		}
+
+		@Override
+		public void run() {
+			try {
+				sendAndReceive();
+			}
+			catch (Exception ex) {
+				if (ex instanceof ConnectException) {
+					logger.warn("Failed to connect to remote application at "
+							+ MultiplexedHttpTunnelConnection.this.uri);
+				}
+				else {
+					logger.trace("Unexpected connection error", ex);
+				}
+				closeChannels();
+			}
+			finally {
+				synchronized (MultiplexedHttpTunnelConnection.this.monitor) {
+					MultiplexedHttpTunnelConnection.this.pendingRequests--;
+				}
+				sendPending();
+			}
+		}
+
+		private void sendAndReceive() throws IOException {
+			int attempt = 1;
+			while (true) {
+				try {
+					handleResponse(execute());
+					return;
+				}
+				catch (IOException ex) {
+					if (attempt >= MAXIMUM_ATTEMPTS || ex instanceof ConnectException) {
+						throw ex;
+					}
+					logger.trace("Sending request for batch " + this.sequence + " again",
+							ex);
+					attempt++;
+				}
+			}
+		}
+
+		private ClientHttpResponse execute() throws IOException {
+			HttpTunnelBatch batch = new HttpTunnelBatch(this.sequence,
+					MultiplexedHttpTunnelConnection.this.forwarder.getLastSequence(),
+					this.frames);
+			HttpMethod method = (batch.hasFrames() ? HttpMethod.POST : HttpMethod.GET);
+			ClientHttpRequest request = MultiplexedHttpTunnelConnection.this.requestFactory
+					.createRequest(MultiplexedHttpTunnelConnection.this.uri, method);
+			request.getHeaders().set(HttpTunnelBatch.SESSION_HEADER,
+					MultiplexedHttpTunnelConnection.this.session);
+			batch.assignTo(request);
+			return request.execute();
+		}
+
+		private void handleResponse(ClientHttpResponse response) throws IOException {
+			try {
+				HttpStatus status = response.getStatusCode();
+				if (status == HttpStatus.GONE) {
+					closeChannels();
+				}
+				else if (status == HttpStatus.SERVICE_UNAVAILABLE) {
+					logger.warn("Remote application responded with service unavailable. "
+							+ "Did you forget to start it with remote debugging enabled?");
+					closeChannels();
+				}
+				else if (status == HttpStatus.OK || status == HttpStatus.NO_CONTENT) {
+					HttpTunnelBatch batch = HttpTunnelBatch.get(response);
+					acknowledge(batch.getAcknowledgement());
+					MultiplexedHttpTunnelConnection.this.forwarder.forward(batch);
+				}
+				else {
+					throw new IOException("Unexpected HTTP status " + status);
+				}
+			}
+			finally {
+				response.close();
+			}
+		}
+
+	}
+
+	/**
+	 * {@link ThreadFactory} used to create the tunnel threads.
+	 */
+	private static class TunnelThreadFactory implements ThreadFactory {
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "HTTP Tunnel Connection");
+			thread.setDaemon(true);
+			return thread;
+		}
+
+	}
+
+}
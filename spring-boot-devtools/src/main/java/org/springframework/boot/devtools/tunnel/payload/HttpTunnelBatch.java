@@ -0,0 +1,201 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.boot.devtools.tunnel.payload;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.boot.devtools.tunnel.payload.HttpTunnelFrame.Type;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * A batch of {@link HttpTunnelFrame frames} sent via a multiplexed HTTP tunnel. Batches
+ * that contain frames have a running sequence number (used to ensure they are applied
+ * in the correct order) and every batch carries an acknowledgement of the last sequence
+ * number that has been received from the other side of the tunnel.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+public class HttpTunnelBatch {
+
+	/**
+	 * Name of the header used to identify the tunnel session of a request.
+	 */
+	public static final String SESSION_HEADER = "x-tunnel-session";
+
+	private static final String SEQ_HEADER = "x-seq";
+
+	private static final String ACK_HEADER = "x-ack";
+
+	private static final Type[] TYPES = Type.values();
+
+	private final long sequence;
+
+	private final long acknowledgement;
+
+	private final List<HttpTunnelFrame> frames;
+
+	/**
+	 * Create a new {@link HttpTunnelBatch} instance.
+	 * @param sequence the sequence number of the batch or {@code 0} if it has no frames
+	 * @param acknowledgement the last sequence number received
+	 * @param frames the frames in the batch
+	 */
+	public HttpTunnelBatch(long sequence, long acknowledgement,
+			List<HttpTunnelFrame> frames) {
+		Assert.notNull(frames, "Frames must not be null");
+		Assert.isTrue(frames.isEmpty() ? sequence == 0 : sequence > 0,
+				"Sequence must be positive if and only if the batch has frames");
+		Assert.isTrue(acknowledgement >= 0, "Acknowledgement must not be negative");
+		this.sequence = sequence;
+		this.acknowledgement = acknowledgement;
+		this.frames = Collections.unmodifiableList(frames);
+	}
+
+	/**
+	 * Return the sequence number of the batch or {@code 0} if it has no frames.
+	 * @return the sequence
+	 */
+	public long getSequence() {
+		return this.sequence;
+	}
+
+	/**
+	 * Return the last sequence number that has been received from the other side of the
+	 * tunnel.
+	 * @return the acknowledgement
+	 */
+	public long getAcknowledgement() {
+		return this.acknowledgement;
+	}
+
+	/**
+	 * Return the frames in the batch.
+	 * @return the frames
+	 */
+	public List<HttpTunnelFrame> getFrames() {
+		return this.frames;
+	}
+
+	/**
+	 * Return if the batch has frames.
+	 * @return {@code true} if the batch has frames
+	 */
+	public boolean hasFrames() {
+		return !this.frames.isEmpty();
+	}
+
+	/**
+	 * Assign this batch to the given {@link HttpOutputMessage}.
+	 * @param message the message to assign this batch to
+	 * @throws IOException in case of I/O errors
+	 */
+	public void assignTo(HttpOutputMessage message) throws IOException {
+		Assert.notNull(message, "Message must not be null");
+		HttpHeaders headers = message.getHeaders();
+		headers.add(SEQ_HEADER, Long.toString(this.sequence));
+		headers.add(ACK_HEADER, Long.toString(this.acknowledgement));
+		if (hasFrames()) {
+			byte[] body = encodeFrames();
+			headers.setContentLength(body.length);
+			headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+			message.getBody().write(body);
+			message.getBody().close();
+		}
+	}
+
+	private byte[] encodeFrames() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream output = new DataOutputStream(bytes);
+		output.writeInt(this.frames.size());
+		for (HttpTunnelFrame frame : this.frames) {
+			output.writeInt(frame.getChannel());
+			output.writeByte(frame.getType().ordinal());
+			byte[] data = new byte[frame.getSize()];
+			frame.getData().get(data);
+			output.writeInt(data.length);
+			output.write(data);
+		}
+		output.flush();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Return the {@link HttpTunnelBatch} for the given message.
+	 * @param message the HTTP message
+	 * @return the batch
+	 * @throws IOException in case of I/O errors
+	 */
+	public static HttpTunnelBatch get(HttpInputMessage message) throws IOException {
+		long sequence = getLongHeader(message, SEQ_HEADER);
+		long acknowledgement = getLongHeader(message, ACK_HEADER);
+		List<HttpTunnelFrame> frames = Collections.emptyList();
+		if (sequence > 0) {
+			frames = decodeFrames(new DataInputStream(message.getBody()));
+		}
+		return new HttpTunnelBatch(sequence, acknowledgement, frames);
+	}
+
+	private static List<HttpTunnelFrame> decodeFrames(DataInputStream input)
+			throws IOException {
+		int count = input.readInt();
+		List<HttpTunnelFrame> frames = new ArrayList<HttpTunnelFrame>(count);
+		for (int i = 0; i < count; i++) {
+			int channel = input.readInt();
+			Type type = TYPES[input.readUnsignedByte()];
+			byte[] data = new byte[input.readInt()];
+			input.readFully(data);
+			frames.add(new HttpTunnelFrame(channel, type, ByteBuffer.wrap(data)));
+		}
+		return frames;
+	}
+
+	private static long getLongHeader(HttpInputMessage message, String name) {
+		String value = message.getHeaders().getFirst(name);
+		return (StringUtils.hasLength(value) ? Long.parseLong(value) : 0);
+	}
+
+	/**
+	 * Return the tunnel session of the given message or {@code null} if the message was
+	 * not sent by a multiplexed tunnel.
+	 * @param message the HTTP message
+	 * @return the session or {@code null}
+	 */
+	public static String getSession(HttpInputMessage message) {
+		return message.getHeaders().getFirst(SESSION_HEADER);
+	}
+
+	@Override
+	public String toString() {
+		return "Batch " + this.sequence + " (ack " + this.acknowledgement + ") "
+				+ this.frames;
+	}
+
+}
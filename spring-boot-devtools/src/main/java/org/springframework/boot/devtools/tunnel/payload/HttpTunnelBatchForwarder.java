@@ -0,0 +1,104 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.boot.devtools.tunnel.payload;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.util.Assert;
+
+/**
+ * Utility class that forwards the frames of {@link HttpTunnelBatch} instances to a
+ * {@link FrameHandler}, respecting sequence order. Batches that have already been
+ * received are ignored so that a batch may safely be sent again.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+public class HttpTunnelBatchForwarder {
+
+	private static final int MAXIMUM_QUEUE_SIZE = 100;
+
+	private final Map<Long, HttpTunnelBatch> queue = new HashMap<Long, HttpTunnelBatch>();
+
+	private final Object monitor = new Object();
+
+	private final FrameHandler frameHandler;
+
+	private volatile long lastSequence = 0;
+
+	/**
+	 * Create a new {@link HttpTunnelBatchForwarder} instance.
+	 * @param frameHandler the handler for forwarded frames
+	 */
+	public HttpTunnelBatchForwarder(FrameHandler frameHandler) {
+		Assert.notNull(frameHandler, "FrameHandler must not be null");
+		this.frameHandler = frameHandler;
+	}
+
+	/**
+	 * Forward the frames of the given batch and of any queued batches that follow it.
+	 * Batches that are received out of order are queued until the missing batches
+	 * arrive.
+	 * @param batch the batch to forward
+	 * @throws IOException in case of I/O errors
+	 */
+	public void forward(HttpTunnelBatch batch) throws IOException {
+		synchronized (this.monitor) {
+			long seq = batch.getSequence();
+			if (seq <= this.lastSequence || this.queue.containsKey(seq)) {
+				return;
+			}
+			Assert.state(this.queue.size() < MAXIMUM_QUEUE_SIZE,
+					"Too many batches queued");
+			this.queue.put(seq, batch);
+			HttpTunnelBatch next = this.queue.remove(this.lastSequence + 1);
+			while (next != null) {
+				this.lastSequence = next.getSequence();
+				for (HttpTunnelFrame frame : next.getFrames()) {
+					this.frameHandler.handle(frame);
+				}
+				next = this.queue.remove(this.lastSequence + 1);
+			}
+		}
+	}
+
+	/**
+	 * Return the sequence number of the last batch that was forwarded.
+	 * @return the last sequence number or {@code 0}
+	 */
+	public long getLastSequence() {
+		return this.lastSequence;
+	}
+
+	/**
+	 * Callback interface used to handle forwarded frames.
+	 */
+	public interface FrameHandler {
+
+		/**
+		 * Handle the given frame.
+		 * @param frame the frame to handle
+		 * @throws IOException in case of I/O errors
+		 */
+		void handle(HttpTunnelFrame frame) throws IOException;
+
+	}
+
+}
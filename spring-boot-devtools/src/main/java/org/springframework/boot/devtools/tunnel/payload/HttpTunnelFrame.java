@@ -0,0 +1,139 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.boot.devtools.tunnel.payload;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+import org.springframework.util.Assert;
+
+/**
+ * A frame of data for a single logical channel carried in an {@link HttpTunnelBatch}.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+public class HttpTunnelFrame {
+
+	private static final ByteBuffer NO_DATA = ByteBuffer.allocate(0);
+
+	private final int channel;
+
+	private final Type type;
+
+	private final ByteBuffer data;
+
+	/**
+	 * Create a new {@link HttpTunnelFrame} instance with no data.
+	 * @param channel the logical channel
+	 * @param type the frame type
+	 */
+	public HttpTunnelFrame(int channel, Type type) {
+		this(channel, type, NO_DATA);
+	}
+
+	/**
+	 * Create a new {@link HttpTunnelFrame} instance.
+	 * @param channel the logical channel
+	 * @param type the frame type
+	 * @param data the frame data
+	 */
+	public HttpTunnelFrame(int channel, Type type, ByteBuffer data) {
+		Assert.isTrue(channel > 0, "Channel must be positive");
+		Assert.notNull(type, "Type must not be null");
+		Assert.notNull(data, "Data must not be null");
+		this.channel = channel;
+		this.type = type;
+		this.data = data;
+	}
+
+	/**
+	 * Return the logical channel of the frame.
+	 * @return the channel
+	 */
+	public int getChannel() {
+		return this.channel;
+	}
+
+	/**
+	 * Return the type of the frame.
+	 * @return the type
+	 */
+	public Type getType() {
+		return this.type;
+	}
+
+	/**
+	 * Return a read-only view of the frame data.
+	 * @return the data
+	 */
+	public ByteBuffer getData() {
+		return this.data.asReadOnlyBuffer();
+	}
+
+	/**
+	 * Return the size of the frame data.
+	 * @return the size in bytes
+	 */
+	public int getSize() {
+		return this.data.remaining();
+	}
+
+	/**
+	 * Write the data of this frame to the given target channel. The frame data is not
+	 * consumed so the frame may be written more than once.
+	 * @param channel the channel to write to
+	 * @throws IOException in case of I/O errors
+	 */
+	public void writeTo(WritableByteChannel channel) throws IOException {
+		Assert.notNull(channel, "Channel must not be null");
+		ByteBuffer data = getData();
+		while (data.hasRemaining()) {
+			channel.write(data);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return this.type + " [" + this.channel + "] " + getSize() + " byte(s)";
+	}
+
+	/**
+	 * Frame types.
+	 */
+	public enum Type {
+
+		/**
+		 * Open the logical channel.
+		 */
+		OPEN,
+
+		/**
+		 * Data for the logical channel.
+		 */
+		DATA,
+
+		/**
+		 * Close the logical channel.
+		 */
+		CLOSE
+
+	}
+
+}
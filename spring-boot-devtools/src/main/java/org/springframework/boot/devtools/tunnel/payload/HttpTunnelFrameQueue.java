@@ -0,0 +1,126 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.boot.devtools.tunnel.payload;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.springframework.boot.devtools.tunnel.payload.HttpTunnelFrame.Type;
+import org.springframework.util.Assert;
+
+/**
+ * Queue of {@link HttpTunnelFrame frames} waiting to be sent. Frames are taken in
+ * batches, with adjacent {@link Type#DATA data} frames for the same channel merged so
+ * that many small writes can be sent as a single frame. Instances are not thread-safe
+ * and must be externally synchronized.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+public class HttpTunnelFrameQueue {
+
+	private final Deque<HttpTunnelFrame> frames = new ArrayDeque<HttpTunnelFrame>();
+
+	private int size;
+
+	/**
+	 * Add a frame to the end of the queue.
+	 * @param frame the frame to add
+	 */
+	public void add(HttpTunnelFrame frame) {
+		Assert.notNull(frame, "Frame must not be null");
+		this.frames.addLast(frame);
+		this.size += frame.getSize();
+	}
+
+	/**
+	 * Return if the queue is empty.
+	 * @return {@code true} if there are no frames queued
+	 */
+	public boolean isEmpty() {
+		return this.frames.isEmpty();
+	}
+
+	/**
+	 * Return the total size of the data in the queue.
+	 * @return the size in bytes
+	 */
+	public int getSize() {
+		return this.size;
+	}
+
+	/**
+	 * Take frames from the head of the queue. At least one frame is taken if the queue
+	 * is not empty; further frames are taken while their combined data does not exceed
+	 * the maximum size.
+	 * @param maximumSize the maximum amount of data to take
+	 * @return the frames, with adjacent data frames for the same channel merged
+	 */
+	public List<HttpTunnelFrame> take(int maximumSize) {
+		List<HttpTunnelFrame> taken = new ArrayList<HttpTunnelFrame>();
+		int takenSize = 0;
+		HttpTunnelFrame frame = this.frames.peekFirst();
+		while (frame != null
+				&& (taken.isEmpty() || takenSize + frame.getSize() <= maximumSize)) {
+			this.frames.removeFirst();
+			this.size -= frame.getSize();
+			takenSize += frame.getSize();
+			taken.add(frame);
+			frame = this.frames.peekFirst();
+		}
+		return merge(taken);
+	}
+
+	private List<HttpTunnelFrame> merge(List<HttpTunnelFrame> frames) {
+		List<HttpTunnelFrame> merged = new ArrayList<HttpTunnelFrame>(frames.size());
+		int start = 0;
+		while (start < frames.size()) {
+			int end = start + 1;
+			while (end < frames.size()
+					&& isMergeable(frames.get(start), frames.get(end))) {
+				end++;
+			}
+			merged.add(end - start == 1 ? frames.get(start)
+					: mergeData(frames.subList(start, end)));
+			start = end;
+		}
+		return merged;
+	}
+
+	private boolean isMergeable(HttpTunnelFrame first, HttpTunnelFrame next) {
+		return first.getType() == Type.DATA && next.getType() == Type.DATA
+				&& first.getChannel() == next.getChannel();
+	}
+
+	private HttpTunnelFrame mergeData(List<HttpTunnelFrame> frames) {
+		int mergedSize = 0;
+		for (HttpTunnelFrame frame : frames) {
+			mergedSize += frame.getSize();
+		}
+		ByteBuffer data = ByteBuffer.allocate(mergedSize);
+		for (HttpTunnelFrame frame : frames) {
+			data.put(frame.getData());
+		}
+		data.flip();
+		return new HttpTunnelFrame(frames.get(0).getChannel(), Type.DATA, data);
+	}
+
+}
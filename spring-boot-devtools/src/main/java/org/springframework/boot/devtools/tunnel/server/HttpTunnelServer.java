@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,6 +28,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.boot.devtools.tunnel.payload.HttpTunnelBatch;
 import org.springframework.boot.devtools.tunnel.payload.HttpTunnelPayload;
 import org.springframework.boot.devtools.tunnel.payload.HttpTunnelPayloadForwarder;
 import org.springframework.http.HttpStatus;
@@ -98,6 +99,13 @@ import org.springframework.util.Assert;
  * contains a running sequence number (used to ensure data is applied in the correct
  * order). The first request containing a payload should have a {@code x-seq} value of
  * {@code 1}.
+ * <p>
+ * Requests that include a {@code x-tunnel-session} header are handled as part of a
+ * multiplexed session. Each request and response carries a batch of frames for any
+ * number of logical channels, each of which is connected to the target server using a
+ * separate connection. As well as a {@code x-seq} header, requests and responses include
+ * a {@code x-ack} header containing the last sequence number received so that a window
+ * of several batches can be in flight at once.
  *
  * @author Phillip Webb
  * @author Andy Wilkinson
@@ -125,6 +133,8 @@ public class HttpTunnelServer {
 
 	private volatile ServerThread serverThread;
 
+	private MultiplexedTunnelSession session;
+
 	/**
 	 * Creates a new {@link HttpTunnelServer} instance.
 	 * @param serverConnection the connection to the target server
@@ -151,6 +161,12 @@ public class HttpTunnelServer {
 	 * @throws IOException in case of I/O errors
 	 */
 	protected void handle(HttpConnection httpConnection) throws IOException {
+		String session = HttpTunnelBatch.getSession(httpConnection.getRequest());
+		if (session != null) {
+			getSession(session).handle(httpConnection);
+			httpConnection.waitForResponse();
+			return;
+		}
 		try {
 			getServerThread().handleIncomingHttp(httpConnection);
 			httpConnection.waitForResponse();
@@ -179,6 +195,28 @@ public class HttpTunnelServer {
 		}
 	}
 
+	/**
+	 * Returns the multiplexed session with the given ID, replacing any existing session
+	 * that has a different ID or that has been closed.
+	 * @param id the session ID
+	 * @return the session (never {@code null})
+	 */
+	private MultiplexedTunnelSession getSession(String id) {
+		synchronized (this) {
+			if (this.session != null
+					&& (this.session.isClosed() || !this.session.getId().equals(id))) {
+				this.session.close();
+				this.session = null;
+			}
+			if (this.session == null) {
+				this.session = new MultiplexedTunnelSession(id, this.serverConnection,
+						this.longPollTimeout, this.disconnectTimeout);
+				this.session.start();
+			}
+			return this.session;
+		}
+	}
+
 	/**
 	 * Called when the server thread exits.
 	 */
@@ -481,6 +519,21 @@ public class HttpTunnelServer {
 			complete();
 		}
 
+		/**
+		 * Send a batch response. Batches without frames are sent as a
+		 * {@link HttpStatus#NO_CONTENT} response that carries only the acknowledgement.
+		 * @param batch the batch to send
+		 * @throws IOException in case of I/O errors
+		 */
+		public void respond(HttpTunnelBatch batch) throws IOException {
+			Assert.notNull(batch, "Batch must not be null");
+			this.response.setStatusCode(
+					batch.hasFrames() ? HttpStatus.OK : HttpStatus.NO_CONTENT);
+			batch.assignTo(this.response);
+			this.response.flush();
+			complete();
+		}
+
 		/**
 		 * Called when a request is complete.
 		 */
@@ -0,0 +1,477 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.boot.devtools.tunnel.server;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.boot.devtools.tunnel.payload.HttpTunnelBatch;
+import org.springframework.boot.devtools.tunnel.payload.HttpTunnelBatchForwarder;
+import org.springframework.boot.devtools.tunnel.payload.HttpTunnelBatchForwarder.FrameHandler;
+import org.springframework.boot.devtools.tunnel.payload.HttpTunnelFrame;
+import org.springframework.boot.devtools.tunnel.payload.HttpTunnelFrame.Type;
+import org.springframework.boot.devtools.tunnel.payload.HttpTunnelFrameQueue;
+import org.springframework.boot.devtools.tunnel.server.HttpTunnelServer.HttpConnection;
+import org.springframework.http.HttpStatus;
+
+/**
+ * The server side of a multiplexed HTTP tunnel session. Each logical channel opened by
+ * the client is connected to the target server using a separate
+ * {@link TargetServerConnection}. Data read from the target connections is queued and
+ * sent in batches using the HTTP requests that are being held open, with at most
+ * {@value #WINDOW_SIZE} batches waiting to be acknowledged by the client. Batches that
+ * are not acknowledged within the long poll timeout are sent again.
+ *
+ * @author Jerry Lei
+ * @see org.springframework.boot.devtools.tunnel.client.MultiplexedHttpTunnelConnection
+ */
+class MultiplexedTunnelSession {
+
+	private static final Log logger = LogFactory.getLog(MultiplexedTunnelSession.class);
+
+	private static final int MAXIMUM_HTTP_CONNECTIONS = 2;
+
+	private static final int WINDOW_SIZE = 8;
+
+	private static final int MAXIMUM_BATCH_SIZE = 64 * 1024;
+
+	private static final int MAXIMUM_QUEUED_SIZE = 1024 * 1024;
+
+	private static final int BUFFER_SIZE = 32 * 1024;
+
+	private final String id;
+
+	private final TargetServerConnection serverConnection;
+
+	private final int longPollTimeout;
+
+	private final long disconnectTimeout;
+
+	private final Object monitor = new Object();
+
+	private final Deque<HttpConnection> httpConnections = new ArrayDeque<HttpConnection>();
+
+	private final HttpTunnelFrameQueue outgoing = new HttpTunnelFrameQueue();
+
+	private final TreeMap<Long, UnacknowledgedBatch> unacknowledged = new TreeMap<Long, UnacknowledgedBatch>();
+
+	private final Deque<HttpTunnelBatch> resend = new ArrayDeque<HttpTunnelBatch>();
+
+	private final Map<Integer, TargetChannel> channels = new HashMap<Integer, TargetChannel>();
+
+	private final HttpTunnelBatchForwarder forwarder = new HttpTunnelBatchForwarder(
+			new TargetFrameHandler());
+
+	private long lastSequence;
+
+	private long lastHttpRequestTime = System.currentTimeMillis();
+
+	private boolean closed;
+
+	MultiplexedTunnelSession(String id, TargetServerConnection serverConnection,
+			int longPollTimeout, long disconnectTimeout) {
+		this.id = id;
+		this.serverConnection = serverConnection;
+		this.longPollTimeout = longPollTimeout;
+		this.disconnectTimeout = disconnectTimeout;
+	}
+
+	/**
+	 * Start the thread that expires long polls and detects client disconnects.
+	 */
+	void start() {
+		Thread thread = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				expireHttpConnections();
+			}
+
+		}, "HTTP Tunnel Session");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	String getId() {
+		return this.id;
+	}
+
+	boolean isClosed() {
+		synchronized (this.monitor) {
+			return this.closed;
+		}
+	}
+
+	/**
+	 * Handle an incoming HTTP connection, forwarding any frames that it carries and
+	 * holding it open to carry a later response.
+	 * @param httpConnection the HTTP connection
+	 * @throws IOException in case of I/O errors
+	 */
+	void handle(HttpConnection httpConnection) throws IOException {
+		HttpTunnelBatch batch = HttpTunnelBatch.get(httpConnection.getRequest());
+		synchronized (this.monitor) {
+			if (this.closed) {
+				httpConnection.respond(HttpStatus.GONE);
+				return;
+			}
+			this.lastHttpRequestTime = System.currentTimeMillis();
+			this.unacknowledged.headMap(batch.getAcknowledgement(), true).clear();
+		}
+		try {
+			this.forwarder.forward(batch);
+		}
+		catch (RemoteDebugNotRunningException ex) {
+			httpConnection.respond(HttpStatus.SERVICE_UNAVAILABLE);
+			return;
+		}
+		synchronized (this.monitor) {
+			if (this.closed) {
+				httpConnection.respond(HttpStatus.GONE);
+				return;
+			}
+			this.httpConnections.addLast(httpConnection);
+			while (this.httpConnections.size() > MAXIMUM_HTTP_CONNECTIONS) {
+				respond(this.httpConnections.removeFirst(), createEmptyBatch());
+			}
+			flush();
+		}
+	}
+
+	/**
+	 * Respond to held HTTP connections with queued data whilst the window allows. Must
+	 * be called whilst holding the monitor.
+	 */
+	private void flush() {
+		while (!this.httpConnections.isEmpty() && !this.resend.isEmpty()) {
+			HttpTunnelBatch batch = this.resend.removeFirst();
+			UnacknowledgedBatch unacknowledged = this.unacknowledged
+					.get(batch.getSequence());
+			if (unacknowledged != null) {
+				unacknowledged.sent();
+				respond(this.httpConnections.removeFirst(), batch);
+			}
+		}
+		while (!this.httpConnections.isEmpty() && !this.outgoing.isEmpty()
+				&& this.unacknowledged.size() < WINDOW_SIZE) {
+			HttpTunnelBatch batch = new HttpTunnelBatch(++this.lastSequence,
+					this.forwarder.getLastSequence(),
+					this.outgoing.take(MAXIMUM_BATCH_SIZE));
+			this.unacknowledged.put(batch.getSequence(), new UnacknowledgedBatch(batch));
+			respond(this.httpConnections.removeFirst(), batch);
+		}
+		this.monitor.notifyAll();
+	}
+
+	private void respond(HttpConnection httpConnection, HttpTunnelBatch batch) {
+		try {
+			httpConnection.respond(batch);
+		}
+		catch (Exception ex) {
+			logger.trace("Unable to respond to remote HTTP connection", ex);
+			if (batch.hasFrames() && !this.resend.contains(batch)) {
+				this.resend.addLast(batch);
+			}
+		}
+	}
+
+	private HttpTunnelBatch createEmptyBatch() {
+		return new HttpTunnelBatch(0, this.forwarder.getLastSequence(),
+				Collections.<HttpTunnelFrame>emptyList());
+	}
+
+	private void expireHttpConnections() {
+		synchronized (this.monitor) {
+			while (!this.closed) {
+				try {
+					this.monitor.wait(Math.max(1, this.longPollTimeout / 4));
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					close();
+					return;
+				}
+				Iterator<HttpConnection> iterator = this.httpConnections.iterator();
+				while (iterator.hasNext()) {
+					HttpConnection httpConnection = iterator.next();
+					if (httpConnection.isOlderThan(this.longPollTimeout)) {
+						iterator.remove();
+						respond(httpConnection, createEmptyBatch());
+					}
+				}
+				resendUnacknowledged();
+				long duration = System.currentTimeMillis() - this.lastHttpRequestTime;
+				if (duration > this.disconnectTimeout) {
+					logger.trace("Disconnect timeout: " + this.disconnectTimeout + " "
+							+ duration);
+					close();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Queue any batches that the client has not acknowledged within the long poll timeout
+	 * so that they are sent again. The client acknowledges a batch with the next request
+	 * that it makes, so a missing acknowledgement means that the response was lost. Must
+	 * be called whilst holding the monitor.
+	 */
+	private void resendUnacknowledged() {
+		for (UnacknowledgedBatch unacknowledged : this.unacknowledged.values()) {
+			HttpTunnelBatch batch = unacknowledged.getBatch();
+			if (unacknowledged.isOlderThan(this.longPollTimeout)
+					&& !this.resend.contains(batch)) {
+				logger.trace("Sending batch " + batch.getSequence() + " again");
+				this.resend.addLast(batch);
+			}
+		}
+		flush();
+	}
+
+	/**
+	 * Close the session, its target connections and any held HTTP connections.
+	 */
+	void close() {
+		List<TargetChannel> channels;
+		synchronized (this.monitor) {
+			if (this.closed) {
+				return;
+			}
+			this.closed = true;
+			while (!this.httpConnections.isEmpty()) {
+				try {
+					this.httpConnections.removeFirst().respond(HttpStatus.GONE);
+				}
+				catch (Exception ex) {
+					logger.trace("Unable to close remote HTTP connection");
+				}
+			}
+			channels = new ArrayList<TargetChannel>(this.channels.values());
+			this.channels.clear();
+			this.monitor.notifyAll();
+		}
+		for (TargetChannel channel : channels) {
+			channel.close();
+		}
+	}
+
+	private void queue(HttpTunnelFrame frame) throws InterruptedException {
+		synchronized (this.monitor) {
+			while (!this.closed && this.outgoing.getSize() >= MAXIMUM_QUEUED_SIZE) {
+				this.monitor.wait();
+			}
+			this.outgoing.add(frame);
+			flush();
+		}
+	}
+
+	private void openChannel(int id) throws IOException {
+		synchronized (this.monitor) {
+			if (this.closed || this.channels.containsKey(id)) {
+				return;
+			}
+		}
+		ByteChannel target;
+		try {
+			target = this.serverConnection.open(this.longPollTimeout);
+		}
+		catch (ConnectException ex) {
+			logger.trace("Unable to open target connection for channel " + id, ex);
+			queueClose(id);
+			return;
+		}
+		TargetChannel channel = new TargetChannel(id, target);
+		synchronized (this.monitor) {
+			if (this.closed) {
+				channel.close();
+				return;
+			}
+			this.channels.put(id, channel);
+		}
+		channel.start();
+	}
+
+	private void closeChannel(int id, boolean notifyClient) {
+		TargetChannel channel;
+		synchronized (this.monitor) {
+			channel = this.channels.remove(id);
+		}
+		if (channel != null) {
+			channel.close();
+			if (notifyClient) {
+				queueClose(id);
+			}
+		}
+	}
+
+	private void queueClose(int id) {
+		synchronized (this.monitor) {
+			this.outgoing.add(new HttpTunnelFrame(id, Type.CLOSE));
+			flush();
+		}
+	}
+
+	/**
+	 * {@link FrameHandler} that applies frames received from the client to the target
+	 * connections.
+	 */
+	private class TargetFrameHandler implements FrameHandler {
+
+		@Override
+		public void handle(HttpTunnelFrame frame) throws IOException {
+			if (frame.getType() == Type.OPEN) {
+				openChannel(frame.getChannel());
+			}
+			else if (frame.getType() == Type.CLOSE) {
+				closeChannel(frame.getChannel(), false);
+			}
+			else {
+				TargetChannel channel;
+				synchronized (MultiplexedTunnelSession.this.monitor) {
+					channel = MultiplexedTunnelSession.this.channels
+							.get(frame.getChannel());
+				}
+				if (channel != null) {
+					channel.write(frame);
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * A batch that has been sent to the client and that is waiting to be acknowledged.
+	 */
+	private static class UnacknowledgedBatch {
+
+		private final HttpTunnelBatch batch;
+
+		private long sendTime;
+
+		UnacknowledgedBatch(HttpTunnelBatch batch) {
+			this.batch = batch;
+			sent();
+		}
+
+		HttpTunnelBatch getBatch() {
+			return this.batch;
+		}
+
+		void sent() {
+			this.sendTime = System.currentTimeMillis();
+		}
+
+		boolean isOlderThan(int time) {
+			return System.currentTimeMillis() - this.sendTime > time;
+		}
+
+	}
+
+	/**
+	 * The connection to the target server for a single logical channel.
+	 */
+	private class TargetChannel implements Runnable {
+
+		private final int id;
+
+		private final ByteChannel target;
+
+		TargetChannel(int id, ByteChannel target) {
+			this.id = id;
+			this.target = target;
+		}
+
+		void start() {
+			Thread thread = new Thread(this, "HTTP Tunnel Channel " + this.id);
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+		@Override
+		public void run() {
+			ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+			try {
+				while (this.target.isOpen() && read(buffer) != -1) {
+					buffer.flip();
+					if (buffer.hasRemaining()) {
+						ByteBuffer data = ByteBuffer.allocate(buffer.remaining());
+						data.put(buffer);
+						data.flip();
+						queue(new HttpTunnelFrame(this.id, Type.DATA, data));
+					}
+					buffer.clear();
+				}
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			catch (Exception ex) {
+				logger.trace("Unexpected exception from tunnel channel " + this.id, ex);
+			}
+			finally {
+				closeChannel(this.id, true);
+			}
+		}
+
+		private int read(ByteBuffer buffer) throws IOException {
+			try {
+				return this.target.read(buffer);
+			}
+			catch (InterruptedIOException ex) {
+				// Read timeout, check that the channel is still open
+				return 0;
+			}
+		}
+
+		void write(HttpTunnelFrame frame) {
+			try {
+				frame.writeTo(this.target);
+			}
+			catch (IOException ex) {
+				logger.trace("Unable to write to tunnel channel " + this.id, ex);
+				closeChannel(this.id, true);
+			}
+		}
+
+		void close() {
+			try {
+				this.target.close();
+			}
+			catch (IOException ex) {
+				logger.trace("Unable to close target server connection");
+			}
+		}
+
+	}
+
+}
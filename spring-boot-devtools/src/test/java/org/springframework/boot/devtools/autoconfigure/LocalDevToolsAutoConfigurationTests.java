@@ -20,6 +20,7 @@ import java.io.File;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.catalina.Container;
 import org.apache.catalina.core.StandardWrapper;
@@ -37,8 +38,10 @@ import org.springframework.boot.autoconfigure.web.EmbeddedServletContainerAutoCo
 import org.springframework.boot.autoconfigure.web.ResourceProperties;
 import org.springframework.boot.context.embedded.EmbeddedWebApplicationContext;
 import org.springframework.boot.context.embedded.tomcat.TomcatEmbeddedServletContainer;
+import org.springframework.boot.devtools.classpath.ClassPathChangeReloader;
 import org.springframework.boot.devtools.classpath.ClassPathChangedEvent;
 import org.springframework.boot.devtools.classpath.ClassPathFileSystemWatcher;
+import org.springframework.boot.devtools.filewatch.ChangedFile;
 import org.springframework.boot.devtools.filewatch.ChangedFiles;
 import org.springframework.boot.devtools.livereload.LiveReloadServer;
 import org.springframework.boot.devtools.restart.FailureHandler;
@@ -57,6 +60,8 @@ import org.springframework.util.SocketUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
@@ -192,6 +197,43 @@ public class LocalDevToolsAutoConfigurationTests {
 		verify(this.mockRestarter.getMock(), never()).restart();
 	}
 
+	@Test
+	public void beansReloadedOnClassPathChangeWhenEnabled() throws Exception {
+		Map<String, Object> properties = new HashMap<String, Object>();
+		properties.put("spring.devtools.restart.reload-beans", true);
+		this.context = initializeAndRun(Config.class, properties);
+		given(this.mockRestarter.getMock().reload(anyCollection())).willReturn(true);
+		assertThat(getChangeReloader()
+				.reload(createClassChangeSet("com/example/Service.class"))).isTrue();
+		verify(this.mockRestarter.getMock())
+				.reload(Collections.singleton("com.example.Service"));
+	}
+
+	@Test
+	public void restartRequiredWhenBeansCannotBeReloaded() throws Exception {
+		Map<String, Object> properties = new HashMap<String, Object>();
+		properties.put("spring.devtools.restart.reload-beans", true);
+		this.context = initializeAndRun(Config.class, properties);
+		assertThat(getChangeReloader()
+				.reload(createClassChangeSet("com/example/Service.class"))).isFalse();
+	}
+
+	@Test
+	public void restartRequiredWithoutReloadWhenNonClassFileChanges() throws Exception {
+		Map<String, Object> properties = new HashMap<String, Object>();
+		properties.put("spring.devtools.restart.reload-beans", true);
+		this.context = initializeAndRun(Config.class, properties);
+		assertThat(getChangeReloader()
+				.reload(createClassChangeSet("application.properties"))).isFalse();
+		verify(this.mockRestarter.getMock(), never()).reload(anyCollection());
+	}
+
+	@Test
+	public void beansNotReloadedByDefault() throws Exception {
+		this.context = initializeAndRun(Config.class);
+		assertThat(getChangeReloader()).isNull();
+	}
+
 	@Test
 	public void restartWatchingClassPath() throws Exception {
 		this.context = initializeAndRun(Config.class);
@@ -252,6 +294,21 @@ public class LocalDevToolsAutoConfigurationTests {
 		assertThat(options.getDevelopment()).isEqualTo(true);
 	}
 
+	private ClassPathChangeReloader getChangeReloader() {
+		ClassPathFileSystemWatcher watcher = this.context
+				.getBean(ClassPathFileSystemWatcher.class);
+		return (ClassPathChangeReloader) ReflectionTestUtils.getField(watcher,
+				"changeReloader");
+	}
+
+	private Set<ChangedFiles> createClassChangeSet(String name) {
+		File sourceFolder = new File("target/classes").getAbsoluteFile();
+		ChangedFile changedFile = new ChangedFile(sourceFolder,
+				new File(sourceFolder, name), ChangedFile.Type.MODIFY);
+		return Collections.singleton(new ChangedFiles(sourceFolder,
+				Collections.singleton(changedFile)));
+	}
+
 	private ConfigurableApplicationContext initializeAndRun(Class<?> config,
 			String... args) {
 		return initializeAndRun(config, Collections.<String, Object>emptyMap(), args);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,9 +19,12 @@ package org.springframework.boot.devtools.classpath;
 import java.io.File;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -29,6 +32,7 @@ import org.junit.rules.ExpectedException;
 import org.junit.rules.TemporaryFolder;
 
 import org.springframework.boot.devtools.filewatch.ChangedFile;
+import org.springframework.boot.devtools.filewatch.ChangedFiles;
 import org.springframework.boot.devtools.filewatch.FileSystemWatcher;
 import org.springframework.boot.devtools.filewatch.FileSystemWatcherFactory;
 import org.springframework.context.ApplicationListener;
@@ -94,6 +98,39 @@ public class ClassPathFileSystemWatcherTests {
 		context.close();
 	}
 
+	@Test
+	public void keepsWatchingAfterChangeIsReloaded() throws Exception {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		Map<String, Object> properties = new HashMap<String, Object>();
+		File folder = this.temp.newFolder();
+		properties.put("urls", Collections.singletonList(folder.toURI().toURL()));
+		MapPropertySource propertySource = new MapPropertySource("test", properties);
+		context.getEnvironment().getPropertySources().addLast(propertySource);
+		context.register(ReloadConfig.class);
+		context.refresh();
+		Thread.sleep(200);
+		List<ClassPathChangedEvent> events = context.getBean(Listener.class).getEvents();
+		File classFile = new File(folder, "Example.class");
+		FileCopyUtils.copy("file".getBytes(), classFile);
+		waitForEvents(events, 1);
+		FileCopyUtils.copy("changed".getBytes(), classFile);
+		waitForEvents(events, 2);
+		assertThat(events.size()).isEqualTo(2);
+		assertThat(events.get(0).isRestartRequired()).isFalse();
+		assertThat(events.get(1).isRestartRequired()).isFalse();
+		context.close();
+	}
+
+	private void waitForEvents(List<ClassPathChangedEvent> events, int count)
+			throws InterruptedException {
+		for (int i = 0; i < 40; i++) {
+			if (events.size() >= count) {
+				return;
+			}
+			Thread.sleep(250);
+		}
+	}
+
 	@Configuration
 	public static class Config {
 
@@ -130,9 +167,55 @@ public class ClassPathFileSystemWatcherTests {
 
 	}
 
+	@Configuration
+	public static class ReloadConfig {
+
+		public final Environment environment;
+
+		public ReloadConfig(Environment environment) {
+			this.environment = environment;
+		}
+
+		@Bean
+		public ClassPathFileSystemWatcher watcher() {
+			FileSystemWatcher watcher = new FileSystemWatcher(false, 100, 10);
+			URL[] urls = this.environment.getProperty("urls", URL[].class);
+			ClassPathFileSystemWatcher classPathWatcher = new ClassPathFileSystemWatcher(
+					new MockFileSystemWatcherFactory(watcher), restartStrategy(), urls);
+			classPathWatcher.setStopWatcherOnRestart(true);
+			classPathWatcher.setChangeReloader(new ClassPathChangeReloader() {
+
+				@Override
+				public boolean reload(Set<ChangedFiles> changeSet) {
+					return true;
+				}
+
+			});
+			return classPathWatcher;
+		}
+
+		@Bean
+		public ClassPathRestartStrategy restartStrategy() {
+			return new ClassPathRestartStrategy() {
+
+				@Override
+				public boolean isRestartRequired(ChangedFile file) {
+					return true;
+				}
+
+			};
+		}
+
+		@Bean
+		public Listener listener() {
+			return new Listener();
+		}
+
+	}
+
 	public static class Listener implements ApplicationListener<ClassPathChangedEvent> {
 
-		private List<ClassPathChangedEvent> events = new ArrayList<ClassPathChangedEvent>();
+		private final List<ClassPathChangedEvent> events = new CopyOnWriteArrayList<ClassPathChangedEvent>();
 
 		@Override
 		public void onApplicationEvent(ClassPathChangedEvent event) {
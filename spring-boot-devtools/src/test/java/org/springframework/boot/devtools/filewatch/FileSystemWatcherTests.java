@@ -27,6 +27,7 @@ import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -35,7 +36,9 @@ import org.junit.rules.ExpectedException;
 import org.junit.rules.TemporaryFolder;
 
 import org.springframework.boot.devtools.filewatch.ChangedFile.Type;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.util.FileCopyUtils;
+import org.springframework.util.FileSystemUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -283,8 +286,59 @@ public class FileSystemWatcherTests {
 		assertThat(actual).isEqualTo(expected);
 	}
 
+	@Test
+	public void deleteNestedFolder() throws Exception {
+		File folder = this.temp.newFolder();
+		File nested = new File(folder, "sub");
+		File file1 = touch(new File(nested, "test1.txt"));
+		File file2 = touch(new File(new File(nested, "deeper"), "test2.txt"));
+		this.watcher.addSourceFolder(folder);
+		this.watcher.start();
+		FileSystemUtils.deleteRecursively(nested);
+		this.watcher.stopAfter(1);
+		ChangedFiles changedFiles = getSingleChangedFiles();
+		Set<ChangedFile> expected = new HashSet<ChangedFile>();
+		expected.add(new ChangedFile(folder, file1, Type.DELETE));
+		expected.add(new ChangedFile(folder, file2, Type.DELETE));
+		assertThat(changedFiles.getFiles()).isEqualTo(expected);
+	}
+
+	@Test
+	public void modifyFileInAddedFolder() throws Exception {
+		setupWatcher(100, 50);
+		File folder = startWithNewFolder();
+		File file = touch(new File(new File(folder, "sub"), "test.txt"));
+		while (this.changes.size() != 1) {
+			Thread.sleep(10);
+		}
+		FileCopyUtils.copy("abc".getBytes(), file);
+		this.watcher.stopAfter(1);
+		assertThat(this.changes.size()).isEqualTo(2);
+		ChangedFiles changedFiles = this.changes.get(1).iterator().next();
+		assertThat(changedFiles.getFiles())
+				.containsOnly(new ChangedFile(folder, file, Type.MODIFY));
+	}
+
+	@Test
+	public void scanPoolIsShutDownWhenStopped() throws Exception {
+		FileSystemWatcher watcher = new FileSystemWatcher(false, 20, 10);
+		watcher.addSourceFolder(this.temp.newFolder());
+		watcher.start();
+		ForkJoinPool scanPool = (ForkJoinPool) ReflectionTestUtils.getField(watcher,
+				"scanPool");
+		assertThat(scanPool).isNotSameAs(ForkJoinPool.commonPool());
+		assertThat(scanPool.getParallelism()).isLessThanOrEqualTo(4);
+		watcher.stop();
+		assertThat(scanPool.isShutdown()).isTrue();
+		assertThat(ReflectionTestUtils.getField(watcher, "scanPool")).isNull();
+	}
+
+	protected FileSystemWatcher createWatcher(long pollingInterval, long quietPeriod) {
+		return new FileSystemWatcher(false, pollingInterval, quietPeriod);
+	}
+
 	private void setupWatcher(long pollingInterval, long quietPeriod) {
-		this.watcher = new FileSystemWatcher(false, pollingInterval, quietPeriod);
+		this.watcher = createWatcher(pollingInterval, quietPeriod);
 		this.watcher.addListener(new FileChangeListener() {
 			@Override
 			public void onChange(Set<ChangedFiles> changeSet) {
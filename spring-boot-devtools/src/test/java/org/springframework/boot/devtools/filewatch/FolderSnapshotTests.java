@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,7 +18,14 @@ package org.springframework.boot.devtools.filewatch;
 
 import java.io.File;
 import java.io.IOException;
-
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -43,6 +50,8 @@ public class FolderSnapshotTests {
 	@Rule
 	public TemporaryFolder temporaryFolder = new TemporaryFolder();
 
+	private final ForkJoinPool pool = new ForkJoinPool(2);
+
 	private File folder;
 
 	private FolderSnapshot initialSnapshot;
@@ -50,26 +59,31 @@ public class FolderSnapshotTests {
 	@Before
 	public void setup() throws Exception {
 		this.folder = createTestFolderStructure();
-		this.initialSnapshot = new FolderSnapshot(this.folder);
+		this.initialSnapshot = new FolderSnapshot(this.folder, this.pool);
+	}
+
+	@After
+	public void cleanup() {
+		this.pool.shutdown();
 	}
 
 	@Test
 	public void folderMustNotBeNull() {
 		this.thrown.expect(IllegalArgumentException.class);
 		this.thrown.expectMessage("Folder must not be null");
-		new FolderSnapshot(null);
+		new FolderSnapshot(null, this.pool);
 	}
 
 	@Test
 	public void folderMustNotBeFile() throws Exception {
 		this.thrown.expect(IllegalArgumentException.class);
 		this.thrown.expectMessage("Folder must not be a file");
-		new FolderSnapshot(this.temporaryFolder.newFile());
+		new FolderSnapshot(this.temporaryFolder.newFile(), this.pool);
 	}
 
 	@Test
 	public void equalsWhenNothingHasChanged() throws Exception {
-		FolderSnapshot updatedSnapshot = new FolderSnapshot(this.folder);
+		FolderSnapshot updatedSnapshot = new FolderSnapshot(this.folder, this.pool);
 		assertThat(this.initialSnapshot).isEqualTo(updatedSnapshot);
 		assertThat(this.initialSnapshot.hashCode()).isEqualTo(updatedSnapshot.hashCode());
 	}
@@ -77,14 +91,14 @@ public class FolderSnapshotTests {
 	@Test
 	public void notEqualsWhenAFileIsAdded() throws Exception {
 		new File(new File(this.folder, "folder1"), "newfile").createNewFile();
-		FolderSnapshot updatedSnapshot = new FolderSnapshot(this.folder);
+		FolderSnapshot updatedSnapshot = new FolderSnapshot(this.folder, this.pool);
 		assertThat(this.initialSnapshot).isNotEqualTo(updatedSnapshot);
 	}
 
 	@Test
 	public void notEqualsWhenAFileIsDeleted() throws Exception {
 		new File(new File(this.folder, "folder1"), "file1").delete();
-		FolderSnapshot updatedSnapshot = new FolderSnapshot(this.folder);
+		FolderSnapshot updatedSnapshot = new FolderSnapshot(this.folder, this.pool);
 		assertThat(this.initialSnapshot).isNotEqualTo(updatedSnapshot);
 	}
 
@@ -92,7 +106,7 @@ public class FolderSnapshotTests {
 	public void notEqualsWhenAFileIsModified() throws Exception {
 		File file1 = new File(new File(this.folder, "folder1"), "file1");
 		FileCopyUtils.copy("updatedcontent".getBytes(), file1);
-		FolderSnapshot updatedSnapshot = new FolderSnapshot(this.folder);
+		FolderSnapshot updatedSnapshot = new FolderSnapshot(this.folder, this.pool);
 		assertThat(this.initialSnapshot).isNotEqualTo(updatedSnapshot);
 	}
 
@@ -100,21 +114,22 @@ public class FolderSnapshotTests {
 	public void getChangedFilesSnapshotMustNotBeNull() throws Exception {
 		this.thrown.expect(IllegalArgumentException.class);
 		this.thrown.expectMessage("Snapshot must not be null");
-		this.initialSnapshot.getChangedFiles(null, null);
+		this.initialSnapshot.getChangedFiles(null, null, this.pool);
 	}
 
 	@Test
 	public void getChangedFilesSnapshotMustBeTheSameSourceFolder() throws Exception {
 		this.thrown.expect(IllegalArgumentException.class);
 		this.thrown.expectMessage("Snapshot source folder must be '" + this.folder + "'");
-		this.initialSnapshot
-				.getChangedFiles(new FolderSnapshot(createTestFolderStructure()), null);
+		this.initialSnapshot.getChangedFiles(
+				new FolderSnapshot(createTestFolderStructure(), this.pool), null,
+				this.pool);
 	}
 
 	@Test
 	public void getChangedFilesWhenNothingHasChanged() throws Exception {
-		FolderSnapshot updatedSnapshot = new FolderSnapshot(this.folder);
-		this.initialSnapshot.getChangedFiles(updatedSnapshot, null);
+		FolderSnapshot updatedSnapshot = new FolderSnapshot(this.folder, this.pool);
+		this.initialSnapshot.getChangedFiles(updatedSnapshot, null, this.pool);
 	}
 
 	@Test
@@ -126,15 +141,85 @@ public class FolderSnapshotTests {
 		FileCopyUtils.copy("updatedcontent".getBytes(), file1);
 		file2.delete();
 		newFile.createNewFile();
-		FolderSnapshot updatedSnapshot = new FolderSnapshot(this.folder);
+		FolderSnapshot updatedSnapshot = new FolderSnapshot(this.folder, this.pool);
 		ChangedFiles changedFiles = this.initialSnapshot.getChangedFiles(updatedSnapshot,
-				null);
+				null, this.pool);
 		assertThat(changedFiles.getSourceFolder()).isEqualTo(this.folder);
 		assertThat(getChangedFile(changedFiles, file1).getType()).isEqualTo(Type.MODIFY);
 		assertThat(getChangedFile(changedFiles, file2).getType()).isEqualTo(Type.DELETE);
 		assertThat(getChangedFile(changedFiles, newFile).getType()).isEqualTo(Type.ADD);
 	}
 
+	@Test
+	public void getChangedFilesForLargeTreeIsInScanOrder() throws Exception {
+		File root = this.temporaryFolder.newFolder();
+		List<File> files = createLargeTree(root);
+		FolderSnapshot initial = new FolderSnapshot(root, this.pool);
+		List<File> deleted = new ArrayList<File>();
+		List<File> modified = new ArrayList<File>();
+		for (int i = 0; i < files.size(); i++) {
+			if (i % 3 == 0) {
+				assertThat(files.get(i).delete()).isTrue();
+				deleted.add(files.get(i));
+			}
+			else if (i % 7 == 0) {
+				FileCopyUtils.copy("updatedcontent".getBytes(), files.get(i));
+				modified.add(files.get(i));
+			}
+		}
+		ChangedFiles changedFiles = initial
+				.getChangedFiles(new FolderSnapshot(root, this.pool), null, this.pool);
+		Iterator<ChangedFile> iterator = changedFiles.iterator();
+		for (File file : modified) {
+			ChangedFile changedFile = iterator.next();
+			assertThat(changedFile.getFile()).isEqualTo(file);
+			assertThat(changedFile.getType()).isEqualTo(Type.MODIFY);
+		}
+		for (File file : deleted) {
+			ChangedFile changedFile = iterator.next();
+			assertThat(changedFile.getFile()).isEqualTo(file);
+			assertThat(changedFile.getType()).isEqualTo(Type.DELETE);
+		}
+		assertThat(iterator.hasNext()).isFalse();
+	}
+
+	@Test
+	public void snapshotMultipleFolders() throws Exception {
+		File root = this.temporaryFolder.newFolder();
+		createLargeTree(root);
+		Map<File, FolderSnapshot> snapshots = FolderSnapshot
+				.snapshot(Arrays.asList(root, this.folder), this.pool);
+		assertThat(snapshots.keySet()).containsExactly(root, this.folder);
+		assertThat(snapshots.get(root)).isEqualTo(new FolderSnapshot(root, this.pool));
+		assertThat(snapshots.get(this.folder)).isEqualTo(this.initialSnapshot);
+	}
+
+	private List<File> createLargeTree(File root) throws IOException {
+		for (int i = 0; i < 20; i++) {
+			for (int j = 0; j < 10; j++) {
+				File folder = new File(root, "folder" + i + "/sub" + j);
+				folder.mkdirs();
+				for (int k = 0; k < 10; k++) {
+					FileCopyUtils.copy("abc".getBytes(), new File(folder, "file" + k));
+				}
+			}
+		}
+		List<File> files = new ArrayList<File>();
+		collectFiles(root, files);
+		return files;
+	}
+
+	private void collectFiles(File folder, List<File> files) {
+		for (File child : folder.listFiles()) {
+			if (child.isDirectory()) {
+				collectFiles(child, files);
+			}
+			else {
+				files.add(child);
+			}
+		}
+	}
+
 	private ChangedFile getChangedFile(ChangedFiles changedFiles, File file) {
 		for (ChangedFile changedFile : changedFiles) {
 			if (changedFile.getFile().equals(file)) {
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.devtools.integrationtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.boot.context.embedded.EmbeddedWebServer;
+import org.springframework.boot.context.embedded.tomcat.TomcatEmbeddedServletContainerFactory;
+import org.springframework.boot.devtools.classpath.ClassPathChangedEvent;
+import org.springframework.boot.devtools.filewatch.ChangedFile;
+import org.springframework.boot.devtools.filewatch.ChangedFile.Type;
+import org.springframework.boot.devtools.filewatch.ChangedFiles;
+import org.springframework.boot.devtools.remote.client.ClassPathChangeUploader;
+import org.springframework.boot.devtools.remote.server.AccessManager;
+import org.springframework.boot.devtools.remote.server.Dispatcher;
+import org.springframework.boot.devtools.remote.server.DispatcherFilter;
+import org.springframework.boot.devtools.remote.server.HandlerMapper;
+import org.springframework.boot.devtools.remote.server.UrlHandlerMapper;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFile.Kind;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFiles;
+import org.springframework.boot.devtools.restart.server.DefaultSourceFolderUrlFilter;
+import org.springframework.boot.devtools.restart.server.HttpRestartServer;
+import org.springframework.boot.devtools.restart.server.HttpRestartServerHandler;
+import org.springframework.boot.devtools.restart.server.RestartServer;
+import org.springframework.boot.web.servlet.ServletContextInitializer;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.util.FileCopyUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for uploading class path changes over HTTP.
+ *
+ * @author Jerry Lei
+ */
+public class ClassPathChangeUploadIntegrationTests {
+
+	@Rule
+	public TemporaryFolder temp = new TemporaryFolder();
+
+	private File serverFolder;
+
+	private MockRestartServer restartServer;
+
+	private EmbeddedWebServer webServer;
+
+	@Before
+	public void setup() throws Exception {
+		this.serverFolder = this.temp.newFolder();
+		URLClassLoader classLoader = new URLClassLoader(
+				new URL[] { this.serverFolder.toURI().toURL() }, null);
+		this.restartServer = new MockRestartServer(classLoader);
+		final HttpRestartServer server = new HttpRestartServer(this.restartServer);
+		TomcatEmbeddedServletContainerFactory factory = new TomcatEmbeddedServletContainerFactory(
+				0);
+		this.webServer = factory
+				.getEmbeddedServletContainer(new ServletContextInitializer() {
+
+					@Override
+					public void onStartup(ServletContext servletContext)
+							throws ServletException {
+						HandlerMapper mapper = new UrlHandlerMapper("/restart",
+								new HttpRestartServerHandler(server));
+						Dispatcher dispatcher = new Dispatcher(AccessManager.PERMIT_ALL,
+								Collections.singleton(mapper));
+						servletContext.addFilter("devtools", new DispatcherFilter(dispatcher))
+								.addMappingForUrlPatterns(null, false, "/*");
+					}
+
+				});
+		this.webServer.start();
+	}
+
+	@After
+	public void cleanup() {
+		this.webServer.stop();
+	}
+
+	@Test
+	public void uploadChanges() throws Exception {
+		createFile(this.serverFolder, "Unchanged", "Same");
+		createFile(this.serverFolder, "Modified", "Old");
+		File sourceFolder = this.temp.newFolder();
+		Set<ChangedFile> files = new LinkedHashSet<ChangedFile>();
+		files.add(new ChangedFile(sourceFolder,
+				createFile(sourceFolder, "Unchanged", "Same"), Type.MODIFY));
+		files.add(new ChangedFile(sourceFolder,
+				createFile(sourceFolder, "Modified", "New"), Type.MODIFY));
+		files.add(new ChangedFile(sourceFolder,
+				createFile(sourceFolder, "Added", "Added"), Type.ADD));
+		files.add(new ChangedFile(sourceFolder, new File(sourceFolder, "Deleted"),
+				Type.DELETE));
+		Set<ChangedFiles> changeSet = Collections
+				.singleton(new ChangedFiles(sourceFolder, files));
+		SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+		requestFactory.setBufferRequestBody(false);
+		ClassPathChangeUploader uploader = new ClassPathChangeUploader(
+				"http://localhost:" + this.webServer.getPort() + "/restart",
+				requestFactory);
+		uploader.onApplicationEvent(new ClassPathChangedEvent(this, changeSet, false));
+		ClassLoaderFiles uploaded = this.restartServer.files;
+		assertThat(uploaded).isNotNull();
+		assertThat(uploaded.size()).isEqualTo(4);
+		assertThat(uploaded.getFile("Unchanged").getContents())
+				.isEqualTo("Same".getBytes());
+		assertThat(uploaded.getFile("Modified").getContents())
+				.isEqualTo("New".getBytes());
+		assertThat(uploaded.getFile("Added").getKind()).isEqualTo(Kind.ADDED);
+		assertThat(uploaded.getFile("Added").getContents())
+				.isEqualTo("Added".getBytes());
+		assertThat(uploaded.getFile("Deleted").getKind()).isEqualTo(Kind.DELETED);
+		assertThat(FileCopyUtils
+				.copyToByteArray(new File(this.serverFolder, "Modified")))
+						.isEqualTo("New".getBytes());
+	}
+
+	private File createFile(File folder, String name, String content)
+			throws IOException {
+		File file = new File(folder, name);
+		FileCopyUtils.copy(content.getBytes(), file);
+		return file;
+	}
+
+	private static class MockRestartServer extends RestartServer {
+
+		private ClassLoaderFiles files;
+
+		MockRestartServer(ClassLoader classLoader) {
+			super(new DefaultSourceFolderUrlFilter(), classLoader);
+		}
+
+		@Override
+		protected void restart(Set<URL> urls, ClassLoaderFiles files) {
+			this.files = files;
+		}
+
+	}
+
+}
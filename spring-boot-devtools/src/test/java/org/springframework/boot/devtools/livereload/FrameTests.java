@@ -18,6 +18,7 @@ package org.springframework.boot.devtools.livereload;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import org.junit.Rule;
@@ -174,6 +175,46 @@ public class FrameTests {
 		assertThat(frame.getType()).isEqualTo(Frame.Type.PONG);
 	}
 
+	@Test
+	public void readFromBuffer() throws Exception {
+		ByteBuffer buffer = ByteBuffer.wrap(new byte[] { (byte) 0x81, (byte) 0x82, 0x0F,
+				0x0F, 0x0F, 0x0F, 0x4E, 0x4E, (byte) 0x89, 0x00 });
+		Frame frame = Frame.read(buffer);
+		assertThat(frame.getType()).isEqualTo(Frame.Type.TEXT);
+		assertThat(frame.getPayload()).isEqualTo(new byte[] { 0x41, 0x41 });
+		assertThat(buffer.position()).isEqualTo(8);
+		assertThat(Frame.read(buffer).getType()).isEqualTo(Frame.Type.PING);
+		assertThat(buffer.hasRemaining()).isFalse();
+	}
+
+	@Test
+	public void readFromBufferWithIncompleteFrame() throws Exception {
+		byte[] bytes = new byte[134];
+		Arrays.fill(bytes, (byte) 0x4E);
+		bytes[0] = (byte) 0x81;
+		bytes[1] = (byte) 0xFE;
+		bytes[2] = 0x00;
+		bytes[3] = 126;
+		bytes[4] = 0x0F;
+		bytes[5] = 0x0F;
+		bytes[6] = 0x0F;
+		bytes[7] = 0x0F;
+		for (int length = 0; length < bytes.length; length++) {
+			ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, length);
+			assertThat(Frame.read(buffer)).isNull();
+			assertThat(buffer.position()).isEqualTo(0);
+		}
+		Frame frame = Frame.read(ByteBuffer.wrap(bytes));
+		assertThat(frame.getPayload()).isEqualTo(createString(126).getBytes());
+	}
+
+	@Test
+	public void readFromBufferFragmentedNotSupported() throws Exception {
+		this.thrown.expect(IllegalStateException.class);
+		this.thrown.expectMessage("Fragmented frames are not supported");
+		Frame.read(ByteBuffer.wrap(new byte[] { 0x0F, 0x00 }));
+	}
+
 	private ConnectionInputStream newConnectionInputStream(byte[] bytes) {
 		return new ConnectionInputStream(new ByteArrayInputStream(bytes));
 	}
@@ -17,10 +17,12 @@
 package org.springframework.boot.devtools.livereload;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.Socket;
 import java.net.URI;
+import java.nio.channels.SocketChannel;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -124,6 +126,118 @@ public class LiveReloadServerTests {
 		assertThat(handler.getCloseStatus().getCode()).isEqualTo(1006);
 	}
 
+	@Test
+	public void triggerReloadWithMultipleClients() throws Exception {
+		List<LiveReloadWebSocketHandler> handlers = connect(10);
+		this.server.triggerReload();
+		Thread.sleep(200);
+		for (LiveReloadWebSocketHandler handler : handlers) {
+			assertThat(handler.getMessages()).hasSize(2);
+			assertThat(handler.getMessages().get(1)).contains("command\":\"reload\"");
+		}
+	}
+
+	@Test
+	public void pingPongWithMultipleClients() throws Exception {
+		List<LiveReloadWebSocketHandler> handlers = connect(10);
+		for (LiveReloadWebSocketHandler handler : handlers) {
+			handler.sendMessage(new PingMessage());
+		}
+		Thread.sleep(200);
+		for (LiveReloadWebSocketHandler handler : handlers) {
+			assertThat(handler.getPongCount()).isEqualTo(1);
+		}
+	}
+
+	@Test
+	public void clientCloseDoesNotAffectOtherClients() throws Exception {
+		List<LiveReloadWebSocketHandler> handlers = connect(3);
+		handlers.get(0).close();
+		awaitClosedException();
+		this.server.triggerReload();
+		Thread.sleep(200);
+		assertThat(handlers.get(0).getMessages()).hasSize(1);
+		assertThat(handlers.get(1).getMessages()).hasSize(2);
+		assertThat(handlers.get(2).getMessages()).hasSize(2);
+	}
+
+	@Test
+	public void requestAndFramesSplitAcrossPackets() throws Exception {
+		Socket socket = new Socket("localhost", this.port);
+		try {
+			socket.setSoTimeout(5000);
+			OutputStream outputStream = socket.getOutputStream();
+			String request = "GET /livereload HTTP/1.1\r\nHost: localhost\r\n"
+					+ "Upgrade: websocket\r\nConnection: Upgrade\r\n"
+					+ "Sec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\n"
+					+ "Sec-WebSocket-Version: 13\r\n\r\n";
+			writeSlowly(outputStream, request.getBytes());
+			ConnectionInputStream inputStream = new ConnectionInputStream(
+					socket.getInputStream());
+			assertThat(readHeader(inputStream)).contains("101 Switching Protocols")
+					.contains("Sec-WebSocket-Accept: s3pPLMBiTxaQ9kYGzzhZRbK+xOo=");
+			assertThat(Frame.read(inputStream).toString()).contains("hello");
+			writeSlowly(outputStream,
+					new byte[] { (byte) 0x89, (byte) 0x80, 0x01, 0x02, 0x03, 0x04 });
+			assertThat(Frame.read(inputStream).getType()).isEqualTo(Frame.Type.PONG);
+			this.server.triggerReload();
+			assertThat(Frame.read(inputStream).toString())
+					.contains("command\":\"reload\"");
+		}
+		finally {
+			socket.close();
+		}
+	}
+
+	private String readHeader(ConnectionInputStream inputStream) throws IOException {
+		StringBuilder header = new StringBuilder();
+		while (header.indexOf("\r\n\r\n") == -1) {
+			header.append((char) inputStream.checkedRead());
+		}
+		return header.toString();
+	}
+
+	private void writeSlowly(OutputStream outputStream, byte[] bytes)
+			throws Exception {
+		for (byte b : bytes) {
+			outputStream.write(b);
+			outputStream.flush();
+			if (b == '\n') {
+				Thread.sleep(10);
+			}
+		}
+		Thread.sleep(10);
+	}
+
+	private List<LiveReloadWebSocketHandler> connect(int count) throws Exception {
+		final List<LiveReloadWebSocketHandler> handlers = Collections
+				.synchronizedList(new ArrayList<LiveReloadWebSocketHandler>());
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int i = 0; i < count; i++) {
+			threads.add(new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						handlers.add(connect());
+					}
+					catch (Exception ex) {
+						throw new IllegalStateException(ex);
+					}
+				}
+
+			}));
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join(TimeUnit.MINUTES.toMillis(1));
+		}
+		assertThat(handlers).hasSize(count);
+		return new ArrayList<LiveReloadWebSocketHandler>(handlers);
+	}
+
 	private LiveReloadWebSocketHandler connect() throws Exception {
 		WebSocketClient client = new StandardWebSocketClient(new WsWebSocketContainer());
 		LiveReloadWebSocketHandler handler = new LiveReloadWebSocketHandler();
@@ -165,9 +279,9 @@ public class LiveReloadServerTests {
 		}
 
 		@Override
-		protected Connection createConnection(java.net.Socket socket,
-				InputStream inputStream, OutputStream outputStream) throws IOException {
-			return new MonitoredConnection(socket, inputStream, outputStream);
+		protected Connection createConnection(SocketChannel channel)
+				throws IOException {
+			return new MonitoredConnection(channel);
 		}
 
 		public List<ConnectionClosedException> getClosedExceptions() {
@@ -178,15 +292,14 @@ public class LiveReloadServerTests {
 
 		private class MonitoredConnection extends Connection {
 
-			MonitoredConnection(java.net.Socket socket, InputStream inputStream,
-					OutputStream outputStream) throws IOException {
-				super(socket, inputStream, outputStream);
+			MonitoredConnection(SocketChannel channel) throws IOException {
+				super(channel);
 			}
 
 			@Override
-			public void run() throws Exception {
+			public void read() throws IOException {
 				try {
-					super.run();
+					super.read();
 				}
 				catch (ConnectionClosedException ex) {
 					ex.printStackTrace();
@@ -207,9 +320,10 @@ public class LiveReloadServerTests {
 
 		private final CountDownLatch helloLatch = new CountDownLatch(2);
 
-		private final List<String> messages = new ArrayList<String>();
+		private final List<String> messages = Collections
+				.synchronizedList(new ArrayList<String>());
 
-		private int pongCount;
+		private volatile int pongCount;
 
 		private CloseStatus closeStatus;
 
@@ -256,7 +370,7 @@ public class LiveReloadServerTests {
 		}
 
 		public List<String> getMessages() {
-			return this.messages;
+			return new ArrayList<String>(this.messages);
 		}
 
 		public int getPongCount() {
@@ -17,13 +17,17 @@
 package org.springframework.boot.devtools.remote.client;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.net.ConnectException;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 
 import org.junit.Before;
@@ -40,6 +44,9 @@ import org.springframework.boot.devtools.restart.classloader.ClassLoaderFile;
 import org.springframework.boot.devtools.restart.classloader.ClassLoaderFile.Kind;
 import org.springframework.boot.devtools.restart.classloader.ClassLoaderFiles;
 import org.springframework.boot.devtools.restart.classloader.ClassLoaderFiles.SourceFolder;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFilesCodec;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFilesCodec.ExistingContents;
+import org.springframework.boot.devtools.restart.classloader.MissingContentsException;
 import org.springframework.boot.devtools.test.MockClientHttpRequestFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.mock.http.client.MockClientHttpRequest;
@@ -101,14 +108,64 @@ public class ClassPathChangeUploaderTests {
 	}
 
 	@Test
-	public void sendsClassLoaderFiles() throws Exception {
+	public void sendsManifestAndClassLoaderFiles() throws Exception {
 		File sourceFolder = this.temp.newFolder();
 		ClassPathChangedEvent event = createClassPathChangedEvent(sourceFolder);
+		this.requestFactory.willRespond(names());
 		this.requestFactory.willRespond(HttpStatus.OK);
 		this.uploader.onApplicationEvent(event);
-		assertThat(this.requestFactory.getExecutedRequests()).hasSize(1);
-		MockClientHttpRequest request = this.requestFactory.getExecutedRequests().get(0);
-		verifyUploadRequest(sourceFolder, request);
+		assertThat(this.requestFactory.getExecutedRequests()).hasSize(2);
+		Map<String, byte[]> manifest = ClassLoaderFilesCodec.readManifest(
+				new ByteArrayInputStream(this.requestFactory.getExecutedRequests().get(0)
+						.getBodyAsBytes()));
+		assertThat(manifest).containsOnlyKeys("File1", "File2");
+		MockClientHttpRequest request = this.requestFactory.getExecutedRequests().get(1);
+		verifyUploadRequest(sourceFolder, readFiles(request), "File1");
+	}
+
+	@Test
+	public void omitsContentsOfExistingFiles() throws Exception {
+		File sourceFolder = this.temp.newFolder();
+		ClassPathChangedEvent event = createClassPathChangedEvent(sourceFolder);
+		this.requestFactory.willRespond(names("File1"));
+		this.requestFactory.willRespond(HttpStatus.OK);
+		this.uploader.onApplicationEvent(event);
+		MockClientHttpRequest request = this.requestFactory.getExecutedRequests().get(1);
+		Map<String, byte[]> existing = Collections.singletonMap("File1",
+				"File1".getBytes());
+		verifyUploadRequest(sourceFolder, readFiles(request, existing), "File1");
+		this.thrown.expect(MissingContentsException.class);
+		readFiles(request, Collections.singletonMap("File1", "Changed".getBytes()));
+	}
+
+	@Test
+	public void uploadsAllContentsWhenExistingContentsAreMissing() throws Exception {
+		File sourceFolder = this.temp.newFolder();
+		ClassPathChangedEvent event = createClassPathChangedEvent(sourceFolder);
+		this.requestFactory.willRespond(names("File1"));
+		this.requestFactory.willRespond(HttpStatus.CONFLICT, HttpStatus.OK);
+		this.uploader.onApplicationEvent(event);
+		assertThat(this.requestFactory.getExecutedRequests()).hasSize(3);
+		verifyUploadRequest(sourceFolder,
+				readFiles(this.requestFactory.getExecutedRequests().get(2)), "File1");
+	}
+
+	@Test
+	public void sendsSerializedClassLoaderFilesWhenManifestIsRejected()
+			throws Exception {
+		File sourceFolder = this.temp.newFolder();
+		ClassPathChangedEvent event = createClassPathChangedEvent(sourceFolder);
+		this.requestFactory.willRespond(HttpStatus.INTERNAL_SERVER_ERROR);
+		this.requestFactory.willRespond(HttpStatus.OK, HttpStatus.OK);
+		this.uploader.onApplicationEvent(event);
+		this.uploader.onApplicationEvent(event);
+		assertThat(this.requestFactory.getExecutedRequests()).hasSize(3);
+		verifyUploadRequest(sourceFolder, deserialize(
+				this.requestFactory.getExecutedRequests().get(1).getBodyAsBytes()),
+				"File1");
+		verifyUploadRequest(sourceFolder, deserialize(
+				this.requestFactory.getExecutedRequests().get(2).getBodyAsBytes()),
+				"File1");
 	}
 
 	@Test
@@ -116,22 +173,22 @@ public class ClassPathChangeUploaderTests {
 		File sourceFolder = this.temp.newFolder();
 		ClassPathChangedEvent event = createClassPathChangedEvent(sourceFolder);
 		this.requestFactory.willRespond(new ConnectException());
+		this.requestFactory.willRespond(names());
 		this.requestFactory.willRespond(HttpStatus.OK);
 		this.uploader.onApplicationEvent(event);
-		assertThat(this.requestFactory.getExecutedRequests()).hasSize(2);
+		assertThat(this.requestFactory.getExecutedRequests()).hasSize(3);
 		verifyUploadRequest(sourceFolder,
-				this.requestFactory.getExecutedRequests().get(1));
+				readFiles(this.requestFactory.getExecutedRequests().get(2)), "File1");
 	}
 
-	private void verifyUploadRequest(File sourceFolder, MockClientHttpRequest request)
-			throws IOException, ClassNotFoundException {
-		ClassLoaderFiles classLoaderFiles = deserialize(request.getBodyAsBytes());
+	private void verifyUploadRequest(File sourceFolder,
+			ClassLoaderFiles classLoaderFiles, String file1Content) {
 		Collection<SourceFolder> sourceFolders = classLoaderFiles.getSourceFolders();
 		assertThat(sourceFolders.size()).isEqualTo(1);
 		SourceFolder classSourceFolder = sourceFolders.iterator().next();
 		assertThat(classSourceFolder.getName()).isEqualTo(sourceFolder.getAbsolutePath());
 		Iterator<ClassLoaderFile> classFiles = classSourceFolder.getFiles().iterator();
-		assertClassFile(classFiles.next(), "File1", ClassLoaderFile.Kind.ADDED);
+		assertClassFile(classFiles.next(), file1Content, ClassLoaderFile.Kind.ADDED);
 		assertClassFile(classFiles.next(), "File2", ClassLoaderFile.Kind.MODIFIED);
 		assertClassFile(classFiles.next(), null, ClassLoaderFile.Kind.DELETED);
 		assertThat(classFiles.hasNext()).isFalse();
@@ -164,6 +221,31 @@ public class ClassPathChangeUploaderTests {
 		return file;
 	}
 
+	private byte[] names(String... names) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		ClassLoaderFilesCodec.writeNames(Arrays.asList(names), outputStream);
+		return outputStream.toByteArray();
+	}
+
+	private ClassLoaderFiles readFiles(MockClientHttpRequest request)
+			throws IOException {
+		return readFiles(request, Collections.<String, byte[]>emptyMap());
+	}
+
+	private ClassLoaderFiles readFiles(MockClientHttpRequest request,
+			final Map<String, byte[]> existing) throws IOException {
+		return ClassLoaderFilesCodec.readFiles(
+				new ByteArrayInputStream(request.getBodyAsBytes()),
+				new ExistingContents() {
+
+					@Override
+					public byte[] getContents(String name) {
+						return existing.get(name);
+					}
+
+				});
+	}
+
 	private ClassLoaderFiles deserialize(byte[] bytes)
 			throws IOException, ClassNotFoundException {
 		ObjectInputStream objectInputStream = new ObjectInputStream(
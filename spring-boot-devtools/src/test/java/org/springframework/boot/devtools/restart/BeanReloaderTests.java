@@ -0,0 +1,182 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.devtools.restart;
+
+import java.net.URL;
+import java.util.Collections;
+
+import org.apache.commons.logging.LogFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.boot.devtools.restart.BeanReloader.ReloadClassLoader;
+import org.springframework.boot.devtools.restart.classloader.RestartClassLoader;
+import org.springframework.boot.devtools.restart.reload.ExampleClient;
+import org.springframework.boot.devtools.restart.reload.ExampleService;
+import org.springframework.boot.devtools.restart.reload.listener.ExampleEventListener;
+import org.springframework.boot.devtools.restart.reload.listener.ExampleEventSource;
+import org.springframework.boot.devtools.restart.reload.lookup.ExampleLookupClient;
+import org.springframework.context.annotation.AnnotationConfigUtils;
+import org.springframework.context.support.GenericApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link BeanReloader}.
+ *
+ * @author Jerry Lei
+ */
+public class BeanReloaderTests {
+
+	private GenericApplicationContext context;
+
+	private BeanReloader reloader;
+
+	@Before
+	public void setup() {
+		load();
+	}
+
+	private void load(Class<?>... additionalTypes) {
+		URL url = getClass().getProtectionDomain().getCodeSource().getLocation();
+		ClassLoader classLoader = new RestartClassLoader(getClass().getClassLoader(),
+				new URL[] { url });
+		this.context = new GenericApplicationContext();
+		this.context.setClassLoader(classLoader);
+		AnnotationConfigUtils.registerAnnotationConfigProcessors(this.context);
+		registerBean("service", ExampleService.class);
+		registerBean("client", ExampleClient.class);
+		registerBean("listener", ExampleEventListener.class);
+		registerBean("source", ExampleEventSource.class);
+		for (Class<?> type : additionalTypes) {
+			registerBean(type.getSimpleName(), type);
+		}
+		this.context.refresh();
+		this.reloader = new BeanReloader(this.context,
+				LogFactory.getLog(BeanReloaderTests.class));
+	}
+
+	private void registerBean(String name, Class<?> type) {
+		GenericBeanDefinition definition = new GenericBeanDefinition();
+		definition.setBeanClassName(type.getName());
+		this.context.registerBeanDefinition(name, definition);
+	}
+
+	@After
+	public void close() {
+		this.context.close();
+	}
+
+	@Test
+	public void reloadRecreatesBeanAndDependents() throws Exception {
+		Object service = this.context.getBean("service");
+		Object client = this.context.getBean("client");
+		Object listener = this.context.getBean("listener");
+		assertThat(service.getClass().getClassLoader())
+				.isInstanceOf(RestartClassLoader.class);
+		assertThat(this.reloader
+				.reload(Collections.singleton(ExampleService.class.getName()))).isTrue();
+		Object reloadedService = this.context.getBean("service");
+		Object reloadedClient = this.context.getBean("client");
+		assertThat(reloadedService).isNotSameAs(service);
+		assertThat(reloadedService.getClass()).isNotSameAs(service.getClass());
+		assertThat(reloadedService.getClass().getClassLoader())
+				.isInstanceOf(ReloadClassLoader.class);
+		assertThat(reloadedClient).isNotSameAs(client);
+		assertThat(reloadedClient.getClass().getClassLoader())
+				.isInstanceOf(ReloadClassLoader.class);
+		assertThat(reloadedClient.getClass().getMethod("getService")
+				.invoke(reloadedClient)).isSameAs(reloadedService);
+		assertThat(client.getClass().getMethod("isDestroyed").invoke(client))
+				.isEqualTo(true);
+		assertThat(this.context.getBean("listener")).isSameAs(listener);
+	}
+
+	@Test
+	public void reloadTwice() throws Exception {
+		assertThat(this.reloader
+				.reload(Collections.singleton(ExampleService.class.getName()))).isTrue();
+		Object service = this.context.getBean("service");
+		assertThat(this.reloader
+				.reload(Collections.singleton(ExampleClient.class.getName()))).isTrue();
+		Object client = this.context.getBean("client");
+		Object reloadedService = this.context.getBean("service");
+		assertThat(reloadedService).isNotSameAs(service);
+		assertThat(client.getClass().getMethod("getService").invoke(client))
+				.isSameAs(reloadedService);
+	}
+
+	@Test
+	public void reloadNestedClassReloadsOwningBean() throws Exception {
+		Object service = this.context.getBean("service");
+		assertThat(this.reloader.reload(
+				Collections.singleton(ExampleService.class.getName() + "$1"))).isTrue();
+		assertThat(this.context.getBean("service")).isNotSameAs(service);
+	}
+
+	@Test
+	public void reloadWhenClassIsNotABean() throws Exception {
+		assertThat(this.reloader.reload(Collections.singleton("com.example.Unknown")))
+				.isFalse();
+	}
+
+	@Test
+	public void reloadWhenBeanHasAnnotatedMethods() throws Exception {
+		Object listener = this.context.getBean("listener");
+		assertThat(this.reloader.reload(
+				Collections.singleton(ExampleEventListener.class.getName()))).isFalse();
+		assertThat(this.context.getBean("listener")).isSameAs(listener);
+	}
+
+	@Test
+	public void reloadRedefinesPackageTogether() throws Exception {
+		assertThat(this.reloader
+				.reload(Collections.singleton(ExampleService.class.getName()))).isTrue();
+		Object service = this.context.getBean("service");
+		assertThat(service.getClass().getMethod("getMessage").invoke(service))
+				.isEqualTo("Hello");
+	}
+
+	@Test
+	public void reloadWhenPackageContainsBeanThatCannotBeReloaded() throws Exception {
+		Object source = this.context.getBean("source");
+		assertThat(this.reloader
+				.reload(Collections.singleton(ExampleEventSource.class.getName())))
+						.isFalse();
+		assertThat(this.context.getBean("source")).isSameAs(source);
+	}
+
+	@Test
+	public void reloadWhenBeanIsLookedUpByType() throws Exception {
+		this.context.close();
+		load(ExampleLookupClient.class);
+		Object service = this.context.getBean("service");
+		assertThat(this.reloader
+				.reload(Collections.singleton(ExampleService.class.getName()))).isFalse();
+		assertThat(this.context.getBean("service")).isSameAs(service);
+	}
+
+	@Test
+	public void reloadWhenContextIsClosed() throws Exception {
+		this.context.close();
+		assertThat(this.reloader
+				.reload(Collections.singleton(ExampleService.class.getName()))).isFalse();
+	}
+
+}
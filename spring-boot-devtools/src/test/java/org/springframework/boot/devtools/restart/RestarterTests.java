@@ -162,6 +162,12 @@ public class RestarterTests {
 		verifyZeroInteractions(objectFactory);
 	}
 
+	@Test
+	public void reloadWithoutRunningApplication() throws Exception {
+		assertThat(Restarter.getInstance()
+				.reload(Collections.singleton("com.example.Service"))).isFalse();
+	}
+
 	@Test
 	public void getThreadFactory() throws Exception {
 		final ClassLoader parentLoader = Thread.currentThread().getContextClassLoader();
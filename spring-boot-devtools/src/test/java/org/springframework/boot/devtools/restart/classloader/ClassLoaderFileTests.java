@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -85,4 +85,19 @@ public class ClassLoaderFileTests {
 		assertThat(file.getContents()).isNull();
 	}
 
+	@Test
+	public void hasSameContents() throws Exception {
+		ClassLoaderFile file = new ClassLoaderFile(Kind.MODIFIED, 1, BYTES);
+		assertThat(file.hasSameContents(
+				new ClassLoaderFile(Kind.MODIFIED, 2, BYTES.clone()))).isTrue();
+		assertThat(file.hasSameContents(new ClassLoaderFile(Kind.ADDED, 1, BYTES)))
+				.isFalse();
+		assertThat(file.hasSameContents(
+				new ClassLoaderFile(Kind.MODIFIED, 1, new byte[BYTES.length])))
+						.isFalse();
+		assertThat(file.hasSameContents(null)).isFalse();
+		assertThat(new ClassLoaderFile(Kind.DELETED, null)
+				.hasSameContents(new ClassLoaderFile(Kind.DELETED, null))).isTrue();
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -176,4 +176,50 @@ public class ClassLoaderFilesTests {
 		assertThat(copy.size()).isEqualTo(2);
 	}
 
+	@Test
+	public void addWithSameContentsKeepsExistingFile() throws Exception {
+		ClassLoaderFile file1 = new ClassLoaderFile(Kind.MODIFIED, 1, new byte[10]);
+		ClassLoaderFile file2 = new ClassLoaderFile(Kind.MODIFIED, 2, new byte[10]);
+		this.files.addFile("a", "myfile", file1);
+		this.files.addFile("a", "myfile", file2);
+		assertThat(this.files.getFile("myfile")).isSameAs(file1);
+		this.files.addFile("b", "myfile", file2);
+		assertThat(this.files.getFile("myfile")).isSameAs(file2);
+		assertThat(this.files.getOrCreateSourceFolder("a").getFiles()).isEmpty();
+	}
+
+	@Test
+	public void copyIsIndependentOfOriginal() throws Exception {
+		ClassLoaderFile file1 = new ClassLoaderFile(Kind.ADDED, new byte[10]);
+		ClassLoaderFile file2 = new ClassLoaderFile(Kind.MODIFIED, new byte[5]);
+		this.files.addFile("a", "myfile", file1);
+		this.files.addFile("b", "other", file2);
+		ClassLoaderFiles copy = new ClassLoaderFiles(this.files);
+		this.files.addFile("b", "myfile", file2);
+		assertThat(this.files.getFile("myfile")).isSameAs(file2);
+		assertThat(copy.getFile("myfile")).isSameAs(file1);
+		assertThat(copy.getOrCreateSourceFolder("b").getFiles()).containsOnly(file2);
+	}
+
+	@Test
+	public void getFileAfterManyAccumulatedChanges() throws Exception {
+		for (int change = 0; change < 1000; change++) {
+			String folder = "folder" + (change % 50);
+			String name = "com/example/Class" + (change % 300) + ".class";
+			this.files.addFile(folder, name,
+					new ClassLoaderFile(Kind.MODIFIED, new byte[] { (byte) change }));
+		}
+		assertThat(this.files.size()).isEqualTo(300);
+		ClassLoaderFiles copy = new ClassLoaderFiles(this.files);
+		for (int i = 0; i < 300; i++) {
+			int lastChange = (i < 100 ? 900 + i : 600 + i);
+			String name = "com/example/Class" + i + ".class";
+			assertThat(copy.getFile(name).getContents())
+					.containsExactly((byte) lastChange);
+			assertThat(copy.getOrCreateSourceFolder("folder" + (lastChange % 50))
+					.getFiles()).contains(copy.getFile(name));
+		}
+		assertThat(copy.getFile("com/example/Missing.class")).isNull();
+	}
+
 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.devtools.restart.reload;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Example bean that depends on {@link ExampleService}, used to test reloading beans.
+ *
+ * @author Jerry Lei
+ */
+public class ExampleClient {
+
+	private final ExampleService service;
+
+	private boolean destroyed;
+
+	@Autowired
+	public ExampleClient(ExampleService service) {
+		this.service = service;
+	}
+
+	public ExampleService getService() {
+		return this.service;
+	}
+
+	public boolean isDestroyed() {
+		return this.destroyed;
+	}
+
+	@PreDestroy
+	public void destroy() {
+		this.destroyed = true;
+	}
+
+}
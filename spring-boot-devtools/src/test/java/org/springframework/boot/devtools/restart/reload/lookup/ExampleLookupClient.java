@@ -0,0 +1,42 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.devtools.restart.reload.lookup;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.devtools.restart.reload.ExampleService;
+
+/**
+ * Example bean that looks up an {@link ExampleService} when it is needed rather than
+ * having it injected, used to test reloading beans.
+ *
+ * @author Jerry Lei
+ */
+public class ExampleLookupClient {
+
+	private final ObjectProvider<ExampleService> service;
+
+	@Autowired
+	public ExampleLookupClient(ObjectProvider<ExampleService> service) {
+		this.service = service;
+	}
+
+	public String getMessage() {
+		return this.service.getObject().getMessage();
+	}
+
+}
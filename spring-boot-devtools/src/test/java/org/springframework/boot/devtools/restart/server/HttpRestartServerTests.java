@@ -16,9 +16,12 @@
 
 package org.springframework.boot.devtools.restart.server;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
+import java.util.Collections;
+import java.util.Set;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -32,12 +35,16 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.boot.devtools.restart.classloader.ClassLoaderFile;
 import org.springframework.boot.devtools.restart.classloader.ClassLoaderFile.Kind;
 import org.springframework.boot.devtools.restart.classloader.ClassLoaderFiles;
+import org.springframework.boot.devtools.restart.classloader.ClassLoaderFilesCodec;
 import org.springframework.http.server.ServletServerHttpRequest;
 import org.springframework.http.server.ServletServerHttpResponse;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 
@@ -94,6 +101,75 @@ public class HttpRestartServerTests {
 		assertThat(response.getStatus()).isEqualTo(200);
 	}
 
+	@Test
+	public void sendManifest() throws Exception {
+		given(this.delegate.getResourceContents("a")).willReturn("A".getBytes());
+		given(this.delegate.getResourceContents("b")).willReturn("B".getBytes());
+		ClassLoaderFiles files = new ClassLoaderFiles();
+		files.addFile("a", new ClassLoaderFile(Kind.MODIFIED, "A".getBytes()));
+		files.addFile("b", new ClassLoaderFile(Kind.MODIFIED, "Changed".getBytes()));
+		files.addFile("c", new ClassLoaderFile(Kind.ADDED, "C".getBytes()));
+		MockHttpServletResponse response = sendManifest(files);
+		assertThat(response.getStatus()).isEqualTo(200);
+		Set<String> names = ClassLoaderFilesCodec
+				.readNames(new ByteArrayInputStream(response.getContentAsByteArray()));
+		assertThat(names).containsExactly("a");
+		verify(this.delegate, never()).updateAndRestart(any(ClassLoaderFiles.class));
+	}
+
+	@Test
+	public void sendClassLoaderFilesWithExistingContents() throws Exception {
+		given(this.delegate.getResourceContents("a")).willReturn("A".getBytes());
+		ClassLoaderFiles files = new ClassLoaderFiles();
+		files.addFile("a", new ClassLoaderFile(Kind.MODIFIED, "A".getBytes()));
+		files.addFile("b", new ClassLoaderFile(Kind.ADDED, "B".getBytes()));
+		files.addFile("c", new ClassLoaderFile(Kind.DELETED, null));
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ClassLoaderFilesCodec.writeFiles(files, Collections.singleton("a"), bytes);
+		request.setContent(bytes.toByteArray());
+		this.server.handle(new ServletServerHttpRequest(request),
+				new ServletServerHttpResponse(response));
+		verify(this.delegate).updateAndRestart(this.filesCaptor.capture());
+		ClassLoaderFiles received = this.filesCaptor.getValue();
+		assertThat(received.getFile("a").getContents()).isEqualTo("A".getBytes());
+		assertThat(received.getFile("b").getContents()).isEqualTo("B".getBytes());
+		assertThat(received.getFile("c").getKind()).isEqualTo(Kind.DELETED);
+		assertThat(response.getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	public void sendClassLoaderFilesWithUnknownExistingContents() throws Exception {
+		ClassLoaderFiles files = new ClassLoaderFiles();
+		files.addFile("a", new ClassLoaderFile(Kind.MODIFIED, "A".getBytes()));
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ClassLoaderFilesCodec.writeFiles(files, Collections.singleton("a"), bytes);
+		request.setContent(bytes.toByteArray());
+		this.server.handle(new ServletServerHttpRequest(request),
+				new ServletServerHttpResponse(response));
+		verify(this.delegate, never()).updateAndRestart(any(ClassLoaderFiles.class));
+		assertThat(response.getStatus()).isEqualTo(409);
+	}
+
+	@Test
+	public void sendClassLoaderFilesWithChangedExistingContents() throws Exception {
+		given(this.delegate.getResourceContents("a")).willReturn("Changed".getBytes());
+		ClassLoaderFiles files = new ClassLoaderFiles();
+		files.addFile("a", new ClassLoaderFile(Kind.MODIFIED, "A".getBytes()));
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ClassLoaderFilesCodec.writeFiles(files, Collections.singleton("a"), bytes);
+		request.setContent(bytes.toByteArray());
+		this.server.handle(new ServletServerHttpRequest(request),
+				new ServletServerHttpResponse(response));
+		verify(this.delegate, never()).updateAndRestart(any(ClassLoaderFiles.class));
+		assertThat(response.getStatus()).isEqualTo(409);
+	}
+
 	@Test
 	public void sendNoContent() throws Exception {
 		MockHttpServletRequest request = new MockHttpServletRequest();
@@ -116,6 +192,20 @@ public class HttpRestartServerTests {
 		assertThat(response.getStatus()).isEqualTo(500);
 	}
 
+	private MockHttpServletResponse sendManifest(ClassLoaderFiles files)
+			throws IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ClassLoaderFilesCodec.writeManifest(files, bytes);
+		request.setContent(bytes.toByteArray());
+		ServletServerHttpResponse serverResponse = new ServletServerHttpResponse(
+				response);
+		this.server.handle(new ServletServerHttpRequest(request), serverResponse);
+		serverResponse.flush();
+		return response;
+	}
+
 	private byte[] serialize(Object object) throws IOException {
 		ByteArrayOutputStream bos = new ByteArrayOutputStream();
 		ObjectOutputStream oos = new ObjectOutputStream(bos);
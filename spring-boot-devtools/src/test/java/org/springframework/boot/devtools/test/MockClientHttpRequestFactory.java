@@ -71,6 +71,12 @@ public class MockClientHttpRequestFactory implements ClientHttpRequestFactory {
 		}
 	}
 
+	public void willRespond(byte[]... response) {
+		for (byte[] payload : response) {
+			this.responses.add(new Response(0, payload, HttpStatus.OK));
+		}
+	}
+
 	public void willRespondAfterDelay(int delay, HttpStatus status) {
 		this.responses.add(new Response(delay, null, status));
 	}
@@ -0,0 +1,407 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.boot.devtools.tunnel.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import org.springframework.boot.devtools.tunnel.server.HttpTunnelServer;
+import org.springframework.boot.devtools.tunnel.server.SocketTargetServerConnection;
+import org.springframework.boot.devtools.tunnel.server.StaticPortProvider;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link MultiplexedHttpTunnelConnection}.
+ *
+ * @author Jerry Lei
+ */
+public class MultiplexedHttpTunnelConnectionTests {
+
+	private static final byte[] JDWP_HANDSHAKE = "JDWP-Handshake".getBytes();
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	private TargetServer targetServer;
+
+	private LoopbackRequestFactory requestFactory;
+
+	private MultiplexedHttpTunnelConnection connection;
+
+	@Before
+	public void setup() throws Exception {
+		this.targetServer = new TargetServer();
+		HttpTunnelServer server = new HttpTunnelServer(new SocketTargetServerConnection(
+				new StaticPortProvider(this.targetServer.getPort())));
+		server.setLongPollTimeout(500);
+		this.requestFactory = new LoopbackRequestFactory(server);
+		this.connection = new MultiplexedHttpTunnelConnection("http://localhost/debug",
+				this.requestFactory);
+	}
+
+	@After
+	public void cleanup() throws Exception {
+		this.targetServer.close();
+	}
+
+	@Test
+	public void urlMustNotBeEmpty() throws Exception {
+		this.thrown.expect(IllegalArgumentException.class);
+		this.thrown.expectMessage("URL must not be empty");
+		new MultiplexedHttpTunnelConnection("", new LoopbackRequestFactory(null));
+	}
+
+	@Test
+	public void urlMustNotBeMalformed() throws Exception {
+		this.thrown.expect(IllegalArgumentException.class);
+		this.thrown.expectMessage("Malformed URL 'htttttp:///ttest'");
+		new MultiplexedHttpTunnelConnection("htttttp:///ttest",
+				new LoopbackRequestFactory(null));
+	}
+
+	@Test
+	public void requestFactoryMustNotBeNull() throws Exception {
+		this.thrown.expect(IllegalArgumentException.class);
+		this.thrown.expectMessage("RequestFactory must not be null");
+		new MultiplexedHttpTunnelConnection("http://localhost", null);
+	}
+
+	@Test
+	public void windowSizeMustBePositive() throws Exception {
+		this.thrown.expect(IllegalArgumentException.class);
+		this.thrown.expectMessage("WindowSize must be a positive value");
+		this.connection.setWindowSize(0);
+	}
+
+	@Test
+	public void multipleChannels() throws Exception {
+		RecordingChannel incoming1 = new RecordingChannel();
+		RecordingChannel incoming2 = new RecordingChannel();
+		WritableByteChannel channel1 = this.connection.open(incoming1, incoming1);
+		WritableByteChannel channel2 = this.connection.open(incoming2, incoming2);
+		channel1.write(ByteBuffer.wrap("hello".getBytes()));
+		channel2.write(ByteBuffer.wrap("world".getBytes()));
+		channel1.write(ByteBuffer.wrap(" there".getBytes()));
+		assertThat(incoming1.await(11)).isEqualTo("hello there");
+		assertThat(incoming2.await(5)).isEqualTo("world");
+		channel1.close();
+		assertThat(channel1.isOpen()).isFalse();
+		channel2.write(ByteBuffer.wrap("!".getBytes()));
+		assertThat(incoming2.await(6)).isEqualTo("world!");
+		channel2.close();
+	}
+
+	@Test
+	public void channelIsClosedWhenTargetServerDisconnects() throws Exception {
+		RecordingChannel incoming = new RecordingChannel();
+		WritableByteChannel channel = this.connection.open(incoming, incoming);
+		channel.write(ByteBuffer.wrap("close".getBytes()));
+		assertThat(incoming.closed.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(channel.isOpen()).isFalse();
+	}
+
+	@Test
+	public void batchIsSentAgainWhenResponseIsLost() throws Exception {
+		RecordingChannel incoming = new RecordingChannel();
+		WritableByteChannel channel = this.connection.open(incoming, incoming);
+		this.requestFactory.dropNextDataResponse();
+		channel.write(ByteBuffer.wrap("hello".getBytes()));
+		assertThat(incoming.await(5)).isEqualTo("hello");
+		assertThat(this.requestFactory.hasDroppedResponse()).isTrue();
+		assertThat(channel.isOpen()).isTrue();
+		channel.write(ByteBuffer.wrap(" there".getBytes()));
+		assertThat(incoming.await(11)).isEqualTo("hello there");
+		channel.close();
+	}
+
+	@Test
+	public void replayJdwpSession() throws Exception {
+		// Replays the handshake and a burst of pipelined command packets, as sent by an
+		// IDE when a debugger attaches, and checks that every reply arrives in order
+		int commands = 500;
+		RecordingChannel incoming = new RecordingChannel();
+		WritableByteChannel channel = this.connection.open(incoming, incoming);
+		channel.write(ByteBuffer.wrap(JDWP_HANDSHAKE));
+		for (int id = 1; id <= commands; id++) {
+			channel.write(ByteBuffer.wrap(createCommandPacket(id)));
+		}
+		byte[] received = incoming.awaitBytes(JDWP_HANDSHAKE.length + commands * 11);
+		DataInputStream input = new DataInputStream(
+				new ByteArrayInputStream(received));
+		byte[] handshake = new byte[JDWP_HANDSHAKE.length];
+		input.readFully(handshake);
+		assertThat(handshake).isEqualTo(JDWP_HANDSHAKE);
+		for (int id = 1; id <= commands; id++) {
+			assertThat(input.readInt()).isEqualTo(11);
+			assertThat(input.readInt()).isEqualTo(id);
+			assertThat(input.readByte()).isEqualTo((byte) 0x80);
+			assertThat(input.readShort()).isEqualTo((short) 0);
+		}
+		channel.close();
+	}
+
+	private byte[] createCommandPacket(int id) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream output = new DataOutputStream(bytes);
+		output.writeInt(11);
+		output.writeInt(id);
+		output.writeByte(0);
+		output.writeByte(1);
+		output.writeByte(1);
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * {@link ClientHttpRequestFactory} that passes requests directly to a
+	 * {@link HttpTunnelServer}.
+	 */
+	private static class LoopbackRequestFactory implements ClientHttpRequestFactory {
+
+		private final HttpTunnelServer server;
+
+		private volatile boolean dropDataResponse;
+
+		private volatile boolean droppedResponse;
+
+		LoopbackRequestFactory(HttpTunnelServer server) {
+			this.server = server;
+		}
+
+		void dropNextDataResponse() {
+			this.dropDataResponse = true;
+		}
+
+		boolean hasDroppedResponse() {
+			return this.droppedResponse;
+		}
+
+		@Override
+		public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod)
+				throws IOException {
+			return new MockClientHttpRequest(httpMethod, uri) {
+
+				@Override
+				protected ClientHttpResponse executeInternal() throws IOException {
+					MockHttpServletRequest servletRequest = new MockHttpServletRequest(
+							getMethod().name(), getURI().getPath());
+					for (String name : getHeaders().keySet()) {
+						servletRequest.addHeader(name, getHeaders().getFirst(name));
+					}
+					servletRequest.setContent(getBodyAsBytes());
+					MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+					LoopbackRequestFactory.this.server.handle(
+							new ServletServerHttpRequest(servletRequest),
+							new ServletServerHttpResponse(servletResponse));
+					if (isDataResponse(servletResponse) && dropResponse()) {
+						throw new IOException("Response lost");
+					}
+					MockClientHttpResponse response = new MockClientHttpResponse(
+							servletResponse.getContentAsByteArray(),
+							HttpStatus.valueOf(servletResponse.getStatus()));
+					for (String name : servletResponse.getHeaderNames()) {
+						response.getHeaders().add(name, servletResponse.getHeader(name));
+					}
+					return response;
+				}
+
+			};
+		}
+
+		private boolean isDataResponse(MockHttpServletResponse servletResponse) {
+			String sequence = servletResponse.getHeader("x-seq");
+			return (sequence != null && !"0".equals(sequence));
+		}
+
+		private synchronized boolean dropResponse() {
+			if (this.dropDataResponse) {
+				this.dropDataResponse = false;
+				this.droppedResponse = true;
+				return true;
+			}
+			return false;
+		}
+
+	}
+
+	/**
+	 * Target server that answers a JDWP handshake, replies to JDWP command packets and
+	 * otherwise echoes the data that it receives. Connections are closed when
+	 * {@code close} is received.
+	 */
+	private static class TargetServer implements Runnable {
+
+		private final ServerSocket serverSocket;
+
+		TargetServer() throws IOException {
+			this.serverSocket = new ServerSocket(0);
+			Thread thread = new Thread(this, "Target Server");
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+		int getPort() {
+			return this.serverSocket.getLocalPort();
+		}
+
+		@Override
+		public void run() {
+			try {
+				while (true) {
+					final Socket socket = this.serverSocket.accept();
+					Thread thread = new Thread(new Runnable() {
+
+						@Override
+						public void run() {
+							try {
+								handle(socket);
+							}
+							catch (IOException ex) {
+								// Connection closed
+							}
+						}
+
+					});
+					thread.setDaemon(true);
+					thread.start();
+				}
+			}
+			catch (IOException ex) {
+				// Server closed
+			}
+		}
+
+		private void handle(Socket socket) throws IOException {
+			try {
+				InputStream input = socket.getInputStream();
+				OutputStream output = socket.getOutputStream();
+				byte[] buffer = new byte[1024];
+				int read = input.read(buffer, 0, JDWP_HANDSHAKE.length);
+				if (read == JDWP_HANDSHAKE.length
+						&& new String(buffer, 0, read).equals(new String(JDWP_HANDSHAKE))) {
+					output.write(JDWP_HANDSHAKE);
+					replyToCommands(new DataInputStream(input),
+							new DataOutputStream(output));
+					return;
+				}
+				while (read != -1) {
+					if (new String(buffer, 0, read).equals("close")) {
+						return;
+					}
+					output.write(buffer, 0, read);
+					read = input.read(buffer);
+				}
+			}
+			finally {
+				socket.close();
+			}
+		}
+
+		private void replyToCommands(DataInputStream input, DataOutputStream output)
+				throws IOException {
+			while (true) {
+				byte[] command = new byte[input.readInt() - 4];
+				input.readFully(command);
+				output.writeInt(11);
+				output.write(command, 0, 4);
+				output.writeByte(0x80);
+				output.writeShort(0);
+				output.flush();
+			}
+		}
+
+		void close() throws IOException {
+			this.serverSocket.close();
+		}
+
+	}
+
+	/**
+	 * {@link WritableByteChannel} that records incoming data.
+	 */
+	private static class RecordingChannel implements WritableByteChannel, Closeable {
+
+		private final ByteArrayOutputStream data = new ByteArrayOutputStream();
+
+		private final CountDownLatch closed = new CountDownLatch(1);
+
+		@Override
+		public synchronized int write(ByteBuffer src) throws IOException {
+			int remaining = src.remaining();
+			while (src.hasRemaining()) {
+				this.data.write(src.get());
+			}
+			notifyAll();
+			return remaining;
+		}
+
+		synchronized byte[] awaitBytes(int size) throws InterruptedException {
+			long end = System.currentTimeMillis() + 10000;
+			while (this.data.size() < size && System.currentTimeMillis() < end) {
+				wait(100);
+			}
+			return this.data.toByteArray();
+		}
+
+		String await(int size) throws InterruptedException {
+			return new String(awaitBytes(size));
+		}
+
+		@Override
+		public boolean isOpen() {
+			return this.closed.getCount() > 0;
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.closed.countDown();
+		}
+
+	}
+
+}
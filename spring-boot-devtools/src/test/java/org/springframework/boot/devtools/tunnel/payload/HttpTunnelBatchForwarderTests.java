@@ -0,0 +1,127 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.boot.devtools.tunnel.payload;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import org.springframework.boot.devtools.tunnel.payload.HttpTunnelBatchForwarder.FrameHandler;
+import org.springframework.boot.devtools.tunnel.payload.HttpTunnelFrame.Type;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link HttpTunnelBatchForwarder}.
+ *
+ * @author Jerry Lei
+ */
+public class HttpTunnelBatchForwarderTests {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	private final RecordingFrameHandler handler = new RecordingFrameHandler();
+
+	private final HttpTunnelBatchForwarder forwarder = new HttpTunnelBatchForwarder(
+			this.handler);
+
+	@Test
+	public void frameHandlerMustNotBeNull() throws Exception {
+		this.thrown.expect(IllegalArgumentException.class);
+		this.thrown.expectMessage("FrameHandler must not be null");
+		new HttpTunnelBatchForwarder(null);
+	}
+
+	@Test
+	public void forwardInSequence() throws Exception {
+		this.forwarder.forward(batch(1, "he"));
+		this.forwarder.forward(batch(2, "ll"));
+		this.forwarder.forward(batch(3, "o"));
+		assertThat(this.handler.toString()).isEqualTo("hello");
+		assertThat(this.forwarder.getLastSequence()).isEqualTo(3);
+	}
+
+	@Test
+	public void forwardOutOfSequence() throws Exception {
+		this.forwarder.forward(batch(3, "o"));
+		this.forwarder.forward(batch(2, "ll"));
+		assertThat(this.forwarder.getLastSequence()).isEqualTo(0);
+		this.forwarder.forward(batch(1, "he"));
+		assertThat(this.handler.toString()).isEqualTo("hello");
+		assertThat(this.forwarder.getLastSequence()).isEqualTo(3);
+	}
+
+	@Test
+	public void forwardIgnoresDuplicates() throws Exception {
+		this.forwarder.forward(batch(1, "he"));
+		this.forwarder.forward(batch(1, "he"));
+		this.forwarder.forward(batch(3, "o"));
+		this.forwarder.forward(batch(3, "o"));
+		this.forwarder.forward(batch(2, "ll"));
+		assertThat(this.handler.toString()).isEqualTo("hello");
+	}
+
+	@Test
+	public void forwardIgnoresBatchesWithoutFrames() throws Exception {
+		this.forwarder.forward(
+				new HttpTunnelBatch(0, 1, Collections.<HttpTunnelFrame>emptyList()));
+		assertThat(this.handler.toString()).isEmpty();
+		assertThat(this.forwarder.getLastSequence()).isEqualTo(0);
+	}
+
+	@Test
+	public void overflow() throws Exception {
+		this.thrown.expect(IllegalStateException.class);
+		this.thrown.expectMessage("Too many batches queued");
+		for (int i = 2; i < 130; i++) {
+			this.forwarder.forward(batch(i, "data" + i));
+		}
+	}
+
+	private HttpTunnelBatch batch(long sequence, String data) {
+		HttpTunnelFrame frame = new HttpTunnelFrame(1, Type.DATA,
+				ByteBuffer.wrap(data.getBytes()));
+		return new HttpTunnelBatch(sequence, 0, Collections.singletonList(frame));
+	}
+
+	private static class RecordingFrameHandler implements FrameHandler {
+
+		private final ByteArrayOutputStream data = new ByteArrayOutputStream();
+
+		@Override
+		public void handle(HttpTunnelFrame frame) throws IOException {
+			ByteBuffer buffer = frame.getData();
+			byte[] bytes = new byte[buffer.remaining()];
+			buffer.get(bytes);
+			this.data.write(bytes);
+		}
+
+		@Override
+		public String toString() {
+			return new String(this.data.toByteArray());
+		}
+
+	}
+
+}
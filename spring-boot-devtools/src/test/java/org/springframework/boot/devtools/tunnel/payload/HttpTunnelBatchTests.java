@@ -0,0 +1,150 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.boot.devtools.tunnel.payload;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import org.springframework.boot.devtools.tunnel.payload.HttpTunnelFrame.Type;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link HttpTunnelBatch}.
+ *
+ * @author Jerry Lei
+ */
+public class HttpTunnelBatchTests {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	@Test
+	public void framesMustNotBeNull() throws Exception {
+		this.thrown.expect(IllegalArgumentException.class);
+		this.thrown.expectMessage("Frames must not be null");
+		new HttpTunnelBatch(1, 0, null);
+	}
+
+	@Test
+	public void sequenceMustBePositiveWhenBatchHasFrames() throws Exception {
+		this.thrown.expect(IllegalArgumentException.class);
+		this.thrown.expectMessage("Sequence must be positive");
+		new HttpTunnelBatch(0, 0, Collections.singletonList(frame(1, "hello")));
+	}
+
+	@Test
+	public void sequenceMustBeZeroWhenBatchHasNoFrames() throws Exception {
+		this.thrown.expect(IllegalArgumentException.class);
+		this.thrown.expectMessage("Sequence must be positive");
+		new HttpTunnelBatch(1, 0, Collections.<HttpTunnelFrame>emptyList());
+	}
+
+	@Test
+	public void acknowledgementMustNotBeNegative() throws Exception {
+		this.thrown.expect(IllegalArgumentException.class);
+		this.thrown.expectMessage("Acknowledgement must not be negative");
+		new HttpTunnelBatch(0, -1, Collections.<HttpTunnelFrame>emptyList());
+	}
+
+	@Test
+	public void assignToAndGet() throws Exception {
+		HttpTunnelBatch batch = new HttpTunnelBatch(3, 2,
+				Arrays.asList(new HttpTunnelFrame(1, Type.OPEN), frame(1, "hello"),
+						frame(2, "world"), new HttpTunnelFrame(2, Type.CLOSE)));
+		MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+		batch.assignTo(new ServletServerHttpResponse(servletResponse));
+		assertThat(servletResponse.getHeader("x-seq")).isEqualTo("3");
+		assertThat(servletResponse.getHeader("x-ack")).isEqualTo("2");
+		MockHttpServletRequest servletRequest = new MockHttpServletRequest();
+		servletRequest.addHeader("x-seq", "3");
+		servletRequest.addHeader("x-ack", "2");
+		servletRequest.setContent(servletResponse.getContentAsByteArray());
+		HttpTunnelBatch received = HttpTunnelBatch
+				.get(new ServletServerHttpRequest(servletRequest));
+		assertThat(received.getSequence()).isEqualTo(3);
+		assertThat(received.getAcknowledgement()).isEqualTo(2);
+		List<HttpTunnelFrame> frames = received.getFrames();
+		assertThat(frames).hasSize(4);
+		assertThat(frames.get(0).getChannel()).isEqualTo(1);
+		assertThat(frames.get(0).getType()).isEqualTo(Type.OPEN);
+		assertThat(getData(frames.get(1))).isEqualTo("hello");
+		assertThat(frames.get(2).getChannel()).isEqualTo(2);
+		assertThat(getData(frames.get(2))).isEqualTo("world");
+		assertThat(frames.get(3).getType()).isEqualTo(Type.CLOSE);
+		assertThat(frames.get(3).getSize()).isEqualTo(0);
+	}
+
+	@Test
+	public void assignToWhenBatchHasNoFrames() throws Exception {
+		HttpTunnelBatch batch = new HttpTunnelBatch(0, 5,
+				Collections.<HttpTunnelFrame>emptyList());
+		MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+		ServletServerHttpResponse response = new ServletServerHttpResponse(
+				servletResponse);
+		batch.assignTo(response);
+		response.flush();
+		assertThat(servletResponse.getHeader("x-seq")).isEqualTo("0");
+		assertThat(servletResponse.getHeader("x-ack")).isEqualTo("5");
+		assertThat(servletResponse.getContentAsByteArray()).isEmpty();
+	}
+
+	@Test
+	public void getWithoutHeaders() throws Exception {
+		HttpInputMessage request = new ServletServerHttpRequest(
+				new MockHttpServletRequest());
+		HttpTunnelBatch batch = HttpTunnelBatch.get(request);
+		assertThat(batch.getSequence()).isEqualTo(0);
+		assertThat(batch.getAcknowledgement()).isEqualTo(0);
+		assertThat(batch.hasFrames()).isFalse();
+	}
+
+	@Test
+	public void getSession() throws Exception {
+		MockHttpServletRequest servletRequest = new MockHttpServletRequest();
+		assertThat(HttpTunnelBatch
+				.getSession(new ServletServerHttpRequest(servletRequest))).isNull();
+		servletRequest.addHeader(HttpTunnelBatch.SESSION_HEADER, "abc");
+		assertThat(HttpTunnelBatch
+				.getSession(new ServletServerHttpRequest(servletRequest)))
+						.isEqualTo("abc");
+	}
+
+	private HttpTunnelFrame frame(int channel, String data) {
+		return new HttpTunnelFrame(channel, Type.DATA, ByteBuffer.wrap(data.getBytes()));
+	}
+
+	private String getData(HttpTunnelFrame frame) {
+		ByteBuffer data = frame.getData();
+		byte[] bytes = new byte[data.remaining()];
+		data.get(bytes);
+		return new String(bytes);
+	}
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.boot.devtools.tunnel.payload;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.springframework.boot.devtools.tunnel.payload.HttpTunnelFrame.Type;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link HttpTunnelFrameQueue}.
+ *
+ * @author Jerry Lei
+ */
+public class HttpTunnelFrameQueueTests {
+
+	private final HttpTunnelFrameQueue queue = new HttpTunnelFrameQueue();
+
+	@Test
+	public void takeMergesAdjacentDataFramesForTheSameChannel() throws Exception {
+		this.queue.add(new HttpTunnelFrame(1, Type.OPEN));
+		this.queue.add(frame(1, "he"));
+		this.queue.add(frame(1, "llo"));
+		this.queue.add(frame(2, "world"));
+		this.queue.add(frame(1, "!"));
+		this.queue.add(new HttpTunnelFrame(1, Type.CLOSE));
+		assertThat(this.queue.getSize()).isEqualTo(11);
+		List<HttpTunnelFrame> frames = this.queue.take(1024);
+		assertThat(this.queue.isEmpty()).isTrue();
+		assertThat(this.queue.getSize()).isEqualTo(0);
+		assertThat(frames).hasSize(5);
+		assertThat(frames.get(0).getType()).isEqualTo(Type.OPEN);
+		assertThat(getData(frames.get(1))).isEqualTo("hello");
+		assertThat(getData(frames.get(2))).isEqualTo("world");
+		assertThat(getData(frames.get(3))).isEqualTo("!");
+		assertThat(frames.get(4).getType()).isEqualTo(Type.CLOSE);
+	}
+
+	@Test
+	public void takeLimitsSize() throws Exception {
+		this.queue.add(frame(1, "abc"));
+		this.queue.add(frame(1, "def"));
+		this.queue.add(frame(1, "ghi"));
+		List<HttpTunnelFrame> frames = this.queue.take(6);
+		assertThat(frames).hasSize(1);
+		assertThat(getData(frames.get(0))).isEqualTo("abcdef");
+		assertThat(this.queue.getSize()).isEqualTo(3);
+		assertThat(getData(this.queue.take(6).get(0))).isEqualTo("ghi");
+	}
+
+	@Test
+	public void takeAlwaysTakesOneFrame() throws Exception {
+		this.queue.add(frame(1, "abcdef"));
+		List<HttpTunnelFrame> frames = this.queue.take(2);
+		assertThat(frames).hasSize(1);
+		assertThat(getData(frames.get(0))).isEqualTo("abcdef");
+		assertThat(this.queue.isEmpty()).isTrue();
+	}
+
+	@Test
+	public void takeWhenEmpty() throws Exception {
+		assertThat(this.queue.take(1024)).isEmpty();
+	}
+
+	private HttpTunnelFrame frame(int channel, String data) {
+		return new HttpTunnelFrame(channel, Type.DATA, ByteBuffer.wrap(data.getBytes()));
+	}
+
+	private String getData(HttpTunnelFrame frame) {
+		ByteBuffer data = frame.getData();
+		byte[] bytes = new byte[data.remaining()];
+		data.get(bytes);
+		return new String(bytes);
+	}
+
+}
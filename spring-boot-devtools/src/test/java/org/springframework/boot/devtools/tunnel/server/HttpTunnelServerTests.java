@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,6 +22,8 @@ import java.net.SocketTimeoutException;
 import java.nio.ByteBuffer;
 import java.nio.channels.ByteChannel;
 import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.TimeUnit;
@@ -36,6 +38,9 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
+import org.springframework.boot.devtools.tunnel.payload.HttpTunnelBatch;
+import org.springframework.boot.devtools.tunnel.payload.HttpTunnelFrame;
+import org.springframework.boot.devtools.tunnel.payload.HttpTunnelFrame.Type;
 import org.springframework.boot.devtools.tunnel.payload.HttpTunnelPayload;
 import org.springframework.boot.devtools.tunnel.server.HttpTunnelServer.HttpConnection;
 import org.springframework.http.HttpStatus;
@@ -286,6 +291,57 @@ public class HttpTunnelServerTests {
 		assertThat(this.servletResponse.getContentLength()).isEqualTo(0);
 	}
 
+	@Test
+	public void httpConnectionRespondWithBatch() throws Exception {
+		HttpConnection connection = new HttpConnection(this.request, this.response);
+		connection.respond(new HttpTunnelBatch(0, 3,
+				Collections.<HttpTunnelFrame>emptyList()));
+		assertThat(this.servletResponse.getStatus()).isEqualTo(204);
+		assertThat(this.servletResponse.getHeader(SEQ_HEADER)).isEqualTo("0");
+		assertThat(this.servletResponse.getHeader("x-ack")).isEqualTo("3");
+	}
+
+	@Test
+	public void multiplexedTraffic() throws Exception {
+		MockHttpConnection h1 = new MockHttpConnection(new HttpTunnelBatch(1, 0,
+				Arrays.asList(new HttpTunnelFrame(1, Type.OPEN), data(1, "hello"))));
+		this.server.handle(h1);
+		this.serverChannel.verifyReceived("hello");
+		this.serverChannel.send("hi");
+		h1.waitForServletResponse();
+		HttpTunnelBatch batch = h1.getBatch();
+		assertThat(batch.getSequence()).isEqualTo(1);
+		assertThat(batch.getAcknowledgement()).isEqualTo(1);
+		assertThat(batch.getFrames()).hasSize(1);
+		assertThat(batch.getFrames().get(0).getChannel()).isEqualTo(1);
+		assertThat(batch.getFrames().get(0).getData())
+				.isEqualTo(ByteBuffer.wrap("hi".getBytes()));
+		MockHttpConnection h2 = new MockHttpConnection(
+				new HttpTunnelBatch(2, 1, Collections.singletonList(data(1, "there"))));
+		this.server.handle(h2);
+		this.serverChannel.verifyReceived("there");
+		this.serverChannel.disconnect();
+		h2.waitForServletResponse();
+		batch = h2.getBatch();
+		assertThat(batch.getSequence()).isEqualTo(2);
+		assertThat(batch.getFrames().get(0).getType()).isEqualTo(Type.CLOSE);
+	}
+
+	@Test
+	public void multiplexedRequestWhenRemoteDebugNotRunning() throws Exception {
+		given(this.serverConnection.open(anyInt()))
+				.willThrow(new RemoteDebugNotRunningException());
+		MockHttpConnection h1 = new MockHttpConnection(new HttpTunnelBatch(1, 0,
+				Collections.singletonList(new HttpTunnelFrame(1, Type.OPEN))));
+		this.server.handle(h1);
+		h1.waitForServletResponse();
+		assertThat(h1.getServletResponse().getStatus()).isEqualTo(503);
+	}
+
+	private HttpTunnelFrame data(int channel, String data) {
+		return new HttpTunnelFrame(channel, Type.DATA, ByteBuffer.wrap(data.getBytes()));
+	}
+
 	@Test
 	public void httpConnectionAsync() throws Exception {
 		ServerHttpAsyncRequestControl async = mock(ServerHttpAsyncRequestControl.class);
@@ -439,6 +495,20 @@ public class HttpTunnelServerTests {
 			request.addHeader(SEQ_HEADER, String.valueOf(seq));
 		}
 
+		MockHttpConnection(HttpTunnelBatch batch) throws IOException {
+			this();
+			MockHttpServletResponse encoded = new MockHttpServletResponse();
+			ServletServerHttpResponse response = new ServletServerHttpResponse(encoded);
+			batch.assignTo(response);
+			response.flush();
+			MockHttpServletRequest request = getServletRequest();
+			for (String name : encoded.getHeaderNames()) {
+				request.addHeader(name, encoded.getHeader(name));
+			}
+			request.addHeader(HttpTunnelBatch.SESSION_HEADER, "session");
+			request.setContent(encoded.getContentAsByteArray());
+		}
+
 		@Override
 		protected ServerHttpAsyncRequestControl startAsync() {
 			getServletRequest().setAsyncSupported(true);
@@ -469,6 +539,16 @@ public class HttpTunnelServerTests {
 			assertThat(resp.getHeader(SEQ_HEADER)).isEqualTo(String.valueOf(expectedSeq));
 		}
 
+		public HttpTunnelBatch getBatch() throws IOException {
+			MockHttpServletResponse response = getServletResponse();
+			MockHttpServletRequest request = new MockHttpServletRequest();
+			for (String name : response.getHeaderNames()) {
+				request.addHeader(name, response.getHeader(name));
+			}
+			request.setContent(response.getContentAsByteArray());
+			return HttpTunnelBatch.get(new ServletServerHttpRequest(request));
+		}
+
 		public void waitForServletResponse() throws InterruptedException {
 			while (!getServletResponse().isCommitted()) {
 				Thread.sleep(10);
@@ -42,6 +42,9 @@ import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
 import org.springframework.boot.Banner.Mode;
 import org.springframework.boot.bind.PropertiesConfigurationFactory;
 import org.springframework.boot.bind.RelaxedPropertyResolver;
+import org.springframework.boot.context.startup.StartupTimeline;
+import org.springframework.boot.context.startup.StartupTimeline.Step;
+import org.springframework.boot.context.startup.StartupTimelineBeanPostProcessor;
 import org.springframework.boot.diagnostics.FailureAnalyzers;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextInitializer;
@@ -69,7 +72,6 @@ import org.springframework.core.env.StandardEnvironment;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
-import org.springframework.core.io.support.SpringFactoriesLoader;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ObjectUtils;
@@ -250,6 +252,8 @@ public class SpringApplication {
 
 	private Set<String> additionalProfiles = new HashSet<String>();
 
+	private StartupTimeline startupTimeline = StartupTimeline.disabled();
+
 	/**
 	 * Create a new {@link SpringApplication} instance. The application context will load
 	 * beans from the specified sources (see {@link SpringApplication class-level}
@@ -327,6 +331,7 @@ public class SpringApplication {
 	public ConfigurableApplicationContext run(String... args) {
 		StopWatch stopWatch = new StopWatch();
 		stopWatch.start();
+		Step runStep = this.startupTimeline.start("application.run");
 		ConfigurableApplicationContext context = null;
 		FailureAnalyzers analyzers = null;
 		configureHeadlessProperty();
@@ -358,50 +363,79 @@ public class SpringApplication {
 			handleRunFailure(context, listeners, analyzers, ex);
 			throw new IllegalStateException(ex);
 		}
+		finally {
+			runStep.end();
+		}
 	}
 
 	private ConfigurableEnvironment prepareEnvironment(
 			SpringApplicationRunListeners listeners,
 			ApplicationArguments applicationArguments) {
 		// Create and configure the environment
-		ConfigurableEnvironment environment = getOrCreateEnvironment();
-		configureEnvironment(environment, applicationArguments.getSourceArgs());
-		listeners.environmentPrepared(environment);
-		if (isWebEnvironment(environment)
-				&& this.webApplicationType == WebApplicationType.NONE) {
-			environment = convertToStandardEnvironment(environment);
+		Step step = this.startupTimeline.start("application.environment.prepare");
+		try {
+			ConfigurableEnvironment environment = getOrCreateEnvironment();
+			configureEnvironment(environment, applicationArguments.getSourceArgs());
+			listeners.environmentPrepared(environment);
+			if (isWebEnvironment(environment)
+					&& this.webApplicationType == WebApplicationType.NONE) {
+				environment = convertToStandardEnvironment(environment);
+			}
+			return environment;
+		}
+		finally {
+			step.end();
 		}
-		return environment;
 	}
 
 	private void prepareContext(ConfigurableApplicationContext context,
 			ConfigurableEnvironment environment, SpringApplicationRunListeners listeners,
 			ApplicationArguments applicationArguments, Banner printedBanner) {
-		context.setEnvironment(environment);
-		postProcessApplicationContext(context);
-		applyInitializers(context);
-		listeners.contextPrepared(context);
-		if (this.logStartupInfo) {
-			logStartupInfo(context.getParent() == null);
-			logStartupProfileInfo(context);
-		}
+		Step step = this.startupTimeline.start("application.context.prepare");
+		try {
+			context.setEnvironment(environment);
+			postProcessApplicationContext(context);
+			applyInitializers(context);
+			listeners.contextPrepared(context);
+			if (this.logStartupInfo) {
+				logStartupInfo(context.getParent() == null);
+				logStartupProfileInfo(context);
+			}
 
-		// Add boot specific singleton beans
-		context.getBeanFactory().registerSingleton("springApplicationArguments",
-				applicationArguments);
-		if (printedBanner != null) {
-			context.getBeanFactory().registerSingleton("springBootBanner", printedBanner);
-		}
+			// Add boot specific singleton beans
+			context.getBeanFactory().registerSingleton("springApplicationArguments",
+					applicationArguments);
+			if (printedBanner != null) {
+				context.getBeanFactory().registerSingleton("springBootBanner",
+						printedBanner);
+			}
+			if (this.startupTimeline.isEnabled()) {
+				context.getBeanFactory().registerSingleton(StartupTimeline.BEAN_NAME,
+						this.startupTimeline);
+				context.getBeanFactory().addBeanPostProcessor(
+						new StartupTimelineBeanPostProcessor(this.startupTimeline,
+								context.getBeanFactory()));
+			}
 
-		// Load the sources
-		Set<Object> sources = getSources();
-		Assert.notEmpty(sources, "Sources must not be empty");
-		load(context, sources.toArray(new Object[sources.size()]));
-		listeners.contextLoaded(context);
+			// Load the sources
+			Set<Object> sources = getSources();
+			Assert.notEmpty(sources, "Sources must not be empty");
+			load(context, sources.toArray(new Object[sources.size()]));
+			listeners.contextLoaded(context);
+		}
+		finally {
+			step.end();
+		}
 	}
 
 	private void refreshContext(ConfigurableApplicationContext context) {
-		refresh(context);
+		Step step = this.startupTimeline.start("application.context.refresh");
+		try {
+			refresh(context);
+		}
+		finally {
+			step.end();
+		}
 		if (this.registerShutdownHook) {
 			try {
 				context.registerShutdownHook();
@@ -419,8 +453,10 @@ public class SpringApplication {
 
 	private SpringApplicationRunListeners getRunListeners(String[] args) {
 		Class<?>[] types = new Class<?>[] { SpringApplication.class, String[].class };
-		return new SpringApplicationRunListeners(logger, getSpringFactoriesInstances(
-				SpringApplicationRunListener.class, types, this, args));
+		return new SpringApplicationRunListeners(logger,
+				getSpringFactoriesInstances(SpringApplicationRunListener.class, types,
+						this, args),
+				this.startupTimeline);
 	}
 
 	private <T> Collection<? extends T> getSpringFactoriesInstances(Class<T> type) {
@@ -432,7 +468,7 @@ public class SpringApplication {
 		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
 		// Use names and ensure unique to protect against duplicates
 		Set<String> names = new LinkedHashSet<String>(
-				SpringFactoriesLoader.loadFactoryNames(type, classLoader));
+				SpringFactoriesRegistry.loadFactoryNames(type, classLoader));
 		List<T> instances = createSpringFactoriesInstances(type, parameterTypes,
 				classLoader, args, names);
 		AnnotationAwareOrderComparator.sort(instances);
@@ -680,7 +716,13 @@ public class SpringApplication {
 			Class<?> requiredType = GenericTypeResolver.resolveTypeArgument(
 					initializer.getClass(), ApplicationContextInitializer.class);
 			Assert.isInstanceOf(requiredType, context, "Unable to call initializer.");
-			initializer.initialize(context);
+			Step step = this.startupTimeline.start(initializer.getClass().getName());
+			try {
+				initializer.initialize(context);
+			}
+			finally {
+				step.end();
+			}
 		}
 	}
 
@@ -1058,6 +1100,29 @@ public class SpringApplication {
 		this.bannerMode = bannerMode;
 	}
 
+	/**
+	 * Sets the {@link StartupTimeline} that should be used to record the steps taken
+	 * while the application starts. Defaults to a {@link StartupTimeline#disabled()
+	 * disabled} timeline that records nothing. When enabled, the timeline is registered
+	 * with the application context under the name {@link StartupTimeline#BEAN_NAME}.
+	 * @param startupTimeline the startup timeline
+	 * @since 2.0.0
+	 */
+	public void setStartupTimeline(StartupTimeline startupTimeline) {
+		Assert.notNull(startupTimeline, "StartupTimeline must not be null");
+		this.startupTimeline = startupTimeline;
+	}
+
+	/**
+	 * Returns the {@link StartupTimeline} used to record the steps taken while the
+	 * application starts.
+	 * @return the startup timeline
+	 * @since 2.0.0
+	 */
+	public StartupTimeline getStartupTimeline() {
+		return this.startupTimeline;
+	}
+
 	/**
 	 * Sets if the application information should be logged when the application starts.
 	 * Defaults to {@code true}.
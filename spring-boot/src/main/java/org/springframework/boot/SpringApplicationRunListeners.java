@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,6 +22,8 @@ import java.util.List;
 
 import org.apache.commons.logging.Log;
 
+import org.springframework.boot.context.startup.StartupTimeline;
+import org.springframework.boot.context.startup.StartupTimeline.Step;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.util.ReflectionUtils;
@@ -37,42 +39,110 @@ class SpringApplicationRunListeners {
 
 	private final List<SpringApplicationRunListener> listeners;
 
+	private final StartupTimeline timeline;
+
 	SpringApplicationRunListeners(Log log,
-			Collection<? extends SpringApplicationRunListener> listeners) {
+			Collection<? extends SpringApplicationRunListener> listeners,
+			StartupTimeline timeline) {
 		this.log = log;
 		this.listeners = new ArrayList<SpringApplicationRunListener>(listeners);
+		this.timeline = timeline;
 	}
 
 	public void starting() {
-		for (SpringApplicationRunListener listener : this.listeners) {
-			listener.starting();
+		Step step = this.timeline.start("listeners.starting");
+		try {
+			for (SpringApplicationRunListener listener : this.listeners) {
+				Step listenerStep = startListenerStep(listener);
+				try {
+					listener.starting();
+				}
+				finally {
+					listenerStep.end();
+				}
+			}
+		}
+		finally {
+			step.end();
 		}
 	}
 
 	public void environmentPrepared(ConfigurableEnvironment environment) {
-		for (SpringApplicationRunListener listener : this.listeners) {
-			listener.environmentPrepared(environment);
+		Step step = this.timeline.start("listeners.environment-prepared");
+		try {
+			for (SpringApplicationRunListener listener : this.listeners) {
+				Step listenerStep = startListenerStep(listener);
+				try {
+					listener.environmentPrepared(environment);
+				}
+				finally {
+					listenerStep.end();
+				}
+			}
+		}
+		finally {
+			step.end();
 		}
 	}
 
 	public void contextPrepared(ConfigurableApplicationContext context) {
-		for (SpringApplicationRunListener listener : this.listeners) {
-			listener.contextPrepared(context);
+		Step step = this.timeline.start("listeners.context-prepared");
+		try {
+			for (SpringApplicationRunListener listener : this.listeners) {
+				Step listenerStep = startListenerStep(listener);
+				try {
+					listener.contextPrepared(context);
+				}
+				finally {
+					listenerStep.end();
+				}
+			}
+		}
+		finally {
+			step.end();
 		}
 	}
 
 	public void contextLoaded(ConfigurableApplicationContext context) {
-		for (SpringApplicationRunListener listener : this.listeners) {
-			listener.contextLoaded(context);
+		Step step = this.timeline.start("listeners.context-loaded");
+		try {
+			for (SpringApplicationRunListener listener : this.listeners) {
+				Step listenerStep = startListenerStep(listener);
+				try {
+					listener.contextLoaded(context);
+				}
+				finally {
+					listenerStep.end();
+				}
+			}
+		}
+		finally {
+			step.end();
 		}
 	}
 
 	public void finished(ConfigurableApplicationContext context, Throwable exception) {
-		for (SpringApplicationRunListener listener : this.listeners) {
-			callFinishedListener(listener, context, exception);
+		Step step = this.timeline.start("listeners.finished");
+		try {
+			for (SpringApplicationRunListener listener : this.listeners) {
+				Step listenerStep = startListenerStep(listener);
+				try {
+					callFinishedListener(listener, context, exception);
+				}
+				finally {
+					listenerStep.end();
+				}
+			}
+		}
+		finally {
+			step.end();
 		}
 	}
 
+	private Step startListenerStep(SpringApplicationRunListener listener) {
+		return this.timeline.start(listener.getClass().getName());
+	}
+
 	private void callFinishedListener(SpringApplicationRunListener listener,
 			ConfigurableApplicationContext context, Throwable exception) {
 		try {
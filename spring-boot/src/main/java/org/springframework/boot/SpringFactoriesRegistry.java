@@ -0,0 +1,379 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.core.io.UrlResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.core.io.support.SpringFactoriesLoader;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ResourceUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Caching alternative to {@link SpringFactoriesLoader}. All
+ * {@value SpringFactoriesLoader#FACTORIES_RESOURCE_LOCATION} files that are visible to
+ * a class loader are loaded and merged once and the result is cached for the lifetime
+ * of the class loader.
+ * <p>
+ * When the {@value #SNAPSHOT_PROPERTY} system property is {@code true}, the merged
+ * factories are also written to a snapshot in the {@link ApplicationTemp application
+ * temp} directory. The snapshot is keyed by a fingerprint of the class path (the
+ * location, size and last modified time of each entry) and is used in place of
+ * scanning the class path when the same application is launched again. When the class
+ * path cannot be determined from the class loader, the location, size and last
+ * modified time of each {@value SpringFactoriesLoader#FACTORIES_RESOURCE_LOCATION}
+ * file are used instead.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+public final class SpringFactoriesRegistry {
+
+	/**
+	 * The name of the system property that can be used to enable on-disk snapshots.
+	 */
+	public static final String SNAPSHOT_PROPERTY = "spring.factories.snapshot";
+
+	private static final String SNAPSHOT_DIR = "spring-factories";
+
+	private static final char[] HEX_CHARS = "0123456789ABCDEF".toCharArray();
+
+	private static final Log logger = LogFactory.getLog(SpringFactoriesRegistry.class);
+
+	private static final Map<ClassLoader, Map<String, List<String>>> cache = new ConcurrentReferenceHashMap<ClassLoader, Map<String, List<String>>>();
+
+	private SpringFactoriesRegistry() {
+	}
+
+	/**
+	 * Return the fully qualified class names of the factory implementations of the
+	 * given type, in the order in which they are declared. As with
+	 * {@link SpringFactoriesLoader}, a name that is declared more than once is returned
+	 * more than once.
+	 * @param factoryClass the interface or abstract class representing the factory
+	 * @param classLoader the class loader to use (may be {@code null} to use the
+	 * default)
+	 * @return the factory names
+	 * @see SpringFactoriesLoader#loadFactoryNames(Class, ClassLoader)
+	 */
+	public static List<String> loadFactoryNames(Class<?> factoryClass,
+			ClassLoader classLoader) {
+		Assert.notNull(factoryClass, "FactoryClass must not be null");
+		List<String> names = getFactories(classLoader).get(factoryClass.getName());
+		return (names == null ? new ArrayList<String>() : new ArrayList<String>(names));
+	}
+
+	/**
+	 * Load and instantiate the factory implementations of the given type, sorted using
+	 * {@link AnnotationAwareOrderComparator}.
+	 * @param <T> the factory type
+	 * @param factoryClass the interface or abstract class representing the factory
+	 * @param classLoader the class loader to use (may be {@code null} to use the
+	 * default)
+	 * @return the factory instances
+	 * @throws IllegalArgumentException if a factory cannot be instantiated
+	 * @see SpringFactoriesLoader#loadFactories(Class, ClassLoader)
+	 */
+	public static <T> List<T> loadFactories(Class<T> factoryClass,
+			ClassLoader classLoader) {
+		ClassLoader classLoaderToUse = getClassLoader(classLoader);
+		List<String> names = loadFactoryNames(factoryClass, classLoaderToUse);
+		List<T> factories = new ArrayList<T>(names.size());
+		for (String name : names) {
+			factories.add(instantiateFactory(name, factoryClass, classLoaderToUse));
+		}
+		AnnotationAwareOrderComparator.sort(factories);
+		return factories;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T instantiateFactory(String name, Class<T> factoryClass,
+			ClassLoader classLoader) {
+		try {
+			Class<?> instanceClass = ClassUtils.forName(name, classLoader);
+			if (!factoryClass.isAssignableFrom(instanceClass)) {
+				throw new IllegalArgumentException("Class [" + name
+						+ "] is not assignable to [" + factoryClass.getName() + "]");
+			}
+			return (T) BeanUtils.instantiateClass(instanceClass);
+		}
+		catch (IllegalArgumentException ex) {
+			throw ex;
+		}
+		catch (Throwable ex) {
+			throw new IllegalArgumentException(
+					"Unable to instantiate factory class: " + name, ex);
+		}
+	}
+
+	/**
+	 * Clear the cached factories. Snapshots that have already been written are not
+	 * removed.
+	 */
+	public static void clearCache() {
+		cache.clear();
+	}
+
+	private static Map<String, List<String>> getFactories(ClassLoader classLoader) {
+		ClassLoader classLoaderToUse = getClassLoader(classLoader);
+		Map<String, List<String>> factories = cache.get(classLoaderToUse);
+		if (factories == null) {
+			factories = load(classLoaderToUse);
+			cache.put(classLoaderToUse, factories);
+		}
+		return factories;
+	}
+
+	private static ClassLoader getClassLoader(ClassLoader classLoader) {
+		return (classLoader != null ? classLoader
+				: SpringFactoriesRegistry.class.getClassLoader());
+	}
+
+	private static Map<String, List<String>> load(ClassLoader classLoader) {
+		File snapshot = getSnapshot(classLoader);
+		if (snapshot != null && snapshot.isFile()) {
+			try {
+				return readSnapshot(snapshot);
+			}
+			catch (IOException ex) {
+				logger.debug("Unable to read spring.factories snapshot " + snapshot,
+						ex);
+			}
+		}
+		Map<String, List<String>> factories = scan(classLoader);
+		if (snapshot != null) {
+			try {
+				writeSnapshot(snapshot, factories);
+			}
+			catch (IOException ex) {
+				logger.debug("Unable to write spring.factories snapshot " + snapshot,
+						ex);
+			}
+		}
+		return factories;
+	}
+
+	private static Map<String, List<String>> scan(ClassLoader classLoader) {
+		Map<String, List<String>> merged = new LinkedHashMap<String, List<String>>();
+		try {
+			Enumeration<URL> urls = classLoader
+					.getResources(SpringFactoriesLoader.FACTORIES_RESOURCE_LOCATION);
+			while (urls.hasMoreElements()) {
+				URL url = urls.nextElement();
+				Properties properties = PropertiesLoaderUtils
+						.loadProperties(new UrlResource(url));
+				for (Map.Entry<?, ?> entry : properties.entrySet()) {
+					add(merged, (String) entry.getKey(), (String) entry.getValue());
+				}
+			}
+		}
+		catch (IOException ex) {
+			throw new IllegalArgumentException("Unable to load factories from location ["
+					+ SpringFactoriesLoader.FACTORIES_RESOURCE_LOCATION + "]", ex);
+		}
+		return asFactories(merged);
+	}
+
+	private static void add(Map<String, List<String>> factories, String factoryClassName,
+			String names) {
+		List<String> existing = factories.get(factoryClassName.trim());
+		if (existing == null) {
+			existing = new ArrayList<String>();
+			factories.put(factoryClassName.trim(), existing);
+		}
+		for (String name : StringUtils.commaDelimitedListToStringArray(names)) {
+			if (StringUtils.hasText(name)) {
+				existing.add(name.trim());
+			}
+		}
+	}
+
+	private static Map<String, List<String>> asFactories(
+			Map<String, List<String>> merged) {
+		Map<String, List<String>> factories = new LinkedHashMap<String, List<String>>();
+		for (Map.Entry<String, List<String>> entry : merged.entrySet()) {
+			factories.put(entry.getKey(), Collections
+					.unmodifiableList(new ArrayList<String>(entry.getValue())));
+		}
+		return Collections.unmodifiableMap(factories);
+	}
+
+	private static Map<String, List<String>> readSnapshot(File snapshot)
+			throws IOException {
+		Properties properties = new Properties();
+		InputStream inputStream = new FileInputStream(snapshot);
+		try {
+			properties.load(inputStream);
+		}
+		finally {
+			inputStream.close();
+		}
+		Map<String, List<String>> merged = new LinkedHashMap<String, List<String>>();
+		for (String factoryClassName : properties.stringPropertyNames()) {
+			add(merged, factoryClassName, properties.getProperty(factoryClassName));
+		}
+		return asFactories(merged);
+	}
+
+	private static void writeSnapshot(File snapshot,
+			Map<String, List<String>> factories) throws IOException {
+		Properties properties = new Properties();
+		for (Map.Entry<String, List<String>> entry : factories.entrySet()) {
+			properties.setProperty(entry.getKey(),
+					StringUtils.collectionToCommaDelimitedString(entry.getValue()));
+		}
+		File temp = File.createTempFile("spring", ".factories",
+				snapshot.getParentFile());
+		OutputStream outputStream = new FileOutputStream(temp);
+		try {
+			properties.store(outputStream, null);
+		}
+		finally {
+			outputStream.close();
+		}
+		if (!temp.renameTo(snapshot)) {
+			temp.delete();
+		}
+	}
+
+	private static File getSnapshot(ClassLoader classLoader) {
+		if (!Boolean.getBoolean(SNAPSHOT_PROPERTY)) {
+			return null;
+		}
+		try {
+			String fingerprint = getFingerprint(classLoader);
+			if (fingerprint == null) {
+				return null;
+			}
+			File dir = new ApplicationTemp().getDir(SNAPSHOT_DIR);
+			return new File(dir, fingerprint + ".properties");
+		}
+		catch (Exception ex) {
+			logger.debug("Unable to determine spring.factories snapshot location", ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Return a fingerprint of the class path of the given class loader, or
+	 * {@code null} if it cannot be determined.
+	 * @param classLoader the class loader
+	 * @return the fingerprint or {@code null}
+	 * @throws Exception if the fingerprint cannot be calculated
+	 */
+	private static String getFingerprint(ClassLoader classLoader) throws Exception {
+		MessageDigest digest = MessageDigest.getInstance("SHA-1");
+		if (!updateFromClassPath(digest, classLoader)) {
+			digest.reset();
+			if (!updateFromResources(digest, classLoader)) {
+				return null;
+			}
+		}
+		return toHexString(digest.digest());
+	}
+
+	private static boolean updateFromClassPath(MessageDigest digest,
+			ClassLoader classLoader) throws IOException {
+		ClassLoader candidate = classLoader;
+		while (candidate != null) {
+			if (!(candidate instanceof URLClassLoader)) {
+				return false;
+			}
+			for (URL url : ((URLClassLoader) candidate).getURLs()) {
+				update(digest, url);
+			}
+			candidate = candidate.getParent();
+		}
+		return true;
+	}
+
+	private static boolean updateFromResources(MessageDigest digest,
+			ClassLoader classLoader) throws IOException {
+		Enumeration<URL> urls = classLoader
+				.getResources(SpringFactoriesLoader.FACTORIES_RESOURCE_LOCATION);
+		while (urls.hasMoreElements()) {
+			if (!update(digest, urls.nextElement())) {
+				// Changes to a resource that is not backed by a file cannot be detected
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean update(MessageDigest digest, URL url) throws IOException {
+		digest.update(url.toString().getBytes("UTF-8"));
+		File file = getFile(url);
+		if (file != null && file.isDirectory()) {
+			file = new File(file, SpringFactoriesLoader.FACTORIES_RESOURCE_LOCATION);
+		}
+		if (file != null && file.exists()) {
+			digest.update((file.length() + ":" + file.lastModified()).getBytes("UTF-8"));
+			return true;
+		}
+		return false;
+	}
+
+	private static File getFile(URL url) {
+		try {
+			if (ResourceUtils.isJarURL(url)) {
+				return ResourceUtils.getFile(ResourceUtils.extractJarFileURL(url));
+			}
+			if (ResourceUtils.isFileURL(url)) {
+				return ResourceUtils.getFile(url);
+			}
+		}
+		catch (Exception ex) {
+			// Ignore
+		}
+		return null;
+	}
+
+	private static String toHexString(byte[] bytes) {
+		char[] hex = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			int b = bytes[i] & 0xFF;
+			hex[i * 2] = HEX_CHARS[b >>> 4];
+			hex[i * 2 + 1] = HEX_CHARS[b & 0x0F];
+		}
+		return new String(hex);
+	}
+
+}
@@ -77,6 +77,34 @@ public abstract class AnsiOutput {
 		return "";
 	}
 
+	/**
+	 * Append the encoding of a single {@link AnsiElement} to the given builder if output
+	 * is enabled. Intended for callers that write directly into an existing builder and
+	 * must later call {@link #appendReset(StringBuilder)} if this method returns
+	 * {@code true}.
+	 * @param sb the builder to append to
+	 * @param element the element to encode
+	 * @return {@code true} if the element was appended
+	 * @since 2.0.0
+	 */
+	public static boolean appendEncoded(StringBuilder sb, AnsiElement element) {
+		if (isEnabled()) {
+			sb.append(ENCODE_START).append(element).append(ENCODE_END);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Append the encoding that resets any previously
+	 * {@link #appendEncoded(StringBuilder, AnsiElement) appended} element.
+	 * @param sb the builder to append to
+	 * @since 2.0.0
+	 */
+	public static void appendReset(StringBuilder sb) {
+		sb.append(ENCODE_START).append(RESET).append(ENCODE_END);
+	}
+
 	/**
 	 * Create a new ANSI string from the specified elements. Any {@link AnsiElement}s will
 	 * be encoded as required.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -36,6 +36,8 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.beans.factory.config.Scope;
+import org.springframework.boot.context.startup.StartupTimeline;
+import org.springframework.boot.context.startup.StartupTimeline.Step;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.boot.web.servlet.ServletContextInitializer;
 import org.springframework.boot.web.servlet.ServletContextInitializerBeans;
@@ -130,6 +132,8 @@ public class EmbeddedWebApplicationContext extends GenericWebApplicationContext
 	@Override
 	protected void onRefresh() {
 		super.onRefresh();
+		Step step = StartupTimeline.get(getBeanFactory())
+				.start("embedded-container.create");
 		try {
 			createEmbeddedServletContainer();
 		}
@@ -137,12 +141,23 @@ public class EmbeddedWebApplicationContext extends GenericWebApplicationContext
 			throw new ApplicationContextException("Unable to start embedded container",
 					ex);
 		}
+		finally {
+			step.end();
+		}
 	}
 
 	@Override
 	protected void finishRefresh() {
 		super.finishRefresh();
-		EmbeddedWebServer localContainer = startEmbeddedServletContainer();
+		Step step = StartupTimeline.get(getBeanFactory())
+				.start("embedded-container.start");
+		EmbeddedWebServer localContainer;
+		try {
+			localContainer = startEmbeddedServletContainer();
+		}
+		finally {
+			step.end();
+		}
 		if (localContainer != null) {
 			publishEvent(
 					new EmbeddedServletContainerInitializedEvent(this, localContainer));
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,16 +16,28 @@
 
 package org.springframework.boot.context.embedded.undertow;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
 import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
 import io.undertow.servlet.UndertowServletLogger;
 import io.undertow.servlet.api.SessionPersistenceManager;
@@ -33,7 +45,11 @@ import io.undertow.servlet.api.SessionPersistenceManager;
 import org.springframework.core.ConfigurableObjectInputStream;
 
 /**
- * {@link SessionPersistenceManager} that stores session information in a file.
+ * {@link SessionPersistenceManager} that stores session information in a file. Sessions
+ * are written as a stream of length-prefixed records, each holding a single session's
+ * attributes, so that neither saving nor loading needs to hold a serialized form of all
+ * sessions at once and expired sessions are skipped without being deserialized. Files
+ * written in the previous single object format can still be loaded.
  *
  * @author Phillip Webb
  * @author Peter Leibiger
@@ -41,12 +57,30 @@ import org.springframework.core.ConfigurableObjectInputStream;
  */
 public class FileSessionPersistence implements SessionPersistenceManager {
 
+	private static final int MAGIC = 0x53425350;
+
+	private static final int VERSION = 1;
+
+	private static final int FLAG_COMPRESSED = 1;
+
 	private final File dir;
 
+	private boolean compress;
+
 	public FileSessionPersistence(File dir) {
 		this.dir = dir;
 	}
 
+	/**
+	 * Set if the attributes of each session should be compressed when written. Reduces
+	 * the size of the file at the cost of additional CPU time on shutdown and startup.
+	 * @param compress if session attributes should be compressed
+	 * @since 2.0.0
+	 */
+	public void setCompress(boolean compress) {
+		this.compress = compress;
+	}
+
 	@Override
 	public void persistSessions(String deploymentName,
 			Map<String, PersistentSession> sessionData) {
@@ -60,23 +94,64 @@ public class FileSessionPersistence implements SessionPersistenceManager {
 
 	private void save(Map<String, PersistentSession> sessionData, File file)
 			throws IOException {
-		ObjectOutputStream stream = new ObjectOutputStream(new FileOutputStream(file));
+		File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+		DataOutputStream stream = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(temp)));
 		try {
 			save(sessionData, stream);
 		}
 		finally {
 			stream.close();
 		}
+		if (!temp.renameTo(file)) {
+			file.delete();
+			if (!temp.renameTo(file)) {
+				throw new IOException("Unable to rename " + temp + " to " + file);
+			}
+		}
 	}
 
 	private void save(Map<String, PersistentSession> sessionData,
-			ObjectOutputStream stream) throws IOException {
-		Map<String, Serializable> session = new LinkedHashMap<String, Serializable>();
+			DataOutputStream stream) throws IOException {
+		stream.writeInt(MAGIC);
+		stream.writeByte(VERSION);
+		stream.writeByte(this.compress ? FLAG_COMPRESSED : 0);
+		long time = System.currentTimeMillis();
+		ByteArrayOutputStream record = new ByteArrayOutputStream(1024);
 		for (Map.Entry<String, PersistentSession> entry : sessionData.entrySet()) {
-			session.put(entry.getKey(),
-					new SerializablePersistentSession(entry.getValue()));
+			PersistentSession session = entry.getValue();
+			if (session.getExpiration().getTime() > time) {
+				record.reset();
+				writeAttributes(session.getSessionData(), record);
+				stream.writeBoolean(true);
+				stream.writeUTF(entry.getKey());
+				stream.writeLong(session.getExpiration().getTime());
+				stream.writeInt(record.size());
+				record.writeTo(stream);
+			}
+		}
+		stream.writeBoolean(false);
+	}
+
+	private void writeAttributes(Map<String, Object> attributes, OutputStream record)
+			throws IOException {
+		if (!this.compress) {
+			ObjectOutputStream stream = new ObjectOutputStream(record);
+			stream.writeObject(new LinkedHashMap<String, Object>(attributes));
+			stream.flush();
+			return;
+		}
+		Deflater deflater = new Deflater();
+		try {
+			DeflaterOutputStream stream = new DeflaterOutputStream(record, deflater);
+			ObjectOutputStream objectStream = new ObjectOutputStream(stream);
+			objectStream.writeObject(new LinkedHashMap<String, Object>(attributes));
+			objectStream.flush();
+			stream.finish();
+		}
+		finally {
+			deflater.end();
 		}
-		stream.writeObject(session);
 	}
 
 	@Override
@@ -96,17 +171,80 @@ public class FileSessionPersistence implements SessionPersistenceManager {
 
 	private Map<String, PersistentSession> load(File file, ClassLoader classLoader)
 			throws IOException, ClassNotFoundException {
-		ObjectInputStream stream = new ConfigurableObjectInputStream(
-				new FileInputStream(file), classLoader);
+		DataInputStream stream = new DataInputStream(
+				new BufferedInputStream(new FileInputStream(file)));
+		try {
+			stream.mark(4);
+			if (stream.readInt() == MAGIC) {
+				return load(stream, classLoader);
+			}
+			stream.reset();
+			return loadLegacy(
+					new ConfigurableObjectInputStream(stream, classLoader));
+		}
+		finally {
+			stream.close();
+		}
+	}
+
+	private Map<String, PersistentSession> load(DataInputStream stream,
+			ClassLoader classLoader) throws IOException, ClassNotFoundException {
+		int version = stream.readUnsignedByte();
+		if (version != VERSION) {
+			throw new IOException("Unsupported session file version " + version);
+		}
+		boolean compressed = (stream.readUnsignedByte() & FLAG_COMPRESSED) != 0;
+		long time = System.currentTimeMillis();
+		Map<String, PersistentSession> result = new LinkedHashMap<String, PersistentSession>();
+		byte[] buffer = new byte[1024];
+		while (stream.readBoolean()) {
+			String id = stream.readUTF();
+			long expiration = stream.readLong();
+			int length = stream.readInt();
+			if (expiration <= time) {
+				skipFully(stream, length);
+			}
+			else {
+				buffer = (buffer.length < length ? new byte[length] : buffer);
+				stream.readFully(buffer, 0, length);
+				Map<String, Object> attributes = readAttributes(buffer, length,
+						compressed, classLoader);
+				result.put(id, new PersistentSession(new Date(expiration), attributes));
+			}
+		}
+		return result;
+	}
+
+	private void skipFully(DataInputStream stream, int length) throws IOException {
+		int remaining = length;
+		while (remaining > 0) {
+			int skipped = stream.skipBytes(remaining);
+			if (skipped <= 0) {
+				throw new EOFException();
+			}
+			remaining -= skipped;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> readAttributes(byte[] buffer, int length,
+			boolean compressed, ClassLoader classLoader)
+					throws IOException, ClassNotFoundException {
+		InputStream record = new ByteArrayInputStream(buffer, 0, length);
+		if (compressed) {
+			record = new InflaterInputStream(record);
+		}
+		ObjectInputStream stream = new ConfigurableObjectInputStream(record,
+				classLoader);
 		try {
-			return load(stream);
+			return (Map<String, Object>) stream.readObject();
 		}
 		finally {
 			stream.close();
 		}
 	}
 
-	private Map<String, PersistentSession> load(ObjectInputStream stream)
+	private Map<String, PersistentSession> loadLegacy(ObjectInputStream stream)
 			throws ClassNotFoundException, IOException {
 		Map<String, SerializablePersistentSession> session = readSession(stream);
 		long time = System.currentTimeMillis();
@@ -140,7 +278,7 @@ public class FileSessionPersistence implements SessionPersistenceManager {
 	}
 
 	/**
-	 * Session data in a serializable form.
+	 * Session data in the serializable form used by the previous file format.
 	 */
 	static class SerializablePersistentSession implements Serializable {
 
@@ -18,43 +18,119 @@ package org.springframework.boot.context.embedded.undertow;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
 
 import io.undertow.UndertowMessages;
+import io.undertow.io.IoCallback;
+import io.undertow.io.Sender;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.resource.RangeAwareResource;
 import io.undertow.server.handlers.resource.Resource;
 import io.undertow.server.handlers.resource.ResourceChangeListener;
 import io.undertow.server.handlers.resource.ResourceManager;
 import io.undertow.server.handlers.resource.URLResource;
+import io.undertow.util.DateUtils;
+import io.undertow.util.ETag;
+import io.undertow.util.MimeMappings;
+
+import org.springframework.util.StreamUtils;
 
 /**
- * {@link ResourceManager} for JAR resources.
+ * {@link ResourceManager} for JAR resources. Entries are resolved once against a shared
+ * {@link JarFile} and their metadata cached. The content of small entries is held in
+ * direct buffers, up to an overall limit, so that repeated requests are served without
+ * touching the jar.
  *
  * @author Ivan Sopov
  * @author Andy Wilkinson
  */
 class JarResourceManager implements ResourceManager {
 
+	private static final int DEFAULT_MAX_CACHED_ENTRY_SIZE = 16 * 1024;
+
+	private static final long DEFAULT_MAX_CACHE_SIZE = 8 * 1024 * 1024;
+
 	private final String jarPath;
 
+	private final int maxCachedEntrySize;
+
+	private final long maxCacheSize;
+
+	private final AtomicLong cacheSize = new AtomicLong();
+
+	private final ConcurrentMap<String, JarEntryResource> resources = new ConcurrentHashMap<String, JarEntryResource>();
+
+	private volatile JarFile jarFile;
+
 	JarResourceManager(File jarFile) {
 		this(jarFile.getAbsolutePath());
 	}
 
 	JarResourceManager(String jarPath) {
+		this(jarPath, DEFAULT_MAX_CACHED_ENTRY_SIZE, DEFAULT_MAX_CACHE_SIZE);
+	}
+
+	JarResourceManager(String jarPath, int maxCachedEntrySize, long maxCacheSize) {
 		this.jarPath = jarPath;
+		this.maxCachedEntrySize = maxCachedEntrySize;
+		this.maxCacheSize = maxCacheSize;
 	}
 
 	@Override
 	public Resource getResource(String path) throws IOException {
-		URL url = new URL("jar:file:" + this.jarPath + "!"
-				+ (path.startsWith("/") ? path : "/" + path));
-		URLResource resource = new URLResource(url, url.openConnection(), path);
-		if (resource.getContentLength() < 0) {
-			return null;
+		String name = (path.startsWith("/") ? path.substring(1) : path);
+		JarEntryResource resource = this.resources.get(name);
+		if (resource == null) {
+			resource = createResource(name, path);
+			if (resource == null) {
+				return null;
+			}
+			JarEntryResource existing = this.resources.putIfAbsent(name, resource);
+			resource = (existing != null ? existing : resource);
 		}
 		return resource;
 	}
 
+	private JarEntryResource createResource(String name, String path)
+			throws IOException {
+		if (name.length() == 0) {
+			return new JarEntryResource(null, path, getUrl(name));
+		}
+		JarEntry entry = getJarFile().getJarEntry(name);
+		if (entry == null) {
+			return null;
+		}
+		return new JarEntryResource(entry, path, getUrl(entry.getName()));
+	}
+
+	private URL getUrl(String name) throws IOException {
+		return new URL("jar:file:" + this.jarPath + "!/" + name);
+	}
+
+	private JarFile getJarFile() throws IOException {
+		JarFile jarFile = this.jarFile;
+		if (jarFile == null) {
+			synchronized (this) {
+				jarFile = this.jarFile;
+				if (jarFile == null) {
+					jarFile = new JarFile(this.jarPath);
+					this.jarFile = jarFile;
+				}
+			}
+		}
+		return jarFile;
+	}
+
 	@Override
 	public boolean isResourceChangeListenerSupported() {
 		return false;
@@ -73,6 +149,236 @@ class JarResourceManager implements ResourceManager {
 
 	@Override
 	public void close() throws IOException {
+		this.resources.clear();
+		this.cacheSize.set(0);
+		synchronized (this) {
+			if (this.jarFile != null) {
+				this.jarFile.close();
+				this.jarFile = null;
+			}
+		}
+	}
+
+	private boolean reserveCacheSpace(int size) {
+		while (true) {
+			long current = this.cacheSize.get();
+			if (current + size > this.maxCacheSize) {
+				return false;
+			}
+			if (this.cacheSize.compareAndSet(current, current + size)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * {@link Resource} backed by a cached {@link JarEntry}.
+	 */
+	private final class JarEntryResource implements RangeAwareResource {
+
+		private final JarEntry entry;
+
+		private final String path;
+
+		private final URL url;
+
+		private final Date lastModified;
+
+		private final ETag eTag;
+
+		private volatile ByteBuffer content;
+
+		JarEntryResource(JarEntry entry, String path, URL url) {
+			this.entry = entry;
+			this.path = path;
+			this.url = url;
+			this.lastModified = (entry == null || entry.getTime() < 0 ? null
+					: new Date(entry.getTime()));
+			this.eTag = (entry == null || entry.isDirectory() ? null
+					: new ETag(false, Long.toHexString(entry.getSize()) + "-"
+							+ Long.toHexString(entry.getTime()) + "-"
+							+ Long.toHexString(entry.getCrc())));
+		}
+
+		@Override
+		public String getPath() {
+			return this.path;
+		}
+
+		@Override
+		public Date getLastModified() {
+			return this.lastModified;
+		}
+
+		@Override
+		public String getLastModifiedString() {
+			return (this.lastModified == null ? null
+					: DateUtils.toDateString(this.lastModified));
+		}
+
+		@Override
+		public ETag getETag() {
+			return this.eTag;
+		}
+
+		@Override
+		public String getName() {
+			String name = (this.entry == null ? "" : this.entry.getName());
+			if (name.endsWith("/")) {
+				name = name.substring(0, name.length() - 1);
+			}
+			return name.substring(name.lastIndexOf('/') + 1);
+		}
+
+		@Override
+		public boolean isDirectory() {
+			return this.entry == null || this.entry.isDirectory();
+		}
+
+		@Override
+		public List<Resource> list() {
+			return openUrlResource().list();
+		}
+
+		@Override
+		public String getContentType(MimeMappings mimeMappings) {
+			String name = getName();
+			int index = name.lastIndexOf('.');
+			if (index != -1 && index != name.length() - 1) {
+				return mimeMappings.getMimeType(name.substring(index + 1));
+			}
+			return null;
+		}
+
+		@Override
+		public void serve(Sender sender, HttpServerExchange exchange,
+				IoCallback completionCallback) {
+			serve(sender, exchange, -1, -1, completionCallback);
+		}
+
+		@Override
+		public void serveRange(Sender sender, HttpServerExchange exchange, long start,
+				long end, IoCallback completionCallback) {
+			serve(sender, exchange, start, end, completionCallback);
+		}
+
+		private void serve(final Sender sender, final HttpServerExchange exchange,
+				final long start, final long end, final IoCallback completionCallback) {
+			if (!isCacheable()) {
+				URLResource resource = openUrlResource();
+				if (start == -1) {
+					resource.serve(sender, exchange, completionCallback);
+				}
+				else {
+					resource.serveRange(sender, exchange, start, end,
+							completionCallback);
+				}
+				return;
+			}
+			ByteBuffer content = this.content;
+			if (content == null && exchange.isInIoThread()) {
+				// Reading the entry blocks so move off the IO thread
+				exchange.dispatch(new Runnable() {
+
+					@Override
+					public void run() {
+						serve(sender, exchange, start, end, completionCallback);
+					}
+
+				});
+				return;
+			}
+			try {
+				content = (content != null ? content : loadContent());
+			}
+			catch (IOException ex) {
+				completionCallback.onException(exchange, sender, ex);
+				return;
+			}
+			content = content.duplicate();
+			if (start != -1) {
+				content.position((int) start);
+				content.limit((int) end + 1);
+			}
+			sender.send(content, completionCallback);
+		}
+
+		private boolean isCacheable() {
+			return this.entry != null && !this.entry.isDirectory()
+					&& this.entry.getSize() >= 0
+					&& this.entry.getSize() <= JarResourceManager.this.maxCachedEntrySize;
+		}
+
+		private ByteBuffer loadContent() throws IOException {
+			byte[] bytes = readContent();
+			if (!reserveCacheSpace(bytes.length)) {
+				return ByteBuffer.wrap(bytes);
+			}
+			ByteBuffer content = ByteBuffer.allocateDirect(bytes.length);
+			content.put(bytes);
+			content.flip();
+			this.content = content.asReadOnlyBuffer();
+			return this.content;
+		}
+
+		private byte[] readContent() throws IOException {
+			InputStream inputStream = getJarFile().getInputStream(this.entry);
+			try {
+				return StreamUtils.copyToByteArray(inputStream);
+			}
+			finally {
+				inputStream.close();
+			}
+		}
+
+		private URLResource openUrlResource() {
+			try {
+				return new URLResource(this.url, this.url.openConnection(), this.path);
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+
+		@Override
+		public Long getContentLength() {
+			return (this.entry == null ? 0L : this.entry.getSize());
+		}
+
+		@Override
+		public String getCacheKey() {
+			return this.url.toString();
+		}
+
+		@Override
+		public File getFile() {
+			return null;
+		}
+
+		@Override
+		public Path getFilePath() {
+			return null;
+		}
+
+		@Override
+		public File getResourceManagerRoot() {
+			return null;
+		}
+
+		@Override
+		public Path getResourceManagerRootPath() {
+			return null;
+		}
+
+		@Override
+		public URL getUrl() {
+			return this.url;
+		}
+
+		@Override
+		public boolean isRangeSupported() {
+			return true;
+		}
 
 	}
 
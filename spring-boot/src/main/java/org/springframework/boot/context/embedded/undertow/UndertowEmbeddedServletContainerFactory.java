@@ -126,6 +126,8 @@ public class UndertowEmbeddedServletContainerFactory
 
 	private boolean useForwardHeaders;
 
+	private boolean persistSessionCompression;
+
 	/**
 	 * Create a new {@link UndertowEmbeddedServletContainerFactory} instance.
 	 */
@@ -380,7 +382,9 @@ public class UndertowEmbeddedServletContainerFactory
 		}
 		if (isPersistSession()) {
 			File dir = getValidSessionStoreDir();
-			deployment.setSessionPersistenceManager(new FileSessionPersistence(dir));
+			FileSessionPersistence persistence = new FileSessionPersistence(dir);
+			persistence.setCompress(this.persistSessionCompression);
+			deployment.setSessionPersistenceManager(persistence);
 		}
 		addLocaleMappings(deployment);
 		DeploymentManager manager = Servlets.newContainer().addDeployment(deployment);
@@ -599,6 +603,16 @@ public class UndertowEmbeddedServletContainerFactory
 		this.useForwardHeaders = useForwardHeaders;
 	}
 
+	/**
+	 * Set if persisted session attributes should be compressed. Only applies when
+	 * {@link #setPersistSession(boolean) session persistence} is enabled.
+	 * @param persistSessionCompression if persisted sessions should be compressed
+	 * @since 2.0.0
+	 */
+	public void setPersistSessionCompression(boolean persistSessionCompression) {
+		this.persistSessionCompression = persistSessionCompression;
+	}
+
 	/**
 	 * {@link ServletContainerInitializer} to initialize {@link ServletContextInitializer
 	 * ServletContextInitializers}.
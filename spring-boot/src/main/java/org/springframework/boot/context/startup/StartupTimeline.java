@@ -0,0 +1,327 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.context.startup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Records a timeline of the, possibly nested, steps that are taken while an application
+ * starts. Steps are recorded with nanosecond precision into a buffer that is allocated
+ * up-front so that recording has minimal overhead. Once the buffer is full, further
+ * steps are dropped. A {@link #disabled() disabled} timeline records nothing and has no
+ * cost beyond the method call.
+ * <p>
+ * Nesting is tracked per thread: a step is nested within the innermost step started by
+ * the same thread that has not yet ended. Steps may be ended in any order and from any
+ * thread.
+ * <p>
+ * A timeline is typically configured on a
+ * {@link org.springframework.boot.SpringApplication SpringApplication} which will
+ * register it with the application context's bean factory under the name
+ * {@value #BEAN_NAME}.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ * @see #get(ConfigurableListableBeanFactory)
+ */
+public final class StartupTimeline {
+
+	/**
+	 * The name of the bean under which the timeline is registered.
+	 */
+	public static final String BEAN_NAME = "springBootStartupTimeline";
+
+	/**
+	 * The default maximum number of steps that are recorded.
+	 */
+	public static final int DEFAULT_CAPACITY = 4096;
+
+	private static final StartupTimeline DISABLED = new StartupTimeline(false, 0);
+
+	private static final Step NO_OP_STEP = new Step() {
+
+		@Override
+		public void end() {
+		}
+
+	};
+
+	private final boolean enabled;
+
+	private final String[] names;
+
+	private final int[] parents;
+
+	private final long[] startTimes;
+
+	private final long[] endTimes;
+
+	private final long origin;
+
+	private int size;
+
+	private final ThreadLocal<Integer> current = new ThreadLocal<Integer>();
+
+	private int dropped;
+
+	/**
+	 * Create a new enabled {@link StartupTimeline} with the
+	 * {@link #DEFAULT_CAPACITY default capacity}.
+	 */
+	public StartupTimeline() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Create a new enabled {@link StartupTimeline} with the given capacity.
+	 * @param capacity the maximum number of steps that will be recorded
+	 */
+	public StartupTimeline(int capacity) {
+		this(true, capacity);
+	}
+
+	private StartupTimeline(boolean enabled, int capacity) {
+		Assert.isTrue(!enabled || capacity > 0, "Capacity must be greater than 0");
+		this.enabled = enabled;
+		this.names = new String[capacity];
+		this.parents = new int[capacity];
+		this.startTimes = new long[capacity];
+		this.endTimes = new long[capacity];
+		this.origin = System.nanoTime();
+	}
+
+	/**
+	 * Return whether this timeline records steps. Callers can use this to avoid the
+	 * cost of building step names when the timeline is disabled.
+	 * @return {@code true} if steps are recorded
+	 */
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	/**
+	 * Start a new step. The step is nested within the most recently started step of the
+	 * calling thread that has not yet ended.
+	 * @param name the name of the step
+	 * @return the step that must be {@link Step#end() ended} once it completes
+	 */
+	public Step start(String name) {
+		if (!this.enabled) {
+			return NO_OP_STEP;
+		}
+		long startTime = System.nanoTime();
+		synchronized (this) {
+			if (this.size == this.names.length) {
+				this.dropped++;
+				return NO_OP_STEP;
+			}
+			int id = this.size++;
+			this.names[id] = name;
+			this.parents[id] = getCurrent();
+			this.startTimes[id] = startTime;
+			this.endTimes[id] = -1;
+			this.current.set(id);
+			return new RecordingStep(id);
+		}
+	}
+
+	private int getCurrent() {
+		Integer current = this.current.get();
+		int id = (current == null ? -1 : current);
+		while (id != -1 && this.endTimes[id] != -1) {
+			id = this.parents[id];
+		}
+		return id;
+	}
+
+	private void end(int id) {
+		long endTime = System.nanoTime();
+		synchronized (this) {
+			if (this.endTimes[id] == -1) {
+				this.endTimes[id] = endTime;
+			}
+			Integer current = this.current.get();
+			if (current != null && current == id) {
+				int parent = getCurrent();
+				if (parent == -1) {
+					this.current.remove();
+				}
+				else {
+					this.current.set(parent);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Return a snapshot of the steps that have been recorded, in the order in which they
+	 * were started.
+	 * @return the recorded steps
+	 */
+	public synchronized List<RecordedStep> getSteps() {
+		List<RecordedStep> steps = new ArrayList<RecordedStep>(this.size);
+		for (int i = 0; i < this.size; i++) {
+			Long duration = (this.endTimes[i] == -1 ? null
+					: this.endTimes[i] - this.startTimes[i]);
+			steps.add(new RecordedStep(i, (this.parents[i] == -1 ? null : this.parents[i]),
+					this.names[i], this.startTimes[i] - this.origin, duration));
+		}
+		return Collections.unmodifiableList(steps);
+	}
+
+	/**
+	 * Return the number of steps that were not recorded because the timeline's capacity
+	 * had been reached.
+	 * @return the number of dropped steps
+	 */
+	public synchronized int getDroppedSteps() {
+		return this.dropped;
+	}
+
+	/**
+	 * Return a {@link StartupTimeline} that does not record anything.
+	 * @return a disabled timeline
+	 */
+	public static StartupTimeline disabled() {
+		return DISABLED;
+	}
+
+	/**
+	 * Obtain the {@link StartupTimeline} registered with the specified bean factory.
+	 * @param beanFactory the bean factory (may be {@code null})
+	 * @return the registered timeline or a {@link #disabled() disabled} timeline if
+	 * none is registered
+	 */
+	public static StartupTimeline get(ConfigurableListableBeanFactory beanFactory) {
+		if (beanFactory != null && beanFactory.containsSingleton(BEAN_NAME)) {
+			Object timeline = beanFactory.getSingleton(BEAN_NAME);
+			if (timeline instanceof StartupTimeline) {
+				return (StartupTimeline) timeline;
+			}
+		}
+		return DISABLED;
+	}
+
+	/**
+	 * A step in the timeline.
+	 */
+	public interface Step {
+
+		/**
+		 * End the step.
+		 */
+		void end();
+
+	}
+
+	/**
+	 * A {@link Step} that records its end in the timeline.
+	 */
+	private final class RecordingStep implements Step {
+
+		private final int id;
+
+		private RecordingStep(int id) {
+			this.id = id;
+		}
+
+		@Override
+		public void end() {
+			StartupTimeline.this.end(this.id);
+		}
+
+	}
+
+	/**
+	 * An immutable snapshot of a recorded step.
+	 */
+	public static final class RecordedStep {
+
+		private final int id;
+
+		private final Integer parentId;
+
+		private final String name;
+
+		private final long startTime;
+
+		private final Long duration;
+
+		RecordedStep(int id, Integer parentId, String name, long startTime,
+				Long duration) {
+			this.id = id;
+			this.parentId = parentId;
+			this.name = name;
+			this.startTime = startTime;
+			this.duration = duration;
+		}
+
+		/**
+		 * Return the id of the step.
+		 * @return the id
+		 */
+		public int getId() {
+			return this.id;
+		}
+
+		/**
+		 * Return the id of the step within which this step is nested.
+		 * @return the parent id or {@code null} if this is a top-level step
+		 */
+		public Integer getParentId() {
+			return this.parentId;
+		}
+
+		/**
+		 * Return the name of the step.
+		 * @return the name
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * Return the time, in nanoseconds, at which the step started relative to the
+		 * creation of the timeline.
+		 * @return the start time
+		 */
+		public long getStartTime() {
+			return this.startTime;
+		}
+
+		/**
+		 * Return the duration, in nanoseconds, of the step.
+		 * @return the duration or {@code null} if the step has not ended
+		 */
+		public Long getDuration() {
+			return this.duration;
+		}
+
+		@Override
+		public String toString() {
+			return this.name + " (" + (this.duration == null ? "-" : this.duration)
+					+ "ns)";
+		}
+
+	}
+
+}
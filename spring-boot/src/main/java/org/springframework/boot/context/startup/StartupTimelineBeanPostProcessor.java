@@ -0,0 +1,91 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.context.startup;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessorAdapter;
+import org.springframework.boot.context.startup.StartupTimeline.Step;
+import org.springframework.util.Assert;
+
+/**
+ * {@link org.springframework.beans.factory.config.BeanPostProcessor BeanPostProcessor}
+ * that records the creation of each bean, from instantiation through to the end of its
+ * initialization, as a step in a {@link StartupTimeline}. Beans that are created while
+ * another bean is being created are recorded as nested steps. The step of a bean whose
+ * creation fails is ended when the next bean creation starts.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+public class StartupTimelineBeanPostProcessor
+		extends InstantiationAwareBeanPostProcessorAdapter {
+
+	private static final String STEP_NAME_PREFIX = "bean.";
+
+	private final StartupTimeline timeline;
+
+	private final ConfigurableBeanFactory beanFactory;
+
+	private final Map<String, Step> steps = new ConcurrentHashMap<String, Step>();
+
+	public StartupTimelineBeanPostProcessor(StartupTimeline timeline,
+			ConfigurableBeanFactory beanFactory) {
+		Assert.notNull(timeline, "Timeline must not be null");
+		Assert.notNull(beanFactory, "BeanFactory must not be null");
+		this.timeline = timeline;
+		this.beanFactory = beanFactory;
+	}
+
+	@Override
+	public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName)
+			throws BeansException {
+		if (beanName != null && this.timeline.isEnabled()) {
+			endFailedSteps();
+			this.steps.put(beanName, this.timeline.start(STEP_NAME_PREFIX + beanName));
+		}
+		return null;
+	}
+
+	private void endFailedSteps() {
+		Iterator<Map.Entry<String, Step>> iterator = this.steps.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<String, Step> entry = iterator.next();
+			if (!this.beanFactory.isCurrentlyInCreation(entry.getKey())) {
+				iterator.remove();
+				entry.getValue().end();
+			}
+		}
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName)
+			throws BeansException {
+		if (beanName != null) {
+			Step step = this.steps.remove(beanName);
+			if (step != null) {
+				step.end();
+			}
+		}
+		return bean;
+	}
+
+}
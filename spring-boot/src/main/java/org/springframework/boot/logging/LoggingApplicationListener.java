@@ -145,6 +145,30 @@ public class LoggingApplicationListener implements GenericApplicationListener {
 	 */
 	public static final String LOG_LEVEL_PATTERN = "LOG_LEVEL_PATTERN";
 
+	/**
+	 * The name of the System property that contains whether log output is written
+	 * asynchronously.
+	 */
+	public static final String LOG_ASYNC_ENABLED = "LOG_ASYNC_ENABLED";
+
+	/**
+	 * The name of the System property that contains the maximum number of log events
+	 * that can be queued when log output is written asynchronously.
+	 */
+	public static final String LOG_ASYNC_QUEUE_SIZE = "LOG_ASYNC_QUEUE_SIZE";
+
+	/**
+	 * The name of the System property that contains the maximum number of log events
+	 * that are written in a single batch when log output is written asynchronously.
+	 */
+	public static final String LOG_ASYNC_BATCH_SIZE = "LOG_ASYNC_BATCH_SIZE";
+
+	/**
+	 * The name of the System property that contains whether debug and trace log
+	 * events are discarded when the asynchronous queue is full.
+	 */
+	public static final String LOG_ASYNC_DISCARD_WHEN_FULL = "LOG_ASYNC_DISCARD_WHEN_FULL";
+
 	/**
 	 * The name of the {@link LoggingSystem} bean.
 	 */
@@ -38,6 +38,14 @@ class LoggingSystemProperties {
 
 	static final String LOG_LEVEL_PATTERN = LoggingApplicationListener.LOG_LEVEL_PATTERN;
 
+	static final String LOG_ASYNC_ENABLED = LoggingApplicationListener.LOG_ASYNC_ENABLED;
+
+	static final String LOG_ASYNC_QUEUE_SIZE = LoggingApplicationListener.LOG_ASYNC_QUEUE_SIZE;
+
+	static final String LOG_ASYNC_BATCH_SIZE = LoggingApplicationListener.LOG_ASYNC_BATCH_SIZE;
+
+	static final String LOG_ASYNC_DISCARD_WHEN_FULL = LoggingApplicationListener.LOG_ASYNC_DISCARD_WHEN_FULL;
+
 	private final Environment environment;
 
 	LoggingSystemProperties(Environment environment) {
@@ -56,6 +64,11 @@ class LoggingSystemProperties {
 		setSystemProperty(propertyResolver, CONSOLE_LOG_PATTERN, "pattern.console");
 		setSystemProperty(propertyResolver, FILE_LOG_PATTERN, "pattern.file");
 		setSystemProperty(propertyResolver, LOG_LEVEL_PATTERN, "pattern.level");
+		setSystemProperty(propertyResolver, LOG_ASYNC_ENABLED, "async.enabled");
+		setSystemProperty(propertyResolver, LOG_ASYNC_QUEUE_SIZE, "async.queue-size");
+		setSystemProperty(propertyResolver, LOG_ASYNC_BATCH_SIZE, "async.batch-size");
+		setSystemProperty(propertyResolver, LOG_ASYNC_DISCARD_WHEN_FULL,
+				"async.discard-when-full");
 		setSystemProperty(PID_KEY, new ApplicationPid().toString());
 		if (logFile != null) {
 			logFile.applyToSystemProperties();
@@ -0,0 +1,330 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.logging.logback;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+/**
+ * {@link Appender} that decouples logging calls from the I/O performed by the appenders
+ * that are attached to it. Events are added to a bounded, lock-free queue and a single
+ * worker thread drains the queue in batches, flushing any {@link OutputStreamAppender}
+ * once per batch rather than once per event.
+ * <p>
+ * When the queue is full, {@code DEBUG} and {@code TRACE} events are discarded (unless
+ * {@link #setDiscardWhenFull(boolean) discardWhenFull} is {@code false}) and the
+ * logging thread waits for space for events of any other level. The number of
+ * discarded events is available from {@link #getDiscardedCount()}.
+ *
+ * @author Jerry Lei
+ * @since 2.0.0
+ */
+public class BatchingAsyncAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+		implements AppenderAttachable<ILoggingEvent> {
+
+	/**
+	 * The default maximum number of events that can be queued.
+	 */
+	public static final int DEFAULT_QUEUE_SIZE = 8192;
+
+	/**
+	 * The default maximum number of events that are written in a single batch.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 256;
+
+	private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+	private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+	private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<ILoggingEvent>();
+
+	private final Queue<ILoggingEvent> queue = new ConcurrentLinkedQueue<ILoggingEvent>();
+
+	private final AtomicInteger queued = new AtomicInteger();
+
+	private final AtomicLong discarded = new AtomicLong();
+
+	private int queueSize = DEFAULT_QUEUE_SIZE;
+
+	private int batchSize = DEFAULT_BATCH_SIZE;
+
+	private boolean discardWhenFull = true;
+
+	private int maxFlushTime = 1000;
+
+	private volatile Thread worker;
+
+	private volatile boolean waiting;
+
+	@Override
+	public void start() {
+		if (isStarted()) {
+			return;
+		}
+		if (this.queueSize < 1) {
+			addError("Invalid queue size [" + this.queueSize + "]");
+			return;
+		}
+		if (this.batchSize < 1) {
+			addError("Invalid batch size [" + this.batchSize + "]");
+			return;
+		}
+		super.start();
+		Thread worker = new Thread(new Worker(), "logback-async-" + getName());
+		worker.setDaemon(true);
+		this.worker = worker;
+		worker.start();
+	}
+
+	@Override
+	public void stop() {
+		if (!isStarted()) {
+			return;
+		}
+		super.stop();
+		Thread worker = this.worker;
+		LockSupport.unpark(worker);
+		try {
+			worker.join(this.maxFlushTime);
+			if (worker.isAlive()) {
+				addWarn("Worker did not finish within " + this.maxFlushTime
+						+ "ms, " + this.queued.get() + " queued events were not written");
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		this.appenders.detachAndStopAllAppenders();
+	}
+
+	@Override
+	protected void append(ILoggingEvent event) {
+		event.prepareForDeferredProcessing();
+		while (!offer(event)) {
+			if (!isStarted() || (this.discardWhenFull && isDiscardable(event))) {
+				this.discarded.incrementAndGet();
+				return;
+			}
+			LockSupport.parkNanos(this, FULL_PARK_NANOS);
+		}
+		if (this.waiting) {
+			LockSupport.unpark(this.worker);
+		}
+	}
+
+	private boolean offer(ILoggingEvent event) {
+		if (this.queued.incrementAndGet() > this.queueSize) {
+			this.queued.decrementAndGet();
+			return false;
+		}
+		this.queue.offer(event);
+		return true;
+	}
+
+	private boolean isDiscardable(ILoggingEvent event) {
+		return event.getLevel().toInt() <= Level.DEBUG_INT;
+	}
+
+	private int drain() {
+		int count = 0;
+		while (count < this.batchSize) {
+			ILoggingEvent event = this.queue.poll();
+			if (event == null) {
+				break;
+			}
+			this.queued.decrementAndGet();
+			this.appenders.appendLoopOnAppenders(event);
+			count++;
+		}
+		if (count > 0) {
+			flush();
+		}
+		return count;
+	}
+
+	private void flush() {
+		Iterator<Appender<ILoggingEvent>> iterator = this.appenders
+				.iteratorForAppenders();
+		while (iterator.hasNext()) {
+			Appender<ILoggingEvent> appender = iterator.next();
+			if (appender instanceof OutputStreamAppender) {
+				OutputStream outputStream = ((OutputStreamAppender<?>) appender)
+						.getOutputStream();
+				try {
+					if (outputStream != null) {
+						outputStream.flush();
+					}
+				}
+				catch (IOException ex) {
+					addWarn("Failed to flush appender [" + appender.getName() + "]", ex);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void addAppender(Appender<ILoggingEvent> newAppender) {
+		this.appenders.addAppender(newAppender);
+	}
+
+	@Override
+	public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+		return this.appenders.iteratorForAppenders();
+	}
+
+	@Override
+	public Appender<ILoggingEvent> getAppender(String name) {
+		return this.appenders.getAppender(name);
+	}
+
+	@Override
+	public boolean isAttached(Appender<ILoggingEvent> appender) {
+		return this.appenders.isAttached(appender);
+	}
+
+	@Override
+	public void detachAndStopAllAppenders() {
+		this.appenders.detachAndStopAllAppenders();
+	}
+
+	@Override
+	public boolean detachAppender(Appender<ILoggingEvent> appender) {
+		return this.appenders.detachAppender(appender);
+	}
+
+	@Override
+	public boolean detachAppender(String name) {
+		return this.appenders.detachAppender(name);
+	}
+
+	/**
+	 * Set the maximum number of events that can be queued.
+	 * @param queueSize the queue size
+	 */
+	public void setQueueSize(int queueSize) {
+		this.queueSize = queueSize;
+	}
+
+	/**
+	 * Return the maximum number of events that can be queued.
+	 * @return the queue size
+	 */
+	public int getQueueSize() {
+		return this.queueSize;
+	}
+
+	/**
+	 * Set the maximum number of events that are written before attached appenders are
+	 * flushed.
+	 * @param batchSize the batch size
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Return the maximum number of events that are written before attached appenders
+	 * are flushed.
+	 * @return the batch size
+	 */
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+
+	/**
+	 * Set whether {@code DEBUG} and {@code TRACE} events should be discarded, rather
+	 * than waiting for space, when the queue is full.
+	 * @param discardWhenFull if events should be discarded
+	 */
+	public void setDiscardWhenFull(boolean discardWhenFull) {
+		this.discardWhenFull = discardWhenFull;
+	}
+
+	/**
+	 * Return whether {@code DEBUG} and {@code TRACE} events are discarded when the
+	 * queue is full.
+	 * @return if events are discarded
+	 */
+	public boolean isDiscardWhenFull() {
+		return this.discardWhenFull;
+	}
+
+	/**
+	 * Set the maximum time, in milliseconds, to wait for queued events to be written
+	 * when the appender is stopped.
+	 * @param maxFlushTime the maximum flush time
+	 */
+	public void setMaxFlushTime(int maxFlushTime) {
+		this.maxFlushTime = maxFlushTime;
+	}
+
+	/**
+	 * Return the number of events that are currently queued.
+	 * @return the number of queued events
+	 */
+	public int getQueuedCount() {
+		return this.queued.get();
+	}
+
+	/**
+	 * Return the number of events that have been discarded because the queue was full.
+	 * @return the number of discarded events
+	 */
+	public long getDiscardedCount() {
+		return this.discarded.get();
+	}
+
+	/**
+	 * The worker that drains the queue.
+	 */
+	private class Worker implements Runnable {
+
+		@Override
+		public void run() {
+			BatchingAsyncAppender appender = BatchingAsyncAppender.this;
+			while (appender.isStarted()) {
+				if (drain() == 0) {
+					appender.waiting = true;
+					if (appender.queue.isEmpty() && appender.isStarted()) {
+						LockSupport.parkNanos(appender, IDLE_PARK_NANOS);
+					}
+					appender.waiting = false;
+				}
+			}
+			while (drain() > 0) {
+				// Write any remaining events
+			}
+		}
+
+	}
+
+}
@@ -52,28 +52,35 @@ public class ColorConverter extends CompositeConverter<ILoggingEvent> {
 		ELEMENTS = Collections.unmodifiableMap(elements);
 	}
 
-	private static final Map<Integer, AnsiElement> LEVELS;
-
-	static {
-		Map<Integer, AnsiElement> levels = new HashMap<Integer, AnsiElement>();
-		levels.put(Level.ERROR_INTEGER, AnsiColor.RED);
-		levels.put(Level.WARN_INTEGER, AnsiColor.YELLOW);
-		LEVELS = Collections.unmodifiableMap(levels);
-	}
-
 	@Override
 	protected String transform(ILoggingEvent event, String in) {
+		return toAnsiString(in, getElement(event));
+	}
+
+	private AnsiElement getElement(ILoggingEvent event) {
 		AnsiElement element = ELEMENTS.get(getFirstOption());
-		if (element == null) {
-			// Assume highlighting
-			element = LEVELS.get(event.getLevel().toInteger());
-			element = (element == null ? AnsiColor.GREEN : element);
+		if (element != null) {
+			return element;
+		}
+		// Assume highlighting
+		switch (event.getLevel().toInt()) {
+		case Level.ERROR_INT:
+			return AnsiColor.RED;
+		case Level.WARN_INT:
+			return AnsiColor.YELLOW;
+		default:
+			return AnsiColor.GREEN;
 		}
-		return toAnsiString(in, element);
 	}
 
 	protected String toAnsiString(String in, AnsiElement element) {
-		return AnsiOutput.toString(element, in);
+		StringBuilder sb = new StringBuilder(in.length() + 16);
+		boolean encoded = AnsiOutput.appendEncoded(sb, element);
+		sb.append(in);
+		if (encoded) {
+			AnsiOutput.appendReset(sb);
+		}
+		return sb.toString();
 	}
 
 }
@@ -40,8 +40,9 @@ import org.springframework.util.ReflectionUtils;
 
 /**
  * Default logback configuration used by Spring Boot. Uses {@link LogbackConfigurator} to
- * improve startup time. See also the {@code defaults.xml}, {@code console-appender.xml}
- * and {@code file-appender.xml} files provided for classic {@code logback.xml} use.
+ * improve startup time. See also the {@code defaults.xml}, {@code console-appender.xml},
+ * {@code file-appender.xml} and {@code async-appender.xml} files provided for classic
+ * {@code logback.xml} use.
  *
  * @author Phillip Webb
  * @since 1.1.2
@@ -60,30 +61,45 @@ class DefaultLogbackConfiguration {
 
 	private final PropertyResolver patterns;
 
+	private final PropertyResolver async;
+
 	private final LogFile logFile;
 
 	DefaultLogbackConfiguration(LoggingInitializationContext initializationContext,
 			LogFile logFile) {
-		this.patterns = getPatternsResolver(initializationContext.getEnvironment());
+		this.patterns = getResolver(initializationContext.getEnvironment(),
+				"logging.pattern.");
+		this.async = getResolver(initializationContext.getEnvironment(),
+				"logging.async.");
 		this.logFile = logFile;
 	}
 
-	private PropertyResolver getPatternsResolver(Environment environment) {
+	private PropertyResolver getResolver(Environment environment, String prefix) {
 		if (environment == null) {
 			return new PropertySourcesPropertyResolver(null);
 		}
 		return RelaxedPropertyResolver.ignoringUnresolvableNestedPlaceholders(environment,
-				"logging.pattern.");
+				prefix);
 	}
 
 	public void apply(LogbackConfigurator config) {
 		synchronized (config.getConfigurationLock()) {
 			base(config);
-			Appender<ILoggingEvent> consoleAppender = consoleAppender(config);
+			boolean async = this.async.getProperty("enabled", Boolean.class, false);
+			Appender<ILoggingEvent> consoleAppender = consoleAppender(config, !async);
 			if (this.logFile != null) {
 				Appender<ILoggingEvent> fileAppender = fileAppender(config,
-						this.logFile.toString());
-				config.root(Level.INFO, consoleAppender, fileAppender);
+						this.logFile.toString(), !async);
+				if (async) {
+					config.root(Level.INFO,
+							asyncAppender(config, consoleAppender, fileAppender));
+				}
+				else {
+					config.root(Level.INFO, consoleAppender, fileAppender);
+				}
+			}
+			else if (async) {
+				config.root(Level.INFO, asyncAppender(config, consoleAppender));
 			}
 			else {
 				config.root(Level.INFO, consoleAppender);
@@ -110,12 +126,14 @@ class DefaultLogbackConfiguration {
 				debugRemapAppender);
 	}
 
-	private Appender<ILoggingEvent> consoleAppender(LogbackConfigurator config) {
+	private Appender<ILoggingEvent> consoleAppender(LogbackConfigurator config,
+			boolean immediateFlush) {
 		ConsoleAppender<ILoggingEvent> appender = new ConsoleAppender<ILoggingEvent>();
 		PatternLayoutEncoder encoder = new PatternLayoutEncoder();
 		String logPattern = this.patterns.getProperty("console", CONSOLE_LOG_PATTERN);
 		encoder.setPattern(OptionHelper.substVars(logPattern, config.getContext()));
 		encoder.setCharset(UTF8);
+		encoder.setImmediateFlush(immediateFlush);
 		config.start(encoder);
 		appender.setEncoder(encoder);
 		config.appender("CONSOLE", appender);
@@ -123,11 +141,12 @@ class DefaultLogbackConfiguration {
 	}
 
 	private Appender<ILoggingEvent> fileAppender(LogbackConfigurator config,
-			String logFile) {
+			String logFile, boolean immediateFlush) {
 		RollingFileAppender<ILoggingEvent> appender = new RollingFileAppender<ILoggingEvent>();
 		PatternLayoutEncoder encoder = new PatternLayoutEncoder();
 		String logPattern = this.patterns.getProperty("file", FILE_LOG_PATTERN);
 		encoder.setPattern(OptionHelper.substVars(logPattern, config.getContext()));
+		encoder.setImmediateFlush(immediateFlush);
 		appender.setEncoder(encoder);
 		config.start(encoder);
 		appender.setFile(logFile);
@@ -137,6 +156,23 @@ class DefaultLogbackConfiguration {
 		return appender;
 	}
 
+	@SafeVarargs
+	private final Appender<ILoggingEvent> asyncAppender(LogbackConfigurator config,
+			Appender<ILoggingEvent>... appenders) {
+		BatchingAsyncAppender appender = new BatchingAsyncAppender();
+		appender.setQueueSize(this.async.getProperty("queue-size", Integer.class,
+				BatchingAsyncAppender.DEFAULT_QUEUE_SIZE));
+		appender.setBatchSize(this.async.getProperty("batch-size", Integer.class,
+				BatchingAsyncAppender.DEFAULT_BATCH_SIZE));
+		appender.setDiscardWhenFull(
+				this.async.getProperty("discard-when-full", Boolean.class, true));
+		for (Appender<ILoggingEvent> delegate : appenders) {
+			appender.addAppender(delegate);
+		}
+		config.appender("ASYNC", appender);
+		return appender;
+	}
+
 	private void setRollingPolicy(RollingFileAppender<ILoggingEvent> appender,
 			LogbackConfigurator config, String logFile) {
 		FixedWindowRollingPolicy rollingPolicy = new FixedWindowRollingPolicy();
@@ -49,6 +49,7 @@ import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEven
 import org.springframework.boot.context.event.ApplicationPreparedEvent;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.boot.context.event.ApplicationStartingEvent;
+import org.springframework.boot.context.startup.StartupTimeline;
 import org.springframework.boot.testutil.InternalOutputCapture;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
@@ -281,6 +282,31 @@ public class SpringApplicationTests {
 		assertThat((Banner.Mode) field.get(application)).isEqualTo(Banner.Mode.OFF);
 	}
 
+	@Test
+	public void startupTimelineIsRecorded() throws Exception {
+		SpringApplication application = new SpringApplication(ExampleConfig.class);
+		application.setWebApplicationType(WebApplicationType.NONE);
+		StartupTimeline timeline = new StartupTimeline();
+		application.setStartupTimeline(timeline);
+		this.context = application.run();
+		assertThat(this.context.getBean(StartupTimeline.class)).isSameAs(timeline);
+		assertThat(timeline.getSteps()).extracting("name").contains("application.run",
+				"application.environment.prepare", "application.context.prepare",
+				"application.context.refresh",
+				"bean.springApplicationTests.ExampleConfig");
+		assertThat(timeline.getSteps().get(0).getName()).isEqualTo("application.run");
+		assertThat(timeline.getSteps().get(0).getDuration()).isNotNull();
+	}
+
+	@Test
+	public void startupTimelineIsDisabledByDefault() throws Exception {
+		SpringApplication application = new SpringApplication(ExampleConfig.class);
+		application.setWebApplicationType(WebApplicationType.NONE);
+		this.context = application.run();
+		assertThat(application.getStartupTimeline().isEnabled()).isFalse();
+		assertThat(this.context.containsBean(StartupTimeline.BEAN_NAME)).isFalse();
+	}
+
 	@Test
 	public void customId() throws Exception {
 		SpringApplication application = new SpringApplication(ExampleConfig.class);
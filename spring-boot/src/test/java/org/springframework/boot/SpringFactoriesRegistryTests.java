@@ -0,0 +1,226 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.boot.env.PropertiesPropertySourceLoader;
+import org.springframework.boot.env.PropertySourceLoader;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.io.support.SpringFactoriesLoader;
+import org.springframework.util.FileCopyUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SpringFactoriesRegistry}.
+ *
+ * @author Jerry Lei
+ */
+public class SpringFactoriesRegistryTests {
+
+	@Rule
+	public TemporaryFolder temp = new TemporaryFolder();
+
+	private String tempDir;
+
+	@Before
+	public void setup() throws IOException {
+		this.tempDir = System.getProperty("java.io.tmpdir");
+		System.setProperty("java.io.tmpdir",
+				this.temp.newFolder("tmp").getAbsolutePath());
+	}
+
+	@After
+	public void cleanup() {
+		System.setProperty("java.io.tmpdir", this.tempDir);
+		System.clearProperty(SpringFactoriesRegistry.SNAPSHOT_PROPERTY);
+		SpringFactoriesRegistry.clearCache();
+	}
+
+	@Test
+	public void loadFactoryNamesMergesAllFiles() throws Exception {
+		File first = createFactories("java.lang.Runnable=com.example.One,"
+				+ "com.example.Two\njava.lang.Comparable=com.example.B");
+		File second = createFactories("java.lang.Runnable= com.example.Three");
+		ClassLoader classLoader = createClassLoader(first, second);
+		assertThat(SpringFactoriesRegistry.loadFactoryNames(Runnable.class, classLoader))
+				.containsExactly("com.example.One", "com.example.Two",
+						"com.example.Three");
+		assertThat(
+				SpringFactoriesRegistry.loadFactoryNames(Comparable.class, classLoader))
+						.containsExactly("com.example.B");
+		assertThat(SpringFactoriesRegistry.loadFactoryNames(Iterable.class, classLoader))
+				.isEmpty();
+	}
+
+	@Test
+	public void loadFactoryNamesKeepsDuplicatesLikeSpringFactoriesLoader()
+			throws Exception {
+		File first = createFactories(
+				"java.lang.Runnable=com.example.One,com.example.Two");
+		File second = createFactories(
+				"java.lang.Runnable=com.example.Two,com.example.Three");
+		ClassLoader classLoader = createClassLoader(first, second);
+		List<String> names = SpringFactoriesRegistry.loadFactoryNames(Runnable.class,
+				classLoader);
+		assertThat(names).containsExactly("com.example.One", "com.example.Two",
+				"com.example.Two", "com.example.Three");
+		assertThat(names).isEqualTo(
+				SpringFactoriesLoader.loadFactoryNames(Runnable.class, classLoader));
+	}
+
+	@Test
+	public void loadFactoryNamesIsCachedPerClassLoader() throws Exception {
+		File folder = createFactories("java.lang.Runnable=com.example.One");
+		ClassLoader classLoader = createClassLoader(folder);
+		SpringFactoriesRegistry.loadFactoryNames(Runnable.class, classLoader);
+		writeFactories(folder, "java.lang.Runnable=com.example.Two");
+		assertThat(SpringFactoriesRegistry.loadFactoryNames(Runnable.class, classLoader))
+				.containsExactly("com.example.One");
+		assertThat(SpringFactoriesRegistry.loadFactoryNames(Runnable.class,
+				createClassLoader(folder))).containsExactly("com.example.Two");
+		SpringFactoriesRegistry.clearCache();
+		assertThat(SpringFactoriesRegistry.loadFactoryNames(Runnable.class, classLoader))
+				.containsExactly("com.example.Two");
+	}
+
+	@Test
+	public void loadFactoryNamesReturnsMutableCopy() throws Exception {
+		ClassLoader classLoader = createClassLoader(
+				createFactories("java.lang.Runnable=com.example.One"));
+		SpringFactoriesRegistry.loadFactoryNames(Runnable.class, classLoader).clear();
+		assertThat(SpringFactoriesRegistry.loadFactoryNames(Runnable.class, classLoader))
+				.containsExactly("com.example.One");
+	}
+
+	@Test
+	public void loadFactories() throws Exception {
+		List<PropertySourceLoader> loaders = SpringFactoriesRegistry.loadFactories(
+				PropertySourceLoader.class, getClass().getClassLoader());
+		assertThat(loaders).hasSize(2);
+		assertThat(loaders.get(0)).isInstanceOf(PropertiesPropertySourceLoader.class);
+		assertThat(loaders.get(1)).isInstanceOf(YamlPropertySourceLoader.class);
+	}
+
+	@Test
+	public void snapshotIsNotWrittenByDefault() throws Exception {
+		ClassLoader classLoader = createClassLoader(
+				createFactories("java.lang.Runnable=com.example.One"));
+		SpringFactoriesRegistry.loadFactoryNames(Runnable.class, classLoader);
+		assertThat(getSnapshotDir().listFiles()).isNullOrEmpty();
+	}
+
+	@Test
+	public void snapshotIsUsedForRepeatLoads() throws Exception {
+		System.setProperty(SpringFactoriesRegistry.SNAPSHOT_PROPERTY, "true");
+		File folder = createFactories("java.lang.Runnable=com.example.One");
+		SpringFactoriesRegistry.loadFactoryNames(Runnable.class,
+				createClassLoader(folder));
+		File[] snapshots = getSnapshotDir().listFiles();
+		assertThat(snapshots).hasSize(1);
+		FileCopyUtils.copy("java.lang.Runnable=com.example.Snapshot".getBytes(),
+				snapshots[0]);
+		SpringFactoriesRegistry.clearCache();
+		assertThat(SpringFactoriesRegistry.loadFactoryNames(Runnable.class,
+				createClassLoader(folder))).containsExactly("com.example.Snapshot");
+	}
+
+	@Test
+	public void snapshotIsNotUsedWhenClassPathChanges() throws Exception {
+		System.setProperty(SpringFactoriesRegistry.SNAPSHOT_PROPERTY, "true");
+		File folder = createFactories("java.lang.Runnable=com.example.One");
+		SpringFactoriesRegistry.loadFactoryNames(Runnable.class,
+				createClassLoader(folder));
+		SpringFactoriesRegistry.clearCache();
+		writeFactories(folder, "java.lang.Runnable=com.example.One,com.example.Two");
+		assertThat(SpringFactoriesRegistry.loadFactoryNames(Runnable.class,
+				createClassLoader(folder))).containsExactly("com.example.One",
+						"com.example.Two");
+		assertThat(getSnapshotDir().listFiles()).hasSize(2);
+	}
+
+	@Test
+	public void snapshotUsesFactoriesFilesWhenClassPathIsUnknown() throws Exception {
+		System.setProperty(SpringFactoriesRegistry.SNAPSHOT_PROPERTY, "true");
+		File folder = createFactories("java.lang.Runnable=com.example.One");
+		SpringFactoriesRegistry.loadFactoryNames(Runnable.class,
+				new DelegatingClassLoader(createClassLoader(folder)));
+		assertThat(getSnapshotDir().listFiles()).hasSize(1);
+		SpringFactoriesRegistry.clearCache();
+		writeFactories(folder, "java.lang.Runnable=com.example.One,com.example.Two");
+		assertThat(SpringFactoriesRegistry.loadFactoryNames(Runnable.class,
+				new DelegatingClassLoader(createClassLoader(folder))))
+						.containsExactly("com.example.One", "com.example.Two");
+		assertThat(getSnapshotDir().listFiles()).hasSize(2);
+	}
+
+	private File getSnapshotDir() {
+		return new File(new ApplicationTemp().getDir(), "spring-factories");
+	}
+
+	private File createFactories(String content) throws IOException {
+		File folder = this.temp.newFolder();
+		writeFactories(folder, content);
+		return folder;
+	}
+
+	private void writeFactories(File folder, String content) throws IOException {
+		content = content.replace("java.lang.Runnable=", Runnable.class.getName() + "=")
+				.replace("b=", Comparable.class.getName() + "=");
+		File file = new File(folder, "META-INF/spring.factories");
+		file.getParentFile().mkdirs();
+		FileWriter writer = new FileWriter(file);
+		try {
+			writer.write(content);
+		}
+		finally {
+			writer.close();
+		}
+	}
+
+	private ClassLoader createClassLoader(File... folders) throws Exception {
+		URL[] urls = new URL[folders.length];
+		for (int i = 0; i < folders.length; i++) {
+			urls[i] = folders[i].toURI().toURL();
+		}
+		return new URLClassLoader(urls, null);
+	}
+
+	/**
+	 * A {@link ClassLoader} that is not a {@link URLClassLoader}.
+	 */
+	private static class DelegatingClassLoader extends ClassLoader {
+
+		DelegatingClassLoader(ClassLoader parent) {
+			super(parent);
+		}
+
+	}
+
+}
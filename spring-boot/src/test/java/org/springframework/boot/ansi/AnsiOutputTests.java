@@ -48,4 +48,27 @@ public class AnsiOutputTests {
 		assertThat(encoded).isEqualTo("A[31;1mB[0mD[32mE[2mF[0;39m");
 	}
 
+	@Test
+	public void appendEncodedAndReset() throws Exception {
+		StringBuilder sb = new StringBuilder("A");
+		assertThat(AnsiOutput.appendEncoded(sb, AnsiColor.RED)).isTrue();
+		sb.append("B");
+		AnsiOutput.appendReset(sb);
+		assertThat(sb.toString())
+				.isEqualTo(AnsiOutput.toString("A", AnsiColor.RED, "B"));
+	}
+
+	@Test
+	public void appendEncodedWhenDisabled() throws Exception {
+		AnsiOutput.setEnabled(Enabled.NEVER);
+		try {
+			StringBuilder sb = new StringBuilder();
+			assertThat(AnsiOutput.appendEncoded(sb, AnsiColor.RED)).isFalse();
+			assertThat(sb.length()).isEqualTo(0);
+		}
+		finally {
+			AnsiOutput.setEnabled(Enabled.ALWAYS);
+		}
+	}
+
 }
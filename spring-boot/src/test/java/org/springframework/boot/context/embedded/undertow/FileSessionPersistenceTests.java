@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2016 the original author or authors.
+ * Copyright 2012-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,7 +17,10 @@
 package org.springframework.boot.context.embedded.undertow;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
 import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -28,6 +31,8 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import org.springframework.boot.context.embedded.undertow.FileSessionPersistence.SerializablePersistentSession;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -101,4 +106,53 @@ public class FileSessionPersistenceTests {
 		assertThat(sessionFile.exists()).isFalse();
 	}
 
+	@Test
+	public void persistAndLoadCompressed() throws Exception {
+		this.persistence.setCompress(true);
+		Map<String, PersistentSession> sessionData = new LinkedHashMap<String, PersistentSession>();
+		Map<String, Object> data = new LinkedHashMap<String, Object>();
+		data.put("spring", "boot");
+		sessionData.put("abc", new PersistentSession(this.expiration, data));
+		this.persistence.persistSessions("test", sessionData);
+		Map<String, PersistentSession> restored = new FileSessionPersistence(this.dir)
+				.loadSessionAttributes("test", this.classLoader);
+		assertThat(restored.get("abc").getSessionData().get("spring")).isEqualTo("boot");
+	}
+
+	@Test
+	public void persistAndLoadManySessions() throws Exception {
+		Map<String, PersistentSession> sessionData = new LinkedHashMap<String, PersistentSession>();
+		for (int i = 0; i < 1000; i++) {
+			Map<String, Object> data = new LinkedHashMap<String, Object>();
+			data.put("index", i);
+			Date expiration = (i % 2 == 0 ? this.expiration
+					: new Date(System.currentTimeMillis() - 1000));
+			sessionData.put("session" + i, new PersistentSession(expiration, data));
+		}
+		this.persistence.persistSessions("test", sessionData);
+		Map<String, PersistentSession> restored = this.persistence
+				.loadSessionAttributes("test", this.classLoader);
+		assertThat(restored).hasSize(500);
+		assertThat(restored.get("session998").getSessionData().get("index"))
+				.isEqualTo(998);
+		assertThat(restored.keySet().iterator().next()).isEqualTo("session0");
+	}
+
+	@Test
+	public void loadPreviousFormat() throws Exception {
+		Map<String, Object> data = new LinkedHashMap<String, Object>();
+		data.put("spring", "boot");
+		Map<String, Serializable> sessions = new LinkedHashMap<String, Serializable>();
+		sessions.put("abc", new SerializablePersistentSession(
+				new PersistentSession(this.expiration, data)));
+		ObjectOutputStream stream = new ObjectOutputStream(
+				new FileOutputStream(new File(this.dir, "test.session")));
+		stream.writeObject(sessions);
+		stream.close();
+		Map<String, PersistentSession> restored = this.persistence
+				.loadSessionAttributes("test", this.classLoader);
+		assertThat(restored.get("abc").getExpiration()).isEqualTo(this.expiration);
+		assertThat(restored.get("abc").getSessionData().get("spring")).isEqualTo("boot");
+	}
+
 }
@@ -24,6 +24,7 @@ import java.util.zip.ZipEntry;
 
 import io.undertow.server.handlers.resource.Resource;
 import io.undertow.server.handlers.resource.ResourceManager;
+import io.undertow.util.MimeMappings;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -83,4 +84,25 @@ public class JarResourceManagerTests {
 		assertThat(resource.getContentLength()).isEqualTo(5);
 	}
 
+	@Test
+	public void missingResourceIsNull() throws IOException {
+		assertThat(this.resourceManager.getResource("/missing.txt")).isNull();
+	}
+
+	@Test
+	public void resourceIsCached() throws IOException {
+		Resource resource = this.resourceManager.getResource("/hello.txt");
+		assertThat(this.resourceManager.getResource("hello.txt")).isSameAs(resource);
+	}
+
+	@Test
+	public void resourceHasMetadata() throws IOException {
+		Resource resource = this.resourceManager.getResource("/hello.txt");
+		assertThat(resource.getName()).isEqualTo("hello.txt");
+		assertThat(resource.getETag()).isNotNull();
+		assertThat(resource.getLastModified()).isNotNull();
+		assertThat(resource.getContentType(MimeMappings.DEFAULT))
+				.isEqualTo("text/plain");
+	}
+
 }
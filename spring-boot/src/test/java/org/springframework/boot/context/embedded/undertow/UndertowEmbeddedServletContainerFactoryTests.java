@@ -17,6 +17,7 @@
 package org.springframework.boot.context.embedded.undertow;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.charset.Charset;
@@ -27,6 +28,8 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
 
 import javax.net.ssl.SSLHandshakeException;
 
@@ -46,6 +49,7 @@ import org.springframework.boot.context.embedded.PortInUseException;
 import org.springframework.boot.web.servlet.ErrorPage;
 import org.springframework.boot.web.servlet.ServletRegistrationBean;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -80,6 +84,23 @@ public class UndertowEmbeddedServletContainerFactoryTests
 		assertThat(getResponse(getLocalUrl("/not-found"))).isEqualTo("Hello World");
 	}
 
+	@Test
+	public void persistCompressedSession() throws Exception {
+		UndertowEmbeddedServletContainerFactory factory = getFactory();
+		factory.setPersistSession(true);
+		factory.setPersistSessionCompression(true);
+		this.container = factory
+				.getEmbeddedServletContainer(sessionServletRegistration());
+		this.container.start();
+		String s1 = getResponse(getLocalUrl("/session"));
+		this.container.stop();
+		this.container = factory
+				.getEmbeddedServletContainer(sessionServletRegistration());
+		this.container.start();
+		String s2 = getResponse(getLocalUrl("/session"));
+		assertThat(s2.split(":")[0]).isEqualTo(s1.split(":")[1]);
+	}
+
 	@Test
 	public void setNullBuilderCustomizersThrows() {
 		UndertowEmbeddedServletContainerFactory factory = getFactory();
@@ -252,6 +273,29 @@ public class UndertowEmbeddedServletContainerFactoryTests
 				new String[] { "TLS_RSA_WITH_AES_128_CBC_SHA256" });
 	}
 
+	@Test
+	public void jarDocumentRoot() throws Exception {
+		File jar = this.temporaryFolder.newFile("root.jar");
+		JarOutputStream out = new JarOutputStream(new FileOutputStream(jar));
+		out.putNextEntry(new ZipEntry("small.txt"));
+		out.write("small".getBytes());
+		out.putNextEntry(new ZipEntry("large.txt"));
+		out.write(new byte[64 * 1024]);
+		out.close();
+		AbstractEmbeddedServletContainerFactory factory = getFactory();
+		factory.setDocumentRoot(jar);
+		this.container = factory.getEmbeddedServletContainer();
+		this.container.start();
+		assertThat(getResponse(getLocalUrl("/small.txt"))).isEqualTo("small");
+		assertThat(getResponse(getLocalUrl("/small.txt"))).isEqualTo("small");
+		assertThat(getResponse(getLocalUrl("/small.txt"), "Range:bytes=1-3"))
+				.isEqualTo("mal");
+		assertThat(getResponse(getLocalUrl("/large.txt"))).hasSize(64 * 1024);
+		ClientHttpResponse response = getClientResponse(getLocalUrl("/small.txt"));
+		assertThat(response.getHeaders().getETag()).isNotNull();
+		response.close();
+	}
+
 	@Override
 	protected JspServlet getJspServlet() {
 		return null; // Undertow does not support JSPs
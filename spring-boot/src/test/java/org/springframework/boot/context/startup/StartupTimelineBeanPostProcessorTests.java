@@ -0,0 +1,92 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.context.startup;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.context.startup.StartupTimeline.RecordedStep;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link StartupTimelineBeanPostProcessor}.
+ *
+ * @author Jerry Lei
+ */
+public class StartupTimelineBeanPostProcessorTests {
+
+	@Test
+	public void recordsBeanCreation() throws Exception {
+		StartupTimeline timeline = new StartupTimeline();
+		DefaultListableBeanFactory beanFactory = createBeanFactory(timeline);
+		beanFactory.registerBeanDefinition("example",
+				new RootBeanDefinition(ExampleBean.class));
+		beanFactory.getBean("example");
+		List<RecordedStep> steps = timeline.getSteps();
+		assertThat(steps).extracting("name").containsExactly("bean.example");
+		assertThat(steps.get(0).getDuration()).isNotNull();
+	}
+
+	@Test
+	public void stepOfFailedBeanIsEnded() throws Exception {
+		StartupTimeline timeline = new StartupTimeline();
+		DefaultListableBeanFactory beanFactory = createBeanFactory(timeline);
+		beanFactory.registerBeanDefinition("failing",
+				new RootBeanDefinition(FailingBean.class));
+		beanFactory.registerBeanDefinition("example",
+				new RootBeanDefinition(ExampleBean.class));
+		try {
+			beanFactory.getBean("failing");
+			fail("Did not throw");
+		}
+		catch (BeanCreationException ex) {
+			// Expected
+		}
+		beanFactory.getBean("example");
+		List<RecordedStep> steps = timeline.getSteps();
+		assertThat(steps).extracting("name").containsExactly("bean.failing",
+				"bean.example");
+		assertThat(steps.get(0).getDuration()).isNotNull();
+		assertThat(steps.get(1).getParentId()).isNull();
+	}
+
+	private DefaultListableBeanFactory createBeanFactory(StartupTimeline timeline) {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.addBeanPostProcessor(
+				new StartupTimelineBeanPostProcessor(timeline, beanFactory));
+		return beanFactory;
+	}
+
+	public static class ExampleBean {
+
+	}
+
+	public static class FailingBean {
+
+		public FailingBean() {
+			throw new IllegalStateException("Failed");
+		}
+
+	}
+
+}
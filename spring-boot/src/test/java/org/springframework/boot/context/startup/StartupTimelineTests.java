@@ -0,0 +1,127 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.context.startup;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.context.startup.StartupTimeline.RecordedStep;
+import org.springframework.boot.context.startup.StartupTimeline.Step;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link StartupTimeline}.
+ *
+ * @author Jerry Lei
+ */
+public class StartupTimelineTests {
+
+	@Test
+	public void recordsNestedSteps() throws Exception {
+		StartupTimeline timeline = new StartupTimeline();
+		Step outer = timeline.start("outer");
+		Step inner = timeline.start("inner");
+		inner.end();
+		Step sibling = timeline.start("sibling");
+		sibling.end();
+		outer.end();
+		timeline.start("next").end();
+		List<RecordedStep> steps = timeline.getSteps();
+		assertThat(steps).extracting("name").containsExactly("outer", "inner",
+				"sibling", "next");
+		assertThat(steps).extracting("parentId").containsExactly(null, 0, 0, null);
+		for (RecordedStep step : steps) {
+			assertThat(step.getDuration()).isNotNull();
+		}
+		assertThat(steps.get(0).getDuration())
+				.isGreaterThanOrEqualTo(steps.get(1).getDuration());
+	}
+
+	@Test
+	public void stepsEndedOutOfOrder() throws Exception {
+		StartupTimeline timeline = new StartupTimeline();
+		Step outer = timeline.start("outer");
+		Step inner = timeline.start("inner");
+		outer.end();
+		inner.end();
+		timeline.start("next").end();
+		assertThat(timeline.getSteps()).extracting("parentId").containsExactly(null,
+				0, null);
+	}
+
+	@Test
+	public void stepsAreNestedPerThread() throws Exception {
+		final StartupTimeline timeline = new StartupTimeline();
+		Step outer = timeline.start("outer");
+		Thread thread = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				timeline.start("other").end();
+			}
+
+		});
+		thread.start();
+		thread.join();
+		timeline.start("inner").end();
+		outer.end();
+		assertThat(timeline.getSteps()).extracting("parentId").containsExactly(null,
+				null, 0);
+	}
+
+	@Test
+	public void openStepHasNoDuration() throws Exception {
+		StartupTimeline timeline = new StartupTimeline();
+		timeline.start("open");
+		assertThat(timeline.getSteps().get(0).getDuration()).isNull();
+	}
+
+	@Test
+	public void stepsBeyondCapacityAreDropped() throws Exception {
+		StartupTimeline timeline = new StartupTimeline(2);
+		timeline.start("one").end();
+		timeline.start("two").end();
+		timeline.start("three").end();
+		timeline.start("four").end();
+		assertThat(timeline.getSteps()).extracting("name").containsExactly("one",
+				"two");
+		assertThat(timeline.getDroppedSteps()).isEqualTo(2);
+	}
+
+	@Test
+	public void disabledTimelineRecordsNothing() throws Exception {
+		StartupTimeline timeline = StartupTimeline.disabled();
+		assertThat(timeline.isEnabled()).isFalse();
+		timeline.start("ignored").end();
+		assertThat(timeline.getSteps()).isEmpty();
+		assertThat(timeline.getDroppedSteps()).isEqualTo(0);
+	}
+
+	@Test
+	public void getFromBeanFactory() throws Exception {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		assertThat(StartupTimeline.get(beanFactory).isEnabled()).isFalse();
+		assertThat(StartupTimeline.get(null).isEnabled()).isFalse();
+		StartupTimeline timeline = new StartupTimeline();
+		beanFactory.registerSingleton(StartupTimeline.BEAN_NAME, timeline);
+		assertThat(StartupTimeline.get(beanFactory)).isSameAs(timeline);
+	}
+
+}
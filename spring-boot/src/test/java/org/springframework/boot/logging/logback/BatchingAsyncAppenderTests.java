@@ -0,0 +1,198 @@
+/*
+ * Copyright 2012-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.logging.logback;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link BatchingAsyncAppender}.
+ *
+ * @author Jerry Lei
+ */
+public class BatchingAsyncAppenderTests {
+
+	private final LoggerContext context = new LoggerContext();
+
+	private final Logger logger = this.context.getLogger(getClass());
+
+	private final BatchingAsyncAppender appender = new BatchingAsyncAppender();
+
+	@Before
+	public void setup() {
+		this.appender.setContext(this.context);
+		this.appender.setName("ASYNC");
+	}
+
+	@After
+	public void cleanup() {
+		this.appender.stop();
+	}
+
+	@Test
+	public void eventsAreWrittenToAttachedAppenders() throws Exception {
+		ListAppender<ILoggingEvent> delegate = startListAppender();
+		this.appender.addAppender(delegate);
+		this.appender.setBatchSize(3);
+		this.appender.start();
+		for (int i = 0; i < 10; i++) {
+			this.appender.doAppend(createEvent(Level.INFO, "message " + i));
+		}
+		this.appender.stop();
+		List<ILoggingEvent> events = delegate.list;
+		assertThat(events).hasSize(10);
+		assertThat(events.get(0).getFormattedMessage()).isEqualTo("message 0");
+		assertThat(events.get(9).getFormattedMessage()).isEqualTo("message 9");
+		assertThat(this.appender.getQueuedCount()).isEqualTo(0);
+		assertThat(this.appender.getDiscardedCount()).isEqualTo(0);
+		assertThat(delegate.isStarted()).isFalse();
+	}
+
+	@Test
+	public void debugEventsAreDiscardedWhenFull() throws Exception {
+		BlockingAppender delegate = new BlockingAppender();
+		this.appender.addAppender(delegate);
+		this.appender.setQueueSize(2);
+		this.appender.start();
+		this.appender.doAppend(createEvent(Level.INFO, "blocking"));
+		delegate.awaitBlocked();
+		this.appender.doAppend(createEvent(Level.INFO, "one"));
+		this.appender.doAppend(createEvent(Level.INFO, "two"));
+		this.appender.doAppend(createEvent(Level.DEBUG, "discarded"));
+		this.appender.doAppend(createEvent(Level.TRACE, "discarded"));
+		assertThat(this.appender.getQueuedCount()).isEqualTo(2);
+		assertThat(this.appender.getDiscardedCount()).isEqualTo(2);
+		delegate.release();
+		this.appender.stop();
+		assertThat(delegate.messages).containsExactly("blocking", "one", "two");
+	}
+
+	@Test
+	public void infoEventsWaitWhenFull() throws Exception {
+		final BlockingAppender delegate = new BlockingAppender();
+		this.appender.addAppender(delegate);
+		this.appender.setQueueSize(1);
+		this.appender.start();
+		this.appender.doAppend(createEvent(Level.INFO, "blocking"));
+		delegate.awaitBlocked();
+		this.appender.doAppend(createEvent(Level.INFO, "one"));
+		Thread thread = new Thread() {
+
+			@Override
+			public void run() {
+				BatchingAsyncAppenderTests.this.appender
+						.doAppend(createEvent(Level.INFO, "two"));
+			}
+
+		};
+		thread.start();
+		thread.join(100);
+		assertThat(thread.isAlive()).isTrue();
+		delegate.release();
+		thread.join(5000);
+		assertThat(thread.isAlive()).isFalse();
+		this.appender.stop();
+		assertThat(delegate.messages).containsExactly("blocking", "one", "two");
+		assertThat(this.appender.getDiscardedCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void debugEventsWaitWhenFullIfDiscardIsDisabled() throws Exception {
+		BlockingAppender delegate = new BlockingAppender();
+		this.appender.addAppender(delegate);
+		this.appender.setQueueSize(1);
+		this.appender.setDiscardWhenFull(false);
+		this.appender.start();
+		this.appender.doAppend(createEvent(Level.INFO, "blocking"));
+		delegate.awaitBlocked();
+		this.appender.doAppend(createEvent(Level.DEBUG, "one"));
+		delegate.release();
+		this.appender.doAppend(createEvent(Level.DEBUG, "two"));
+		this.appender.stop();
+		assertThat(delegate.messages).containsExactly("blocking", "one", "two");
+		assertThat(this.appender.getDiscardedCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void invalidQueueSizeDoesNotStart() throws Exception {
+		this.appender.setQueueSize(0);
+		this.appender.start();
+		assertThat(this.appender.isStarted()).isFalse();
+	}
+
+	private ListAppender<ILoggingEvent> startListAppender() {
+		ListAppender<ILoggingEvent> appender = new ListAppender<ILoggingEvent>();
+		appender.setContext(this.context);
+		appender.start();
+		return appender;
+	}
+
+	private ILoggingEvent createEvent(Level level, String message) {
+		return new LoggingEvent(getClass().getName(), this.logger, level, message, null,
+				null);
+	}
+
+	private static class BlockingAppender extends AppenderBase<ILoggingEvent> {
+
+		private final CountDownLatch blocked = new CountDownLatch(1);
+
+		private final CountDownLatch released = new CountDownLatch(1);
+
+		private final List<String> messages = new ArrayList<String>();
+
+		BlockingAppender() {
+			start();
+		}
+
+		@Override
+		protected void append(ILoggingEvent event) {
+			this.blocked.countDown();
+			try {
+				this.released.await(10, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			this.messages.add(event.getFormattedMessage());
+		}
+
+		void awaitBlocked() throws InterruptedException {
+			assertThat(this.blocked.await(10, TimeUnit.SECONDS)).isTrue();
+		}
+
+		void release() {
+			this.released.countDown();
+		}
+
+	}
+
+}
@@ -19,12 +19,16 @@ package org.springframework.boot.logging.logback;
 import java.util.Collections;
 
 import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.pattern.Converter;
+import ch.qos.logback.core.pattern.LiteralConverter;
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import org.springframework.boot.ansi.AnsiElement;
 import org.springframework.boot.ansi.AnsiOutput;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -135,4 +139,79 @@ public class ColorConverterTests {
 		assertThat(out).isEqualTo("\033[32min\033[0;39m");
 	}
 
+	@Test
+	public void convertWritesChildConverters() throws Exception {
+		this.converter.setOptionList(Collections.singletonList("red"));
+		this.converter.setChildConverter(literals("i", "n"));
+		String out = this.converter.convert(this.event);
+		assertThat(out).isEqualTo("\033[31min\033[0;39m");
+	}
+
+	@Test
+	public void convertHighlightsLevel() throws Exception {
+		this.event.setLevel(Level.WARN);
+		this.converter.setChildConverter(literals(this.in));
+		String out = this.converter.convert(this.event);
+		assertThat(out).isEqualTo("\033[33min\033[0;39m");
+	}
+
+	@Test
+	public void convertNested() throws Exception {
+		this.event.setLevel(Level.INFO);
+		ColorConverter nested = new ColorConverter();
+		nested.setOptionList(Collections.singletonList("red"));
+		nested.setChildConverter(literals(this.in));
+		Converter<ILoggingEvent> children = literals("X");
+		children.setNext(nested);
+		nested.setNext(literals("Y"));
+		this.converter.setChildConverter(children);
+		String out = this.converter.convert(this.event);
+		assertThat(out).isEqualTo("\033[32mX\033[31min\033[0;39mY\033[0;39m");
+	}
+
+	@Test
+	public void convertWhenAnsiIsDisabled() throws Exception {
+		AnsiOutput.setEnabled(AnsiOutput.Enabled.NEVER);
+		try {
+			this.converter.setOptionList(Collections.singletonList("red"));
+			this.converter.setChildConverter(literals(this.in));
+			assertThat(this.converter.convert(this.event)).isEqualTo(this.in);
+		}
+		finally {
+			AnsiOutput.setEnabled(AnsiOutput.Enabled.ALWAYS);
+		}
+	}
+
+	@Test
+	public void convertUsesToAnsiStringFromSubclass() throws Exception {
+		ColorConverter converter = new ColorConverter() {
+
+			@Override
+			protected String toAnsiString(String in, AnsiElement element) {
+				return "[" + in + "]";
+			}
+
+		};
+		converter.setOptionList(Collections.singletonList("red"));
+		converter.setChildConverter(literals(this.in));
+		assertThat(converter.convert(this.event)).isEqualTo("[in]");
+	}
+
+	private Converter<ILoggingEvent> literals(String... literals) {
+		Converter<ILoggingEvent> first = null;
+		Converter<ILoggingEvent> last = null;
+		for (String literal : literals) {
+			Converter<ILoggingEvent> converter = new LiteralConverter<ILoggingEvent>(
+					literal);
+			if (first == null) {
+				first = converter;
+			}
+			else {
+				last.setNext(converter);
+			}
+			last = converter;
+		}
+		return first;
+	}
+
 }
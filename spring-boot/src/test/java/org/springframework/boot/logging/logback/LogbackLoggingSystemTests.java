@@ -25,7 +25,12 @@ import java.util.logging.LogManager;
 
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.classic.spi.LoggerContextListener;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import ch.qos.logback.core.encoder.LayoutWrappingEncoder;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.impl.SLF4JLogFactory;
 import org.hamcrest.Matcher;
@@ -120,6 +125,31 @@ public class LogbackLoggingSystemTests extends AbstractLoggingSystemTests {
 		assertThat(getLineWithText(file, "Hello world")).contains("INFO");
 	}
 
+	@Test
+	public void withAsyncOutput() throws Exception {
+		this.environment.setProperty("logging.async.enabled", "true");
+		this.environment.setProperty("logging.async.queue-size", "16");
+		this.loggingSystem.beforeInitialize();
+		this.loggingSystem.initialize(this.initializationContext, null,
+				getLogFile(null, tmpDir()));
+		LoggerContext context = (LoggerContext) StaticLoggerBinder.getSingleton()
+				.getLoggerFactory();
+		Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+		assertThat(root.getAppender("CONSOLE")).isNull();
+		assertThat(root.getAppender("FILE")).isNull();
+		BatchingAsyncAppender appender = (BatchingAsyncAppender) root
+				.getAppender("ASYNC");
+		assertThat(appender.getQueueSize()).isEqualTo(16);
+		assertThat(appender.getAppender("CONSOLE")).isNotNull();
+		assertThat(appender.getAppender("FILE")).isNotNull();
+		assertThat(isImmediateFlush(appender.getAppender("CONSOLE"))).isFalse();
+		assertThat(isImmediateFlush(appender.getAppender("FILE"))).isFalse();
+		this.logger.info("Hello world");
+		appender.stop();
+		File file = new File(tmpDir() + "/spring.log");
+		assertThat(getLineWithText(file, "Hello world")).contains("INFO");
+	}
+
 	@Test
 	public void testBasicConfigLocation() throws Exception {
 		this.loggingSystem.beforeInitialize();
@@ -372,6 +402,12 @@ public class LogbackLoggingSystemTests extends AbstractLoggingSystemTests {
 		verify(listener, times(2)).onReset(loggerContext);
 	}
 
+	private boolean isImmediateFlush(Appender<ILoggingEvent> appender) {
+		Encoder<ILoggingEvent> encoder = ((OutputStreamAppender<ILoggingEvent>) appender)
+				.getEncoder();
+		return ((LayoutWrappingEncoder<ILoggingEvent>) encoder).isImmediateFlush();
+	}
+
 	private String getLineWithText(File file, String outputSearch) throws Exception {
 		return getLineWithText(FileCopyUtils.copyToString(new FileReader(file)),
 				outputSearch);